@@ -0,0 +1,46 @@
+package org.octri.messaging.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.octri.messaging.email.EmailUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks adding the configured prefix to email subjects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailUtilsBenchmark {
+
+	/**
+	 * Subject prefix. Empty when no prefix is configured.
+	 */
+	@Param({ "", "[TEST]" })
+	public String prefix;
+
+	private final String subject = "Your appointment reminder";
+
+	/**
+	 * Adds the prefix to a subject.
+	 *
+	 * @return the prefixed subject
+	 */
+	@Benchmark
+	public String addPrefixToSubject() {
+		return EmailUtils.addPrefixToSubject(subject, prefix);
+	}
+
+}
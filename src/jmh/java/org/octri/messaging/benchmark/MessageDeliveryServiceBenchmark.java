@@ -0,0 +1,101 @@
+package org.octri.messaging.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.octri.messaging.email.NoopEmailDeliveryStrategy;
+import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.messaging.sms.NoopSmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsDeliveryResult;
+import org.octri.messaging.sms.SmsMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks sends through {@link MessageDeliveryService} with do-nothing delivery strategies, measuring the service's
+ * own overhead without a network call. Asynchronous sends run on the calling thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageDeliveryServiceBenchmark {
+
+	private static final String FROM_NUMBER = "+15035551234";
+	private static final String TO_NUMBER = "(503) 555-6789";
+	private static final String MESSAGE_TEXT = "Reminder: your appointment is tomorrow at 10:30 AM.";
+
+	private MessageDeliveryService service;
+	private List<SmsMessage> batch;
+
+	/**
+	 * Creates the service and a batch of 100 messages.
+	 */
+	@Setup
+	public void setup() {
+		Executor callerRuns = Runnable::run;
+		service = new MessageDeliveryService(new NoopEmailDeliveryStrategy(), new NoopSmsDeliveryStrategy(),
+				callerRuns);
+		batch = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			batch.add(new SmsMessage(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT));
+		}
+	}
+
+	/**
+	 * Sends an SMS message.
+	 *
+	 * @return the delivery details
+	 */
+	@Benchmark
+	public Optional<String> sendSms() {
+		return service.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+	}
+
+	/**
+	 * Sends an SMS message asynchronously.
+	 *
+	 * @return the delivery details
+	 */
+	@Benchmark
+	public Optional<String> sendSmsAsync() {
+		CompletableFuture<Optional<String>> result = service.sendSmsAsync(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+		return result.join();
+	}
+
+	/**
+	 * Sends a batch of 100 SMS messages.
+	 *
+	 * @return the delivery results
+	 */
+	@Benchmark
+	public List<SmsDeliveryResult> sendSmsBatch() {
+		return service.sendSms(batch);
+	}
+
+	/**
+	 * Sends an email message.
+	 *
+	 * @return the delivery details
+	 */
+	@Benchmark
+	public Optional<String> sendEmail() {
+		return service.sendEmail("sender@example.com", "recipient@example.com", "Appointment reminder",
+				MESSAGE_TEXT);
+	}
+
+}
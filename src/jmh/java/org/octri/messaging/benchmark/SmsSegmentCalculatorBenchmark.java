@@ -0,0 +1,62 @@
+package org.octri.messaging.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.octri.messaging.sms.SmsSegmentCalculator;
+import org.octri.messaging.sms.SmsSegments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks segment calculation and GSM-7 transliteration of typical reminder messages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmsSegmentCalculatorBenchmark {
+
+	private final String gsm7Message = "Reminder: your appointment is tomorrow at 10:30 AM. Reply STOP to opt out.";
+	private final String ucs2Message = "Reminder: your appointment is tomorrow at 10:30 AM 📅 Reply STOP to opt out.";
+	private final String typographicMessage = "Reminder: don’t forget your appointment tomorrow — reply STOP to opt out.";
+
+	/**
+	 * Calculates the segments of a GSM-7 message.
+	 *
+	 * @return the segments
+	 */
+	@Benchmark
+	public SmsSegments calculateGsm7Segments() {
+		return SmsSegmentCalculator.calculate(gsm7Message);
+	}
+
+	/**
+	 * Calculates the segments of a UCS-2 message.
+	 *
+	 * @return the segments
+	 */
+	@Benchmark
+	public SmsSegments calculateUcs2Segments() {
+		return SmsSegmentCalculator.calculate(ucs2Message);
+	}
+
+	/**
+	 * Transliterates a message that only needs UCS-2 because of typographic characters.
+	 *
+	 * @return the transliterated message
+	 */
+	@Benchmark
+	public String transliterate() {
+		return SmsSegmentCalculator.transliterate(typographicMessage);
+	}
+
+}
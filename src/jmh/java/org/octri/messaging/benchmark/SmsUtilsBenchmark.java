@@ -0,0 +1,45 @@
+package org.octri.messaging.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.octri.messaging.sms.SmsUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks phone number conversion to E.164 format, which runs for the sender and recipient of every SMS message
+ * sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SmsUtilsBenchmark {
+
+	/**
+	 * Phone numbers in the formats callers commonly pass.
+	 */
+	@Param({ "+15035551234", "5035551234", "(503) 555-1234", "503.555.1234" })
+	public String phoneNumber;
+
+	/**
+	 * Converts a phone number to E.164 format.
+	 *
+	 * @return the E.164 phone number
+	 */
+	@Benchmark
+	public String toE164PhoneNumber() {
+		return SmsUtils.toE164PhoneNumber(phoneNumber);
+	}
+
+}
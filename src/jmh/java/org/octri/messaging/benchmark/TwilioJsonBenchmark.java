@@ -0,0 +1,109 @@
+package org.octri.messaging.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.octri.messaging.sms.TwilioHelper;
+import org.octri.messaging.sms.TwilioPhoneNumberDeserializer;
+import org.octri.test.messaging.TwilioTestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+
+/**
+ * Benchmarks converting Twilio message API responses to and from JSON, using the example responses from the test
+ * resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TwilioJsonBenchmark {
+
+	private TwilioHelper twilioHelper;
+	private String messageJson;
+	private String serializedMessageJson;
+	private Message message;
+	private ObjectReader phoneNumberReader;
+	private String endpointJson;
+
+	/**
+	 * Loads the example response and serializes it once, so that deserialization reads the JSON that
+	 * {@link TwilioHelper#serializeMessageToJson(Message)} produces.
+	 *
+	 * @throws IOException
+	 *             if the example response cannot be read
+	 */
+	@Setup
+	public void setup() throws IOException {
+		twilioHelper = new TwilioHelper("ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX", "token", null);
+		messageJson = TwilioTestUtils.getJsonText("delivered.json");
+		message = twilioHelper.loadMessageFromString(messageJson);
+		serializedMessageJson = twilioHelper.serializeMessageToJson(message);
+		var module = new SimpleModule();
+		module.addDeserializer(PhoneNumber.class, new TwilioPhoneNumberDeserializer());
+		phoneNumberReader = new ObjectMapper().registerModule(module).readerFor(PhoneNumber.class);
+		endpointJson = "{\"endpoint\":\"+15035551234\"}";
+	}
+
+	/**
+	 * Parses a Twilio API response.
+	 *
+	 * @return the message
+	 */
+	@Benchmark
+	public Message loadMessageFromApiResponse() {
+		return twilioHelper.loadMessageFromString(messageJson);
+	}
+
+	/**
+	 * Parses a message serialized by the helper, which has phone numbers as endpoint objects.
+	 *
+	 * @return the message
+	 */
+	@Benchmark
+	public Message loadSerializedMessage() {
+		return twilioHelper.loadMessageFromString(serializedMessageJson);
+	}
+
+	/**
+	 * Serializes a message to JSON.
+	 *
+	 * @return JSON text
+	 * @throws JsonProcessingException
+	 *             if the message cannot be serialized
+	 */
+	@Benchmark
+	public String serializeMessageToJson() throws JsonProcessingException {
+		return twilioHelper.serializeMessageToJson(message);
+	}
+
+	/**
+	 * Deserializes a single phone number endpoint object.
+	 *
+	 * @return the phone number
+	 * @throws IOException
+	 *             if the JSON cannot be read
+	 */
+	@Benchmark
+	public PhoneNumber deserializePhoneNumber() throws IOException {
+		return phoneNumberReader.readValue(endpointJson);
+	}
+
+}
@@ -0,0 +1,129 @@
+package org.octri.messaging.autoconfig;
+
+/**
+ * Properties used to configure the executor that runs asynchronous message deliveries.
+ */
+public class AsyncProperties {
+
+	/**
+	 * Number of threads used to deliver messages asynchronously.
+	 */
+	private int poolSize = 8;
+
+	/**
+	 * Maximum number of deliveries that may wait for a free thread. Deliveries submitted while the queue is full fail
+	 * immediately.
+	 */
+	private int queueCapacity = 10000;
+
+	/**
+	 * Prefix for the names of delivery threads.
+	 */
+	private String threadNamePrefix = "messaging-";
+
+	/**
+	 * Maximum number of deliveries in flight at once when using virtual threads.
+	 */
+	private int maxConcurrency = 1000;
+
+	/**
+	 * Maximum number of messages from one batch that are delivered at once.
+	 */
+	private int batchParallelism = 16;
+
+	/**
+	 * Gets the number of threads used to deliver messages asynchronously.
+	 *
+	 * @return the thread pool size
+	 */
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	/**
+	 * Sets the number of threads used to deliver messages asynchronously.
+	 *
+	 * @param poolSize
+	 *            the thread pool size
+	 */
+	public void setPoolSize(int poolSize) {
+		this.poolSize = poolSize;
+	}
+
+	/**
+	 * Gets the maximum number of deliveries that may wait for a free thread.
+	 *
+	 * @return the queue capacity
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Sets the maximum number of deliveries that may wait for a free thread.
+	 *
+	 * @param queueCapacity
+	 *            the queue capacity
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Gets the prefix for the names of delivery threads.
+	 *
+	 * @return the thread name prefix
+	 */
+	public String getThreadNamePrefix() {
+		return threadNamePrefix;
+	}
+
+	/**
+	 * Sets the prefix for the names of delivery threads.
+	 *
+	 * @param threadNamePrefix
+	 *            the thread name prefix
+	 */
+	public void setThreadNamePrefix(String threadNamePrefix) {
+		this.threadNamePrefix = threadNamePrefix;
+	}
+
+	/**
+	 * Gets the maximum number of deliveries in flight at once when using virtual threads.
+	 *
+	 * @return the concurrency limit
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Sets the maximum number of deliveries in flight at once when using virtual threads.
+	 *
+	 * @param maxConcurrency
+	 *            the concurrency limit
+	 */
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	/**
+	 * Gets the maximum number of messages from one batch that are delivered at once.
+	 *
+	 * @return the batch parallelism
+	 */
+	public int getBatchParallelism() {
+		return batchParallelism;
+	}
+
+	/**
+	 * Sets the maximum number of messages from one batch that are delivered at once.
+	 *
+	 * @param batchParallelism
+	 *            the batch parallelism
+	 */
+	public void setBatchParallelism(int batchParallelism) {
+		this.batchParallelism = batchParallelism;
+	}
+
+}
@@ -0,0 +1,202 @@
+package org.octri.messaging.autoconfig;
+
+import java.time.Duration;
+
+/**
+ * Properties used to configure the circuit breakers around the Twilio and SMTP delivery strategies.
+ */
+public class CircuitBreakerProperties {
+
+	/**
+	 * Whether to stop calling a provider that is failing or slow.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Number of recent calls whose outcomes are recorded.
+	 */
+	private int windowSize = 20;
+
+	/**
+	 * Number of recorded calls needed before the circuit can open.
+	 */
+	private int minimumCalls = 10;
+
+	/**
+	 * Percentage of failed calls at which the circuit opens.
+	 */
+	private double failureRateThreshold = 50;
+
+	/**
+	 * Duration at or above which a call is slow.
+	 */
+	private Duration slowCallDuration = Duration.ofSeconds(10);
+
+	/**
+	 * Percentage of slow calls at which the circuit opens.
+	 */
+	private double slowCallRateThreshold = 80;
+
+	/**
+	 * How long the circuit stays open before allowing probe calls.
+	 */
+	private Duration openDuration = Duration.ofSeconds(30);
+
+	/**
+	 * Number of successful probe calls needed to close the circuit.
+	 */
+	private int halfOpenCalls = 3;
+
+	/**
+	 * Gets whether circuit breakers are enabled.
+	 *
+	 * @return true if circuit breakers are enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether circuit breakers are enabled.
+	 *
+	 * @param enabled
+	 *            true to enable circuit breakers
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the number of recent calls whose outcomes are recorded.
+	 *
+	 * @return the window size
+	 */
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	/**
+	 * Sets the number of recent calls whose outcomes are recorded.
+	 *
+	 * @param windowSize
+	 *            the window size
+	 */
+	public void setWindowSize(int windowSize) {
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Gets the number of recorded calls needed before the circuit can open.
+	 *
+	 * @return the minimum number of calls
+	 */
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	/**
+	 * Sets the number of recorded calls needed before the circuit can open.
+	 *
+	 * @param minimumCalls
+	 *            the minimum number of calls
+	 */
+	public void setMinimumCalls(int minimumCalls) {
+		this.minimumCalls = minimumCalls;
+	}
+
+	/**
+	 * Gets the percentage of failed calls at which the circuit opens.
+	 *
+	 * @return the failure rate threshold
+	 */
+	public double getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	/**
+	 * Sets the percentage of failed calls at which the circuit opens.
+	 *
+	 * @param failureRateThreshold
+	 *            the failure rate threshold
+	 */
+	public void setFailureRateThreshold(double failureRateThreshold) {
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	/**
+	 * Gets the duration at or above which a call is slow.
+	 *
+	 * @return the slow call duration
+	 */
+	public Duration getSlowCallDuration() {
+		return slowCallDuration;
+	}
+
+	/**
+	 * Sets the duration at or above which a call is slow.
+	 *
+	 * @param slowCallDuration
+	 *            the slow call duration
+	 */
+	public void setSlowCallDuration(Duration slowCallDuration) {
+		this.slowCallDuration = slowCallDuration;
+	}
+
+	/**
+	 * Gets the percentage of slow calls at which the circuit opens.
+	 *
+	 * @return the slow call rate threshold
+	 */
+	public double getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	/**
+	 * Sets the percentage of slow calls at which the circuit opens.
+	 *
+	 * @param slowCallRateThreshold
+	 *            the slow call rate threshold
+	 */
+	public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+		this.slowCallRateThreshold = slowCallRateThreshold;
+	}
+
+	/**
+	 * Gets how long the circuit stays open before allowing probe calls.
+	 *
+	 * @return the open duration
+	 */
+	public Duration getOpenDuration() {
+		return openDuration;
+	}
+
+	/**
+	 * Sets how long the circuit stays open before allowing probe calls.
+	 *
+	 * @param openDuration
+	 *            the open duration
+	 */
+	public void setOpenDuration(Duration openDuration) {
+		this.openDuration = openDuration;
+	}
+
+	/**
+	 * Gets the number of successful probe calls needed to close the circuit.
+	 *
+	 * @return the number of half-open calls
+	 */
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	/**
+	 * Sets the number of successful probe calls needed to close the circuit.
+	 *
+	 * @param halfOpenCalls
+	 *            the number of half-open calls
+	 */
+	public void setHalfOpenCalls(int halfOpenCalls) {
+		this.halfOpenCalls = halfOpenCalls;
+	}
+
+}
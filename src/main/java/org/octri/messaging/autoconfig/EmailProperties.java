@@ -15,6 +15,16 @@ public class EmailProperties {
 	 */
 	private String subjectPrefix;
 
+	/**
+	 * Maximum number of messages sent over one SMTP connection when delivering a batch.
+	 */
+	private int batchSize = 50;
+
+	/**
+	 * Properties to configure pooled SMTP connections.
+	 */
+	private SmtpPoolProperties pool = new SmtpPoolProperties();
+
 	/**
 	 * Gets the email address used if a sender address is not provided.
 	 *
@@ -53,4 +63,42 @@ public class EmailProperties {
 		this.subjectPrefix = subjectPrefix;
 	}
 
+	/**
+	 * Gets the maximum number of messages sent over one SMTP connection when delivering a batch.
+	 *
+	 * @return the batch size
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of messages sent over one SMTP connection when delivering a batch.
+	 *
+	 * @param batchSize
+	 *            the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Gets the SMTP connection pool configuration.
+	 *
+	 * @return the pool configuration
+	 */
+	public SmtpPoolProperties getPool() {
+		return pool;
+	}
+
+	/**
+	 * Sets the SMTP connection pool configuration.
+	 *
+	 * @param pool
+	 *            the pool configuration
+	 */
+	public void setPool(SmtpPoolProperties pool) {
+		this.pool = pool;
+	}
+
 }
@@ -1,36 +1,114 @@
 package org.octri.messaging.autoconfig;
 
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
 
 import org.apache.commons.lang3.StringUtils;
+import org.octri.messaging.autoconfig.MessagingProperties.SmsDeliveryMethod;
+import org.octri.messaging.email.CircuitBreakerEmailDeliveryStrategy;
 import org.octri.messaging.email.EmailDeliveryStrategy;
 import org.octri.messaging.email.LoggingEmailDeliveryStrategy;
 import org.octri.messaging.email.NoopEmailDeliveryStrategy;
+import org.octri.messaging.email.PooledJavaMailSender;
 import org.octri.messaging.email.SmtpEmailDeliveryStrategy;
+import org.octri.messaging.metrics.MessagingMetrics;
+import org.octri.messaging.outbox.FileOutboxStore;
+import org.octri.messaging.outbox.JdbcOutboxStore;
+import org.octri.messaging.outbox.OutboxDispatcher;
+import org.octri.messaging.outbox.OutboxMessageDeliveryService;
+import org.octri.messaging.outbox.OutboxStore;
+import org.octri.messaging.resilience.CircuitBreaker;
+import org.octri.messaging.resilience.CircuitBreakerHealthIndicator;
+import org.octri.messaging.resilience.RetryExecutor;
+import org.octri.messaging.resilience.RetryPolicy;
+import org.octri.messaging.resilience.TransientFailureClassifier;
+import org.octri.messaging.service.ConcurrencyLimitedExecutor;
 import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.messaging.sms.CircuitBreakerSmsDeliveryStrategy;
 import org.octri.messaging.sms.LoggingSmsDeliveryStrategy;
 import org.octri.messaging.sms.NoopSmsDeliveryStrategy;
+import org.octri.messaging.sms.PhoneNumberCache;
+import org.octri.messaging.sms.BaseUrlTwilioHttpClient;
+import org.octri.messaging.sms.PooledTwilioHttpClients;
+import org.octri.messaging.sms.RateLimitedSmsDeliveryStrategy;
+import org.octri.messaging.sms.SenderPool;
 import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsUtils;
+import org.octri.messaging.sms.TransliteratingSmsDeliveryStrategy;
+import org.octri.messaging.sms.TwilioAccount;
 import org.octri.messaging.sms.TwilioHelper;
 import org.octri.messaging.sms.TwilioSmsDeliveryStrategy;
+import org.octri.messaging.webhook.TwilioStatusCallbackController;
+import org.octri.messaging.webhook.TwilioStatusListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.TwilioRestClient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
 
 /**
  * Configuration for the messaging library.
  */
-@AutoConfiguration
+@AutoConfiguration(after = { MailSenderAutoConfiguration.class, TaskExecutionAutoConfiguration.class }, afterName = {
+		"org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+		"org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration",
+		"org.springframework.boot.actuate.autoconfigure.observation.ObservationAutoConfiguration" })
 @EnableConfigurationProperties(MessagingProperties.class)
 @ConditionalOnProperty(value = "octri.messaging.enabled", havingValue = "true", matchIfMissing = true)
 public class MessagingConfig {
 
+	/**
+	 * Name of the executor bean used for asynchronous message delivery.
+	 */
+	public static final String MESSAGING_EXECUTOR_BEAN_NAME = "messagingTaskExecutor";
+
+	/**
+	 * Name of the pooled mail sender bean used when SMTP connection pooling is enabled.
+	 */
+	public static final String POOLED_MAIL_SENDER_BEAN_NAME = "messagingPooledMailSender";
+
+	/**
+	 * Name of the circuit breaker bean guarding SMS delivery through Twilio.
+	 */
+	public static final String SMS_CIRCUIT_BREAKER_BEAN_NAME = "messagingSmsCircuitBreaker";
+
+	/**
+	 * Name of the circuit breaker bean guarding email delivery through SMTP.
+	 */
+	public static final String EMAIL_CIRCUIT_BREAKER_BEAN_NAME = "messagingEmailCircuitBreaker";
+
 	private static final Logger log = LoggerFactory.getLogger(MessagingConfig.class);
 
 	private final MessagingProperties messagingProperties;
@@ -46,22 +124,86 @@ public class MessagingConfig {
 		this.validateProperties();
 	}
 
+	/**
+	 * Provides the HTTP clients used to call the Twilio API if Twilio account SID is configured, one per account,
+	 * each with the connection pool and timeouts set by <code>octri.messaging.twilio.http-client.*</code>. If the
+	 * application provides a custom Twilio {@link HttpClient} bean, that will be shared by all accounts instead.
+	 *
+	 * @return default Twilio HTTP clients bean
+	 */
+	@Bean
+	@ConditionalOnMissingBean(HttpClient.class)
+	@Conditional(TwilioConfiguredCondition.class)
+	public PooledTwilioHttpClients twilioHttpClients() {
+		log.debug("Creating Twilio HTTP clients");
+		return new PooledTwilioHttpClients(messagingProperties.getTwilio().getHttpClient());
+	}
+
 	/**
 	 * Provides the Twilio API helper if Twilio account SID is configured. If the application provides a custom
-	 * {@link TwilioHelper} bean, that will be used instead.
+	 * {@link TwilioHelper} bean, that will be used instead. Accounts listed under
+	 * <code>octri.messaging.twilio.accounts</code> each get their own REST client and HTTP connection pool, or share
+	 * the application's {@link HttpClient} bean if it has one. When <code>octri.messaging.twilio.api-base-url</code>
+	 * is set, requests are sent there instead of to Twilio.
 	 *
 	 * @param messagingProperties
 	 *            configuration properties
+	 * @param twilioHttpClient
+	 *            optional HTTP client provided by the application, shared by all accounts
+	 * @param twilioHttpClients
+	 *            optional pooled HTTP clients, one per account, used when the application does not provide a client
+	 * @param observationRegistry
+	 *            optional registry used to observe Twilio API requests
 	 * @return default Twilio helper bean
 	 */
 	@Bean
 	@ConditionalOnMissingBean
 	@Conditional(TwilioConfiguredCondition.class)
-	public TwilioHelper twilioHelper(MessagingProperties messagingProperties) {
+	public TwilioHelper twilioHelper(MessagingProperties messagingProperties,
+			ObjectProvider<HttpClient> twilioHttpClient, ObjectProvider<PooledTwilioHttpClients> twilioHttpClients,
+			ObjectProvider<ObservationRegistry> observationRegistry) {
 		log.debug("Creating Twilio helper");
 		var twilioProperties = messagingProperties.getTwilio();
-		return new TwilioHelper(twilioProperties.getAccountSid(), twilioProperties.getAuthToken(),
-				twilioProperties.getCallbackUrl());
+		var accounts = twilioProperties.getAccounts().entrySet().stream()
+				.map(entry -> new TwilioAccount(entry.getKey(), entry.getValue().getAccountSid(),
+						entry.getValue().getAuthToken(), entry.getValue().getNumbers()))
+				.toList();
+		var apiBaseUrl = twilioProperties.getApiBaseUrl();
+		var sharedClient = twilioHttpClient.getIfAvailable();
+		var pooledClients = twilioHttpClients.getIfAvailable();
+		Assert.state(sharedClient != null || pooledClients != null, "A Twilio HTTP client is required.");
+		var twilioHelper = sharedClient != null
+				? new TwilioHelper(twilioProperties.getAccountSid(), twilioProperties.getAuthToken(),
+						twilioProperties.getCallbackUrl(), accounts, sharedClient, apiBaseUrl)
+				: new TwilioHelper(twilioProperties.getAccountSid(), twilioProperties.getAuthToken(),
+						twilioProperties.getCallbackUrl(), accounts,
+						(sid, token) -> new TwilioRestClient.Builder(sid, token)
+								.httpClient(withBaseUrl(pooledClients.forAccount(sid), apiBaseUrl)).build());
+		twilioHelper.setMessagingServiceSid(twilioProperties.getMessagingServiceSid());
+		observationRegistry.ifAvailable(twilioHelper::setObservationRegistry);
+		return twilioHelper;
+	}
+
+	/**
+	 * Provides a mail sender that reuses pooled SMTP connections when <code>octri.messaging.email.pool.enabled</code>
+	 * is true. Connection settings are copied from the application's {@link JavaMailSenderImpl} bean.
+	 *
+	 * The pooled sender is not a default autowiring candidate, so it does not replace or conflict with the
+	 * application's own mail sender.
+	 *
+	 * @param javaMailSender
+	 *            mail sender bean to copy connection settings from
+	 * @return pooled mail sender
+	 */
+	@Bean(name = POOLED_MAIL_SENDER_BEAN_NAME, defaultCandidate = false)
+	@ConditionalOnProperty(value = "octri.messaging.email.pool.enabled", havingValue = "true")
+	public PooledJavaMailSender messagingPooledMailSender(JavaMailSender javaMailSender) {
+		if (!(javaMailSender instanceof JavaMailSenderImpl javaMailSenderImpl)) {
+			throw new IllegalStateException("SMTP connection pooling requires a JavaMailSenderImpl bean, but found "
+					+ javaMailSender.getClass().getName());
+		}
+		log.debug("Creating pooled mail sender for host " + javaMailSenderImpl.getHost());
+		return new PooledJavaMailSender(javaMailSenderImpl, messagingProperties.getEmail().getPool());
 	}
 
 	/**
@@ -70,11 +212,22 @@ public class MessagingConfig {
 	 *
 	 * @param javaMailSender
 	 *            optional mail sender bean
+	 * @param pooledMailSender
+	 *            optional pooled mail sender, used instead of the mail sender bean when present
+	 * @param circuitBreaker
+	 *            optional circuit breaker guarding SMTP delivery
+	 * @param metrics
+	 *            optional factory of metered strategies, present when delivery metrics are recorded
+	 * @param observationRegistry
+	 *            optional registry used to observe SMTP sends
 	 * @return default email delivery strategy
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public EmailDeliveryStrategy emailDeliveryStrategy(Optional<JavaMailSender> javaMailSender) {
+	public EmailDeliveryStrategy emailDeliveryStrategy(Optional<JavaMailSender> javaMailSender,
+			@Qualifier(POOLED_MAIL_SENDER_BEAN_NAME) Optional<PooledJavaMailSender> pooledMailSender,
+			@Qualifier(EMAIL_CIRCUIT_BREAKER_BEAN_NAME) Optional<CircuitBreaker> circuitBreaker,
+			Optional<MessagingMetrics> metrics, ObjectProvider<ObservationRegistry> observationRegistry) {
 		var emailDeliveryMethod = messagingProperties.getEmailDeliveryMethod();
 		var emailProperties = messagingProperties.getEmail();
 		log.debug("Creating email delivery strategy bean for delivery method " + emailDeliveryMethod);
@@ -82,9 +235,15 @@ public class MessagingConfig {
 		EmailDeliveryStrategy deliveryStrategy = switch (emailDeliveryMethod) {
 			case LOG -> new LoggingEmailDeliveryStrategy(emailProperties);
 			case NOOP -> new NoopEmailDeliveryStrategy();
-			case SMTP -> new SmtpEmailDeliveryStrategy(javaMailSender.get(), emailProperties);
+			case SMTP -> {
+				var smtpStrategy = new SmtpEmailDeliveryStrategy(
+						pooledMailSender.map(JavaMailSender.class::cast).orElseGet(javaMailSender::get), emailProperties);
+				observationRegistry.ifAvailable(smtpStrategy::setObservationRegistry);
+				yield withCircuitBreaker(smtpStrategy, circuitBreaker);
+			}
 			default -> throw new IllegalArgumentException("Invalid email delivery method " + emailDeliveryMethod);
 		};
+		deliveryStrategy = metered(deliveryStrategy, emailDeliveryMethod.name().toLowerCase(), metrics);
 
 		log.debug("Email delivery strategy: " + deliveryStrategy.getClass().getName());
 		return deliveryStrategy;
@@ -96,19 +255,31 @@ public class MessagingConfig {
 	 *
 	 * @param twilioHelper
 	 *            optional Twilio helper bean
+	 * @param circuitBreaker
+	 *            optional circuit breaker guarding Twilio delivery
+	 * @param phoneNumberCache
+	 *            optional cache of phone numbers converted to E.164 format
+	 * @param metrics
+	 *            optional factory of metered strategies, present when delivery metrics are recorded
 	 * @return default SMS delivery strategy
 	 */
 	@Bean
 	@ConditionalOnMissingBean
-	public SmsDeliveryStrategy smsDeliveryStrategy(Optional<TwilioHelper> twilioHelper) {
+	public SmsDeliveryStrategy smsDeliveryStrategy(Optional<TwilioHelper> twilioHelper,
+			@Qualifier(SMS_CIRCUIT_BREAKER_BEAN_NAME) Optional<CircuitBreaker> circuitBreaker,
+			Optional<PhoneNumberCache> phoneNumberCache, Optional<MessagingMetrics> metrics) {
 		var smsDeliveryMethod = messagingProperties.getSmsDeliveryMethod();
+		var strategyName = smsDeliveryMethod.name().toLowerCase();
 
 		log.debug("Creating SMS delivery strategy bean for delivery method " + smsDeliveryMethod);
 
 		SmsDeliveryStrategy deliveryStrategy = switch (smsDeliveryMethod) {
-			case LOG -> new LoggingSmsDeliveryStrategy();
-			case NOOP -> new NoopSmsDeliveryStrategy();
-			case TWILIO -> new TwilioSmsDeliveryStrategy(twilioHelper.get());
+			case LOG -> metered(new LoggingSmsDeliveryStrategy(), strategyName, metrics);
+			case NOOP -> metered(new NoopSmsDeliveryStrategy(), strategyName, metrics);
+			// Metered inside transliteration, so segments are counted for the text actually sent
+			case TWILIO -> transliterated(metered(rateLimited(withCircuitBreaker(new TwilioSmsDeliveryStrategy(
+					twilioHelper.get(), messagingProperties.getTwilio().isFullResponseJson(),
+					phoneNumberCache.orElse(null)), circuitBreaker)), strategyName, metrics));
 			default -> throw new IllegalArgumentException("Invalid SMS delivery method" + smsDeliveryMethod);
 		};
 
@@ -117,17 +288,84 @@ public class MessagingConfig {
 	}
 
 	/**
-	 * Provides the {@link MessageDeliveryService}.
+	 * Provides the circuit breaker guarding Twilio delivery when <code>octri.messaging.circuit-breaker.enabled</code>
+	 * is true and SMS messages are delivered through Twilio. The circuit breaker is not a default autowiring candidate.
+	 *
+	 * @return circuit breaker for SMS delivery
+	 */
+	@Bean(name = SMS_CIRCUIT_BREAKER_BEAN_NAME, defaultCandidate = false)
+	@ConditionalOnProperty(value = "octri.messaging.circuit-breaker.enabled", havingValue = "true")
+	@ConditionalOnProperty(value = "octri.messaging.sms-delivery-method", havingValue = "twilio")
+	public CircuitBreaker messagingSmsCircuitBreaker() {
+		return circuitBreaker("twilio");
+	}
+
+	/**
+	 * Provides the circuit breaker guarding SMTP delivery when <code>octri.messaging.circuit-breaker.enabled</code> is
+	 * true and email messages are delivered through SMTP. The circuit breaker is not a default autowiring candidate.
+	 *
+	 * @return circuit breaker for email delivery
+	 */
+	@Bean(name = EMAIL_CIRCUIT_BREAKER_BEAN_NAME, defaultCandidate = false)
+	@ConditionalOnProperty(value = "octri.messaging.circuit-breaker.enabled", havingValue = "true")
+	@ConditionalOnProperty(value = "octri.messaging.email-delivery-method", havingValue = "smtp")
+	public CircuitBreaker messagingEmailCircuitBreaker() {
+		return circuitBreaker("smtp");
+	}
+
+	/**
+	 * Provides the executor used by the {@link MessageDeliveryService} for asynchronous deliveries. If the application
+	 * provides a custom {@link Executor} bean named {@value #MESSAGING_EXECUTOR_BEAN_NAME}, that will be used instead.
+	 *
+	 * The executor is not a default autowiring candidate, so it does not replace or conflict with the application's own
+	 * task executor. Tasks are decorated with the application's {@link TaskDecorator} bean if there is one, or else
+	 * with a {@link ContextPropagatingTaskDecorator} when the Micrometer context propagation library is present, so
+	 * deliveries run with the caller's tracing context.
+	 *
+	 * @param taskDecorator
+	 *            optional task decorator bean
+	 * @return default delivery executor
+	 */
+	@Bean(name = MESSAGING_EXECUTOR_BEAN_NAME, defaultCandidate = false)
+	@ConditionalOnMissingBean(name = MESSAGING_EXECUTOR_BEAN_NAME)
+	public Executor messagingTaskExecutor(ObjectProvider<TaskDecorator> taskDecorator) {
+		var executorType = messagingProperties.getExecutor();
+		var asyncProperties = messagingProperties.getAsync();
+		log.debug("Creating delivery executor of type " + executorType);
+
+		Executor executor = switch (executorType) {
+			case THREAD_POOL -> threadPoolExecutor(asyncProperties, taskDecorator(taskDecorator));
+			case VIRTUAL -> virtualThreadExecutor(asyncProperties, taskDecorator(taskDecorator));
+			default -> throw new IllegalArgumentException("Invalid executor type " + executorType);
+		};
+
+		log.debug("Delivery executor: " + executor);
+		return executor;
+	}
+
+	/**
+	 * Provides the {@link MessageDeliveryService}. When the outbox is enabled, the service adds messages to the outbox
+	 * and the {@link OutboxDispatcher} delivers them.
 	 *
 	 * @param emailStrategy
 	 *            email delivery strategy
 	 * @param smsStrategy
 	 *            SMS delivery strategy
+	 * @param executor
+	 *            executor used for asynchronous deliveries
+	 * @param outboxStore
+	 *            optional outbox store
+	 * @param senderPool
+	 *            optional pool of SMS sender numbers
+	 * @param retryExecutor
+	 *            optional executor that retries transient failures. Not used when the outbox is enabled, since the
+	 *            outbox retries failed deliveries itself.
 	 * @return the message delivery service
 	 */
 	@Bean
 	public MessageDeliveryService messageDeliveryService(EmailDeliveryStrategy emailStrategy,
-			SmsDeliveryStrategy smsStrategy) {
+			SmsDeliveryStrategy smsStrategy, @Qualifier(MESSAGING_EXECUTOR_BEAN_NAME) Executor executor,
+			Optional<OutboxStore> outboxStore, Optional<SenderPool> senderPool, Optional<RetryExecutor> retryExecutor) {
 		log.debug("Creating message delivery service.");
 		if (emailStrategy == null || smsStrategy == null) {
 			log.error("Attempted to create the message delivery service, but a required delivery strategy was null.");
@@ -135,7 +373,238 @@ public class MessagingConfig {
 			throw new IllegalStateException("Cannot create message delivery service due to missing delivery strategy.");
 		}
 
-		return new MessageDeliveryService(emailStrategy, smsStrategy);
+		MessageDeliveryService service;
+		if (messagingProperties.getOutbox().isEnabled() && outboxStore.isPresent()) {
+			log.debug("Messages will be delivered through the outbox.");
+			service = new OutboxMessageDeliveryService(emailStrategy, smsStrategy, executor, outboxStore.get());
+		} else {
+			service = directDeliveryService(emailStrategy, smsStrategy, executor, retryExecutor);
+		}
+		senderPool.ifPresent(service::setSenderPool);
+		// A Twilio Messaging Service chooses the sender number for messages sent without one
+		service.setProviderSelectsSender(messagingProperties.getSmsDeliveryMethod() == SmsDeliveryMethod.TWILIO
+				&& StringUtils.isNotBlank(messagingProperties.getTwilio().getMessagingServiceSid()));
+		return service;
+	}
+
+	/**
+	 * Provides the executor that retries transient delivery failures when <code>octri.messaging.retry.enabled</code> is
+	 * true. If the application provides a custom {@link RetryExecutor} bean, that will be used instead. Asynchronous
+	 * deliveries are decorated in the same way as by the delivery executor, so retries keep the caller's tracing
+	 * context.
+	 *
+	 * @param taskDecorator
+	 *            optional task decorator bean
+	 * @return default retry executor
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "octri.messaging.retry.enabled", havingValue = "true")
+	public RetryExecutor retryExecutor(ObjectProvider<TaskDecorator> taskDecorator) {
+		var retryProperties = messagingProperties.getRetry();
+		log.debug("Creating retry executor with " + retryProperties.getMaxAttempts() + " attempts");
+		var retryExecutor = new RetryExecutor(new RetryPolicy(retryProperties.getMaxAttempts(),
+				retryProperties.getInitialDelay(), retryProperties.getMultiplier(), retryProperties.getMaxDelay(),
+				retryProperties.getDeadline(), new TransientFailureClassifier()));
+		retryExecutor.setTaskDecorator(taskDecorator(taskDecorator));
+		return retryExecutor;
+	}
+
+	/**
+	 * Provides the pool of SMS sender numbers when <code>octri.messaging.twilio.senders</code> is configured. If the
+	 * application provides a custom {@link SenderPool} bean, that will be used instead.
+	 *
+	 * @return default sender pool
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("octri.messaging.twilio.senders[0].number")
+	public SenderPool senderPool() {
+		var twilioProperties = messagingProperties.getTwilio();
+		var senders = twilioProperties.getSenders().stream()
+				.map(sender -> new SenderPool.Sender(SmsUtils.toE164PhoneNumber(sender.getNumber()), sender.getWeight(),
+						senderRate(sender)))
+				.toList();
+		log.debug("Creating sender pool with " + senders.size() + " numbers");
+		return new SenderPool(senders, twilioProperties.getStickyCacheSize());
+	}
+
+	/**
+	 * Provides the outbox store when <code>octri.messaging.outbox.enabled</code> is true. If the application provides a
+	 * custom {@link OutboxStore} bean, that will be used instead.
+	 *
+	 * @param dataSource
+	 *            data source used by the JDBC store
+	 * @return default outbox store
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "octri.messaging.outbox.enabled", havingValue = "true")
+	public OutboxStore outboxStore(ObjectProvider<DataSource> dataSource) {
+		var outboxProperties = messagingProperties.getOutbox();
+		var storeType = outboxProperties.getStore();
+		log.debug("Creating outbox store of type " + storeType);
+
+		return switch (storeType) {
+			case FILE -> new FileOutboxStore(Path.of(outboxProperties.getJournalPath()),
+					outboxProperties.getCompactionThreshold());
+			case JDBC -> {
+				if (!ClassUtils.isPresent("org.springframework.jdbc.core.JdbcTemplate", getClass().getClassLoader())) {
+					throw new IllegalStateException(
+							"The octri.messaging.outbox.store=jdbc setting requires spring-jdbc on the classpath.");
+				}
+				yield new JdbcOutboxStore(dataSource.getObject(), outboxProperties.getTableName(),
+						outboxProperties.getLeaseDuration());
+			}
+			default -> throw new IllegalArgumentException("Invalid outbox store type " + storeType);
+		};
+	}
+
+	/**
+	 * Provides the dispatcher that delivers messages from the outbox when <code>octri.messaging.outbox.enabled</code>
+	 * is true.
+	 *
+	 * @param emailStrategy
+	 *            email delivery strategy
+	 * @param smsStrategy
+	 *            SMS delivery strategy
+	 * @param executor
+	 *            executor used for asynchronous deliveries
+	 * @param outboxStore
+	 *            the outbox store
+	 * @param retryExecutor
+	 *            optional executor that retries transient failures before a message is returned to the outbox
+	 * @return the outbox dispatcher
+	 */
+	@Bean
+	@ConditionalOnProperty(value = "octri.messaging.outbox.enabled", havingValue = "true")
+	public OutboxDispatcher outboxDispatcher(EmailDeliveryStrategy emailStrategy, SmsDeliveryStrategy smsStrategy,
+			@Qualifier(MESSAGING_EXECUTOR_BEAN_NAME) Executor executor, OutboxStore outboxStore,
+			Optional<RetryExecutor> retryExecutor) {
+		var outboxProperties = messagingProperties.getOutbox();
+		return new OutboxDispatcher(outboxStore,
+				directDeliveryService(emailStrategy, smsStrategy, executor, retryExecutor),
+				outboxProperties.getBatchSize(), outboxProperties.getPollInterval(), outboxProperties.getMaxAttempts(),
+				outboxProperties.getRetryBackoff(), outboxProperties.getMaxRetryBackoff());
+	}
+
+	private MessageDeliveryService directDeliveryService(EmailDeliveryStrategy emailStrategy,
+			SmsDeliveryStrategy smsStrategy, Executor executor, Optional<RetryExecutor> retryExecutor) {
+		var service = new MessageDeliveryService(emailStrategy, smsStrategy, executor);
+		service.setBatchParallelism(messagingProperties.getAsync().getBatchParallelism());
+		retryExecutor.ifPresent(service::setRetryExecutor);
+		return service;
+	}
+
+	private CircuitBreaker circuitBreaker(String name) {
+		var properties = messagingProperties.getCircuitBreaker();
+		log.debug("Creating " + name + " circuit breaker");
+		return new CircuitBreaker(name, properties.getWindowSize(), properties.getMinimumCalls(),
+				properties.getFailureRateThreshold(), properties.getSlowCallDuration(),
+				properties.getSlowCallRateThreshold(), properties.getOpenDuration(), properties.getHalfOpenCalls(),
+				new TransientFailureClassifier());
+	}
+
+	private static EmailDeliveryStrategy withCircuitBreaker(EmailDeliveryStrategy deliveryStrategy,
+			Optional<CircuitBreaker> circuitBreaker) {
+		return circuitBreaker.<EmailDeliveryStrategy>map(
+				breaker -> new CircuitBreakerEmailDeliveryStrategy(deliveryStrategy, breaker)).orElse(deliveryStrategy);
+	}
+
+	private static SmsDeliveryStrategy withCircuitBreaker(SmsDeliveryStrategy deliveryStrategy,
+			Optional<CircuitBreaker> circuitBreaker) {
+		return circuitBreaker.<SmsDeliveryStrategy>map(
+				breaker -> new CircuitBreakerSmsDeliveryStrategy(deliveryStrategy, breaker)).orElse(deliveryStrategy);
+	}
+
+	private static EmailDeliveryStrategy metered(EmailDeliveryStrategy deliveryStrategy, String strategyName,
+			Optional<MessagingMetrics> metrics) {
+		return metrics.map(factory -> factory.metered(deliveryStrategy, strategyName)).orElse(deliveryStrategy);
+	}
+
+	private static SmsDeliveryStrategy metered(SmsDeliveryStrategy deliveryStrategy, String strategyName,
+			Optional<MessagingMetrics> metrics) {
+		return metrics.map(factory -> factory.metered(deliveryStrategy, strategyName)).orElse(deliveryStrategy);
+	}
+
+	private SmsDeliveryStrategy rateLimited(SmsDeliveryStrategy deliveryStrategy) {
+		var rateLimit = messagingProperties.getTwilio().getRateLimit();
+		if (!rateLimit.isEnabled()) {
+			return deliveryStrategy;
+		}
+
+		// Account numbers are limited to the account's rate and pool senders to the rate configured for them, and a
+		// rate limit set for the number explicitly takes precedence over both
+		var senderRates = new LinkedHashMap<String, Double>();
+		messagingProperties.getTwilio().getAccounts().values().stream()
+				.filter(account -> account.getMessagesPerSecond() != null)
+				.forEach(account -> account.getNumbers()
+						.forEach(number -> senderRates.put(number, account.getMessagesPerSecond())));
+		messagingProperties.getTwilio().getSenders().stream()
+				.filter(sender -> sender.getMessagesPerSecond() != null)
+				.forEach(sender -> senderRates.put(sender.getNumber(), sender.getMessagesPerSecond()));
+		senderRates.putAll(rateLimit.getSenders());
+
+		return new RateLimitedSmsDeliveryStrategy(deliveryStrategy, rateLimit.getMessagesPerSecond(),
+				rateLimit.getBurst(), senderRates, rateLimit.getBehavior(), rateLimit.getMaxWait());
+	}
+
+	/**
+	 * Gets the throughput of a pool sender: its own rate if set, else the rate limit of the account it belongs to, so
+	 * the pool expects the same rate the rate limiter enforces.
+	 */
+	private double senderRate(TwilioSenderProperties sender) {
+		if (sender.getMessagesPerSecond() != null) {
+			return sender.getMessagesPerSecond();
+		}
+		var number = SmsUtils.toE164PhoneNumber(sender.getNumber());
+		return messagingProperties.getTwilio().getAccounts().values().stream()
+				.filter(account -> account.getMessagesPerSecond() != null)
+				.filter(account -> account.getNumbers().stream().map(SmsUtils::toE164PhoneNumber)
+						.anyMatch(number::equals))
+				.map(TwilioAccountProperties::getMessagesPerSecond)
+				.findFirst()
+				.orElse(TwilioSenderProperties.DEFAULT_MESSAGES_PER_SECOND);
+	}
+
+	private static HttpClient withBaseUrl(HttpClient httpClient, String apiBaseUrl) {
+		return StringUtils.isBlank(apiBaseUrl) ? httpClient : new BaseUrlTwilioHttpClient(httpClient, apiBaseUrl);
+	}
+
+	private SmsDeliveryStrategy transliterated(SmsDeliveryStrategy deliveryStrategy) {
+		return messagingProperties.getTwilio().isTransliterate()
+				? new TransliteratingSmsDeliveryStrategy(deliveryStrategy)
+				: deliveryStrategy;
+	}
+
+	private Executor threadPoolExecutor(AsyncProperties asyncProperties, TaskDecorator taskDecorator) {
+		var executor = new ThreadPoolTaskExecutor();
+		executor.setTaskDecorator(taskDecorator);
+		executor.setCorePoolSize(asyncProperties.getPoolSize());
+		executor.setMaxPoolSize(asyncProperties.getPoolSize());
+		executor.setQueueCapacity(asyncProperties.getQueueCapacity());
+		executor.setThreadNamePrefix(asyncProperties.getThreadNamePrefix());
+		return executor;
+	}
+
+	private Executor virtualThreadExecutor(AsyncProperties asyncProperties, TaskDecorator taskDecorator) {
+		if (Runtime.version().feature() < 21) {
+			throw new IllegalStateException("The octri.messaging.executor=virtual setting requires Java 21 or later.");
+		}
+
+		var virtualThreads = new VirtualThreadTaskExecutor(asyncProperties.getThreadNamePrefix());
+		var executor = new ConcurrencyLimitedExecutor(virtualThreads, asyncProperties.getMaxConcurrency());
+		executor.setTaskDecorator(taskDecorator);
+		return executor;
+	}
+
+	/**
+	 * The application's task decorator, or one that propagates context such as the current observation when the
+	 * Micrometer context propagation library is present.
+	 */
+	private TaskDecorator taskDecorator(ObjectProvider<TaskDecorator> taskDecorator) {
+		return taskDecorator.getIfUnique(() -> ClassUtils.isPresent("io.micrometer.context.ContextSnapshotFactory",
+				getClass().getClassLoader()) ? new ContextPropagatingTaskDecorator() : null);
 	}
 
 	/**
@@ -149,4 +618,134 @@ public class MessagingConfig {
 		}
 	}
 
+	/**
+	 * Registers a health indicator for the messaging circuit breakers when Spring Boot Actuator is present.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(HealthIndicator.class)
+	@ConditionalOnProperty(value = "octri.messaging.circuit-breaker.enabled", havingValue = "true")
+	static class CircuitBreakerHealthConfiguration {
+
+		/**
+		 * Provides the health indicator reporting the state of the messaging circuit breakers.
+		 *
+		 * @param smsCircuitBreaker
+		 *            optional circuit breaker guarding Twilio delivery
+		 * @param emailCircuitBreaker
+		 *            optional circuit breaker guarding SMTP delivery
+		 * @return the health indicator
+		 */
+		@Bean
+		@ConditionalOnMissingBean(name = "messagingCircuitBreakersHealthIndicator")
+		public CircuitBreakerHealthIndicator messagingCircuitBreakersHealthIndicator(
+				@Qualifier(SMS_CIRCUIT_BREAKER_BEAN_NAME) Optional<CircuitBreaker> smsCircuitBreaker,
+				@Qualifier(EMAIL_CIRCUIT_BREAKER_BEAN_NAME) Optional<CircuitBreaker> emailCircuitBreaker) {
+			return new CircuitBreakerHealthIndicator(
+					Stream.of(smsCircuitBreaker, emailCircuitBreaker).flatMap(Optional::stream).toList());
+		}
+
+	}
+
+	/**
+	 * Registers the phone number cache when <code>octri.messaging.twilio.phone-number-cache.enabled</code> is true and
+	 * Caffeine is present.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "com.github.benmanes.caffeine.cache.Caffeine")
+	@ConditionalOnProperty(value = "octri.messaging.twilio.phone-number-cache.enabled", havingValue = "true")
+	static class PhoneNumberCacheConfiguration {
+
+		/**
+		 * Provides the cache used by the Twilio SMS delivery strategy to convert phone numbers to E.164 format.
+		 *
+		 * @param messagingProperties
+		 *            configuration properties
+		 * @return the phone number cache
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public PhoneNumberCache phoneNumberCache(MessagingProperties messagingProperties) {
+			return new PhoneNumberCache(messagingProperties.getTwilio().getPhoneNumberCache().getMaximumSize());
+		}
+
+	}
+
+	/**
+	 * Records delivery metrics when Micrometer is present, the application has a <code>MeterRegistry</code> bean, and
+	 * <code>octri.messaging.metrics.enabled</code> is not false.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+	@ConditionalOnBean(type = "io.micrometer.core.instrument.MeterRegistry")
+	@ConditionalOnProperty(value = "octri.messaging.metrics.enabled", havingValue = "true", matchIfMissing = true)
+	static class MetricsConfiguration {
+
+		/**
+		 * Provides the factory of metered delivery strategies, and registers the hit rate, eviction, and size metrics of
+		 * the phone number cache if there is one. If the application provides a custom {@link MessagingMetrics} bean,
+		 * that will be used instead.
+		 *
+		 * @param messagingProperties
+		 *            configuration properties
+		 * @param meterRegistry
+		 *            registry to register the meters with
+		 * @param phoneNumberCache
+		 *            optional phone number cache
+		 * @return the messaging metrics
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public MessagingMetrics messagingMetrics(MessagingProperties messagingProperties,
+				MeterRegistry meterRegistry, ObjectProvider<PhoneNumberCache> phoneNumberCache) {
+			log.debug("Recording delivery metrics");
+			phoneNumberCache.ifAvailable(cache -> cache.bindTo(meterRegistry));
+			return new MessagingMetrics(meterRegistry, messagingProperties.getMetrics().getPercentiles());
+		}
+
+	}
+
+	/**
+	 * Registers the Twilio status callback endpoint when <code>octri.messaging.twilio.webhook.enabled</code> is true in
+	 * a servlet web application.
+	 */
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+	@ConditionalOnClass(name = "org.springframework.web.servlet.DispatcherServlet")
+	@ConditionalOnProperty(value = "octri.messaging.twilio.webhook.enabled", havingValue = "true")
+	static class TwilioWebhookConfiguration {
+
+		/**
+		 * Provides the controller that receives Twilio status callbacks. If the application provides a custom
+		 * {@link TwilioStatusCallbackController} bean, that will be used instead.
+		 *
+		 * @param messagingProperties
+		 *            configuration properties
+		 * @param listeners
+		 *            listeners that receive status updates
+		 * @return the status callback controller
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public TwilioStatusCallbackController twilioStatusCallbackController(MessagingProperties messagingProperties,
+				ObjectProvider<TwilioStatusListener> listeners) {
+			var twilioProperties = messagingProperties.getTwilio();
+			var webhookProperties = twilioProperties.getWebhook();
+			String authToken = null;
+			if (webhookProperties.isValidateSignature()) {
+				Assert.hasText(twilioProperties.getAuthToken(),
+						"octri.messaging.twilio.auth-token is required to validate status callback signatures.");
+				authToken = twilioProperties.getAuthToken();
+			} else {
+				log.warn("Twilio status callback signatures are not validated.");
+			}
+			log.debug("Registering Twilio status callback endpoint at " + webhookProperties.getPath());
+			var accountAuthTokens = new HashMap<String, String>();
+			twilioProperties.getAccounts().values()
+					.forEach(account -> accountAuthTokens.put(account.getAccountSid(), account.getAuthToken()));
+			return new TwilioStatusCallbackController(authToken, accountAuthTokens, twilioProperties.getCallbackUrl(),
+					listeners.orderedStream().toList());
+		}
+
+	}
+
 }
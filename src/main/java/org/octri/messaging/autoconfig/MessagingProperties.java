@@ -48,6 +48,22 @@ public class MessagingProperties {
 		TWILIO
 	}
 
+	/**
+	 * Valid executors for asynchronous message delivery.
+	 */
+	public enum ExecutorType {
+		/**
+		 * Deliver messages on a fixed-size pool of platform threads.
+		 */
+		THREAD_POOL,
+
+		/**
+		 * Deliver each message on its own virtual thread, limiting the number of in-flight deliveries. Requires Java 21
+		 * or later.
+		 */
+		VIRTUAL
+	}
+
 	/**
 	 * Whether to enable messaging services. True by default.
 	 */
@@ -73,6 +89,36 @@ public class MessagingProperties {
 	 */
 	private TwilioProperties twilio;
 
+	/**
+	 * Properties to configure asynchronous message delivery.
+	 */
+	private AsyncProperties async = new AsyncProperties();
+
+	/**
+	 * Executor used for asynchronous message delivery. Defaults to a pool of platform threads.
+	 */
+	private ExecutorType executor = ExecutorType.THREAD_POOL;
+
+	/**
+	 * Properties to configure the durable message outbox.
+	 */
+	private OutboxProperties outbox = new OutboxProperties();
+
+	/**
+	 * Properties to configure retries of transient delivery failures.
+	 */
+	private RetryProperties retry = new RetryProperties();
+
+	/**
+	 * Properties to configure the circuit breakers around the Twilio and SMTP delivery strategies.
+	 */
+	private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+	/**
+	 * Properties to configure the delivery metrics recorded with Micrometer.
+	 */
+	private MetricsProperties metrics = new MetricsProperties();
+
 	/**
 	 * Gets whether messaging is enabled.
 	 *
@@ -168,4 +214,118 @@ public class MessagingProperties {
 		this.twilio = twilio;
 	}
 
+	/**
+	 * Gets the asynchronous delivery configuration properties.
+	 *
+	 * @return asynchronous delivery configuration
+	 */
+	public AsyncProperties getAsync() {
+		return async;
+	}
+
+	/**
+	 * Sets the asynchronous delivery configuration properties.
+	 *
+	 * @param async
+	 *            asynchronous delivery configuration
+	 */
+	public void setAsync(AsyncProperties async) {
+		this.async = async;
+	}
+
+	/**
+	 * Gets the executor type used for asynchronous message delivery.
+	 *
+	 * @return the configured executor type
+	 */
+	public ExecutorType getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor type used for asynchronous message delivery.
+	 *
+	 * @param executor
+	 *            the executor type to use
+	 */
+	public void setExecutor(ExecutorType executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the outbox configuration properties.
+	 *
+	 * @return outbox configuration
+	 */
+	public OutboxProperties getOutbox() {
+		return outbox;
+	}
+
+	/**
+	 * Sets the outbox configuration properties.
+	 *
+	 * @param outbox
+	 *            outbox configuration
+	 */
+	public void setOutbox(OutboxProperties outbox) {
+		this.outbox = outbox;
+	}
+
+	/**
+	 * Gets the retry configuration properties.
+	 *
+	 * @return retry configuration
+	 */
+	public RetryProperties getRetry() {
+		return retry;
+	}
+
+	/**
+	 * Sets the retry configuration properties.
+	 *
+	 * @param retry
+	 *            retry configuration
+	 */
+	public void setRetry(RetryProperties retry) {
+		this.retry = retry;
+	}
+
+	/**
+	 * Gets the circuit breaker configuration properties.
+	 *
+	 * @return circuit breaker configuration
+	 */
+	public CircuitBreakerProperties getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	/**
+	 * Sets the circuit breaker configuration properties.
+	 *
+	 * @param circuitBreaker
+	 *            circuit breaker configuration
+	 */
+	public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Gets the delivery metrics configuration properties.
+	 *
+	 * @return metrics configuration
+	 */
+	public MetricsProperties getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the delivery metrics configuration properties.
+	 *
+	 * @param metrics
+	 *            metrics configuration
+	 */
+	public void setMetrics(MetricsProperties metrics) {
+		this.metrics = metrics;
+	}
+
 }
@@ -0,0 +1,60 @@
+package org.octri.messaging.autoconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Properties used to configure the delivery metrics recorded with Micrometer. Metrics are recorded when Micrometer is
+ * on the classpath and the application has a <code>MeterRegistry</code> bean.
+ */
+public class MetricsProperties {
+
+	/**
+	 * Whether to record delivery metrics.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Percentiles of delivery time to publish.
+	 */
+	private List<Double> percentiles = new ArrayList<>(List.of(0.5, 0.99));
+
+	/**
+	 * Gets whether delivery metrics are recorded.
+	 *
+	 * @return true if metrics are enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether delivery metrics are recorded.
+	 *
+	 * @param enabled
+	 *            true to enable metrics
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the percentiles of delivery time to publish.
+	 *
+	 * @return the percentiles, between 0 and 1
+	 */
+	public List<Double> getPercentiles() {
+		return percentiles;
+	}
+
+	/**
+	 * Sets the percentiles of delivery time to publish.
+	 *
+	 * @param percentiles
+	 *            the percentiles, between 0 and 1. May be empty to publish none.
+	 */
+	public void setPercentiles(List<Double> percentiles) {
+		this.percentiles = percentiles;
+	}
+
+}
@@ -0,0 +1,289 @@
+package org.octri.messaging.autoconfig;
+
+import java.time.Duration;
+
+/**
+ * Properties used to configure the durable message outbox.
+ */
+public class OutboxProperties {
+
+	/**
+	 * Valid outbox stores.
+	 */
+	public enum StoreType {
+		/**
+		 * Store messages in an append-only journal file on local disk.
+		 */
+		FILE,
+
+		/**
+		 * Store messages in a database table. Requires spring-jdbc and a DataSource bean.
+		 */
+		JDBC
+	}
+
+	/**
+	 * Whether to add messages to a durable outbox and deliver them in the background.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Where messages are stored until they are delivered. Defaults to a journal file.
+	 */
+	private StoreType store = StoreType.FILE;
+
+	/**
+	 * Path of the journal file used by the file store.
+	 */
+	private String journalPath = "messaging-outbox.journal";
+
+	/**
+	 * Number of obsolete journal entries after which the journal file is compacted.
+	 */
+	private int compactionThreshold = 1000;
+
+	/**
+	 * Name of the table used by the JDBC store.
+	 */
+	private String tableName = "messaging_outbox";
+
+	/**
+	 * How long a message fetched by the JDBC store stays claimed by this instance before another instance may fetch it.
+	 */
+	private Duration leaseDuration = Duration.ofMinutes(5);
+
+	/**
+	 * Maximum number of messages fetched from the outbox and delivered at once.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * How long to wait between checks for new messages once the outbox is empty.
+	 */
+	private Duration pollInterval = Duration.ofSeconds(1);
+
+	/**
+	 * Number of delivery attempts after which a message is marked failed.
+	 */
+	private int maxAttempts = 5;
+
+	/**
+	 * Delay before the first retry of a failed message. The delay doubles with each later retry.
+	 */
+	private Duration retryBackoff = Duration.ofSeconds(30);
+
+	/**
+	 * Longest delay between retries of a failed message.
+	 */
+	private Duration maxRetryBackoff = Duration.ofHours(1);
+
+	/**
+	 * Gets whether messages are delivered through the outbox.
+	 *
+	 * @return true if the outbox is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether messages are delivered through the outbox.
+	 *
+	 * @param enabled
+	 *            true to deliver messages through the outbox
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets where messages are stored until they are delivered.
+	 *
+	 * @return the outbox store type
+	 */
+	public StoreType getStore() {
+		return store;
+	}
+
+	/**
+	 * Sets where messages are stored until they are delivered.
+	 *
+	 * @param store
+	 *            the outbox store type
+	 */
+	public void setStore(StoreType store) {
+		this.store = store;
+	}
+
+	/**
+	 * Gets the path of the journal file used by the file store.
+	 *
+	 * @return the journal path
+	 */
+	public String getJournalPath() {
+		return journalPath;
+	}
+
+	/**
+	 * Sets the path of the journal file used by the file store.
+	 *
+	 * @param journalPath
+	 *            the journal path
+	 */
+	public void setJournalPath(String journalPath) {
+		this.journalPath = journalPath;
+	}
+
+	/**
+	 * Gets the number of obsolete journal entries after which the journal file is compacted.
+	 *
+	 * @return the compaction threshold
+	 */
+	public int getCompactionThreshold() {
+		return compactionThreshold;
+	}
+
+	/**
+	 * Sets the number of obsolete journal entries after which the journal file is compacted.
+	 *
+	 * @param compactionThreshold
+	 *            the compaction threshold
+	 */
+	public void setCompactionThreshold(int compactionThreshold) {
+		this.compactionThreshold = compactionThreshold;
+	}
+
+	/**
+	 * Gets the name of the table used by the JDBC store.
+	 *
+	 * @return the table name
+	 */
+	public String getTableName() {
+		return tableName;
+	}
+
+	/**
+	 * Sets the name of the table used by the JDBC store.
+	 *
+	 * @param tableName
+	 *            the table name
+	 */
+	public void setTableName(String tableName) {
+		this.tableName = tableName;
+	}
+
+	/**
+	 * Gets how long a message fetched by the JDBC store stays claimed by this instance.
+	 *
+	 * @return the lease duration
+	 */
+	public Duration getLeaseDuration() {
+		return leaseDuration;
+	}
+
+	/**
+	 * Sets how long a message fetched by the JDBC store stays claimed by this instance.
+	 *
+	 * @param leaseDuration
+	 *            the lease duration
+	 */
+	public void setLeaseDuration(Duration leaseDuration) {
+		this.leaseDuration = leaseDuration;
+	}
+
+	/**
+	 * Gets the maximum number of messages fetched from the outbox and delivered at once.
+	 *
+	 * @return the batch size
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of messages fetched from the outbox and delivered at once.
+	 *
+	 * @param batchSize
+	 *            the batch size
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Gets how long to wait between checks for new messages once the outbox is empty.
+	 *
+	 * @return the poll interval
+	 */
+	public Duration getPollInterval() {
+		return pollInterval;
+	}
+
+	/**
+	 * Sets how long to wait between checks for new messages once the outbox is empty.
+	 *
+	 * @param pollInterval
+	 *            the poll interval
+	 */
+	public void setPollInterval(Duration pollInterval) {
+		this.pollInterval = pollInterval;
+	}
+
+	/**
+	 * Gets the number of delivery attempts after which a message is marked failed.
+	 *
+	 * @return the maximum number of attempts
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Sets the number of delivery attempts after which a message is marked failed.
+	 *
+	 * @param maxAttempts
+	 *            the maximum number of attempts
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * Gets the delay before the first retry of a failed message.
+	 *
+	 * @return the retry backoff
+	 */
+	public Duration getRetryBackoff() {
+		return retryBackoff;
+	}
+
+	/**
+	 * Sets the delay before the first retry of a failed message.
+	 *
+	 * @param retryBackoff
+	 *            the retry backoff
+	 */
+	public void setRetryBackoff(Duration retryBackoff) {
+		this.retryBackoff = retryBackoff;
+	}
+
+	/**
+	 * Gets the longest delay between retries of a failed message.
+	 *
+	 * @return the maximum retry backoff
+	 */
+	public Duration getMaxRetryBackoff() {
+		return maxRetryBackoff;
+	}
+
+	/**
+	 * Sets the longest delay between retries of a failed message.
+	 *
+	 * @param maxRetryBackoff
+	 *            the maximum retry backoff
+	 */
+	public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+		this.maxRetryBackoff = maxRetryBackoff;
+	}
+
+}
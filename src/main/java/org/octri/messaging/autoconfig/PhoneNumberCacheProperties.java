@@ -0,0 +1,57 @@
+package org.octri.messaging.autoconfig;
+
+/**
+ * Properties used to configure the cache of phone numbers converted to E.164 format for Twilio delivery. The cache
+ * requires Caffeine on the classpath.
+ */
+public class PhoneNumberCacheProperties {
+
+	/**
+	 * Whether to cache converted phone numbers.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of phone number strings to remember.
+	 */
+	private long maximumSize = 10000;
+
+	/**
+	 * Gets whether converted phone numbers are cached.
+	 *
+	 * @return true if the cache is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether converted phone numbers are cached.
+	 *
+	 * @param enabled
+	 *            true to enable the cache
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the maximum number of phone number strings to remember.
+	 *
+	 * @return the maximum cache size
+	 */
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Sets the maximum number of phone number strings to remember.
+	 *
+	 * @param maximumSize
+	 *            the maximum cache size
+	 */
+	public void setMaximumSize(long maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+}
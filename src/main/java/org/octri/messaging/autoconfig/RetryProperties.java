@@ -0,0 +1,154 @@
+package org.octri.messaging.autoconfig;
+
+import java.time.Duration;
+
+/**
+ * Properties used to configure retries of deliveries that fail with a transient error.
+ */
+public class RetryProperties {
+
+	/**
+	 * Whether to retry deliveries that fail with a transient error.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of delivery attempts, including the first.
+	 */
+	private int maxAttempts = 3;
+
+	/**
+	 * Upper bound of the delay before the first retry.
+	 */
+	private Duration initialDelay = Duration.ofMillis(500);
+
+	/**
+	 * Factor by which the delay bound grows after each retry.
+	 */
+	private double multiplier = 2.0;
+
+	/**
+	 * Largest delay between attempts.
+	 */
+	private Duration maxDelay = Duration.ofSeconds(30);
+
+	/**
+	 * Time after the first attempt beyond which no retry is started.
+	 */
+	private Duration deadline = Duration.ofMinutes(2);
+
+	/**
+	 * Gets whether transient failures are retried.
+	 *
+	 * @return true if retries are enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether transient failures are retried.
+	 *
+	 * @param enabled
+	 *            true to retry transient failures
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the maximum number of delivery attempts.
+	 *
+	 * @return the maximum attempts
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Sets the maximum number of delivery attempts.
+	 *
+	 * @param maxAttempts
+	 *            the maximum attempts, including the first
+	 */
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * Gets the upper bound of the delay before the first retry.
+	 *
+	 * @return the initial delay
+	 */
+	public Duration getInitialDelay() {
+		return initialDelay;
+	}
+
+	/**
+	 * Sets the upper bound of the delay before the first retry.
+	 *
+	 * @param initialDelay
+	 *            the initial delay
+	 */
+	public void setInitialDelay(Duration initialDelay) {
+		this.initialDelay = initialDelay;
+	}
+
+	/**
+	 * Gets the factor by which the delay bound grows after each retry.
+	 *
+	 * @return the multiplier
+	 */
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	/**
+	 * Sets the factor by which the delay bound grows after each retry.
+	 *
+	 * @param multiplier
+	 *            the multiplier
+	 */
+	public void setMultiplier(double multiplier) {
+		this.multiplier = multiplier;
+	}
+
+	/**
+	 * Gets the largest delay between attempts.
+	 *
+	 * @return the maximum delay
+	 */
+	public Duration getMaxDelay() {
+		return maxDelay;
+	}
+
+	/**
+	 * Sets the largest delay between attempts.
+	 *
+	 * @param maxDelay
+	 *            the maximum delay
+	 */
+	public void setMaxDelay(Duration maxDelay) {
+		this.maxDelay = maxDelay;
+	}
+
+	/**
+	 * Gets the time after the first attempt beyond which no retry is started.
+	 *
+	 * @return the deadline
+	 */
+	public Duration getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Sets the time after the first attempt beyond which no retry is started.
+	 *
+	 * @param deadline
+	 *            the deadline
+	 */
+	public void setDeadline(Duration deadline) {
+		this.deadline = deadline;
+	}
+
+}
@@ -0,0 +1,160 @@
+package org.octri.messaging.autoconfig;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.octri.messaging.sms.RateLimitedSmsDeliveryStrategy.Behavior;
+
+/**
+ * Properties used to configure per-sender rate limits for SMS delivery.
+ */
+public class SmsRateLimitProperties {
+
+	/**
+	 * Whether to limit the rate of messages sent from each sender number.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Messages per second allowed from sender numbers without a specific limit. Twilio long codes allow 1 message per
+	 * second.
+	 */
+	private double messagesPerSecond = 1.0;
+
+	/**
+	 * Number of messages a sender may send at once after being idle.
+	 */
+	private int burst = 1;
+
+	/**
+	 * Messages per second allowed from specific sender numbers, keyed by phone number. Toll-free numbers and short codes
+	 * allow higher rates than long codes.
+	 */
+	private Map<String, Double> senders = new LinkedHashMap<>();
+
+	/**
+	 * What to do with a message when its sender has reached its rate limit. Defaults to waiting.
+	 */
+	private Behavior behavior = Behavior.WAIT;
+
+	/**
+	 * Longest time to wait for a sender's rate limit when the behavior is WAIT.
+	 */
+	private Duration maxWait = Duration.ofSeconds(30);
+
+	/**
+	 * Gets whether sender rate limiting is enabled.
+	 *
+	 * @return true if rate limiting is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether sender rate limiting is enabled.
+	 *
+	 * @param enabled
+	 *            true to limit sender rates
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the rate limit for sender numbers without a specific limit.
+	 *
+	 * @return messages per second
+	 */
+	public double getMessagesPerSecond() {
+		return messagesPerSecond;
+	}
+
+	/**
+	 * Sets the rate limit for sender numbers without a specific limit.
+	 *
+	 * @param messagesPerSecond
+	 *            messages per second
+	 */
+	public void setMessagesPerSecond(double messagesPerSecond) {
+		this.messagesPerSecond = messagesPerSecond;
+	}
+
+	/**
+	 * Gets the number of messages a sender may send at once after being idle.
+	 *
+	 * @return the burst size
+	 */
+	public int getBurst() {
+		return burst;
+	}
+
+	/**
+	 * Sets the number of messages a sender may send at once after being idle.
+	 *
+	 * @param burst
+	 *            the burst size
+	 */
+	public void setBurst(int burst) {
+		this.burst = burst;
+	}
+
+	/**
+	 * Gets the rate limits for specific sender numbers.
+	 *
+	 * @return messages per second, keyed by phone number
+	 */
+	public Map<String, Double> getSenders() {
+		return senders;
+	}
+
+	/**
+	 * Sets the rate limits for specific sender numbers.
+	 *
+	 * @param senders
+	 *            messages per second, keyed by phone number
+	 */
+	public void setSenders(Map<String, Double> senders) {
+		this.senders = senders;
+	}
+
+	/**
+	 * Gets what to do with a message when its sender has reached its rate limit.
+	 *
+	 * @return the rate limit behavior
+	 */
+	public Behavior getBehavior() {
+		return behavior;
+	}
+
+	/**
+	 * Sets what to do with a message when its sender has reached its rate limit.
+	 *
+	 * @param behavior
+	 *            the rate limit behavior
+	 */
+	public void setBehavior(Behavior behavior) {
+		this.behavior = behavior;
+	}
+
+	/**
+	 * Gets the longest time to wait for a sender's rate limit.
+	 *
+	 * @return the maximum wait
+	 */
+	public Duration getMaxWait() {
+		return maxWait;
+	}
+
+	/**
+	 * Sets the longest time to wait for a sender's rate limit.
+	 *
+	 * @param maxWait
+	 *            the maximum wait
+	 */
+	public void setMaxWait(Duration maxWait) {
+		this.maxWait = maxWait;
+	}
+
+}
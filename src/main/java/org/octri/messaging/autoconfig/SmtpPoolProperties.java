@@ -0,0 +1,154 @@
+package org.octri.messaging.autoconfig;
+
+import java.time.Duration;
+
+/**
+ * Properties used to configure pooled SMTP connections.
+ */
+public class SmtpPoolProperties {
+
+	/**
+	 * Whether to send email over pooled, persistent SMTP connections.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Maximum number of open SMTP connections.
+	 */
+	private int maxSize = 4;
+
+	/**
+	 * How long a connection may sit idle before it is closed.
+	 */
+	private Duration idleTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * How long a connection may sit idle before it is checked with an SMTP NOOP command when reused.
+	 */
+	private Duration validationInterval = Duration.ofSeconds(5);
+
+	/**
+	 * Number of messages after which a connection is closed and replaced.
+	 */
+	private int maxMessagesPerConnection = 100;
+
+	/**
+	 * How long to wait for a connection when all connections are in use.
+	 */
+	private Duration borrowTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Gets whether SMTP connections are pooled.
+	 *
+	 * @return true if connections are pooled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether SMTP connections are pooled.
+	 *
+	 * @param enabled
+	 *            true to pool connections
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the maximum number of open SMTP connections.
+	 *
+	 * @return the maximum pool size
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Sets the maximum number of open SMTP connections.
+	 *
+	 * @param maxSize
+	 *            the maximum pool size
+	 */
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Gets how long a connection may sit idle before it is closed.
+	 *
+	 * @return the idle timeout
+	 */
+	public Duration getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Sets how long a connection may sit idle before it is closed.
+	 *
+	 * @param idleTimeout
+	 *            the idle timeout
+	 */
+	public void setIdleTimeout(Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Gets how long a connection may sit idle before it is validated when reused.
+	 *
+	 * @return the validation interval
+	 */
+	public Duration getValidationInterval() {
+		return validationInterval;
+	}
+
+	/**
+	 * Sets how long a connection may sit idle before it is validated when reused.
+	 *
+	 * @param validationInterval
+	 *            the validation interval
+	 */
+	public void setValidationInterval(Duration validationInterval) {
+		this.validationInterval = validationInterval;
+	}
+
+	/**
+	 * Gets the number of messages after which a connection is replaced.
+	 *
+	 * @return the maximum messages per connection
+	 */
+	public int getMaxMessagesPerConnection() {
+		return maxMessagesPerConnection;
+	}
+
+	/**
+	 * Sets the number of messages after which a connection is replaced.
+	 *
+	 * @param maxMessagesPerConnection
+	 *            the maximum messages per connection
+	 */
+	public void setMaxMessagesPerConnection(int maxMessagesPerConnection) {
+		this.maxMessagesPerConnection = maxMessagesPerConnection;
+	}
+
+	/**
+	 * Gets how long to wait for a connection when all connections are in use.
+	 *
+	 * @return the borrow timeout
+	 */
+	public Duration getBorrowTimeout() {
+		return borrowTimeout;
+	}
+
+	/**
+	 * Sets how long to wait for a connection when all connections are in use.
+	 *
+	 * @param borrowTimeout
+	 *            the borrow timeout
+	 */
+	public void setBorrowTimeout(Duration borrowTimeout) {
+		this.borrowTimeout = borrowTimeout;
+	}
+
+}
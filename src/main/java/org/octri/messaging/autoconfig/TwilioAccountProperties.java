@@ -0,0 +1,109 @@
+package org.octri.messaging.autoconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Properties used to configure a Twilio account, such as a subaccount, used in addition to the default account.
+ * Messages sent from the account's numbers are sent through the account.
+ */
+public class TwilioAccountProperties {
+
+	/**
+	 * Twilio account SID.
+	 */
+	private String accountSid;
+
+	/**
+	 * Twilio auth token of the account.
+	 */
+	private String authToken;
+
+	/**
+	 * Sender numbers owned by the account.
+	 */
+	private List<String> numbers = new ArrayList<>();
+
+	/**
+	 * Rate limit for the account's numbers when rate limiting is enabled, in messages per second. Limits set for
+	 * specific numbers take precedence.
+	 */
+	private Double messagesPerSecond;
+
+	/**
+	 * Gets the Twilio account SID.
+	 *
+	 * @return the account SID
+	 */
+	public String getAccountSid() {
+		return accountSid;
+	}
+
+	/**
+	 * Sets the Twilio account SID.
+	 *
+	 * @param accountSid
+	 *            account SID string
+	 */
+	public void setAccountSid(String accountSid) {
+		this.accountSid = accountSid;
+	}
+
+	/**
+	 * Gets the Twilio auth token of the account.
+	 *
+	 * @return the auth token
+	 */
+	public String getAuthToken() {
+		return authToken;
+	}
+
+	/**
+	 * Sets the Twilio auth token of the account.
+	 *
+	 * @param authToken
+	 *            the auth token
+	 */
+	public void setAuthToken(String authToken) {
+		this.authToken = authToken;
+	}
+
+	/**
+	 * Gets the sender numbers owned by the account.
+	 *
+	 * @return the sender numbers
+	 */
+	public List<String> getNumbers() {
+		return numbers;
+	}
+
+	/**
+	 * Sets the sender numbers owned by the account.
+	 *
+	 * @param numbers
+	 *            the sender numbers
+	 */
+	public void setNumbers(List<String> numbers) {
+		this.numbers = numbers;
+	}
+
+	/**
+	 * Gets the rate limit for the account's numbers.
+	 *
+	 * @return messages per second, or null to use the default rate limit
+	 */
+	public Double getMessagesPerSecond() {
+		return messagesPerSecond;
+	}
+
+	/**
+	 * Sets the rate limit for the account's numbers.
+	 *
+	 * @param messagesPerSecond
+	 *            messages per second, or null to use the default rate limit
+	 */
+	public void setMessagesPerSecond(Double messagesPerSecond) {
+		this.messagesPerSecond = messagesPerSecond;
+	}
+
+}
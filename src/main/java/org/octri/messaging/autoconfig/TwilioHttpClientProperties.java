@@ -0,0 +1,178 @@
+package org.octri.messaging.autoconfig;
+
+import java.time.Duration;
+
+/**
+ * Properties used to configure the HTTP client and connection pool shared by the Twilio REST clients.
+ */
+public class TwilioHttpClientProperties {
+
+	/**
+	 * Maximum number of open connections to the Twilio API.
+	 */
+	private int maxConnections = 50;
+
+	/**
+	 * How long to wait for a connection to be established.
+	 */
+	private Duration connectTimeout = Duration.ofSeconds(5);
+
+	/**
+	 * How long to wait for data from the Twilio API once a request has been sent.
+	 */
+	private Duration readTimeout = Duration.ofSeconds(15);
+
+	/**
+	 * How long to wait for a pooled connection when all connections are in use.
+	 */
+	private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+
+	/**
+	 * How long a connection may sit idle before it is closed.
+	 */
+	private Duration idleTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * How long a connection may be kept open in total before it is closed and replaced.
+	 */
+	private Duration timeToLive = Duration.ofMinutes(5);
+
+	/**
+	 * Whether to accept compressed responses from the Twilio API.
+	 */
+	private boolean compression = true;
+
+	/**
+	 * Gets the maximum number of open connections.
+	 *
+	 * @return the maximum number of connections
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Sets the maximum number of open connections.
+	 *
+	 * @param maxConnections
+	 *            the maximum number of connections
+	 */
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	/**
+	 * Gets how long to wait for a connection to be established.
+	 *
+	 * @return the connect timeout
+	 */
+	public Duration getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	/**
+	 * Sets how long to wait for a connection to be established.
+	 *
+	 * @param connectTimeout
+	 *            the connect timeout
+	 */
+	public void setConnectTimeout(Duration connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	/**
+	 * Gets how long to wait for data once a request has been sent.
+	 *
+	 * @return the read timeout
+	 */
+	public Duration getReadTimeout() {
+		return readTimeout;
+	}
+
+	/**
+	 * Sets how long to wait for data once a request has been sent.
+	 *
+	 * @param readTimeout
+	 *            the read timeout
+	 */
+	public void setReadTimeout(Duration readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Gets how long to wait for a pooled connection when all connections are in use.
+	 *
+	 * @return the connection request timeout
+	 */
+	public Duration getConnectionRequestTimeout() {
+		return connectionRequestTimeout;
+	}
+
+	/**
+	 * Sets how long to wait for a pooled connection when all connections are in use.
+	 *
+	 * @param connectionRequestTimeout
+	 *            the connection request timeout
+	 */
+	public void setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+		this.connectionRequestTimeout = connectionRequestTimeout;
+	}
+
+	/**
+	 * Gets how long a connection may sit idle before it is closed.
+	 *
+	 * @return the idle timeout
+	 */
+	public Duration getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	/**
+	 * Sets how long a connection may sit idle before it is closed.
+	 *
+	 * @param idleTimeout
+	 *            the idle timeout
+	 */
+	public void setIdleTimeout(Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Gets how long a connection may be kept open in total.
+	 *
+	 * @return the connection time to live
+	 */
+	public Duration getTimeToLive() {
+		return timeToLive;
+	}
+
+	/**
+	 * Sets how long a connection may be kept open in total.
+	 *
+	 * @param timeToLive
+	 *            the connection time to live
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		this.timeToLive = timeToLive;
+	}
+
+	/**
+	 * Gets whether compressed responses are accepted.
+	 *
+	 * @return true if compressed responses are accepted
+	 */
+	public boolean isCompression() {
+		return compression;
+	}
+
+	/**
+	 * Sets whether compressed responses are accepted.
+	 *
+	 * @param compression
+	 *            true to accept compressed responses
+	 */
+	public void setCompression(boolean compression) {
+		this.compression = compression;
+	}
+
+}
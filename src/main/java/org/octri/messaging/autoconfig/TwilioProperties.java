@@ -1,5 +1,10 @@
 package org.octri.messaging.autoconfig;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties used to configure the Twilio SMS delivery strategy. These are available on the Twilio console.
  *
@@ -30,6 +35,71 @@ public class TwilioProperties {
 	 */
 	private String callbackUrl;
 
+	/**
+	 * Optional SID of a Twilio Messaging Service in the default account. If configured, messages sent without a sender
+	 * number are sent through the Messaging Service, which chooses a number from its sender pool and queues messages on
+	 * Twilio's side.
+	 *
+	 * @see <a href=
+	 *      "https://www.twilio.com/docs/messaging/services">https://www.twilio.com/docs/messaging/services</a>
+	 */
+	private String messagingServiceSid;
+
+	/**
+	 * Base URL that Twilio API requests are sent to instead of the Twilio API hosts, such as a local stub server used
+	 * for load testing. Blank to call Twilio.
+	 */
+	private String apiBaseUrl;
+
+	/**
+	 * Whether to return the full Twilio API response as the delivery details of each message. By default, a compact
+	 * receipt with the message SID, status, segments, price, and timestamps is returned.
+	 */
+	private boolean fullResponseJson = false;
+
+	/**
+	 * Whether to replace smart quotes, dashes, and similar characters with GSM-7 equivalents, so that messages are not
+	 * sent in UCS-2 encoding only because of typography.
+	 */
+	private boolean transliterate = false;
+
+	/**
+	 * Additional Twilio accounts, such as subaccounts, keyed by a name used to route messages to them. Messages sent
+	 * from an account's numbers are sent through that account; other messages are sent through the default account.
+	 */
+	private Map<String, TwilioAccountProperties> accounts = new LinkedHashMap<>();
+
+	/**
+	 * Properties to configure the HTTP client and connection pool used to call the Twilio API.
+	 */
+	private TwilioHttpClientProperties httpClient = new TwilioHttpClientProperties();
+
+	/**
+	 * Properties to configure per-sender rate limits.
+	 */
+	private SmsRateLimitProperties rateLimit = new SmsRateLimitProperties();
+
+	/**
+	 * Pool of sender numbers used when messages are sent without a sender number.
+	 */
+	private List<TwilioSenderProperties> senders = new ArrayList<>();
+
+	/**
+	 * Number of recipients whose assigned sender number is remembered, so later messages to the same recipient are sent
+	 * from the same number.
+	 */
+	private int stickyCacheSize = 10000;
+
+	/**
+	 * Cache of phone numbers converted to E.164 format.
+	 */
+	private PhoneNumberCacheProperties phoneNumberCache = new PhoneNumberCacheProperties();
+
+	/**
+	 * Status callback endpoint configuration.
+	 */
+	private TwilioWebhookProperties webhook = new TwilioWebhookProperties();
+
 	/**
 	 * Gets the configured Twilio account SID.
 	 *
@@ -87,4 +157,213 @@ public class TwilioProperties {
 		this.callbackUrl = callbackUrl;
 	}
 
+	/**
+	 * Gets the configured Twilio Messaging Service SID.
+	 *
+	 * @return the Messaging Service SID, or null if none is configured
+	 */
+	public String getMessagingServiceSid() {
+		return messagingServiceSid;
+	}
+
+	/**
+	 * Sets the Twilio Messaging Service SID.
+	 *
+	 * @param messagingServiceSid
+	 *            the Messaging Service SID
+	 */
+	public void setMessagingServiceSid(String messagingServiceSid) {
+		this.messagingServiceSid = messagingServiceSid;
+	}
+
+	/**
+	 * Gets the base URL that Twilio API requests are sent to instead of the Twilio API hosts.
+	 *
+	 * @return the base URL, or null to call Twilio
+	 */
+	public String getApiBaseUrl() {
+		return apiBaseUrl;
+	}
+
+	/**
+	 * Sets the base URL that Twilio API requests are sent to instead of the Twilio API hosts.
+	 *
+	 * @param apiBaseUrl
+	 *            the base URL, e.g. http://localhost:8089, or blank to call Twilio
+	 */
+	public void setApiBaseUrl(String apiBaseUrl) {
+		this.apiBaseUrl = apiBaseUrl;
+	}
+
+	/**
+	 * Whether the full Twilio API response is returned as the delivery details of each message.
+	 *
+	 * @return true if the full response is returned
+	 */
+	public boolean isFullResponseJson() {
+		return fullResponseJson;
+	}
+
+	/**
+	 * Sets whether the full Twilio API response is returned as the delivery details of each message.
+	 *
+	 * @param fullResponseJson
+	 *            true to return the full response, false to return a compact receipt
+	 */
+	public void setFullResponseJson(boolean fullResponseJson) {
+		this.fullResponseJson = fullResponseJson;
+	}
+
+	/**
+	 * Whether typographic characters are replaced with GSM-7 equivalents before messages are sent.
+	 *
+	 * @return true if messages are transliterated
+	 */
+	public boolean isTransliterate() {
+		return transliterate;
+	}
+
+	/**
+	 * Sets whether typographic characters are replaced with GSM-7 equivalents before messages are sent.
+	 *
+	 * @param transliterate
+	 *            true to transliterate messages
+	 */
+	public void setTransliterate(boolean transliterate) {
+		this.transliterate = transliterate;
+	}
+
+	/**
+	 * Gets the additional Twilio accounts.
+	 *
+	 * @return accounts keyed by name
+	 */
+	public Map<String, TwilioAccountProperties> getAccounts() {
+		return accounts;
+	}
+
+	/**
+	 * Sets the additional Twilio accounts.
+	 *
+	 * @param accounts
+	 *            accounts keyed by name
+	 */
+	public void setAccounts(Map<String, TwilioAccountProperties> accounts) {
+		this.accounts = accounts;
+	}
+
+	/**
+	 * Gets the HTTP client configuration.
+	 *
+	 * @return HTTP client configuration
+	 */
+	public TwilioHttpClientProperties getHttpClient() {
+		return httpClient;
+	}
+
+	/**
+	 * Sets the HTTP client configuration.
+	 *
+	 * @param httpClient
+	 *            HTTP client configuration
+	 */
+	public void setHttpClient(TwilioHttpClientProperties httpClient) {
+		this.httpClient = httpClient;
+	}
+
+	/**
+	 * Gets the per-sender rate limit configuration.
+	 *
+	 * @return rate limit configuration
+	 */
+	public SmsRateLimitProperties getRateLimit() {
+		return rateLimit;
+	}
+
+	/**
+	 * Sets the per-sender rate limit configuration.
+	 *
+	 * @param rateLimit
+	 *            rate limit configuration
+	 */
+	public void setRateLimit(SmsRateLimitProperties rateLimit) {
+		this.rateLimit = rateLimit;
+	}
+
+	/**
+	 * Gets the pool of sender numbers.
+	 *
+	 * @return the sender pool configuration
+	 */
+	public List<TwilioSenderProperties> getSenders() {
+		return senders;
+	}
+
+	/**
+	 * Sets the pool of sender numbers.
+	 *
+	 * @param senders
+	 *            the sender pool configuration
+	 */
+	public void setSenders(List<TwilioSenderProperties> senders) {
+		this.senders = senders;
+	}
+
+	/**
+	 * Gets the number of recipients whose assigned sender number is remembered.
+	 *
+	 * @return the sticky cache size
+	 */
+	public int getStickyCacheSize() {
+		return stickyCacheSize;
+	}
+
+	/**
+	 * Sets the number of recipients whose assigned sender number is remembered.
+	 *
+	 * @param stickyCacheSize
+	 *            the sticky cache size
+	 */
+	public void setStickyCacheSize(int stickyCacheSize) {
+		this.stickyCacheSize = stickyCacheSize;
+	}
+
+	/**
+	 * Gets the phone number cache configuration.
+	 *
+	 * @return phone number cache configuration
+	 */
+	public PhoneNumberCacheProperties getPhoneNumberCache() {
+		return phoneNumberCache;
+	}
+
+	/**
+	 * Sets the phone number cache configuration.
+	 *
+	 * @param phoneNumberCache
+	 *            phone number cache configuration
+	 */
+	public void setPhoneNumberCache(PhoneNumberCacheProperties phoneNumberCache) {
+		this.phoneNumberCache = phoneNumberCache;
+	}
+
+	/**
+	 * Gets the status callback endpoint configuration.
+	 *
+	 * @return status callback endpoint configuration
+	 */
+	public TwilioWebhookProperties getWebhook() {
+		return webhook;
+	}
+
+	/**
+	 * Sets the status callback endpoint configuration.
+	 *
+	 * @param webhook
+	 *            status callback endpoint configuration
+	 */
+	public void setWebhook(TwilioWebhookProperties webhook) {
+		this.webhook = webhook;
+	}
+
 }
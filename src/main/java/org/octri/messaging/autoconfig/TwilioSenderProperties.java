@@ -0,0 +1,87 @@
+package org.octri.messaging.autoconfig;
+
+/**
+ * Properties describing one sender number in the Twilio sender pool.
+ */
+public class TwilioSenderProperties {
+
+	/**
+	 * Throughput assumed for a number without a configured rate. Twilio long codes allow 1 message per second.
+	 */
+	public static final double DEFAULT_MESSAGES_PER_SECOND = 1.0;
+
+	/**
+	 * Sender phone number. Numbers are converted to E.164 format before use.
+	 */
+	private String number;
+
+	/**
+	 * Relative share of new recipients assigned to this number, multiplied by its rate. Defaults to 1.
+	 */
+	private double weight = 1.0;
+
+	/**
+	 * Throughput limit of this number in messages per second. When not set, the rate limit of the number's account
+	 * is used if it has one; otherwise the pool assumes 1 message per second, the limit of a Twilio long code, and the
+	 * rate limiter uses the default rate limit.
+	 */
+	private Double messagesPerSecond;
+
+	/**
+	 * Gets the sender phone number.
+	 *
+	 * @return the phone number
+	 */
+	public String getNumber() {
+		return number;
+	}
+
+	/**
+	 * Sets the sender phone number.
+	 *
+	 * @param number
+	 *            the phone number
+	 */
+	public void setNumber(String number) {
+		this.number = number;
+	}
+
+	/**
+	 * Gets the relative share of new recipients assigned to this number.
+	 *
+	 * @return the weight
+	 */
+	public double getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Sets the relative share of new recipients assigned to this number.
+	 *
+	 * @param weight
+	 *            the weight
+	 */
+	public void setWeight(double weight) {
+		this.weight = weight;
+	}
+
+	/**
+	 * Gets the throughput limit of this number.
+	 *
+	 * @return messages per second, or null if not set
+	 */
+	public Double getMessagesPerSecond() {
+		return messagesPerSecond;
+	}
+
+	/**
+	 * Sets the throughput limit of this number.
+	 *
+	 * @param messagesPerSecond
+	 *            messages per second, or null to use the default
+	 */
+	public void setMessagesPerSecond(Double messagesPerSecond) {
+		this.messagesPerSecond = messagesPerSecond;
+	}
+
+}
@@ -0,0 +1,80 @@
+package org.octri.messaging.autoconfig;
+
+/**
+ * Properties used to configure the Twilio status callback endpoint.
+ */
+public class TwilioWebhookProperties {
+
+	/**
+	 * Whether to register the status callback endpoint.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Path of the status callback endpoint.
+	 */
+	private String path = "/twilio/status";
+
+	/**
+	 * Whether to reject callbacks without a valid Twilio signature.
+	 */
+	private boolean validateSignature = true;
+
+	/**
+	 * Gets whether the status callback endpoint is registered.
+	 *
+	 * @return true if the endpoint is enabled
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Sets whether the status callback endpoint is registered.
+	 *
+	 * @param enabled
+	 *            true to register the endpoint
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Gets the path of the status callback endpoint.
+	 *
+	 * @return the path
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * Sets the path of the status callback endpoint.
+	 *
+	 * @param path
+	 *            the path
+	 */
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	/**
+	 * Gets whether callbacks without a valid Twilio signature are rejected.
+	 *
+	 * @return true if signatures are validated
+	 */
+	public boolean isValidateSignature() {
+		return validateSignature;
+	}
+
+	/**
+	 * Sets whether callbacks without a valid Twilio signature are rejected.
+	 *
+	 * @param validateSignature
+	 *            true to validate signatures
+	 */
+	public void setValidateSignature(boolean validateSignature) {
+		this.validateSignature = validateSignature;
+	}
+
+}
@@ -0,0 +1,95 @@
+package org.octri.messaging.email;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.resilience.CircuitBreaker;
+import org.springframework.util.Assert;
+
+/**
+ * Email delivery strategy that passes messages to another strategy through a {@link CircuitBreaker}. While the circuit
+ * is open, messages fail immediately with a {@link CircuitOpenException} instead of waiting for the mail server to time
+ * out.
+ */
+public class CircuitBreakerEmailDeliveryStrategy implements EmailDeliveryStrategy {
+
+	private final EmailDeliveryStrategy delegate;
+	private final CircuitBreaker circuitBreaker;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            strategy that delivers the messages
+	 * @param circuitBreaker
+	 *            circuit breaker guarding the delegate
+	 */
+	public CircuitBreakerEmailDeliveryStrategy(EmailDeliveryStrategy delegate, CircuitBreaker circuitBreaker) {
+		Assert.notNull(delegate, "A delegate email delivery strategy is required.");
+		Assert.notNull(circuitBreaker, "A circuit breaker is required.");
+		this.delegate = delegate;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	@Override
+	public Optional<String> sendEmail(String fromEmail, String toEmail, String messageSubject, String messageText) {
+		return circuitBreaker.execute(() -> delegate.sendEmail(fromEmail, toEmail, messageSubject, messageText));
+	}
+
+	@Override
+	public Optional<String> sendEmail(String toEmail, String messageSubject, String messageText) {
+		return circuitBreaker.execute(() -> delegate.sendEmail(toEmail, messageSubject, messageText));
+	}
+
+	/**
+	 * Sends the batch with the delegate if the circuit allows it, so batched deliveries keep sharing connections. The
+	 * outcome of each message is recorded, with the batch time divided evenly among the messages. If the circuit is
+	 * open, every message fails with a {@link CircuitOpenException}.
+	 */
+	@Override
+	public List<EmailDeliveryResult> sendEmail(List<EmailMessage> messages) {
+		if (messages.isEmpty()) {
+			return List.of();
+		}
+		try {
+			circuitBreaker.acquirePermission();
+		} catch (CircuitOpenException coe) {
+			return messages.stream().map(message -> EmailDeliveryResult.failure(message, coe)).toList();
+		}
+
+		var start = System.nanoTime();
+		List<EmailDeliveryResult> results;
+		try {
+			results = delegate.sendEmail(messages);
+		} catch (RuntimeException ex) {
+			circuitBreaker.onError(System.nanoTime() - start, ex);
+			throw ex;
+		}
+
+		var nanosPerMessage = (System.nanoTime() - start) / messages.size();
+		for (var result : results) {
+			if (result.isSuccessful()) {
+				circuitBreaker.onSuccess(nanosPerMessage);
+			} else {
+				circuitBreaker.onError(nanosPerMessage, result.error());
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the circuit breaker guarding the delegate.
+	 *
+	 * @return the circuit breaker
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[circuit=" + circuitBreaker.getName() + ", delegate=" + delegate + "]";
+	}
+
+}
@@ -1,5 +1,7 @@
 package org.octri.messaging.email;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.octri.messaging.exception.UnsuccessfulDeliveryException;
@@ -46,4 +48,34 @@ public interface EmailDeliveryStrategy {
 	 *             delivery failure details
 	 */
 	public Optional<String> sendEmail(String toEmail, String messageSubject, String messageText);
+
+	/**
+	 * Sends a batch of email messages, returning one result per message in the order given. Messages without a sender
+	 * address are sent from the default sender address. A failure to deliver one message does not prevent delivery of
+	 * the others. The default implementation sends the messages one at a time; implementations may override this to
+	 * deliver messages more efficiently.
+	 *
+	 * @param messages
+	 *            the messages to send
+	 * @return the delivery result for each message
+	 */
+	public default List<EmailDeliveryResult> sendEmail(List<EmailMessage> messages) {
+		var results = new ArrayList<EmailDeliveryResult>(messages.size());
+		for (var message : messages) {
+			try {
+				var details = message.fromEmail() == null
+						? sendEmail(message.toEmail(), message.messageSubject(), message.messageText())
+						: sendEmail(message.fromEmail(), message.toEmail(), message.messageSubject(),
+								message.messageText());
+				results.add(EmailDeliveryResult.success(message, details));
+			} catch (UnsuccessfulDeliveryException ude) {
+				results.add(EmailDeliveryResult.failure(message, ude));
+			} catch (RuntimeException e) {
+				results.add(EmailDeliveryResult.failure(message,
+						new UnsuccessfulDeliveryException("Unexpected exception delivering email.", e)));
+			}
+		}
+		return results;
+	}
+
 }
@@ -0,0 +1,31 @@
+package org.octri.messaging.email;
+
+/**
+ * An email message to deliver.
+ *
+ * @param fromEmail
+ *            sender email address. If null, the default sender address is used.
+ * @param toEmail
+ *            recipient email address
+ * @param messageSubject
+ *            subject of the message
+ * @param messageText
+ *            body text of the message
+ */
+public record EmailMessage(String fromEmail, String toEmail, String messageSubject, String messageText) {
+
+	/**
+	 * Creates a message sent from the default sender address.
+	 *
+	 * @param toEmail
+	 *            recipient email address
+	 * @param messageSubject
+	 *            subject of the message
+	 * @param messageText
+	 *            body text of the message
+	 */
+	public EmailMessage(String toEmail, String messageSubject, String messageText) {
+		this(null, toEmail, messageSubject, messageText);
+	}
+
+}
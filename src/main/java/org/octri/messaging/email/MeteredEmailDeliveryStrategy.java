@@ -0,0 +1,102 @@
+package org.octri.messaging.email;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.octri.messaging.metrics.DeliveryMetrics;
+import org.springframework.util.Assert;
+
+/**
+ * Email delivery strategy that records the time, outcome, and error code of each delivery made by another strategy.
+ * Micrometer must be on the classpath to use this class.
+ *
+ * @see DeliveryMetrics
+ */
+public class MeteredEmailDeliveryStrategy implements EmailDeliveryStrategy {
+
+	private final EmailDeliveryStrategy delegate;
+	private final DeliveryMetrics metrics;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            strategy that delivers the messages
+	 * @param metrics
+	 *            meters for the delegate's deliveries
+	 */
+	public MeteredEmailDeliveryStrategy(EmailDeliveryStrategy delegate, DeliveryMetrics metrics) {
+		Assert.notNull(delegate, "A delegate email delivery strategy is required.");
+		Assert.notNull(metrics, "Delivery metrics are required.");
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public Optional<String> sendEmail(String fromEmail, String toEmail, String messageSubject, String messageText) {
+		var start = metrics.start();
+		try {
+			var details = delegate.sendEmail(fromEmail, toEmail, messageSubject, messageText);
+			metrics.success(start);
+			return details;
+		} catch (RuntimeException ex) {
+			metrics.failure(start, ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Optional<String> sendEmail(String toEmail, String messageSubject, String messageText) {
+		var start = metrics.start();
+		try {
+			var details = delegate.sendEmail(toEmail, messageSubject, messageText);
+			metrics.success(start);
+			return details;
+		} catch (RuntimeException ex) {
+			metrics.failure(start, ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Sends the batch with the delegate, so batched deliveries keep sharing connections. The outcome of each message is
+	 * recorded, with the batch time divided evenly among the messages.
+	 */
+	@Override
+	public List<EmailDeliveryResult> sendEmail(List<EmailMessage> messages) {
+		if (messages.isEmpty()) {
+			return List.of();
+		}
+		var start = metrics.monotonicTime();
+		var results = delegate.sendEmail(messages);
+		var nanosPerMessage = (metrics.monotonicTime() - start) / messages.size();
+		for (var result : results) {
+			metrics.record(nanosPerMessage, result.isSuccessful() ? null : result.error());
+		}
+		return results;
+	}
+
+	/**
+	 * Gets the strategy that delivers the messages.
+	 *
+	 * @return the delegate strategy
+	 */
+	public EmailDeliveryStrategy getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Gets the meters for the delegate's deliveries.
+	 *
+	 * @return the delivery metrics
+	 */
+	public DeliveryMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[delegate=" + delegate + "]";
+	}
+
+}
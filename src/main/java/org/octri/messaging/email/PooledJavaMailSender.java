@@ -0,0 +1,166 @@
+package org.octri.messaging.email;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.octri.messaging.autoconfig.SmtpPoolProperties;
+import org.octri.messaging.email.SmtpConnectionPool.PooledTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.util.Assert;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * {@link JavaMailSenderImpl} that sends messages over pooled, persistent SMTP connections. The standard implementation
+ * opens, authenticates, and closes a connection for every call to <code>send</code>; this implementation borrows an
+ * already authenticated connection from a {@link SmtpConnectionPool}, so a single message costs one SMTP transaction.
+ *
+ * If a message fails because its connection was dropped by the server, the connection is discarded and the message is
+ * retried once on a new connection.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(PooledJavaMailSender.class);
+
+	private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+	private final SmtpConnectionPool pool;
+
+	/**
+	 * Constructor. Copies the connection settings of the given mail sender, such as the one Spring Boot configures
+	 * from the <code>spring.mail</code> properties.
+	 *
+	 * @param source
+	 *            mail sender to copy connection settings from
+	 * @param poolProperties
+	 *            connection pool configuration
+	 */
+	public PooledJavaMailSender(JavaMailSenderImpl source, SmtpPoolProperties poolProperties) {
+		Assert.notNull(source, "A JavaMailSenderImpl is required to configure the pooled mail sender.");
+		Assert.notNull(poolProperties, "SMTP pool properties are required to configure the pooled mail sender.");
+		setJavaMailProperties(source.getJavaMailProperties());
+		setProtocol(source.getProtocol());
+		setHost(source.getHost());
+		setPort(source.getPort());
+		setUsername(source.getUsername());
+		setPassword(source.getPassword());
+		setDefaultEncoding(source.getDefaultEncoding());
+		setDefaultFileTypeMap(source.getDefaultFileTypeMap());
+
+		this.pool = new SmtpConnectionPool(this::connectTransport, poolProperties.getMaxSize(),
+				poolProperties.getIdleTimeout(), poolProperties.getValidationInterval(),
+				poolProperties.getMaxMessagesPerConnection(), poolProperties.getBorrowTimeout());
+	}
+
+	/**
+	 * Constructor for a sender that uses the given connection pool.
+	 *
+	 * @param pool
+	 *            SMTP connection pool
+	 */
+	PooledJavaMailSender(SmtpConnectionPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Gets the connection pool used by this sender.
+	 *
+	 * @return the connection pool
+	 */
+	public SmtpConnectionPool getPool() {
+		return pool;
+	}
+
+	@Override
+	protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+		Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+		PooledTransport pooled = null;
+
+		try {
+			for (int i = 0; i < mimeMessages.length; i++) {
+				var original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+
+				if (pooled == null) {
+					try {
+						pooled = pool.borrow();
+					} catch (AuthenticationFailedException afe) {
+						throw new MailAuthenticationException(afe);
+					} catch (MessagingException me) {
+						// Without a connection, none of the remaining messages can be sent
+						for (int j = i; j < mimeMessages.length; j++) {
+							failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], me);
+						}
+						break;
+					}
+				}
+
+				try {
+					sendMessage(pooled, mimeMessages[i]);
+				} catch (MessagingException | RuntimeException ex) {
+					if (pooled.getTransport().isConnected()) {
+						failedMessages.put(original, ex);
+					} else {
+						log.debug("SMTP connection dropped; retrying message on a new connection");
+						pool.release(pooled, true);
+						pooled = null;
+						try {
+							pooled = pool.borrow();
+							sendMessage(pooled, mimeMessages[i]);
+						} catch (MessagingException | RuntimeException retryEx) {
+							failedMessages.put(original, retryEx);
+						}
+					}
+				}
+
+				if (pooled != null && !pool.canReuse(pooled)) {
+					pool.release(pooled, false);
+					pooled = null;
+				}
+			}
+		} finally {
+			if (pooled != null) {
+				pool.release(pooled, false);
+			}
+		}
+
+		if (!failedMessages.isEmpty()) {
+			throw new MailSendException(failedMessages);
+		}
+	}
+
+	/**
+	 * Closes idle pooled connections when the application shuts down.
+	 */
+	@Override
+	public void destroy() {
+		pool.close();
+	}
+
+	private void sendMessage(PooledTransport pooled, MimeMessage mimeMessage) throws MessagingException {
+		if (mimeMessage.getSentDate() == null) {
+			mimeMessage.setSentDate(new Date());
+		}
+
+		// Preserve an explicitly set message ID, which saveChanges would otherwise replace
+		var messageId = mimeMessage.getMessageID();
+		mimeMessage.saveChanges();
+		if (messageId != null) {
+			mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+		}
+
+		Address[] addresses = mimeMessage.getAllRecipients();
+		pooled.getTransport().sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+		pooled.recordMessageSent();
+	}
+
+}
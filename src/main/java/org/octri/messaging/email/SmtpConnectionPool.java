@@ -0,0 +1,249 @@
+package org.octri.messaging.email;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+/**
+ * Pool of connected, authenticated SMTP {@link Transport} instances. Connections are reused across messages instead of
+ * connecting, negotiating TLS, and authenticating for every send.
+ *
+ * Idle connections are checked with {@link Transport#isConnected()}, which issues an SMTP NOOP, before they are reused.
+ * Connections are closed instead of being returned to the pool once they have been idle longer than the idle timeout,
+ * have sent the maximum number of messages, or have been reported broken.
+ */
+public class SmtpConnectionPool implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+	/**
+	 * Opens new connected transports for the pool.
+	 */
+	@FunctionalInterface
+	public interface TransportFactory {
+
+		/**
+		 * Opens a connected, authenticated transport.
+		 *
+		 * @return the transport
+		 * @throws MessagingException
+		 *             if the connection could not be established
+		 */
+		Transport connect() throws MessagingException;
+
+	}
+
+	/**
+	 * A transport borrowed from the pool. Borrowers must return it with
+	 * {@link SmtpConnectionPool#release(PooledTransport, boolean)}.
+	 */
+	public static final class PooledTransport {
+
+		private final Transport transport;
+		private long lastUsedNanos;
+		private int messageCount;
+
+		private PooledTransport(Transport transport) {
+			this.transport = transport;
+			this.lastUsedNanos = System.nanoTime();
+		}
+
+		/**
+		 * Gets the connected transport.
+		 *
+		 * @return the transport
+		 */
+		public Transport getTransport() {
+			return transport;
+		}
+
+		/**
+		 * Records that a message was sent over the connection.
+		 */
+		public void recordMessageSent() {
+			messageCount++;
+		}
+
+		/**
+		 * Gets the number of messages sent over the connection.
+		 *
+		 * @return the message count
+		 */
+		public int getMessageCount() {
+			return messageCount;
+		}
+
+	}
+
+	private final TransportFactory transportFactory;
+	private final int maxSize;
+	private final long idleTimeoutNanos;
+	private final long validationIntervalNanos;
+	private final int maxMessagesPerConnection;
+	private final Duration borrowTimeout;
+	private final Semaphore permits;
+	private final Deque<PooledTransport> idle = new ArrayDeque<>();
+	private volatile boolean closed;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param transportFactory
+	 *            opens new connections
+	 * @param maxSize
+	 *            maximum number of open connections
+	 * @param idleTimeout
+	 *            how long a connection may sit idle before it is closed
+	 * @param validationInterval
+	 *            how long a connection may sit idle before it is validated with NOOP when borrowed
+	 * @param maxMessagesPerConnection
+	 *            number of messages after which a connection is closed and replaced
+	 * @param borrowTimeout
+	 *            how long to wait for a connection when all connections are in use
+	 */
+	public SmtpConnectionPool(TransportFactory transportFactory, int maxSize, Duration idleTimeout,
+			Duration validationInterval, int maxMessagesPerConnection, Duration borrowTimeout) {
+		Assert.notNull(transportFactory, "A transport factory is required.");
+		Assert.isTrue(maxSize > 0, "The SMTP pool size must be greater than zero.");
+		Assert.isTrue(maxMessagesPerConnection > 0, "Maximum messages per connection must be greater than zero.");
+		this.transportFactory = transportFactory;
+		this.maxSize = maxSize;
+		this.idleTimeoutNanos = idleTimeout.toNanos();
+		this.validationIntervalNanos = validationInterval.toNanos();
+		this.maxMessagesPerConnection = maxMessagesPerConnection;
+		this.borrowTimeout = borrowTimeout;
+		this.permits = new Semaphore(maxSize, true);
+	}
+
+	/**
+	 * Borrows a connected transport, reusing an idle connection when a valid one is available.
+	 *
+	 * @return the borrowed transport
+	 * @throws MessagingException
+	 *             if no connection became available before the borrow timeout, or a new connection could not be
+	 *             opened
+	 */
+	public PooledTransport borrow() throws MessagingException {
+		Assert.state(!closed, "The SMTP connection pool is closed.");
+		try {
+			if (!permits.tryAcquire(borrowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new MessagingException("Timed out waiting for an SMTP connection.");
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new MessagingException("Interrupted while waiting for an SMTP connection.", ie);
+		}
+
+		try {
+			PooledTransport pooled;
+			while ((pooled = pollIdle()) != null) {
+				var idleNanos = System.nanoTime() - pooled.lastUsedNanos;
+				if (idleNanos > idleTimeoutNanos) {
+					log.debug("Closing SMTP connection idle for {} ms", TimeUnit.NANOSECONDS.toMillis(idleNanos));
+					closeQuietly(pooled);
+				} else if (idleNanos > validationIntervalNanos && !pooled.transport.isConnected()) {
+					log.debug("Discarding SMTP connection that failed validation");
+					closeQuietly(pooled);
+				} else {
+					return pooled;
+				}
+			}
+
+			log.debug("Opening new SMTP connection");
+			return new PooledTransport(transportFactory.connect());
+		} catch (MessagingException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns a borrowed transport to the pool.
+	 *
+	 * @param pooled
+	 *            the borrowed transport
+	 * @param broken
+	 *            true if the connection failed and should be closed instead of reused
+	 */
+	public void release(PooledTransport pooled, boolean broken) {
+		try {
+			if (closed || broken || !canReuse(pooled)) {
+				closeQuietly(pooled);
+			} else {
+				pooled.lastUsedNanos = System.nanoTime();
+				synchronized (idle) {
+					idle.push(pooled);
+				}
+			}
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Reports whether a borrowed transport may send more messages before it must be replaced.
+	 *
+	 * @param pooled
+	 *            the borrowed transport
+	 * @return true if the connection has not reached the per-connection message limit
+	 */
+	public boolean canReuse(PooledTransport pooled) {
+		return pooled.messageCount < maxMessagesPerConnection;
+	}
+
+	/**
+	 * Closes all idle connections. Connections that are currently borrowed are closed when they are released.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		PooledTransport pooled;
+		while ((pooled = pollIdle()) != null) {
+			closeQuietly(pooled);
+		}
+	}
+
+	/**
+	 * Gets the number of idle connections in the pool.
+	 *
+	 * @return the idle connection count
+	 */
+	public int getIdleCount() {
+		synchronized (idle) {
+			return idle.size();
+		}
+	}
+
+	/**
+	 * Gets the number of connections currently borrowed.
+	 *
+	 * @return the active connection count
+	 */
+	public int getActiveCount() {
+		return maxSize - permits.availablePermits();
+	}
+
+	private PooledTransport pollIdle() {
+		synchronized (idle) {
+			return idle.poll();
+		}
+	}
+
+	private void closeQuietly(PooledTransport pooled) {
+		try {
+			pooled.transport.close();
+		} catch (MessagingException | RuntimeException e) {
+			log.debug("Error closing SMTP connection: " + e.getMessage());
+		}
+	}
+
+}
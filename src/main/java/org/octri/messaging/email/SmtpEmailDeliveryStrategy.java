@@ -1,17 +1,26 @@
 package org.octri.messaging.email;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.octri.messaging.autoconfig.EmailProperties;
 import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.metrics.MessagingObservations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.util.Assert;
 
 import io.micrometer.common.util.StringUtils;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 
 /**
  * Email delivery strategy that uses an SMTP server to send messages.
@@ -31,6 +40,7 @@ public class SmtpEmailDeliveryStrategy implements EmailDeliveryStrategy {
 
 	private final JavaMailSender sender;
 	private final EmailProperties emailProperties;
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
 
 	/**
 	 * Constructor.
@@ -51,19 +61,10 @@ public class SmtpEmailDeliveryStrategy implements EmailDeliveryStrategy {
 
 	@Override
 	public Optional<String> sendEmail(String fromEmail, String toEmail, String messageSubject, String messageText) {
-		var prefixedSubject = EmailUtils.addPrefixToSubject(messageSubject, emailProperties.getSubjectPrefix());
-		log.debug("Sending SMTP email from {} to {}", fromEmail, toEmail);
-		log.debug("Message subject: " + prefixedSubject);
-		log.debug("Message text:\n" + messageText);
-
-		var message = new SimpleMailMessage();
-		message.setFrom(fromEmail);
-		message.setTo(toEmail);
-		message.setSubject(prefixedSubject);
-		message.setText(messageText);
+		var message = buildMessage(fromEmail, toEmail, messageSubject, messageText);
 
 		try {
-			sender.send(message);
+			sendObservation(false).observe(() -> sender.send(message));
 		} catch (MailException ex) {
 			throw new UnsuccessfulDeliveryException("SMTP delivery failed", ex);
 		}
@@ -80,4 +81,121 @@ public class SmtpEmailDeliveryStrategy implements EmailDeliveryStrategy {
 		return sendEmail(emailProperties.getDefaultSenderAddress(), toEmail, messageSubject, messageText);
 	}
 
+	/**
+	 * Gets the registry used to observe SMTP sends.
+	 *
+	 * @return the observation registry
+	 */
+	public ObservationRegistry getObservationRegistry() {
+		return observationRegistry;
+	}
+
+	/**
+	 * Sets the registry used to observe SMTP sends. Each message or chunk handed to the mail sender is recorded as a
+	 * {@link MessagingObservations#SMTP_SEND} observation. No observations are recorded by default.
+	 *
+	 * @param observationRegistry
+	 *            the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "An observation registry is required.");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Sends a batch of messages, handing them to the mail sender in chunks of up to
+	 * <code>octri.messaging.email.batch-size</code> messages. Spring's <code>JavaMailSenderImpl</code> delivers each
+	 * chunk over a single SMTP connection. Messages the SMTP server rejects are reported as failures without affecting
+	 * the rest of the chunk.
+	 */
+	@Override
+	public List<EmailDeliveryResult> sendEmail(List<EmailMessage> messages) {
+		var results = new EmailDeliveryResult[messages.size()];
+		var chunk = new ArrayList<SimpleMailMessage>();
+		var chunkIndexes = new ArrayList<Integer>();
+		var batchSize = Math.max(1, emailProperties.getBatchSize());
+
+		for (int i = 0; i < messages.size(); i++) {
+			var message = messages.get(i);
+			var fromEmail = message.fromEmail() != null ? message.fromEmail()
+					: emailProperties.getDefaultSenderAddress();
+			if (StringUtils.isBlank(fromEmail)) {
+				results[i] = EmailDeliveryResult.failure(message, new UnsuccessfulDeliveryException(
+						"The default sender address is required to send email without a from address."));
+				continue;
+			}
+
+			chunk.add(buildMessage(fromEmail, message.toEmail(), message.messageSubject(), message.messageText()));
+			chunkIndexes.add(i);
+			if (chunk.size() == batchSize) {
+				sendChunk(messages, chunk, chunkIndexes, results);
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			sendChunk(messages, chunk, chunkIndexes, results);
+		}
+
+		return Arrays.asList(results);
+	}
+
+	private void sendChunk(List<EmailMessage> messages, List<SimpleMailMessage> chunk, List<Integer> chunkIndexes,
+			EmailDeliveryResult[] results) {
+		log.debug("Sending batch of {} SMTP messages", chunk.size());
+		Map<Object, Exception> failedMessages = Map.of();
+		MailException chunkFailure = null;
+
+		try {
+			var chunkMessages = chunk.toArray(new SimpleMailMessage[0]);
+			sendObservation(true).observe(() -> sender.send(chunkMessages));
+		} catch (MailSendException mse) {
+			if (mse.getFailedMessages().isEmpty()) {
+				// Thrown when closing the connection fails after all messages were sent
+				log.warn("SMTP batch delivered, but an error occurred: " + mse.getMessage());
+			} else {
+				failedMessages = new IdentityHashMap<>(mse.getFailedMessages());
+			}
+		} catch (MailException ex) {
+			chunkFailure = ex;
+		}
+
+		for (int i = 0; i < chunk.size(); i++) {
+			var index = chunkIndexes.get(i);
+			var message = messages.get(index);
+			if (chunkFailure != null) {
+				results[index] = EmailDeliveryResult.failure(message,
+						new UnsuccessfulDeliveryException("SMTP delivery failed", chunkFailure));
+			} else if (failedMessages.containsKey(chunk.get(i))) {
+				results[index] = EmailDeliveryResult.failure(message,
+						new UnsuccessfulDeliveryException("SMTP delivery failed", failedMessages.get(chunk.get(i))));
+			} else {
+				results[index] = EmailDeliveryResult.success(message, Optional.empty());
+			}
+		}
+
+		chunk.clear();
+		chunkIndexes.clear();
+	}
+
+	private Observation sendObservation(boolean batch) {
+		return Observation.createNotStarted(MessagingObservations.SMTP_SEND, observationRegistry)
+				.contextualName("smtp send")
+				.lowCardinalityKeyValue("batch", batch ? "true" : "false");
+	}
+
+	private SimpleMailMessage buildMessage(String fromEmail, String toEmail, String messageSubject,
+			String messageText) {
+		var prefixedSubject = EmailUtils.addPrefixToSubject(messageSubject, emailProperties.getSubjectPrefix());
+		log.debug("Sending SMTP email from {} to {}", fromEmail, toEmail);
+		log.debug("Message subject: " + prefixedSubject);
+		log.debug("Message text:\n" + messageText);
+
+		var message = new SimpleMailMessage();
+		message.setFrom(fromEmail);
+		message.setTo(toEmail);
+		message.setSubject(prefixedSubject);
+		message.setText(messageText);
+		return message;
+	}
+
 }
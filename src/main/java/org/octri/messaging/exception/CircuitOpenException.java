@@ -0,0 +1,55 @@
+package org.octri.messaging.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a message is not sent because the circuit breaker for its delivery channel is open. The provider is not
+ * contacted, so the caller fails immediately instead of waiting for a timeout.
+ */
+public class CircuitOpenException extends UnsuccessfulDeliveryException {
+
+	/**
+	 * Name of the open circuit.
+	 */
+	private final String circuitName;
+
+	/**
+	 * How long until the circuit lets a probe request through.
+	 */
+	private final Duration retryAfter;
+
+	/**
+	 * Constructs an exception with a custom error message.
+	 *
+	 * @param message
+	 *            custom error message
+	 * @param circuitName
+	 *            name of the open circuit
+	 * @param retryAfter
+	 *            how long until the circuit lets a probe request through
+	 */
+	public CircuitOpenException(String message, String circuitName, Duration retryAfter) {
+		super(message);
+		this.circuitName = circuitName;
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Gets the name of the open circuit.
+	 *
+	 * @return the circuit name
+	 */
+	public String getCircuitName() {
+		return circuitName;
+	}
+
+	/**
+	 * Gets how long until the circuit lets a probe request through.
+	 *
+	 * @return the suggested retry delay
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+}
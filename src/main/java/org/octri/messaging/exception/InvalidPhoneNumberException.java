@@ -27,4 +27,17 @@ public class InvalidPhoneNumberException extends RuntimeException {
 		super(message, cause);
 	}
 
+	/**
+	 * Constructs an exception with a custom error message, optionally without a stack trace. Exceptions for inputs that
+	 * are already known to be invalid are thrown often enough that filling in the stack trace is wasted work.
+	 *
+	 * @param message
+	 *            custom error message
+	 * @param writableStackTrace
+	 *            whether the stack trace should be filled in
+	 */
+	public InvalidPhoneNumberException(String message, boolean writableStackTrace) {
+		super(message, null, true, writableStackTrace);
+	}
+
 }
@@ -0,0 +1,55 @@
+package org.octri.messaging.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a message is not sent because the sender has reached its rate limit.
+ */
+public class RateLimitExceededException extends UnsuccessfulDeliveryException {
+
+	/**
+	 * How long until the sender may send again.
+	 */
+	private final Duration retryAfter;
+
+	/**
+	 * Whether the message should be kept and sent later rather than treated as a failed attempt.
+	 */
+	private final boolean deferred;
+
+	/**
+	 * Constructs an exception with a custom error message.
+	 *
+	 * @param message
+	 *            custom error message
+	 * @param retryAfter
+	 *            how long until the sender may send again
+	 * @param deferred
+	 *            true if the message should be kept and sent later rather than treated as a failed attempt
+	 */
+	public RateLimitExceededException(String message, Duration retryAfter, boolean deferred) {
+		super(message);
+		this.retryAfter = retryAfter;
+		this.deferred = deferred;
+	}
+
+	/**
+	 * Gets how long until the sender may send again.
+	 *
+	 * @return the suggested retry delay
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+	/**
+	 * Whether the message should be kept and sent later rather than treated as a failed attempt. Queued delivery, such
+	 * as the outbox, leaves deferred messages pending without counting an attempt.
+	 *
+	 * @return true if delivery was deferred
+	 */
+	public boolean isDeferred() {
+		return deferred;
+	}
+
+}
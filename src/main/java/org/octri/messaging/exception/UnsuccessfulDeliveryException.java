@@ -12,6 +12,11 @@ public class UnsuccessfulDeliveryException extends RuntimeException {
 	 */
 	private String errorResponse;
 
+	/**
+	 * Optional error code reported by the delivery system, such as a Twilio error code.
+	 */
+	private String errorCode;
+
 	/**
 	 * Constructs an exception with a custom error message.
 	 *
@@ -49,6 +54,32 @@ public class UnsuccessfulDeliveryException extends RuntimeException {
 		this.errorResponse = errorResponse;
 	}
 
+	/**
+	 * Constructs an exception with a custom error message, cause, error response string, and error code.
+	 *
+	 * @param message
+	 *            custom error message
+	 * @param cause
+	 *            the exception that caused the new exception to be thrown
+	 * @param errorResponse
+	 *            string representation of the error returned by the delivery system (e.g. API response JSON)
+	 * @param errorCode
+	 *            error code reported by the delivery system (e.g. a Twilio error code)
+	 */
+	public UnsuccessfulDeliveryException(String message, Throwable cause, String errorResponse, String errorCode) {
+		this(message, cause, errorResponse);
+		this.errorCode = errorCode;
+	}
+
+	/**
+	 * Gets the error code reported by the delivery system, such as a Twilio error code.
+	 *
+	 * @return the error code, or null if the delivery system did not report one
+	 */
+	public String getErrorCode() {
+		return errorCode;
+	}
+
 	/**
 	 * Gets the detailed error response when present. If not present, the exception
 	 * message is returned.
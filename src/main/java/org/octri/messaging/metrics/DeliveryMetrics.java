@@ -0,0 +1,198 @@
+package org.octri.messaging.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters for the deliveries made by one delivery strategy. All meters are registered when the instance is created,
+ * except error counters, which are registered the first time each error code is seen and reused after that, so
+ * recording a delivery does not look up meters or build tags.
+ *
+ * The following meters are tagged with the channel and strategy:
+ * <ul>
+ * <li><code>octri.messaging.delivery</code>: timer of deliveries, tagged by outcome (success or failure)</li>
+ * <li><code>octri.messaging.delivery.errors</code>: counter of failures, tagged by error code</li>
+ * <li><code>octri.messaging.delivery.in.flight</code>: gauge of deliveries in progress</li>
+ * </ul>
+ */
+public class DeliveryMetrics {
+
+	/**
+	 * Name of the delivery timer.
+	 */
+	public static final String DELIVERY_TIMER = "octri.messaging.delivery";
+
+	/**
+	 * Name of the delivery error counter.
+	 */
+	public static final String ERROR_COUNTER = "octri.messaging.delivery.errors";
+
+	/**
+	 * Name of the gauge of deliveries in progress.
+	 */
+	public static final String IN_FLIGHT_GAUGE = "octri.messaging.delivery.in.flight";
+
+	/**
+	 * Error code tag of failures whose delivery system did not report a code.
+	 */
+	public static final String UNKNOWN_ERROR_CODE = "unknown";
+
+	private final MeterRegistry registry;
+	private final Clock clock;
+	private final Tags tags;
+	private final Timer successTimer;
+	private final Timer failureTimer;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param registry
+	 *            registry to register the meters with
+	 * @param channel
+	 *            message channel, e.g. sms or email
+	 * @param strategy
+	 *            name of the delivery strategy, e.g. twilio or smtp
+	 * @param percentiles
+	 *            percentiles of delivery time to publish, e.g. 0.5 and 0.99. May be empty.
+	 */
+	public DeliveryMetrics(MeterRegistry registry, String channel, String strategy, List<Double> percentiles) {
+		Assert.notNull(registry, "A meter registry is required.");
+		Assert.hasText(channel, "A channel is required.");
+		Assert.hasText(strategy, "A strategy name is required.");
+		this.registry = registry;
+		this.clock = registry.config().clock();
+		this.tags = Tags.of("channel", channel, "strategy", strategy);
+		var percentileValues = percentiles.stream().mapToDouble(Double::doubleValue).toArray();
+		this.successTimer = Timer.builder(DELIVERY_TIMER)
+				.description("Time taken to deliver messages")
+				.tags(tags)
+				.tag("outcome", "success")
+				.publishPercentiles(percentileValues)
+				.register(registry);
+		this.failureTimer = Timer.builder(DELIVERY_TIMER)
+				.description("Time taken to deliver messages")
+				.tags(tags)
+				.tag("outcome", "failure")
+				.publishPercentiles(percentileValues)
+				.register(registry);
+		registry.gauge(IN_FLIGHT_GAUGE, tags, inFlight);
+	}
+
+	/**
+	 * Records the start of a delivery.
+	 *
+	 * @return the start time, to pass to {@link #success(long)} or {@link #failure(long, Throwable)}
+	 */
+	public long start() {
+		inFlight.incrementAndGet();
+		return clock.monotonicTime();
+	}
+
+	/**
+	 * Records a successful delivery.
+	 *
+	 * @param startNanos
+	 *            the time returned by {@link #start()}
+	 */
+	public void success(long startNanos) {
+		inFlight.decrementAndGet();
+		successTimer.record(clock.monotonicTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a failed delivery.
+	 *
+	 * @param startNanos
+	 *            the time returned by {@link #start()}
+	 * @param failure
+	 *            the failure
+	 */
+	public void failure(long startNanos, Throwable failure) {
+		inFlight.decrementAndGet();
+		failureTimer.record(clock.monotonicTime() - startNanos, TimeUnit.NANOSECONDS);
+		errorCounter(failure).increment();
+	}
+
+	/**
+	 * Records the outcome of a message delivered as part of a batch, without changing the number of deliveries in
+	 * progress.
+	 *
+	 * @param durationNanos
+	 *            the share of the batch time spent on the message
+	 * @param failure
+	 *            the failure, or null if the message was delivered
+	 */
+	public void record(long durationNanos, Throwable failure) {
+		if (failure == null) {
+			successTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+		} else {
+			failureTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+			errorCounter(failure).increment();
+		}
+	}
+
+	/**
+	 * Gets the current time of the registry's clock, for timing batches.
+	 *
+	 * @return monotonic time in nanoseconds
+	 */
+	public long monotonicTime() {
+		return clock.monotonicTime();
+	}
+
+	/**
+	 * Gets the number of deliveries in progress.
+	 *
+	 * @return deliveries in progress
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	private Counter errorCounter(Throwable failure) {
+		var errorCode = errorCode(failure);
+		var counter = errorCounters.get(errorCode);
+		if (counter == null) {
+			counter = errorCounters.computeIfAbsent(errorCode, code -> Counter.builder(ERROR_COUNTER)
+					.description("Messages that could not be delivered")
+					.tags(tags)
+					.tag("error.code", code)
+					.register(registry));
+		}
+		return counter;
+	}
+
+	private static String errorCode(Throwable failure) {
+		if (failure instanceof CompletionException && failure.getCause() != null) {
+			failure = failure.getCause();
+		}
+		if (failure instanceof UnsuccessfulDeliveryException ude && ude.getErrorCode() != null) {
+			return ude.getErrorCode();
+		}
+		if (failure instanceof CircuitOpenException) {
+			return "circuit_open";
+		}
+		if (failure instanceof RateLimitExceededException) {
+			return "rate_limited";
+		}
+		return UNKNOWN_ERROR_CODE;
+	}
+
+}
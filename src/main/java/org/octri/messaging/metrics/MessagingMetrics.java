@@ -0,0 +1,76 @@
+package org.octri.messaging.metrics;
+
+import java.util.List;
+
+import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.email.MeteredEmailDeliveryStrategy;
+import org.octri.messaging.sms.MeteredSmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Creates metered delivery strategies that record Micrometer metrics in a registry. Micrometer must be on the classpath
+ * to use this class.
+ *
+ * @see DeliveryMetrics
+ */
+public class MessagingMetrics {
+
+	private final MeterRegistry registry;
+	private final List<Double> percentiles;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param registry
+	 *            registry to register the meters with
+	 * @param percentiles
+	 *            percentiles of delivery time to publish, e.g. 0.5 and 0.99. May be empty.
+	 */
+	public MessagingMetrics(MeterRegistry registry, List<Double> percentiles) {
+		Assert.notNull(registry, "A meter registry is required.");
+		Assert.notNull(percentiles, "Percentiles are required.");
+		this.registry = registry;
+		this.percentiles = List.copyOf(percentiles);
+	}
+
+	/**
+	 * Wraps an SMS delivery strategy so that its deliveries are metered.
+	 *
+	 * @param strategy
+	 *            the strategy to meter
+	 * @param strategyName
+	 *            name used to tag the meters, e.g. twilio
+	 * @return the metered strategy
+	 */
+	public SmsDeliveryStrategy metered(SmsDeliveryStrategy strategy, String strategyName) {
+		return new MeteredSmsDeliveryStrategy(strategy,
+				new DeliveryMetrics(registry, "sms", strategyName, percentiles), registry);
+	}
+
+	/**
+	 * Wraps an email delivery strategy so that its deliveries are metered.
+	 *
+	 * @param strategy
+	 *            the strategy to meter
+	 * @param strategyName
+	 *            name used to tag the meters, e.g. smtp
+	 * @return the metered strategy
+	 */
+	public EmailDeliveryStrategy metered(EmailDeliveryStrategy strategy, String strategyName) {
+		return new MeteredEmailDeliveryStrategy(strategy,
+				new DeliveryMetrics(registry, "email", strategyName, percentiles));
+	}
+
+	/**
+	 * Gets the registry the meters are registered with.
+	 *
+	 * @return the meter registry
+	 */
+	public MeterRegistry getRegistry() {
+		return registry;
+	}
+
+}
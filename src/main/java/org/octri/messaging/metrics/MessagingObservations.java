@@ -0,0 +1,40 @@
+package org.octri.messaging.metrics;
+
+/**
+ * Names of the Micrometer observations recorded around calls to delivery providers. With a tracing bridge, each
+ * observation becomes a span, so a slow delivery can be broken down into phone number normalization, the Twilio API
+ * request, response conversion, and the SMTP send. Observations only use the Micrometer Observation API, which Spring
+ * Framework always provides, and are not recorded unless an <code>ObservationRegistry</code> is set.
+ *
+ * All observations have only low-cardinality tags, so they can also be recorded as timers.
+ */
+public final class MessagingObservations {
+
+	/**
+	 * Conversion of the sender and recipient phone numbers to E.164 format before an SMS message is sent, tagged by
+	 * whether the phone number cache is used (<code>cached</code>).
+	 */
+	public static final String PHONE_NUMBER_NORMALIZATION = "octri.messaging.sms.normalize";
+
+	/**
+	 * Twilio API request that creates a message, tagged by account (<code>twilio.account</code>) and by whether the
+	 * sender is a number or a Messaging Service (<code>sender</code>).
+	 */
+	public static final String TWILIO_REQUEST = "octri.messaging.twilio.request";
+
+	/**
+	 * Conversion of a Twilio API response to delivery details, tagged by whether the receipt or the full response is
+	 * serialized (<code>format</code>).
+	 */
+	public static final String TWILIO_RESPONSE_CONVERSION = "octri.messaging.twilio.response";
+
+	/**
+	 * Hand-off of one message or a batch of messages to the SMTP server, tagged by whether it is a batch
+	 * (<code>batch</code>).
+	 */
+	public static final String SMTP_SEND = "octri.messaging.smtp.send";
+
+	private MessagingObservations() {
+	}
+
+}
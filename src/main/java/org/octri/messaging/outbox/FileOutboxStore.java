@@ -0,0 +1,273 @@
+package org.octri.messaging.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.octri.messaging.outbox.OutboxMessage.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link OutboxStore} backed by an append-only journal file. Every change is written as one JSON line and synced to
+ * disk before the method returns, so pending messages survive a crash or restart. Pending messages are also held in
+ * memory; the journal is only read when the store is opened.
+ *
+ * Completed messages are removed from the journal by compaction, which rewrites the journal with only the pending
+ * messages. Compaction runs when the store is opened and after the configured number of entries have become obsolete
+ * because their messages were delivered, failed, or retried. Failed messages are logged but not kept once the journal
+ * is compacted.
+ *
+ * Messages marked for retry are not fetched again until their next attempt time, which is kept in the journal.
+ * Releasing a message is not journaled, so a released message may be due immediately after a restart.
+ */
+public class FileOutboxStore implements OutboxStore, AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(FileOutboxStore.class);
+
+	private static final String OP_ADD = "ADD";
+	private static final String OP_DELIVERED = "DELIVERED";
+	private static final String OP_RETRY = "RETRY";
+	private static final String OP_FAILED = "FAILED";
+
+	/**
+	 * One line of the journal.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	record JournalEntry(String op, String id, Channel channel, String from, String to, String subject, String text,
+			Long createdAt, Integer attempts, String error, Long nextAttemptAt) {
+
+		static JournalEntry add(OutboxMessage message, Long nextAttemptAt) {
+			return new JournalEntry(OP_ADD, message.id(), message.channel(), message.fromAddress(),
+					message.toAddress(), message.subject(), message.messageText(),
+					message.createdAt().toEpochMilli(), message.attempts(), null, nextAttemptAt);
+		}
+
+		static JournalEntry update(String op, String id, String error, Long nextAttemptAt) {
+			return new JournalEntry(op, id, null, null, null, null, null, null, null, error, nextAttemptAt);
+		}
+
+		OutboxMessage toMessage() {
+			return new OutboxMessage(id, channel, from, to, subject, text, Instant.ofEpochMilli(createdAt),
+					attempts != null ? attempts : 0);
+		}
+
+	}
+
+	private final Path journal;
+	private final int compactionThreshold;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, OutboxMessage> pending = new LinkedHashMap<>();
+	// Epoch millis before which a pending message is not fetched, for messages retried or released
+	private final Map<String, Long> nextAttemptAt = new HashMap<>();
+	private FileChannel channel;
+	private int obsoleteEntries;
+
+	/**
+	 * Constructor. Opens the journal, creating it if needed, and recovers any pending messages.
+	 *
+	 * @param journal
+	 *            path of the journal file
+	 * @param compactionThreshold
+	 *            number of obsolete journal entries after which the journal is compacted
+	 */
+	public FileOutboxStore(Path journal, int compactionThreshold) {
+		Assert.notNull(journal, "A journal path is required.");
+		Assert.isTrue(compactionThreshold > 0, "The compaction threshold must be greater than zero.");
+		this.journal = journal.toAbsolutePath();
+		this.compactionThreshold = compactionThreshold;
+
+		try {
+			Files.createDirectories(this.journal.getParent());
+			recover();
+			compact();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not open outbox journal " + this.journal, e);
+		}
+		log.info("Opened outbox journal " + this.journal + " with " + pending.size() + " pending messages");
+	}
+
+	@Override
+	public synchronized void add(OutboxMessage message) {
+		append(JournalEntry.add(message, null));
+		pending.put(message.id(), message);
+	}
+
+	@Override
+	public synchronized List<OutboxMessage> fetchPending(int limit) {
+		var now = System.currentTimeMillis();
+		return pending.values().stream().filter(message -> isDue(message.id(), now)).limit(limit).toList();
+	}
+
+	/**
+	 * Pushes the message back until its next attempt time. The release is not journaled, so the message may be due
+	 * immediately if the store is reopened.
+	 */
+	@Override
+	public synchronized void release(String id, Instant nextAttemptAt) {
+		if (pending.containsKey(id)) {
+			this.nextAttemptAt.put(id, nextAttemptAt.toEpochMilli());
+		}
+	}
+
+	@Override
+	public synchronized void markDelivered(String id) {
+		if (pending.remove(id) != null) {
+			nextAttemptAt.remove(id);
+			append(JournalEntry.update(OP_DELIVERED, id, null, null));
+			entryObsoleted();
+		}
+	}
+
+	@Override
+	public synchronized void markRetry(String id, String error, Instant nextAttemptAt) {
+		var message = pending.get(id);
+		if (message != null) {
+			append(JournalEntry.update(OP_RETRY, id, error, nextAttemptAt.toEpochMilli()));
+			pending.put(id, message.withFailedAttempt());
+			this.nextAttemptAt.put(id, nextAttemptAt.toEpochMilli());
+			entryObsoleted();
+		}
+	}
+
+	@Override
+	public synchronized void markFailed(String id, String error) {
+		var message = pending.remove(id);
+		if (message != null) {
+			nextAttemptAt.remove(id);
+			log.warn("Outbox message " + id + " to " + message.toAddress() + " failed permanently: " + error);
+			append(JournalEntry.update(OP_FAILED, id, error, null));
+			entryObsoleted();
+		}
+	}
+
+	@Override
+	public synchronized int countPending() {
+		return pending.size();
+	}
+
+	/**
+	 * Gets the path of the journal file.
+	 *
+	 * @return the journal path
+	 */
+	public Path getJournal() {
+		return journal;
+	}
+
+	/**
+	 * Closes the journal. Pending messages remain in the journal and are recovered when it is opened again.
+	 */
+	@Override
+	public synchronized void close() {
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.warn("Error closing outbox journal: " + e.getMessage());
+			}
+			channel = null;
+		}
+	}
+
+	private void recover() throws IOException {
+		if (!Files.exists(journal)) {
+			return;
+		}
+
+		var lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+		for (int i = 0; i < lines.size(); i++) {
+			var line = lines.get(i);
+			if (line.isBlank()) {
+				continue;
+			}
+
+			JournalEntry entry;
+			try {
+				entry = objectMapper.readValue(line, JournalEntry.class);
+			} catch (JsonProcessingException e) {
+				// A partial last line is left behind if the process dies mid-write; compaction removes it
+				log.warn("Skipping unreadable outbox journal entry at line " + (i + 1) + ": " + e.getOriginalMessage());
+				continue;
+			}
+
+			switch (entry.op()) {
+				case OP_ADD -> pending.put(entry.id(), entry.toMessage());
+				case OP_RETRY -> pending.computeIfPresent(entry.id(), (id, message) -> message.withFailedAttempt());
+				case OP_DELIVERED, OP_FAILED -> pending.remove(entry.id());
+				default -> log.warn("Skipping unknown outbox journal operation " + entry.op());
+			}
+			if (entry.nextAttemptAt() != null && pending.containsKey(entry.id())) {
+				nextAttemptAt.put(entry.id(), entry.nextAttemptAt());
+			} else if (!pending.containsKey(entry.id())) {
+				nextAttemptAt.remove(entry.id());
+			}
+		}
+	}
+
+	private boolean isDue(String id, long now) {
+		var due = nextAttemptAt.get(id);
+		return due == null || due <= now;
+	}
+
+	private void entryObsoleted() {
+		if (++obsoleteEntries >= compactionThreshold) {
+			try {
+				compact();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not compact outbox journal " + journal, e);
+			}
+		}
+	}
+
+	/**
+	 * Rewrites the journal with only the pending messages, then atomically replaces the old journal.
+	 */
+	private void compact() throws IOException {
+		close();
+
+		var compacted = journal.resolveSibling(journal.getFileName() + ".compact");
+		try (var out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			for (var message : pending.values()) {
+				out.write(ByteBuffer.wrap(toLine(JournalEntry.add(message, nextAttemptAt.get(message.id())))));
+			}
+			out.force(true);
+		}
+		Files.move(compacted, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		obsoleteEntries = 0;
+	}
+
+	private void append(JournalEntry entry) {
+		Assert.state(channel != null, "The outbox journal is closed.");
+		try {
+			channel.write(ByteBuffer.wrap(toLine(entry)));
+			channel.force(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not write to outbox journal " + journal, e);
+		}
+	}
+
+	private byte[] toLine(JournalEntry entry) throws JsonProcessingException {
+		return (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,207 @@
+package org.octri.messaging.outbox;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.octri.messaging.outbox.OutboxMessage.Channel;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * {@link OutboxStore} backed by a database table. Messages added inside a transaction on the same {@link DataSource}
+ * are only visible to the dispatcher after the transaction commits, and are discarded if it rolls back.
+ *
+ * The table must be created by the application. A schema compatible with most databases is provided in
+ * <code>org/octri/messaging/outbox/schema.sql</code>. Requires <code>spring-jdbc</code> on the classpath.
+ *
+ * Several application instances may dispatch from the same table. Each store claims the pending messages it fetches by
+ * recording its own ID and a lease expiry in the row, using a conditional update that only one store can win. Other
+ * stores skip claimed messages until they are marked delivered, failed, or for retry, or until the lease expires, so a
+ * message is not delivered by two instances at once unless an instance stops while holding its lease. The lease is
+ * compared with each instance's clock, so it should be much longer than the clock difference between instances.
+ *
+ * Messages marked for retry or released are not fetched again until the time recorded in <code>next_attempt_at</code>,
+ * so they do not hold up newer messages.
+ */
+public class JdbcOutboxStore implements OutboxStore {
+
+	/**
+	 * Default name of the outbox table.
+	 */
+	public static final String DEFAULT_TABLE_NAME = "messaging_outbox";
+
+	/**
+	 * Default time a fetched message stays claimed by the store that fetched it.
+	 */
+	public static final Duration DEFAULT_LEASE_DURATION = Duration.ofMinutes(5);
+
+	private static final String STATUS_PENDING = "PENDING";
+	private static final String STATUS_DELIVERED = "DELIVERED";
+	private static final String STATUS_FAILED = "FAILED";
+
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String claimant = UUID.randomUUID().toString();
+	private final long leaseMillis;
+	private final String insertSql;
+	private final String selectPendingSql;
+	private final String claimSql;
+	private final String releaseSql;
+	private final String updateStatusSql;
+	private final String retrySql;
+	private final String countPendingSql;
+
+	/**
+	 * Constructor using the {@link #DEFAULT_LEASE_DURATION default lease duration}.
+	 *
+	 * @param dataSource
+	 *            data source containing the outbox table
+	 * @param tableName
+	 *            name of the outbox table
+	 */
+	public JdbcOutboxStore(DataSource dataSource, String tableName) {
+		this(dataSource, tableName, DEFAULT_LEASE_DURATION);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param dataSource
+	 *            data source containing the outbox table
+	 * @param tableName
+	 *            name of the outbox table
+	 * @param leaseDuration
+	 *            how long a fetched message stays claimed by this store. Should be longer than it takes to deliver a
+	 *            batch of messages.
+	 */
+	public JdbcOutboxStore(DataSource dataSource, String tableName, Duration leaseDuration) {
+		Assert.notNull(dataSource, "A data source is required.");
+		Assert.isTrue(tableName != null && tableName.matches("[A-Za-z_][A-Za-z0-9_.]*"),
+				"Invalid outbox table name " + tableName);
+		Assert.isTrue(leaseDuration != null && leaseDuration.toMillis() > 0,
+				"The outbox lease duration must be greater than zero.");
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.leaseMillis = leaseDuration.toMillis();
+		this.insertSql = "insert into " + tableName
+				+ " (id, channel, from_address, to_address, subject, message_text, status, attempts, created_at)"
+				+ " values (?, ?, ?, ?, ?, ?, '" + STATUS_PENDING + "', 0, ?)";
+		var unclaimed = " and (claimed_until is null or claimed_until < ?)";
+		var due = " and (next_attempt_at is null or next_attempt_at <= ?)";
+		this.selectPendingSql = "select id, channel, from_address, to_address, subject, message_text, created_at,"
+				+ " attempts from " + tableName + " where status = '" + STATUS_PENDING + "'" + unclaimed + due
+				+ " order by created_at, id";
+		this.claimSql = "update " + tableName + " set claimed_by = ?, claimed_until = ? where id = ? and status = '"
+				+ STATUS_PENDING + "'" + unclaimed;
+		this.releaseSql = "update " + tableName
+				+ " set next_attempt_at = ?, claimed_by = null, claimed_until = null where id = ? and claimed_by = ?";
+		this.updateStatusSql = "update " + tableName + " set status = ?, last_error = ?, updated_at = ?,"
+				+ " claimed_by = null, claimed_until = null where id = ? and status = '" + STATUS_PENDING + "'";
+		this.retrySql = "update " + tableName + " set attempts = attempts + 1, last_error = ?, updated_at = ?,"
+				+ " next_attempt_at = ?, claimed_by = null, claimed_until = null where id = ? and status = '"
+				+ STATUS_PENDING + "'";
+		this.countPendingSql = "select count(*) from " + tableName + " where status = '" + STATUS_PENDING + "'";
+	}
+
+	@Override
+	public void add(OutboxMessage message) {
+		jdbcTemplate.update(insertSql, message.id(), message.channel().name(), message.fromAddress(),
+				message.toAddress(), message.subject(), message.messageText(), Timestamp.from(message.createdAt()));
+	}
+
+	/**
+	 * Gets the oldest unclaimed messages that are due for delivery, and claims them for this store. Messages
+	 * claimed by another store between the query and the claim are left out, so fewer than <code>limit</code>
+	 * messages may be returned even when more are pending.
+	 */
+	@Override
+	public List<OutboxMessage> fetchPending(int limit) {
+		var now = now();
+		// setMaxRows is used instead of a LIMIT clause, which is not portable across databases
+		var candidates = jdbcTemplate.query(connection -> {
+			var statement = connection.prepareStatement(selectPendingSql);
+			statement.setTimestamp(1, now);
+			statement.setTimestamp(2, now);
+			statement.setMaxRows(limit);
+			return statement;
+		}, (rs, rowNum) -> mapRow(rs));
+
+		// Each claim is a conditional update, so only one store can claim a message even if several fetched it
+		var leaseExpiry = new Timestamp(now.getTime() + leaseMillis);
+		var claimed = new ArrayList<OutboxMessage>(candidates.size());
+		for (var message : candidates) {
+			if (jdbcTemplate.update(claimSql, claimant, leaseExpiry, message.id(), now) == 1) {
+				claimed.add(message);
+			}
+		}
+		return claimed;
+	}
+
+	@Override
+	public void release(String id, Instant nextAttemptAt) {
+		jdbcTemplate.update(releaseSql, timestamp(nextAttemptAt), id, claimant);
+	}
+
+	@Override
+	public void markDelivered(String id) {
+		jdbcTemplate.update(updateStatusSql, STATUS_DELIVERED, null, now(), id);
+	}
+
+	@Override
+	public void markRetry(String id, String error, Instant nextAttemptAt) {
+		jdbcTemplate.update(retrySql, truncate(error), now(), timestamp(nextAttemptAt), id);
+	}
+
+	@Override
+	public void markFailed(String id, String error) {
+		jdbcTemplate.update(updateStatusSql, STATUS_FAILED, truncate(error), now(), id);
+	}
+
+	@Override
+	public int countPending() {
+		var count = jdbcTemplate.queryForObject(countPendingSql, Integer.class);
+		return count != null ? count : 0;
+	}
+
+	/**
+	 * Writes join the caller's transaction when it uses the same data source.
+	 *
+	 * @return true
+	 */
+	@Override
+	public boolean isTransactional() {
+		return true;
+	}
+
+	private OutboxMessage mapRow(ResultSet rs) throws SQLException {
+		return new OutboxMessage(rs.getString("id"), Channel.valueOf(rs.getString("channel")),
+				rs.getString("from_address"), rs.getString("to_address"), rs.getString("subject"),
+				rs.getString("message_text"), rs.getTimestamp("created_at").toInstant(), rs.getInt("attempts"));
+	}
+
+	private static Timestamp now() {
+		return new Timestamp(System.currentTimeMillis());
+	}
+
+	/**
+	 * Converts a next attempt time at the same millisecond precision as {@link #now()}, so a message due now is not
+	 * skipped for being a few microseconds in the future.
+	 */
+	private static Timestamp timestamp(Instant instant) {
+		return new Timestamp(instant.toEpochMilli());
+	}
+
+	private static String truncate(String error) {
+		return StringUtils.truncate(error, MAX_ERROR_LENGTH);
+	}
+
+}
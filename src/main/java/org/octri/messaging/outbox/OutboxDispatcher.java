@@ -0,0 +1,265 @@
+package org.octri.messaging.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.outbox.OutboxMessage.Channel;
+import org.octri.messaging.service.MessageDeliveryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+/**
+ * Delivers messages from an {@link OutboxStore} in the background. The dispatcher polls the store on a single thread,
+ * delivers each batch of pending messages with a {@link MessageDeliveryService}, and records each message as delivered
+ * or failed. When a full batch is found and some of it was delivered, the next batch is fetched immediately instead of
+ * waiting for the next poll.
+ *
+ * Messages that fail are retried on later polls until they have been attempted the maximum number of times. The delay
+ * before each retry doubles with every failed attempt, starting from the retry backoff and capped at the maximum
+ * retry backoff. Messages deferred by a rate limit or an open circuit breaker are pushed back until the time the
+ * limiter or breaker suggests. Delivery is at least once: a message delivered just before the application stops may
+ * be sent again after a restart.
+ */
+public class OutboxDispatcher implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+	/**
+	 * Default delay before the first retry of a failed message.
+	 */
+	public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(30);
+
+	/**
+	 * Default longest delay between retries of a failed message.
+	 */
+	public static final Duration DEFAULT_MAX_RETRY_BACKOFF = Duration.ofHours(1);
+
+	private enum Outcome {
+		DELIVERED, FAILED, DEFERRED
+	}
+
+	private record BatchResult(int fetched, int attempted, int delivered) {
+	}
+
+	private final OutboxStore outboxStore;
+	private final MessageDeliveryService deliveryService;
+	private final int batchSize;
+	private final Duration pollInterval;
+	private final int maxAttempts;
+	private final Duration retryBackoff;
+	private final Duration maxRetryBackoff;
+	private ScheduledExecutorService scheduler;
+	private volatile boolean running;
+
+	/**
+	 * Constructor using the {@link #DEFAULT_RETRY_BACKOFF default retry backoff} and
+	 * {@link #DEFAULT_MAX_RETRY_BACKOFF default maximum retry backoff}.
+	 *
+	 * @param outboxStore
+	 *            store to deliver messages from
+	 * @param deliveryService
+	 *            service that delivers messages directly. Must not itself add messages to the outbox.
+	 * @param batchSize
+	 *            maximum number of messages fetched and delivered at once
+	 * @param pollInterval
+	 *            how long to wait between polls when the outbox is drained
+	 * @param maxAttempts
+	 *            number of delivery attempts after which a message is marked failed
+	 */
+	public OutboxDispatcher(OutboxStore outboxStore, MessageDeliveryService deliveryService, int batchSize,
+			Duration pollInterval, int maxAttempts) {
+		this(outboxStore, deliveryService, batchSize, pollInterval, maxAttempts, DEFAULT_RETRY_BACKOFF,
+				DEFAULT_MAX_RETRY_BACKOFF);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param outboxStore
+	 *            store to deliver messages from
+	 * @param deliveryService
+	 *            service that delivers messages directly. Must not itself add messages to the outbox.
+	 * @param batchSize
+	 *            maximum number of messages fetched and delivered at once
+	 * @param pollInterval
+	 *            how long to wait between polls when the outbox is drained
+	 * @param maxAttempts
+	 *            number of delivery attempts after which a message is marked failed
+	 * @param retryBackoff
+	 *            delay before the first retry of a failed message, doubled for each later retry
+	 * @param maxRetryBackoff
+	 *            longest delay between retries of a failed message
+	 */
+	public OutboxDispatcher(OutboxStore outboxStore, MessageDeliveryService deliveryService, int batchSize,
+			Duration pollInterval, int maxAttempts, Duration retryBackoff, Duration maxRetryBackoff) {
+		Assert.notNull(outboxStore, "An outbox store is required.");
+		Assert.notNull(deliveryService, "A message delivery service is required.");
+		Assert.isTrue(!(deliveryService instanceof OutboxMessageDeliveryService),
+				"The dispatcher requires a delivery service that does not use the outbox.");
+		Assert.isTrue(batchSize > 0, "The outbox batch size must be greater than zero.");
+		Assert.isTrue(maxAttempts > 0, "Maximum delivery attempts must be greater than zero.");
+		Assert.isTrue(retryBackoff != null && !retryBackoff.isNegative(), "The retry backoff must not be negative.");
+		Assert.isTrue(maxRetryBackoff != null && maxRetryBackoff.compareTo(retryBackoff) >= 0,
+				"The maximum retry backoff must not be less than the retry backoff.");
+		this.outboxStore = outboxStore;
+		this.deliveryService = deliveryService;
+		this.batchSize = batchSize;
+		this.pollInterval = pollInterval;
+		this.maxAttempts = maxAttempts;
+		this.retryBackoff = retryBackoff;
+		this.maxRetryBackoff = maxRetryBackoff;
+	}
+
+	/**
+	 * Delivers one batch of pending messages. Messages deferred by a rate limit or an open circuit breaker are left
+	 * pending and are not counted as attempted.
+	 *
+	 * @return the number of messages attempted
+	 */
+	public int dispatch() {
+		return dispatchBatch().attempted();
+	}
+
+	private BatchResult dispatchBatch() {
+		var batch = outboxStore.fetchPending(batchSize);
+		if (batch.isEmpty()) {
+			return new BatchResult(0, 0, 0);
+		}
+
+		var emails = new ArrayList<OutboxMessage>();
+		var texts = new ArrayList<OutboxMessage>();
+		for (var message : batch) {
+			(message.channel() == Channel.EMAIL ? emails : texts).add(message);
+		}
+
+		var outcomes = new ArrayList<Outcome>(batch.size());
+		if (!emails.isEmpty()) {
+			var results = deliveryService.sendEmail(emails.stream().map(OutboxMessage::toEmailMessage).toList());
+			for (int i = 0; i < results.size(); i++) {
+				outcomes.add(record(emails.get(i), results.get(i).error()));
+			}
+		}
+
+		if (!texts.isEmpty()) {
+			var results = deliveryService.sendSms(texts.stream().map(OutboxMessage::toSmsMessage).toList());
+			for (int i = 0; i < results.size(); i++) {
+				outcomes.add(record(texts.get(i), results.get(i).error()));
+			}
+		}
+
+		var attempted = (int) outcomes.stream().filter(outcome -> outcome != Outcome.DEFERRED).count();
+		var delivered = (int) outcomes.stream().filter(outcome -> outcome == Outcome.DELIVERED).count();
+		log.debug("Dispatched " + attempted + " of " + batch.size() + " outbox messages, " + delivered + " delivered");
+		return new BatchResult(batch.size(), attempted, delivered);
+	}
+
+	/**
+	 * Starts polling the outbox.
+	 */
+	@Override
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		log.info("Starting outbox dispatcher with " + outboxStore.countPending() + " pending messages");
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			var thread = new Thread(task, "messaging-outbox");
+			thread.setDaemon(true);
+			return thread;
+		});
+		running = true;
+		scheduler.scheduleWithFixedDelay(this::drain, 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops polling the outbox, waiting for the batch in progress to finish.
+	 */
+	@Override
+	public synchronized void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		scheduler.shutdown();
+		try {
+			if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+				log.warn("Timed out waiting for the outbox dispatcher to finish its current batch");
+				scheduler.shutdownNow();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			scheduler.shutdownNow();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	private void drain() {
+		try {
+			// Keep going while there is a backlog that is being delivered; when every message fails or is deferred,
+			// wait for the next poll instead of hammering a provider that is down or throttling
+			var result = dispatchBatch();
+			while (running && result.fetched() == batchSize && result.delivered() > 0) {
+				result = dispatchBatch();
+			}
+		} catch (RuntimeException ex) {
+			// Swallow the exception so the scheduler keeps polling
+			log.error("Unexpected exception dispatching outbox messages", ex);
+		}
+	}
+
+	private Outcome record(OutboxMessage message, UnsuccessfulDeliveryException error) {
+		// Leave deferred messages pending without counting an attempt, but push them back so they do not hold up
+		// messages to other senders
+		if (error instanceof RateLimitExceededException rle && rle.isDeferred()) {
+			outboxStore.release(message.id(), after(rle.getRetryAfter()));
+			return Outcome.DEFERRED;
+		}
+		if (error instanceof CircuitOpenException coe) {
+			outboxStore.release(message.id(), after(coe.getRetryAfter()));
+			return Outcome.DEFERRED;
+		}
+
+		if (error == null) {
+			outboxStore.markDelivered(message.id());
+			return Outcome.DELIVERED;
+		}
+
+		if (message.attempts() + 1 >= maxAttempts) {
+			log.warn("Giving up on outbox message " + message.id() + " after " + maxAttempts + " attempts");
+			outboxStore.markFailed(message.id(), error.getMessage());
+		} else {
+			var backoff = retryBackoff(message.attempts());
+			log.debug("Outbox message " + message.id() + " failed; will retry in " + backoff + ": "
+					+ error.getMessage());
+			outboxStore.markRetry(message.id(), error.getMessage(), after(backoff));
+		}
+		return Outcome.FAILED;
+	}
+
+	/**
+	 * Doubles the retry backoff for each previous attempt, up to the maximum.
+	 */
+	private Duration retryBackoff(int previousAttempts) {
+		// Past 2^30 times the backoff, the maximum is reached for any sensible configuration
+		var backoff = retryBackoff.multipliedBy(1L << Math.min(previousAttempts, 30));
+		return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+	}
+
+	private static Instant after(Duration delay) {
+		return Instant.now().plus(delay != null ? delay : Duration.ZERO);
+	}
+
+}
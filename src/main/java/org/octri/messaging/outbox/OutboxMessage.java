@@ -0,0 +1,104 @@
+package org.octri.messaging.outbox;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import org.octri.messaging.email.EmailMessage;
+import org.octri.messaging.sms.SmsMessage;
+
+/**
+ * A message waiting in the outbox for delivery.
+ *
+ * @param id
+ *            unique identifier of the outbox entry
+ * @param channel
+ *            how the message is delivered
+ * @param fromAddress
+ *            sender email address or phone number. May be null for email sent from the default sender address.
+ * @param toAddress
+ *            recipient email address or phone number
+ * @param subject
+ *            subject of an email message. Null for SMS messages.
+ * @param messageText
+ *            body text of the message
+ * @param createdAt
+ *            when the message was added to the outbox
+ * @param attempts
+ *            number of unsuccessful delivery attempts so far
+ */
+public record OutboxMessage(String id, Channel channel, String fromAddress, String toAddress, String subject,
+		String messageText, Instant createdAt, int attempts) {
+
+	/**
+	 * Delivery channels for outbox messages.
+	 */
+	public enum Channel {
+		/**
+		 * Deliver the message as email.
+		 */
+		EMAIL,
+
+		/**
+		 * Deliver the message as SMS.
+		 */
+		SMS
+	}
+
+	/**
+	 * Creates a new outbox entry for an email message.
+	 *
+	 * @param message
+	 *            the email message
+	 * @return the outbox entry
+	 */
+	public static OutboxMessage of(EmailMessage message) {
+		return new OutboxMessage(UUID.randomUUID().toString(), Channel.EMAIL, message.fromEmail(), message.toEmail(),
+				message.messageSubject(), message.messageText(), now(), 0);
+	}
+
+	/**
+	 * Creates a new outbox entry for an SMS message.
+	 *
+	 * @param message
+	 *            the SMS message
+	 * @return the outbox entry
+	 */
+	public static OutboxMessage of(SmsMessage message) {
+		return new OutboxMessage(UUID.randomUUID().toString(), Channel.SMS, message.fromNumber(), message.toNumber(),
+				null, message.messageText(), now(), 0);
+	}
+
+	private static Instant now() {
+		// Stored timestamps have millisecond precision
+		return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+	}
+
+	/**
+	 * Converts this entry to an email message.
+	 *
+	 * @return the email message
+	 */
+	public EmailMessage toEmailMessage() {
+		return new EmailMessage(fromAddress, toAddress, subject, messageText);
+	}
+
+	/**
+	 * Converts this entry to an SMS message.
+	 *
+	 * @return the SMS message
+	 */
+	public SmsMessage toSmsMessage() {
+		return new SmsMessage(fromAddress, toAddress, messageText);
+	}
+
+	/**
+	 * Returns a copy of this entry with the attempt count incremented.
+	 *
+	 * @return the updated entry
+	 */
+	public OutboxMessage withFailedAttempt() {
+		return new OutboxMessage(id, channel, fromAddress, toAddress, subject, messageText, createdAt, attempts + 1);
+	}
+
+}
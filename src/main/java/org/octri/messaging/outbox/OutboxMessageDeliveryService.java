@@ -0,0 +1,155 @@
+package org.octri.messaging.outbox;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.octri.messaging.email.EmailDeliveryResult;
+import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.email.EmailMessage;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.messaging.sms.SmsDeliveryResult;
+import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MessageDeliveryService} that adds messages to an {@link OutboxStore} instead of delivering them. The send
+ * methods return as soon as the message is stored, and an {@link OutboxDispatcher} delivers it in the background. The
+ * delivery details returned for a queued message are its outbox entry ID.
+ *
+ * When called inside a Spring-managed transaction, messages are only delivered if the transaction commits. Stores that
+ * do not join the transaction are written after the commit.
+ */
+public class OutboxMessageDeliveryService extends MessageDeliveryService {
+
+	private static final Logger log = LoggerFactory.getLogger(OutboxMessageDeliveryService.class);
+
+	private static final boolean TRANSACTION_SUPPORT_PRESENT = ClassUtils.isPresent(
+			"org.springframework.transaction.support.TransactionSynchronizationManager",
+			OutboxMessageDeliveryService.class.getClassLoader());
+
+	private final OutboxStore outboxStore;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param emailStrategy
+	 *            the strategy used to deliver email messages
+	 * @param smsStrategy
+	 *            the strategy used to deliver SMS messages
+	 * @param executor
+	 *            the executor used to run asynchronous operations
+	 * @param outboxStore
+	 *            the store that holds messages until they are delivered
+	 */
+	public OutboxMessageDeliveryService(EmailDeliveryStrategy emailStrategy, SmsDeliveryStrategy smsStrategy,
+			Executor executor, OutboxStore outboxStore) {
+		super(emailStrategy, smsStrategy, executor);
+		Assert.notNull(outboxStore, "An outbox store is required.");
+		this.outboxStore = outboxStore;
+	}
+
+	/**
+	 * Adds an email message to the outbox.
+	 *
+	 * @return the outbox entry ID
+	 * @throws UnsuccessfulDeliveryException
+	 *             if the message could not be stored
+	 */
+	@Override
+	protected Optional<String> deliverEmail(String fromEmail, String toEmail, String messageSubject,
+			String messageText) {
+		return Optional.of(enqueue(OutboxMessage.of(new EmailMessage(fromEmail, toEmail, messageSubject, messageText))));
+	}
+
+	/**
+	 * Adds an SMS message to the outbox.
+	 *
+	 * @return the outbox entry ID
+	 * @throws UnsuccessfulDeliveryException
+	 *             if the message could not be stored
+	 */
+	@Override
+	protected Optional<String> deliverSms(String fromNumber, String toNumber, String messageText) {
+		return Optional.of(enqueue(OutboxMessage.of(new SmsMessage(fromNumber, toNumber, messageText))));
+	}
+
+	/**
+	 * Adds an SMS message to the outbox on the executor, since the outbox store may block.
+	 */
+	@Override
+	protected CompletableFuture<Optional<String>> deliverSmsAsync(String fromNumber, String toNumber,
+			String messageText, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> deliverSms(fromNumber, toNumber, messageText), executor);
+	}
+
+	/**
+	 * Adds a batch of email messages to the outbox. Successful results carry the outbox entry ID of the message.
+	 */
+	@Override
+	public List<EmailDeliveryResult> sendEmail(List<EmailMessage> messages) {
+		return messages.stream().map(message -> {
+			try {
+				return EmailDeliveryResult.success(message, Optional.of(enqueue(OutboxMessage.of(message))));
+			} catch (UnsuccessfulDeliveryException ex) {
+				return EmailDeliveryResult.failure(message, ex);
+			}
+		}).toList();
+	}
+
+	/**
+	 * Adds a batch of SMS messages to the outbox. Successful results carry the outbox entry ID of the message.
+	 */
+	@Override
+	public List<SmsDeliveryResult> sendSms(List<SmsMessage> messages) {
+		return messages.stream().map(message -> {
+			try {
+				return SmsDeliveryResult.success(message, Optional.of(enqueue(OutboxMessage.of(message))));
+			} catch (UnsuccessfulDeliveryException ex) {
+				return SmsDeliveryResult.failure(message, ex);
+			}
+		}).toList();
+	}
+
+	/**
+	 * Gets the store that holds messages until they are delivered.
+	 *
+	 * @return the outbox store
+	 */
+	public OutboxStore getOutboxStore() {
+		return outboxStore;
+	}
+
+	private String enqueue(OutboxMessage message) {
+		if (!outboxStore.isTransactional() && TRANSACTION_SUPPORT_PRESENT
+				&& TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					add(message);
+				}
+			});
+		} else {
+			add(message);
+		}
+		return message.id();
+	}
+
+	private void add(OutboxMessage message) {
+		try {
+			outboxStore.add(message);
+		} catch (RuntimeException ex) {
+			log.error("Could not add message to the outbox: " + ex.getMessage());
+			throw new UnsuccessfulDeliveryException("The message could not be added to the outbox.", ex);
+		}
+	}
+
+}
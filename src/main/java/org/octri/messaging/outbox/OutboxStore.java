@@ -0,0 +1,94 @@
+package org.octri.messaging.outbox;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Durable storage for messages waiting to be delivered. Implementations must be safe for use by multiple threads.
+ */
+public interface OutboxStore {
+
+	/**
+	 * Adds a message to the outbox. When this method returns, the message must survive a restart of the application.
+	 *
+	 * @param message
+	 *            the message to add
+	 */
+	void add(OutboxMessage message);
+
+	/**
+	 * Gets the oldest messages that are waiting for delivery and are due, skipping messages whose next attempt time,
+	 * set by {@link #markRetry(String, String, Instant)} or {@link #release(String, Instant)}, has not yet come. Stores
+	 * shared by several dispatchers must claim the messages they return, so that each message is delivered by one
+	 * dispatcher at a time. A claimed message stays claimed until it is marked delivered, failed, or for retry, or is
+	 * released.
+	 *
+	 * @param limit
+	 *            maximum number of messages to return
+	 * @return due pending messages, oldest first
+	 */
+	List<OutboxMessage> fetchPending(int limit);
+
+	/**
+	 * Records that a message was delivered. The message will not be returned by {@link #fetchPending(int)} again.
+	 *
+	 * @param id
+	 *            the outbox entry ID
+	 */
+	void markDelivered(String id);
+
+	/**
+	 * Records an unsuccessful delivery attempt that should be retried. The message remains pending with its attempt
+	 * count incremented, and is not fetched again until its next attempt time.
+	 *
+	 * @param id
+	 *            the outbox entry ID
+	 * @param error
+	 *            description of the failure
+	 * @param nextAttemptAt
+	 *            earliest time to attempt delivery again
+	 */
+	void markRetry(String id, String error, Instant nextAttemptAt);
+
+	/**
+	 * Records that a message could not be delivered and will not be retried. The message will not be returned by
+	 * {@link #fetchPending(int)} again.
+	 *
+	 * @param id
+	 *            the outbox entry ID
+	 * @param error
+	 *            description of the failure
+	 */
+	void markFailed(String id, String error);
+
+	/**
+	 * Releases a message returned by {@link #fetchPending(int)} without recording an attempt, so that it can be fetched
+	 * again at its next attempt time. Used for messages deferred by a rate limit or an open circuit breaker, so that
+	 * they do not hold up other messages until they can be sent. Does nothing by default.
+	 *
+	 * @param id
+	 *            the outbox entry ID
+	 * @param nextAttemptAt
+	 *            earliest time to attempt delivery again
+	 */
+	default void release(String id, Instant nextAttemptAt) {
+	}
+
+	/**
+	 * Gets the number of messages waiting for delivery.
+	 *
+	 * @return the pending message count
+	 */
+	int countPending();
+
+	/**
+	 * Whether {@link #add(OutboxMessage)} participates in the caller's database transaction. Stores that do not are
+	 * written after the caller's transaction commits, so messages are never sent for rolled back work.
+	 *
+	 * @return true if writes join the current transaction
+	 */
+	default boolean isTransactional() {
+		return false;
+	}
+
+}
@@ -0,0 +1,363 @@
+package org.octri.messaging.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.octri.messaging.exception.CircuitOpenException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Stops calls to a provider that is failing or slow, so callers fail fast instead of waiting for timeouts.
+ *
+ * The breaker records the outcome of the most recent calls in a sliding window. Once the window holds the minimum
+ * number of calls, the circuit opens if the share of failed calls or the share of slow calls reaches its threshold.
+ * While open, calls fail immediately with a {@link CircuitOpenException}. After the open duration, the circuit is half
+ * open and lets a few probe calls through: if they all succeed quickly the circuit closes, and if any fails or is slow
+ * it opens again.
+ *
+ * Only failures accepted by the failure predicate count against the provider. Other failures, such as an invalid
+ * recipient, show that the provider is responding and are recorded as successful calls.
+ */
+public class CircuitBreaker {
+
+	private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	/**
+	 * Circuit breaker states.
+	 */
+	public enum State {
+		/**
+		 * Calls are allowed and their outcomes are recorded.
+		 */
+		CLOSED,
+
+		/**
+		 * Calls fail immediately.
+		 */
+		OPEN,
+
+		/**
+		 * A limited number of probe calls are allowed to test whether the provider has recovered.
+		 */
+		HALF_OPEN
+	}
+
+	private final String name;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long slowCallNanos;
+	private final double slowCallRateThreshold;
+	private final long openNanos;
+	private final int halfOpenCalls;
+	private final Predicate<Throwable> recordFailure;
+	private final LongSupplier nanoClock;
+
+	// Sliding window of call outcomes, guarded by this
+	private final boolean[] failed;
+	private final boolean[] slow;
+	private int windowIndex;
+	private int windowCount;
+	private int failureCount;
+	private int slowCount;
+
+	private State state = State.CLOSED;
+	private long openedAtNanos;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param name
+	 *            name of the circuit, used in log messages and health details
+	 * @param windowSize
+	 *            number of recent calls whose outcomes are recorded
+	 * @param minimumCalls
+	 *            number of recorded calls needed before the circuit can open
+	 * @param failureRateThreshold
+	 *            percentage of failed calls at which the circuit opens
+	 * @param slowCallDuration
+	 *            duration at or above which a call is slow
+	 * @param slowCallRateThreshold
+	 *            percentage of slow calls at which the circuit opens
+	 * @param openDuration
+	 *            how long the circuit stays open before allowing probe calls
+	 * @param halfOpenCalls
+	 *            number of successful probe calls needed to close the circuit
+	 * @param recordFailure
+	 *            decides whether a failure counts against the provider
+	 */
+	public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+			Duration slowCallDuration, double slowCallRateThreshold, Duration openDuration, int halfOpenCalls,
+			Predicate<Throwable> recordFailure) {
+		this(name, windowSize, minimumCalls, failureRateThreshold, slowCallDuration, slowCallRateThreshold,
+				openDuration, halfOpenCalls, recordFailure, System::nanoTime);
+	}
+
+	/**
+	 * Constructor with a custom clock for testing.
+	 *
+	 * @param name
+	 *            name of the circuit
+	 * @param windowSize
+	 *            number of recent calls whose outcomes are recorded
+	 * @param minimumCalls
+	 *            number of recorded calls needed before the circuit can open
+	 * @param failureRateThreshold
+	 *            percentage of failed calls at which the circuit opens
+	 * @param slowCallDuration
+	 *            duration at or above which a call is slow
+	 * @param slowCallRateThreshold
+	 *            percentage of slow calls at which the circuit opens
+	 * @param openDuration
+	 *            how long the circuit stays open before allowing probe calls
+	 * @param halfOpenCalls
+	 *            number of successful probe calls needed to close the circuit
+	 * @param recordFailure
+	 *            decides whether a failure counts against the provider
+	 * @param nanoClock
+	 *            monotonic clock returning nanoseconds
+	 */
+	CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+			Duration slowCallDuration, double slowCallRateThreshold, Duration openDuration, int halfOpenCalls,
+			Predicate<Throwable> recordFailure, LongSupplier nanoClock) {
+		Assert.hasText(name, "A circuit name is required.");
+		Assert.isTrue(windowSize > 0, "The window size must be greater than zero.");
+		Assert.isTrue(minimumCalls > 0 && minimumCalls <= windowSize,
+				"The minimum number of calls must be between 1 and the window size.");
+		Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 100,
+				"The failure rate threshold must be a percentage greater than zero.");
+		Assert.isTrue(slowCallRateThreshold > 0 && slowCallRateThreshold <= 100,
+				"The slow call rate threshold must be a percentage greater than zero.");
+		Assert.isTrue(halfOpenCalls > 0, "The number of half-open calls must be greater than zero.");
+		Assert.notNull(recordFailure, "A failure predicate is required.");
+		this.name = name;
+		this.minimumCalls = minimumCalls;
+		this.failureRateThreshold = failureRateThreshold;
+		this.slowCallNanos = slowCallDuration.toNanos();
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.openNanos = openDuration.toNanos();
+		this.halfOpenCalls = halfOpenCalls;
+		this.recordFailure = recordFailure;
+		this.nanoClock = nanoClock;
+		this.failed = new boolean[windowSize];
+		this.slow = new boolean[windowSize];
+	}
+
+	/**
+	 * Runs a call through the circuit breaker.
+	 *
+	 * @param <T>
+	 *            result type
+	 * @param call
+	 *            the call to the provider
+	 * @return the result of the call
+	 * @throws CircuitOpenException
+	 *             if the circuit is open
+	 */
+	public <T> T execute(Supplier<T> call) {
+		acquirePermission();
+		var start = nanoClock.getAsLong();
+		try {
+			var result = call.get();
+			onSuccess(nanoClock.getAsLong() - start);
+			return result;
+		} catch (RuntimeException ex) {
+			onError(nanoClock.getAsLong() - start, ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Runs an asynchronous call through the circuit breaker. Permission is checked before the call is started, and the
+	 * outcome is recorded when the returned future completes.
+	 *
+	 * @param <T>
+	 *            result type
+	 * @param call
+	 *            starts the call to the provider
+	 * @return future that completes with the result of the call, or fails with a {@link CircuitOpenException} if the
+	 *         circuit is open
+	 */
+	public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+		try {
+			acquirePermission();
+		} catch (CircuitOpenException coe) {
+			return CompletableFuture.failedFuture(coe);
+		}
+		var start = nanoClock.getAsLong();
+		CompletableFuture<T> result;
+		try {
+			result = call.get();
+		} catch (RuntimeException ex) {
+			onError(nanoClock.getAsLong() - start, ex);
+			return CompletableFuture.failedFuture(ex);
+		}
+		return result.whenComplete((value, failure) -> {
+			var durationNanos = nanoClock.getAsLong() - start;
+			if (failure == null) {
+				onSuccess(durationNanos);
+			} else {
+				onError(durationNanos,
+						failure instanceof CompletionException && failure.getCause() != null ? failure.getCause()
+								: failure);
+			}
+		});
+	}
+
+	/**
+	 * Checks whether a call may be made. Every permitted call must be followed by {@link #onSuccess(long)} or
+	 * {@link #onError(long, Throwable)}.
+	 *
+	 * @throws CircuitOpenException
+	 *             if the circuit is open, or it is half open and all probe calls are in progress
+	 */
+	public synchronized void acquirePermission() {
+		var now = nanoClock.getAsLong();
+		if (state == State.OPEN && now - openedAtNanos >= openNanos) {
+			transitionTo(State.HALF_OPEN, now);
+		}
+		if (state == State.OPEN) {
+			throw circuitOpen(Duration.ofNanos(openNanos - (now - openedAtNanos)));
+		}
+		if (state == State.HALF_OPEN) {
+			if (halfOpenPermits == 0) {
+				throw circuitOpen(Duration.ZERO);
+			}
+			halfOpenPermits--;
+		}
+	}
+
+	/**
+	 * Records a successful call.
+	 *
+	 * @param durationNanos
+	 *            how long the call took
+	 */
+	public synchronized void onSuccess(long durationNanos) {
+		record(false, durationNanos >= slowCallNanos);
+	}
+
+	/**
+	 * Records a failed call. The failure only counts against the provider if the failure predicate accepts it.
+	 *
+	 * @param durationNanos
+	 *            how long the call took
+	 * @param failure
+	 *            the failure
+	 */
+	public synchronized void onError(long durationNanos, Throwable failure) {
+		record(recordFailure.test(failure), durationNanos >= slowCallNanos);
+	}
+
+	/**
+	 * Gets the current state. An open circuit whose open duration has passed is reported as half open.
+	 *
+	 * @return the state
+	 */
+	public synchronized State getState() {
+		if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openNanos) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	/**
+	 * Gets the percentage of failed calls in the sliding window.
+	 *
+	 * @return the failure rate, or -1 if fewer than the minimum number of calls have been recorded
+	 */
+	public synchronized double getFailureRate() {
+		return windowCount < minimumCalls ? -1 : 100.0 * failureCount / windowCount;
+	}
+
+	/**
+	 * Gets the percentage of slow calls in the sliding window.
+	 *
+	 * @return the slow call rate, or -1 if fewer than the minimum number of calls have been recorded
+	 */
+	public synchronized double getSlowCallRate() {
+		return windowCount < minimumCalls ? -1 : 100.0 * slowCount / windowCount;
+	}
+
+	/**
+	 * Gets the name of the circuit.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[name=" + name + ", state=" + getState() + "]";
+	}
+
+	private void record(boolean isFailure, boolean isSlow) {
+		var now = nanoClock.getAsLong();
+		switch (state) {
+			case HALF_OPEN -> {
+				if (isFailure || isSlow) {
+					transitionTo(State.OPEN, now);
+				} else if (++halfOpenSuccesses >= halfOpenCalls) {
+					transitionTo(State.CLOSED, now);
+				}
+			}
+			case CLOSED -> {
+				if (windowCount == failed.length) {
+					failureCount -= failed[windowIndex] ? 1 : 0;
+					slowCount -= slow[windowIndex] ? 1 : 0;
+				} else {
+					windowCount++;
+				}
+				failed[windowIndex] = isFailure;
+				slow[windowIndex] = isSlow;
+				failureCount += isFailure ? 1 : 0;
+				slowCount += isSlow ? 1 : 0;
+				windowIndex = (windowIndex + 1) % failed.length;
+
+				if (windowCount >= minimumCalls && (100.0 * failureCount / windowCount >= failureRateThreshold
+						|| 100.0 * slowCount / windowCount >= slowCallRateThreshold)) {
+					transitionTo(State.OPEN, now);
+				}
+			}
+			default -> {
+				// Calls permitted before the circuit opened are not recorded
+			}
+		}
+	}
+
+	private void transitionTo(State newState, long now) {
+		if (newState == State.OPEN) {
+			if (state == State.HALF_OPEN) {
+				log.warn("Circuit " + name + " reopened after a failed probe call");
+			} else {
+				log.warn("Circuit " + name + " opened after " + failureCount + " failed and " + slowCount
+						+ " slow calls out of " + windowCount);
+			}
+			openedAtNanos = now;
+		} else {
+			log.info("Circuit " + name + " is " + newState);
+		}
+		state = newState;
+		halfOpenPermits = halfOpenCalls;
+		halfOpenSuccesses = 0;
+		windowIndex = 0;
+		windowCount = 0;
+		failureCount = 0;
+		slowCount = 0;
+	}
+
+	private CircuitOpenException circuitOpen(Duration retryAfter) {
+		return new CircuitOpenException("The " + name + " circuit is open; the message was not sent.", name,
+				retryAfter);
+	}
+
+}
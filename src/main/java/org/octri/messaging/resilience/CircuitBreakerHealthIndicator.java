@@ -0,0 +1,47 @@
+package org.octri.messaging.resilience;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.util.Assert;
+
+/**
+ * Reports the state of the messaging circuit breakers. Health is UP while every circuit is closed or half open, and
+ * OUT_OF_SERVICE while any circuit is open. The details include the state, failure rate, and slow call rate of each
+ * circuit.
+ */
+public class CircuitBreakerHealthIndicator extends AbstractHealthIndicator {
+
+	private final List<CircuitBreaker> circuitBreakers;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param circuitBreakers
+	 *            the circuit breakers to report
+	 */
+	public CircuitBreakerHealthIndicator(List<CircuitBreaker> circuitBreakers) {
+		super("Messaging circuit breaker health check failed");
+		Assert.notNull(circuitBreakers, "Circuit breakers are required.");
+		this.circuitBreakers = List.copyOf(circuitBreakers);
+	}
+
+	@Override
+	protected void doHealthCheck(Health.Builder builder) {
+		builder.up();
+		for (var circuitBreaker : circuitBreakers) {
+			var state = circuitBreaker.getState();
+			if (state == CircuitBreaker.State.OPEN) {
+				builder.outOfService();
+			}
+			var details = new LinkedHashMap<String, Object>();
+			details.put("state", state);
+			details.put("failureRate", circuitBreaker.getFailureRate());
+			details.put("slowCallRate", circuitBreaker.getSlowCallRate());
+			builder.withDetail(circuitBreaker.getName(), details);
+		}
+	}
+
+}
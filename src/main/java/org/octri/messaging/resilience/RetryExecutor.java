@@ -0,0 +1,220 @@
+package org.octri.messaging.resilience;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.Assert;
+
+/**
+ * Runs deliveries, retrying transient failures according to a {@link RetryPolicy}. For asynchronous deliveries, attempts
+ * run on the delivery executor and the waits between attempts are timers on a scheduler, so no thread is blocked while
+ * a delivery waits to be retried.
+ */
+public class RetryExecutor implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(RetryExecutor.class);
+
+	private final RetryPolicy policy;
+	private final ScheduledExecutorService scheduler;
+	private final boolean ownsScheduler;
+	private TaskDecorator taskDecorator;
+
+	/**
+	 * Constructor. Creates a single-thread scheduler that is shut down when this executor is closed.
+	 *
+	 * @param policy
+	 *            the retry policy
+	 */
+	public RetryExecutor(RetryPolicy policy) {
+		this(policy, Executors.newSingleThreadScheduledExecutor(task -> {
+			var thread = new Thread(task, "messaging-retry");
+			thread.setDaemon(true);
+			return thread;
+		}), true);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param policy
+	 *            the retry policy
+	 * @param scheduler
+	 *            scheduler used to wait between attempts. Scheduled tasks only hand attempts to the delivery executor.
+	 */
+	public RetryExecutor(RetryPolicy policy, ScheduledExecutorService scheduler) {
+		this(policy, scheduler, false);
+	}
+
+	private RetryExecutor(RetryPolicy policy, ScheduledExecutorService scheduler, boolean ownsScheduler) {
+		Assert.notNull(policy, "A retry policy is required.");
+		Assert.notNull(scheduler, "A scheduler is required.");
+		this.policy = policy;
+		this.scheduler = scheduler;
+		this.ownsScheduler = ownsScheduler;
+	}
+
+	/**
+	 * Runs a delivery on the calling thread, retrying transient failures. The calling thread sleeps between attempts.
+	 *
+	 * @param <T>
+	 *            result type
+	 * @param delivery
+	 *            the delivery to attempt
+	 * @return the result of the first successful attempt
+	 * @throws RuntimeException
+	 *             the last failure, if no attempt succeeded
+	 */
+	public <T> T call(Supplier<T> delivery) {
+		var deadlineNanos = System.nanoTime() + policy.getDeadline().toNanos();
+		for (int attempt = 1;; attempt++) {
+			try {
+				return delivery.get();
+			} catch (RuntimeException failure) {
+				if (attempt >= policy.getMaxAttempts() || !policy.isRetryable(failure)) {
+					throw failure;
+				}
+				var delay = policy.delayAfter(attempt, failure);
+				if (System.nanoTime() + delay.toNanos() > deadlineNanos) {
+					log.debug("Not retrying delivery because the retry deadline would be exceeded");
+					throw failure;
+				}
+				log.debug("Delivery attempt " + attempt + " failed with " + failure.getClass().getSimpleName()
+						+ "; retrying in " + delay.toMillis() + " ms");
+				try {
+					TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw failure;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs a delivery on the given executor, retrying transient failures.
+	 *
+	 * @param <T>
+	 *            result type
+	 * @param delivery
+	 *            the delivery to attempt
+	 * @param executor
+	 *            executor that runs each attempt
+	 * @return future that completes with the result of the first successful attempt, or exceptionally with the last
+	 *         failure
+	 */
+	public <T> CompletableFuture<T> supplyAsync(Supplier<T> delivery, Executor executor) {
+		var result = new CompletableFuture<T>();
+		var deadlineNanos = System.nanoTime() + policy.getDeadline().toNanos();
+		attempt(withCallerContext(delivery), executor, result, 1, deadlineNanos);
+		return result;
+	}
+
+	/**
+	 * Gets the decorator applied to asynchronous deliveries.
+	 *
+	 * @return the task decorator, or null if deliveries are not decorated
+	 */
+	public TaskDecorator getTaskDecorator() {
+		return taskDecorator;
+	}
+
+	/**
+	 * Sets a decorator applied to asynchronous deliveries on the caller's thread, such as Spring's
+	 * <code>ContextPropagatingTaskDecorator</code>. Retries are handed to the delivery executor from the scheduler
+	 * thread, so without a decorator they do not run with the caller's tracing context. The decorated delivery runs
+	 * once for each attempt.
+	 *
+	 * @param taskDecorator
+	 *            the task decorator, or null to not decorate deliveries
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+	/**
+	 * Gets the retry policy.
+	 *
+	 * @return the retry policy
+	 */
+	public RetryPolicy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Shuts down the scheduler if it was created by this executor. Pending retries are abandoned.
+	 */
+	@Override
+	public void close() {
+		if (ownsScheduler) {
+			scheduler.shutdownNow();
+		}
+	}
+
+	private <T> Supplier<T> withCallerContext(Supplier<T> delivery) {
+		if (taskDecorator == null) {
+			return delivery;
+		}
+		// Attempts run one at a time, so a single holder can pass each result out of the decorated task
+		var value = new AtomicReference<T>();
+		var task = taskDecorator.decorate(() -> value.set(delivery.get()));
+		return () -> {
+			task.run();
+			return value.getAndSet(null);
+		};
+	}
+
+	private <T> void attempt(Supplier<T> delivery, Executor executor, CompletableFuture<T> result, int attemptNumber,
+			long deadlineNanos) {
+		try {
+			executor.execute(() -> {
+				try {
+					result.complete(delivery.get());
+				} catch (Throwable failure) {
+					onFailure(delivery, executor, result, attemptNumber, deadlineNanos, failure);
+				}
+			});
+		} catch (RejectedExecutionException ree) {
+			log.warn("Message delivery rejected by executor: " + ree.getMessage());
+			result.completeExceptionally(
+					new UnsuccessfulDeliveryException("The delivery executor did not accept the message.", ree));
+		}
+	}
+
+	private <T> void onFailure(Supplier<T> delivery, Executor executor, CompletableFuture<T> result,
+			int failedAttempts, long deadlineNanos, Throwable failure) {
+		var cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause()
+				: failure;
+		if (failedAttempts >= policy.getMaxAttempts() || !policy.isRetryable(cause)) {
+			result.completeExceptionally(cause);
+			return;
+		}
+
+		var delay = policy.delayAfter(failedAttempts, cause);
+		if (System.nanoTime() + delay.toNanos() > deadlineNanos) {
+			log.debug("Not retrying delivery because the retry deadline would be exceeded");
+			result.completeExceptionally(cause);
+			return;
+		}
+
+		log.debug("Delivery attempt " + failedAttempts + " failed with " + cause.getClass().getSimpleName()
+				+ "; retrying in " + delay.toMillis() + " ms");
+		try {
+			scheduler.schedule(() -> attempt(delivery, executor, result, failedAttempts + 1, deadlineNanos),
+					delay.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (RejectedExecutionException ree) {
+			result.completeExceptionally(cause);
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.octri.messaging.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.springframework.util.Assert;
+
+/**
+ * Describes when and how often a failed delivery is retried. Delays grow exponentially from the initial delay up to
+ * the maximum delay, and each delay is chosen at random between zero and that bound ("full jitter") so that many
+ * messages failing at once are not all retried at the same moment.
+ */
+public class RetryPolicy {
+
+	private final int maxAttempts;
+	private final Duration initialDelay;
+	private final double multiplier;
+	private final Duration maxDelay;
+	private final Duration deadline;
+	private final Predicate<Throwable> retryable;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxAttempts
+	 *            maximum number of attempts, including the first
+	 * @param initialDelay
+	 *            upper bound of the delay before the first retry
+	 * @param multiplier
+	 *            factor by which the delay bound grows after each retry
+	 * @param maxDelay
+	 *            largest delay bound
+	 * @param deadline
+	 *            time after the first attempt beyond which no retry is started
+	 * @param retryable
+	 *            decides whether a failure may be retried
+	 */
+	public RetryPolicy(int maxAttempts, Duration initialDelay, double multiplier, Duration maxDelay, Duration deadline,
+			Predicate<Throwable> retryable) {
+		Assert.isTrue(maxAttempts > 0, "Maximum attempts must be greater than zero.");
+		Assert.isTrue(!initialDelay.isNegative(), "The initial delay must not be negative.");
+		Assert.isTrue(multiplier >= 1, "The delay multiplier must be at least 1.");
+		Assert.isTrue(maxDelay.compareTo(initialDelay) >= 0, "The maximum delay must be at least the initial delay.");
+		Assert.notNull(deadline, "A retry deadline is required.");
+		Assert.notNull(retryable, "A retryable failure predicate is required.");
+		this.maxAttempts = maxAttempts;
+		this.initialDelay = initialDelay;
+		this.multiplier = multiplier;
+		this.maxDelay = maxDelay;
+		this.deadline = deadline;
+		this.retryable = retryable;
+	}
+
+	/**
+	 * Whether the given failure may be retried.
+	 *
+	 * @param failure
+	 *            the failure
+	 * @return true if the failure is retryable
+	 */
+	public boolean isRetryable(Throwable failure) {
+		return retryable.test(failure);
+	}
+
+	/**
+	 * Chooses the delay before the next attempt. If the failure reports when the sender may send again, the delay is at
+	 * least that long.
+	 *
+	 * @param failedAttempts
+	 *            number of attempts made so far
+	 * @param failure
+	 *            the most recent failure
+	 * @return the delay
+	 */
+	public Duration delayAfter(int failedAttempts, Throwable failure) {
+		var bound = initialDelay.toNanos() * Math.pow(multiplier, failedAttempts - 1);
+		var boundNanos = (long) Math.min(bound, maxDelay.toNanos());
+		var delayNanos = boundNanos > 0 ? ThreadLocalRandom.current().nextLong(boundNanos + 1) : 0;
+
+		if (failure instanceof RateLimitExceededException rle && rle.getRetryAfter() != null) {
+			delayNanos = Math.max(delayNanos, rle.getRetryAfter().toNanos());
+		}
+		return Duration.ofNanos(delayNanos);
+	}
+
+	/**
+	 * Gets the maximum number of attempts, including the first.
+	 *
+	 * @return the maximum attempts
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Gets the time after the first attempt beyond which no retry is started.
+	 *
+	 * @return the deadline
+	 */
+	public Duration getDeadline() {
+		return deadline;
+	}
+
+}
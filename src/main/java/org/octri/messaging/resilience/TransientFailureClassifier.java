@@ -0,0 +1,106 @@
+package org.octri.messaging.resilience;
+
+import java.io.InterruptedIOException;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+
+import jakarta.mail.MessagingException;
+
+/**
+ * Decides whether a delivery failure is transient, so that sending the same message again later may succeed. The
+ * exception and all of its causes are inspected.
+ *
+ * The following failures are transient:
+ * <ul>
+ * <li>Twilio API errors with HTTP status 429 (too many requests) or 5xx, and Twilio connection errors</li>
+ * <li>SMTP replies with a 4xx status, which the SMTP standard defines as temporary</li>
+ * <li>Network errors such as timeouts and refused connections</li>
+ * <li>Rate limit rejections that were not deferred</li>
+ * </ul>
+ *
+ * Authentication failures, malformed messages, and permanent rejections are never retried. Neither are calls rejected by
+ * an open circuit breaker, since the provider is already known to be unavailable.
+ */
+public class TransientFailureClassifier implements Predicate<Throwable> {
+
+	@Override
+	public boolean test(Throwable failure) {
+		Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		return isTransient(failure, seen);
+	}
+
+	private boolean isTransient(Throwable failure, Set<Throwable> seen) {
+		if (failure == null || !seen.add(failure)) {
+			return false;
+		}
+
+		// Permanent failures end the search, even if a transient failure is nested inside
+		if (failure instanceof MailAuthenticationException || failure instanceof MailParseException
+				|| failure instanceof MailPreparationException || failure instanceof CircuitOpenException) {
+			return false;
+		}
+		if (failure instanceof RateLimitExceededException rle) {
+			return !rle.isDeferred();
+		}
+		if (failure instanceof ApiException apiException) {
+			var status = apiException.getStatusCode() != null ? apiException.getStatusCode()
+					: apiException.getHttpStatusCode();
+			return status != null && (status == 429 || status >= 500);
+		}
+		if (failure instanceof ApiConnectionException) {
+			return true;
+		}
+		var smtpReturnCode = smtpReturnCode(failure);
+		if (smtpReturnCode > 0) {
+			return smtpReturnCode >= 400 && smtpReturnCode < 500;
+		}
+		if (failure instanceof InterruptedIOException || failure instanceof SocketException
+				|| failure instanceof UnknownHostException) {
+			return true;
+		}
+
+		if (failure instanceof MailSendException mailSendException) {
+			for (var messageException : mailSendException.getMessageExceptions()) {
+				if (isTransient(messageException, seen)) {
+					return true;
+				}
+			}
+		}
+		if (failure instanceof MessagingException messagingException
+				&& isTransient(messagingException.getNextException(), seen)) {
+			return true;
+		}
+		return isTransient(failure.getCause(), seen);
+	}
+
+	private static int smtpReturnCode(Throwable failure) {
+		if (failure instanceof SMTPSendFailedException e) {
+			return e.getReturnCode();
+		}
+		if (failure instanceof SMTPAddressFailedException e) {
+			return e.getReturnCode();
+		}
+		if (failure instanceof SMTPSenderFailedException e) {
+			return e.getReturnCode();
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,94 @@
+package org.octri.messaging.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.Assert;
+
+/**
+ * Executor that caps the number of tasks running at once. Tasks are handed to the delegate executor immediately and
+ * wait for a permit on their own thread, so callers are never blocked. This is intended for use with virtual threads,
+ * where waiting for a permit is cheap, to limit the number of in-flight requests to a delivery provider.
+ */
+public class ConcurrencyLimitedExecutor implements Executor {
+
+	private final Executor delegate;
+	private final Semaphore permits;
+	private final int maxConcurrency;
+	private TaskDecorator taskDecorator;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            executor that runs the tasks
+	 * @param maxConcurrency
+	 *            maximum number of tasks that may run at once
+	 */
+	public ConcurrencyLimitedExecutor(Executor delegate, int maxConcurrency) {
+		Assert.notNull(delegate, "A delegate executor is required.");
+		Assert.isTrue(maxConcurrency > 0, "Maximum concurrency must be greater than zero.");
+		this.delegate = delegate;
+		this.maxConcurrency = maxConcurrency;
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	@Override
+	public void execute(Runnable task) {
+		var decorated = taskDecorator != null ? taskDecorator.decorate(task) : task;
+		delegate.execute(() -> {
+			// Wait uninterruptibly: abandoning the task here would leave its future incomplete forever
+			permits.acquireUninterruptibly();
+			try {
+				decorated.run();
+			} finally {
+				permits.release();
+			}
+		});
+	}
+
+	/**
+	 * Gets the decorator applied to submitted tasks.
+	 *
+	 * @return the task decorator, or null if tasks are not decorated
+	 */
+	public TaskDecorator getTaskDecorator() {
+		return taskDecorator;
+	}
+
+	/**
+	 * Sets a decorator applied to each task on the submitting thread, such as Spring's
+	 * <code>ContextPropagatingTaskDecorator</code>, which carries the caller's tracing context to the task.
+	 *
+	 * @param taskDecorator
+	 *            the task decorator, or null to not decorate tasks
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+	/**
+	 * Gets the maximum number of tasks that may run at once.
+	 *
+	 * @return the concurrency limit
+	 */
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Gets the number of tasks currently running.
+	 *
+	 * @return the number of running tasks
+	 */
+	public int getActiveCount() {
+		return maxConcurrency - permits.availablePermits();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[maxConcurrency=" + maxConcurrency + ", delegate=" + delegate + "]";
+	}
+
+}
@@ -1,27 +1,54 @@
 package org.octri.messaging.service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
+import org.octri.messaging.email.EmailDeliveryResult;
 import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.email.EmailMessage;
 import org.octri.messaging.email.NoopEmailDeliveryStrategy;
 import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.resilience.RetryExecutor;
+import org.octri.messaging.sms.AsyncSmsDeliveryStrategy;
 import org.octri.messaging.sms.NoopSmsDeliveryStrategy;
+import org.octri.messaging.sms.SenderPool;
+import org.octri.messaging.sms.SmsDeliveryResult;
 import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.util.Assert;
 
 /**
  * Service for delivering messages.
  */
 public class MessageDeliveryService {
 
+	/**
+	 * Default maximum number of messages from a batch that are delivered at once.
+	 */
+	public static final int DEFAULT_BATCH_PARALLELISM = 16;
+
 	private static final Logger log = LoggerFactory.getLogger(MessageDeliveryService.class);
 
 	private EmailDeliveryStrategy emailStrategy;
 	private SmsDeliveryStrategy smsStrategy;
+	private Executor executor;
+	private int batchParallelism = DEFAULT_BATCH_PARALLELISM;
+	private SenderPool senderPool;
+	private boolean providerSelectsSender;
+	private RetryExecutor retryExecutor;
 
 	/**
-	 * Constructor.
+	 * Constructor. Asynchronous deliveries are run on a new thread per message.
 	 *
 	 * @param emailStrategy
 	 *            the strategy to use to deliver email messages
@@ -29,11 +56,100 @@ public class MessageDeliveryService {
 	 *            the strategy to use to deliver SMS messages
 	 */
 	public MessageDeliveryService(EmailDeliveryStrategy emailStrategy, SmsDeliveryStrategy smsStrategy) {
+		this(emailStrategy, smsStrategy, new SimpleAsyncTaskExecutor("messaging-"));
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param emailStrategy
+	 *            the strategy to use to deliver email messages
+	 * @param smsStrategy
+	 *            the strategy to use to deliver SMS messages
+	 * @param executor
+	 *            the executor used to run asynchronous deliveries
+	 */
+	public MessageDeliveryService(EmailDeliveryStrategy emailStrategy, SmsDeliveryStrategy smsStrategy,
+			Executor executor) {
+		Assert.notNull(executor, "An executor is required for asynchronous message delivery.");
 		log.debug("Instantiating message delivery service.");
 		log.debug("Email delivery strategy: " + emailStrategy);
 		log.debug("SMS delivery strategy: " + smsStrategy);
+		log.debug("Delivery executor: " + executor);
 		this.emailStrategy = emailStrategy;
 		this.smsStrategy = smsStrategy;
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the maximum number of messages from a batch that are delivered at once. Batch deliveries are also limited by
+	 * the capacity of the delivery executor.
+	 *
+	 * @param batchParallelism
+	 *            the maximum number of concurrent deliveries per batch
+	 */
+	public void setBatchParallelism(int batchParallelism) {
+		Assert.isTrue(batchParallelism > 0, "Batch parallelism must be greater than zero.");
+		this.batchParallelism = batchParallelism;
+	}
+
+	/**
+	 * Sets the pool of sender numbers used by {@link #sendSms(String, String)}.
+	 *
+	 * @param senderPool
+	 *            the sender pool, or null to require a sender number
+	 */
+	public void setSenderPool(SenderPool senderPool) {
+		this.senderPool = senderPool;
+	}
+
+	/**
+	 * Gets the pool of sender numbers used by {@link #sendSms(String, String)}.
+	 *
+	 * @return the sender pool, or null if none is configured
+	 */
+	public SenderPool getSenderPool() {
+		return senderPool;
+	}
+
+	/**
+	 * Sets whether the SMS provider chooses the sender number when none is given, as a Twilio Messaging Service does.
+	 * If true and there is no sender pool, {@link #sendSms(String, String)} passes a null sender number to the SMS
+	 * delivery strategy.
+	 *
+	 * @param providerSelectsSender
+	 *            true if the provider chooses the sender number
+	 */
+	public void setProviderSelectsSender(boolean providerSelectsSender) {
+		this.providerSelectsSender = providerSelectsSender;
+	}
+
+	/**
+	 * Gets whether the SMS provider chooses the sender number when none is given.
+	 *
+	 * @return true if the provider chooses the sender number
+	 */
+	public boolean isProviderSelectsSender() {
+		return providerSelectsSender;
+	}
+
+	/**
+	 * Sets the executor used to retry deliveries that fail with a transient error.
+	 *
+	 * @param retryExecutor
+	 *            the retry executor, or null to attempt each delivery once
+	 */
+	public void setRetryExecutor(RetryExecutor retryExecutor) {
+		this.retryExecutor = retryExecutor;
+	}
+
+	/**
+	 * Gets the executor used to retry deliveries that fail with a transient error.
+	 *
+	 * @return the retry executor, or null if deliveries are attempted once
+	 */
+	public RetryExecutor getRetryExecutor() {
+		return retryExecutor;
 	}
 
 	/**
@@ -55,7 +171,8 @@ public class MessageDeliveryService {
 	}
 
 	/**
-	 * Sends an email message using the current delivery strategy.
+	 * Sends an email message using the current delivery strategy. If a retry executor is set, transient failures are
+	 * retried on the calling thread.
 	 *
 	 * @param fromEmail
 	 *            sender email address
@@ -71,11 +188,15 @@ public class MessageDeliveryService {
 	 *             delivery failure details
 	 */
 	public Optional<String> sendEmail(String fromEmail, String toEmail, String messageSubject, String messageText) {
-		return emailStrategy.sendEmail(fromEmail, toEmail, messageSubject, messageText);
+		if (retryExecutor == null) {
+			return deliverEmail(fromEmail, toEmail, messageSubject, messageText);
+		}
+		return retryExecutor.call(() -> deliverEmail(fromEmail, toEmail, messageSubject, messageText));
 	}
 
 	/**
-	 * Sends an SMS message using the current delivery strategy.
+	 * Sends an SMS message using the current delivery strategy. If a retry executor is set, transient failures are
+	 * retried on the calling thread.
 	 *
 	 * @param fromNumber
 	 *            SMS sender phone number
@@ -89,7 +210,250 @@ public class MessageDeliveryService {
 	 *             delivery failure details
 	 */
 	public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+		if (retryExecutor == null) {
+			return deliverSms(fromNumber, toNumber, messageText);
+		}
+		return retryExecutor.call(() -> deliverSms(fromNumber, toNumber, messageText));
+	}
+
+	/**
+	 * Sends an SMS message from a number chosen from the sender pool. The least-loaded sender is chosen for a new
+	 * recipient, and later messages to the same recipient are sent from the same number. Without a sender pool, the
+	 * provider chooses the sender if {@link #setProviderSelectsSender(boolean) allowed}.
+	 *
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @return optional string representation of delivery details, e.g. Twilio API
+	 *         response
+	 * @throws UnsuccessfulDeliveryException
+	 *             delivery failure details
+	 * @throws IllegalStateException
+	 *             if no sender pool is configured and the provider does not choose the sender
+	 */
+	public Optional<String> sendSms(String toNumber, String messageText) {
+		return sendSms(selectSender(toNumber), toNumber, messageText);
+	}
+
+	/**
+	 * Sends an email message asynchronously using the current delivery strategy. If a retry executor is set, transient
+	 * failures are retried without blocking a delivery thread between attempts. If delivery fails, the returned future
+	 * completes exceptionally with an {@link UnsuccessfulDeliveryException} describing the failure.
+	 *
+	 * @param fromEmail
+	 *            sender email address
+	 * @param toEmail
+	 *            recipient email address
+	 * @param messageSubject
+	 *            subject of the message
+	 * @param messageText
+	 *            body text of the message
+	 * @return future that completes with an optional string representation of delivery details
+	 */
+	public CompletableFuture<Optional<String>> sendEmailAsync(String fromEmail, String toEmail, String messageSubject,
+			String messageText) {
+		return supplyAsync(() -> deliverEmail(fromEmail, toEmail, messageSubject, messageText));
+	}
+
+	/**
+	 * Sends an SMS message asynchronously using the current delivery strategy. If a retry executor is set, transient
+	 * failures are retried without blocking a delivery thread between attempts. Otherwise, if the strategy is an
+	 * {@link AsyncSmsDeliveryStrategy}, the delivery is started through its asynchronous API. If delivery fails, the
+	 * returned future completes exceptionally with an {@link UnsuccessfulDeliveryException} describing the failure.
+	 *
+	 * @param fromNumber
+	 *            SMS sender phone number
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @return future that completes with an optional string representation of delivery details
+	 */
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText) {
+		if (retryExecutor != null || !(smsStrategy instanceof AsyncSmsDeliveryStrategy)) {
+			return supplyAsync(() -> deliverSms(fromNumber, toNumber, messageText));
+		}
+		try {
+			return deliverSmsAsync(fromNumber, toNumber, messageText, executor);
+		} catch (RejectedExecutionException ree) {
+			return rejected(ree);
+		}
+	}
+
+	/**
+	 * Sends an SMS message asynchronously from a number chosen from the sender pool. The sender is chosen before this
+	 * method returns. If delivery fails, the returned future completes exceptionally with an
+	 * {@link UnsuccessfulDeliveryException} describing the failure.
+	 *
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @return future that completes with an optional string representation of delivery details
+	 * @throws IllegalStateException
+	 *             if no sender pool is configured and the provider does not choose the sender
+	 */
+	public CompletableFuture<Optional<String>> sendSmsAsync(String toNumber, String messageText) {
+		return sendSmsAsync(selectSender(toNumber), toNumber, messageText);
+	}
+
+	/**
+	 * Sends a batch of email messages using the current delivery strategy. Messages without a sender address are sent
+	 * from the default sender address. A failure to deliver one message does not prevent delivery of the others. If a
+	 * retry executor is set, messages that failed with a transient error are retried one at a time after the batch.
+	 *
+	 * @param messages
+	 *            the messages to send
+	 * @return the delivery result for each message, in the order given
+	 */
+	public List<EmailDeliveryResult> sendEmail(List<EmailMessage> messages) {
+		var results = emailStrategy.sendEmail(messages);
+		if (retryExecutor == null) {
+			return results;
+		}
+		return results.stream().map(result -> {
+			if (result.isSuccessful() || !retryExecutor.getPolicy().isRetryable(result.error())) {
+				return result;
+			}
+			try {
+				return retryExecutor.call(() -> {
+					var retried = emailStrategy.sendEmail(List.of(result.message())).get(0);
+					if (!retried.isSuccessful()) {
+						throw retried.error();
+					}
+					return retried;
+				});
+			} catch (UnsuccessfulDeliveryException ude) {
+				return EmailDeliveryResult.failure(result.message(), ude);
+			}
+		}).toList();
+	}
+
+	/**
+	 * Sends a batch of SMS messages using the current delivery strategy. Messages are delivered in parallel on the
+	 * delivery executor, with at most {@link #setBatchParallelism(int) batch parallelism} deliveries in progress at
+	 * once. This method blocks until every message has been attempted. A failure to deliver one message does not
+	 * prevent delivery of the others.
+	 *
+	 * @param messages
+	 *            the messages to send
+	 * @return the delivery result for each message, in the order given
+	 */
+	public List<SmsDeliveryResult> sendSms(List<SmsMessage> messages) {
+		var permits = new Semaphore(batchParallelism);
+		var results = new ArrayList<CompletableFuture<SmsDeliveryResult>>(messages.size());
+
+		for (var message : messages) {
+			try {
+				permits.acquire();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				results.add(CompletableFuture.completedFuture(SmsDeliveryResult.failure(message,
+						new UnsuccessfulDeliveryException("Interrupted before the message could be sent.", ie))));
+				continue;
+			}
+
+			var result = sendSmsAsync(message.fromNumber(), message.toNumber(), message.messageText())
+					.handle((details, ex) -> ex == null ? SmsDeliveryResult.success(message, details)
+							: SmsDeliveryResult.failure(message, toDeliveryException(ex)));
+			result.whenComplete((r, ex) -> permits.release());
+			results.add(result);
+		}
+
+		return results.stream().map(CompletableFuture::join).toList();
+	}
+
+	/**
+	 * Makes one attempt to deliver an email message. Subclasses may override this to change how single messages are
+	 * delivered; retries and asynchronous delivery are layered on top.
+	 *
+	 * @param fromEmail
+	 *            sender email address
+	 * @param toEmail
+	 *            recipient email address
+	 * @param messageSubject
+	 *            subject of the message
+	 * @param messageText
+	 *            body text of the message
+	 * @return optional string representation of delivery details
+	 * @throws UnsuccessfulDeliveryException
+	 *             delivery failure details
+	 */
+	protected Optional<String> deliverEmail(String fromEmail, String toEmail, String messageSubject,
+			String messageText) {
+		return emailStrategy.sendEmail(fromEmail, toEmail, messageSubject, messageText);
+	}
+
+	/**
+	 * Makes one attempt to deliver an SMS message. Subclasses may override this to change how single messages are
+	 * delivered; retries and asynchronous delivery are layered on top.
+	 *
+	 * @param fromNumber
+	 *            SMS sender phone number
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @return optional string representation of delivery details
+	 * @throws UnsuccessfulDeliveryException
+	 *             delivery failure details
+	 */
+	protected Optional<String> deliverSms(String fromNumber, String toNumber, String messageText) {
 		return smsStrategy.sendSms(fromNumber, toNumber, messageText);
 	}
 
+	/**
+	 * Starts delivery of an SMS message through the asynchronous API of the current delivery strategy, which is an
+	 * {@link AsyncSmsDeliveryStrategy}. Subclasses may override this to change how asynchronous messages are delivered.
+	 *
+	 * @param fromNumber
+	 *            SMS sender phone number
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @param executor
+	 *            executor on which to run any blocking work
+	 * @return future that completes with an optional string representation of delivery details
+	 */
+	protected CompletableFuture<Optional<String>> deliverSmsAsync(String fromNumber, String toNumber,
+			String messageText, Executor executor) {
+		return AsyncSmsDeliveryStrategy.sendSmsAsync(smsStrategy, fromNumber, toNumber, messageText, executor);
+	}
+
+	private String selectSender(String toNumber) {
+		if (senderPool == null && providerSelectsSender) {
+			return null;
+		}
+		Assert.state(senderPool != null, "No sender pool is configured. Set octri.messaging.twilio.senders, "
+				+ "set octri.messaging.twilio.messaging-service-sid, or pass a sender number.");
+		return senderPool.select(toNumber);
+	}
+
+	private UnsuccessfulDeliveryException toDeliveryException(Throwable ex) {
+		var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+		if (cause instanceof UnsuccessfulDeliveryException ude) {
+			return ude;
+		}
+		return new UnsuccessfulDeliveryException("Unexpected exception delivering message.", cause);
+	}
+
+	private CompletableFuture<Optional<String>> supplyAsync(Supplier<Optional<String>> delivery) {
+		if (retryExecutor != null) {
+			return retryExecutor.supplyAsync(delivery, executor);
+		}
+		try {
+			return CompletableFuture.supplyAsync(delivery, executor);
+		} catch (RejectedExecutionException ree) {
+			return rejected(ree);
+		}
+	}
+
+	private static <T> CompletableFuture<T> rejected(RejectedExecutionException ree) {
+		log.warn("Message delivery rejected by executor: " + ree.getMessage());
+		return CompletableFuture.failedFuture(
+				new UnsuccessfulDeliveryException("The delivery executor did not accept the message.", ree));
+	}
+
 }
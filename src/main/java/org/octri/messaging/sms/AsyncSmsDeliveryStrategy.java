@@ -0,0 +1,57 @@
+package org.octri.messaging.sms;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+
+/**
+ * SMS delivery strategy that can start a delivery without blocking the caller. Asynchronous sends from
+ * {@link org.octri.messaging.service.MessageDeliveryService} use this method instead of running
+ * {@link #sendSms(String, String, String)} on a delivery thread.
+ */
+public interface AsyncSmsDeliveryStrategy extends SmsDeliveryStrategy {
+
+	/**
+	 * Sends an SMS message without blocking the caller. If delivery fails, the returned future completes exceptionally,
+	 * normally with an {@link UnsuccessfulDeliveryException}.
+	 *
+	 * @param fromNumber
+	 *            SMS sender phone number
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @param executor
+	 *            executor on which to run any blocking work
+	 * @return future that completes with an optional string representation of delivery details
+	 */
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText,
+			Executor executor);
+
+	/**
+	 * Sends an SMS message through a strategy without blocking the caller. Strategies that implement this interface
+	 * start the delivery themselves; others are run on the executor.
+	 *
+	 * @param strategy
+	 *            the strategy that delivers the message
+	 * @param fromNumber
+	 *            SMS sender phone number
+	 * @param toNumber
+	 *            SMS recipient phone number
+	 * @param messageText
+	 *            body text of the message
+	 * @param executor
+	 *            executor on which to run any blocking work
+	 * @return future that completes with an optional string representation of delivery details
+	 */
+	public static CompletableFuture<Optional<String>> sendSmsAsync(SmsDeliveryStrategy strategy, String fromNumber,
+			String toNumber, String messageText, Executor executor) {
+		if (strategy instanceof AsyncSmsDeliveryStrategy asyncStrategy) {
+			return asyncStrategy.sendSmsAsync(fromNumber, toNumber, messageText, executor);
+		}
+		return CompletableFuture.supplyAsync(() -> strategy.sendSms(fromNumber, toNumber, messageText), executor);
+	}
+
+}
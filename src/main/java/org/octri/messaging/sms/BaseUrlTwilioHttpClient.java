@@ -0,0 +1,82 @@
+package org.octri.messaging.sms;
+
+import java.net.URI;
+
+import org.springframework.util.Assert;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+
+/**
+ * Twilio HTTP client that sends requests to another base URL instead of the Twilio API hosts, such as a local stand-in
+ * server used for load testing. The path, query, parameters, headers, and credentials of each request are kept; the
+ * scheme, host, and port are replaced. Requests are made by the delegate client, so its connection pool and timeouts
+ * apply.
+ */
+public class BaseUrlTwilioHttpClient extends HttpClient {
+
+	private final HttpClient delegate;
+	private final String baseUrl;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            client that makes the requests
+	 * @param baseUrl
+	 *            base URL to send requests to, e.g. <code>http://localhost:8089</code>
+	 */
+	public BaseUrlTwilioHttpClient(HttpClient delegate, String baseUrl) {
+		Assert.notNull(delegate, "A delegate Twilio HTTP client is required.");
+		Assert.hasText(baseUrl, "A base URL is required.");
+		this.delegate = delegate;
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+	}
+
+	@Override
+	public Response makeRequest(Request request) {
+		return delegate.makeRequest(rebase(request));
+	}
+
+	/**
+	 * Gets the base URL requests are sent to.
+	 *
+	 * @return the base URL, without a trailing slash
+	 */
+	public String getBaseUrl() {
+		return baseUrl;
+	}
+
+	/**
+	 * Gets the client that makes the requests.
+	 *
+	 * @return the delegate client
+	 */
+	public HttpClient getDelegate() {
+		return delegate;
+	}
+
+	private Request rebase(Request request) {
+		// Next page requests carry their paging parameters, such as PageToken, in the URL's query string
+		var url = URI.create(request.getUrl());
+		var query = url.getRawQuery();
+		var rebased = new Request(request.getMethod(),
+				baseUrl + url.getRawPath() + (query != null ? "?" + query : ""));
+		if (request.getAuthStrategy() != null) {
+			rebased.setAuth(request.getAuthStrategy());
+		} else if (request.requiresAuthentication()) {
+			rebased.setAuth(request.getUsername(), request.getPassword());
+		}
+		request.getQueryParams().forEach((name, values) -> values.forEach(value -> rebased.addQueryParam(name, value)));
+		request.getPostParams().forEach((name, values) -> values.forEach(value -> rebased.addPostParam(name, value)));
+		request.getHeaderParams()
+				.forEach((name, values) -> values.forEach(value -> rebased.addHeaderParam(name, value)));
+		rebased.setUserAgentExtensions(request.getUserAgentExtensions());
+		rebased.setContentType(request.getContentType());
+		rebased.setBody(request.getBody());
+		rebased.setFormParameters(request.getFormParameters());
+		return rebased;
+	}
+
+}
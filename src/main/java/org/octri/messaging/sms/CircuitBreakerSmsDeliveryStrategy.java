@@ -0,0 +1,65 @@
+package org.octri.messaging.sms;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.octri.messaging.resilience.CircuitBreaker;
+import org.springframework.util.Assert;
+
+/**
+ * SMS delivery strategy that passes messages to another strategy through a {@link CircuitBreaker}. While the circuit is
+ * open, messages fail immediately with a {@link org.octri.messaging.exception.CircuitOpenException} instead of waiting
+ * for the provider to time out.
+ */
+public class CircuitBreakerSmsDeliveryStrategy implements AsyncSmsDeliveryStrategy {
+
+	private final SmsDeliveryStrategy delegate;
+	private final CircuitBreaker circuitBreaker;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            strategy that delivers the messages
+	 * @param circuitBreaker
+	 *            circuit breaker guarding the delegate
+	 */
+	public CircuitBreakerSmsDeliveryStrategy(SmsDeliveryStrategy delegate, CircuitBreaker circuitBreaker) {
+		Assert.notNull(delegate, "A delegate SMS delivery strategy is required.");
+		Assert.notNull(circuitBreaker, "A circuit breaker is required.");
+		this.delegate = delegate;
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	@Override
+	public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+		return circuitBreaker.execute(() -> delegate.sendSms(fromNumber, toNumber, messageText));
+	}
+
+	/**
+	 * Checks the circuit breaker before starting the delegate's asynchronous delivery, and records the outcome when the
+	 * delivery completes. While the circuit is open, the returned future fails immediately.
+	 */
+	@Override
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText,
+			Executor executor) {
+		return circuitBreaker.executeAsync(
+				() -> AsyncSmsDeliveryStrategy.sendSmsAsync(delegate, fromNumber, toNumber, messageText, executor));
+	}
+
+	/**
+	 * Gets the circuit breaker guarding the delegate.
+	 *
+	 * @return the circuit breaker
+	 */
+	public CircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[circuit=" + circuitBreaker.getName() + ", delegate=" + delegate + "]";
+	}
+
+}
@@ -0,0 +1,125 @@
+package org.octri.messaging.sms;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.octri.messaging.metrics.DeliveryMetrics;
+import org.octri.messaging.sms.SmsSegmentCalculator.Encoding;
+import org.springframework.util.Assert;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * SMS delivery strategy that records the time, outcome, and error code of each delivery made by another strategy, and
+ * counts the segments of each message delivered, tagged by encoding (<code>octri.messaging.sms.segments</code>).
+ * Micrometer must be on the classpath to use this class.
+ *
+ * @see DeliveryMetrics
+ */
+public class MeteredSmsDeliveryStrategy implements AsyncSmsDeliveryStrategy {
+
+	/**
+	 * Name of the counter of SMS segments delivered.
+	 */
+	public static final String SEGMENT_COUNTER = "octri.messaging.sms.segments";
+
+	private final SmsDeliveryStrategy delegate;
+	private final DeliveryMetrics metrics;
+	private final Counter gsm7Segments;
+	private final Counter ucs2Segments;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            strategy that delivers the messages
+	 * @param metrics
+	 *            meters for the delegate's deliveries
+	 * @param registry
+	 *            registry to register the segment counters with
+	 */
+	public MeteredSmsDeliveryStrategy(SmsDeliveryStrategy delegate, DeliveryMetrics metrics, MeterRegistry registry) {
+		Assert.notNull(delegate, "A delegate SMS delivery strategy is required.");
+		Assert.notNull(metrics, "Delivery metrics are required.");
+		this.delegate = delegate;
+		this.metrics = metrics;
+		this.gsm7Segments = segmentCounter(registry, "gsm-7");
+		this.ucs2Segments = segmentCounter(registry, "ucs-2");
+	}
+
+	@Override
+	public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+		var start = metrics.start();
+		try {
+			var details = delegate.sendSms(fromNumber, toNumber, messageText);
+			metrics.success(start);
+			countSegments(messageText);
+			return details;
+		} catch (RuntimeException ex) {
+			metrics.failure(start, ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText,
+			Executor executor) {
+		var start = metrics.start();
+		CompletableFuture<Optional<String>> result;
+		try {
+			result = AsyncSmsDeliveryStrategy.sendSmsAsync(delegate, fromNumber, toNumber, messageText, executor);
+		} catch (RuntimeException ex) {
+			metrics.failure(start, ex);
+			throw ex;
+		}
+		return result.whenComplete((details, failure) -> {
+			if (failure == null) {
+				metrics.success(start);
+				countSegments(messageText);
+			} else {
+				metrics.failure(start, failure);
+			}
+		});
+	}
+
+	/**
+	 * Gets the strategy that delivers the messages.
+	 *
+	 * @return the delegate strategy
+	 */
+	public SmsDeliveryStrategy getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * Gets the meters for the delegate's deliveries.
+	 *
+	 * @return the delivery metrics
+	 */
+	public DeliveryMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[delegate=" + delegate + "]";
+	}
+
+	private void countSegments(String messageText) {
+		if (messageText == null) {
+			return;
+		}
+		var segments = SmsSegmentCalculator.calculate(messageText);
+		(segments.encoding() == Encoding.GSM_7 ? gsm7Segments : ucs2Segments).increment(segments.segments());
+	}
+
+	private static Counter segmentCounter(MeterRegistry registry, String encoding) {
+		return Counter.builder(SEGMENT_COUNTER)
+				.description("Segments of the SMS messages delivered")
+				.tag("encoding", encoding)
+				.register(registry);
+	}
+
+}
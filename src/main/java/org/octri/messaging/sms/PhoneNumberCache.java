@@ -0,0 +1,106 @@
+package org.octri.messaging.sms;
+
+import org.octri.messaging.exception.InvalidPhoneNumberException;
+import org.springframework.util.Assert;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.twilio.type.PhoneNumber;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache from phone number strings, as passed by callers, to validated Twilio {@link PhoneNumber} objects in
+ * E.164 format. Applications that message the same recipients repeatedly can use the cache to avoid normalizing and
+ * wrapping each number on every send.
+ *
+ * Invalid numbers are cached too. A cached invalid number is rejected with an {@link InvalidPhoneNumberException} that
+ * has no stack trace.
+ *
+ * The cache is backed by Caffeine, which evicts entries using the W-TinyLFU policy, so numbers used often stay cached
+ * even when many numbers are seen only once. Caffeine must be on the classpath to use this class.
+ */
+public class PhoneNumberCache {
+
+	/**
+	 * Name of the cache in the <code>cache</code> tag of its Micrometer metrics.
+	 */
+	public static final String METRICS_CACHE_NAME = "octri.messaging.phone-number-cache";
+
+	private final Cache<String, Entry> cache;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maximumSize
+	 *            maximum number of phone number strings to remember
+	 */
+	public PhoneNumberCache(long maximumSize) {
+		Assert.isTrue(maximumSize > 0, "The phone number cache size must be greater than zero.");
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	/**
+	 * Converts a phone number string to a Twilio {@link PhoneNumber} in E.164 format, as
+	 * {@link SmsUtils#toE164PhoneNumber} does, using the cached result if there is one.
+	 *
+	 * @param phoneNumber
+	 *            a phone number string
+	 * @return the phone number in E.164 format
+	 * @throws InvalidPhoneNumberException
+	 *             if the phone number cannot be converted to E.164 format
+	 */
+	public PhoneNumber toPhoneNumber(String phoneNumber) {
+		var entry = cache.get(phoneNumber, PhoneNumberCache::convert);
+		if (entry.phoneNumber() == null) {
+			throw new InvalidPhoneNumberException(entry.error(), false);
+		}
+		return entry.phoneNumber();
+	}
+
+	/**
+	 * Gets the cache statistics, including the hit rate, since the cache was created.
+	 *
+	 * @return cache statistics
+	 */
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Gets the approximate number of phone number strings in the cache.
+	 *
+	 * @return the approximate size
+	 */
+	public long getEstimatedSize() {
+		return cache.estimatedSize();
+	}
+
+	/**
+	 * Registers the cache's Micrometer metrics, such as <code>cache.gets</code> tagged by hit or miss, evictions, and
+	 * size, with the cache name {@value #METRICS_CACHE_NAME}. Micrometer must be on the classpath to call this method.
+	 *
+	 * @param registry
+	 *            registry to register the metrics with
+	 */
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, METRICS_CACHE_NAME);
+	}
+
+	private static Entry convert(String phoneNumber) {
+		try {
+			return new Entry(new PhoneNumber(SmsUtils.toE164PhoneNumber(phoneNumber)), null);
+		} catch (InvalidPhoneNumberException ipne) {
+			return new Entry(null, ipne.getMessage());
+		}
+	}
+
+	/**
+	 * A valid phone number, or the reason the input is invalid.
+	 */
+	private record Entry(PhoneNumber phoneNumber, String error) {
+	}
+
+}
@@ -0,0 +1,104 @@
+package org.octri.messaging.sms;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.octri.messaging.autoconfig.TwilioHttpClientProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+import com.twilio.http.NetworkHttpClient;
+
+/**
+ * Twilio {@link NetworkHttpClient} with a configurable connection pool and timeouts. The Twilio SDK's default client
+ * allows 20 connections to the API and waits up to 30 seconds for a response; this client sizes the pool and the
+ * timeouts from {@link TwilioHttpClientProperties}, so parallel sends do not queue for connections and a stalled request
+ * fails quickly.
+ *
+ * Use {@link PooledTwilioHttpClients} to give each Twilio account its own pool. Idle connections are closed by a
+ * background thread, which stops when the client is destroyed.
+ */
+public class PooledTwilioHttpClient extends NetworkHttpClient implements DisposableBean {
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param properties
+	 *            connection pool and timeout configuration
+	 */
+	public PooledTwilioHttpClient(TwilioHttpClientProperties properties) {
+		this(properties, connectionManager(properties));
+	}
+
+	private PooledTwilioHttpClient(TwilioHttpClientProperties properties,
+			PoolingHttpClientConnectionManager connectionManager) {
+		super(clientBuilder(properties, connectionManager));
+		this.connectionManager = connectionManager;
+	}
+
+	/**
+	 * Gets the connection manager, which reports the number of leased, available, and pending connections.
+	 *
+	 * @return the connection manager
+	 */
+	public PoolingHttpClientConnectionManager getConnectionManager() {
+		return connectionManager;
+	}
+
+	/**
+	 * Closes the pooled connections and stops the idle connection evictor.
+	 */
+	@Override
+	public void destroy() throws IOException {
+		client.close();
+	}
+
+	private static PoolingHttpClientConnectionManager connectionManager(TwilioHttpClientProperties properties) {
+		Assert.notNull(properties, "Twilio HTTP client properties are required.");
+		Assert.isTrue(properties.getMaxConnections() > 0, "The Twilio connection pool size must be greater than zero.");
+		var readTimeout = timeout(properties.getReadTimeout());
+		// Every request goes to the same Twilio host, so the per-route limit is the pool size
+		return PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(properties.getMaxConnections())
+				.setMaxConnPerRoute(properties.getMaxConnections())
+				.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(readTimeout).setSoKeepAlive(true).build())
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(timeout(properties.getConnectTimeout()))
+						.setSocketTimeout(readTimeout)
+						.setTimeToLive(TimeValue.ofMilliseconds(properties.getTimeToLive().toMillis()))
+						.build())
+				.build();
+	}
+
+	private static HttpClientBuilder clientBuilder(TwilioHttpClientProperties properties,
+			PoolingHttpClientConnectionManager connectionManager) {
+		var builder = HttpClientBuilder.create()
+				.useSystemProperties()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(timeout(properties.getConnectionRequestTimeout()))
+						.setResponseTimeout(timeout(properties.getReadTimeout()))
+						.build())
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofMilliseconds(properties.getIdleTimeout().toMillis()));
+		if (!properties.isCompression()) {
+			builder.disableContentCompression();
+		}
+		return builder;
+	}
+
+	private static Timeout timeout(Duration duration) {
+		return Timeout.ofMilliseconds(duration.toMillis());
+	}
+
+}
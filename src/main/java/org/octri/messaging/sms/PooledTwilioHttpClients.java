@@ -0,0 +1,73 @@
+package org.octri.messaging.sms;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.octri.messaging.autoconfig.TwilioHttpClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * One {@link PooledTwilioHttpClient} per Twilio account, each with its own connection pool configured from the same
+ * {@link TwilioHttpClientProperties}. Twilio limits concurrent requests per account, so separate pools keep a busy
+ * account from using up the connections another account needs. Clients are created the first time an account asks for
+ * one and are all closed when this object is destroyed.
+ */
+public class PooledTwilioHttpClients implements DisposableBean {
+
+	private static final Logger log = LoggerFactory.getLogger(PooledTwilioHttpClients.class);
+
+	private final TwilioHttpClientProperties properties;
+	private final Map<String, PooledTwilioHttpClient> clients = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param properties
+	 *            connection pool and timeout configuration used for every account
+	 */
+	public PooledTwilioHttpClients(TwilioHttpClientProperties properties) {
+		Assert.notNull(properties, "Twilio HTTP client properties are required.");
+		this.properties = properties;
+	}
+
+	/**
+	 * Gets the HTTP client for an account, creating it if needed.
+	 *
+	 * @param accountSid
+	 *            Twilio account ID
+	 * @return the account's HTTP client
+	 */
+	public PooledTwilioHttpClient forAccount(String accountSid) {
+		Assert.hasLength(accountSid, "Twilio account SID is required.");
+		return clients.computeIfAbsent(accountSid, sid -> new PooledTwilioHttpClient(properties));
+	}
+
+	/**
+	 * Gets the HTTP clients created so far.
+	 *
+	 * @return unmodifiable map of HTTP clients by account ID
+	 */
+	public Map<String, PooledTwilioHttpClient> getClients() {
+		return Map.copyOf(clients);
+	}
+
+	/**
+	 * Closes every account's HTTP client. Clients that fail to close are logged, and the others are still closed.
+	 */
+	@Override
+	public void destroy() {
+		clients.forEach((accountSid, client) -> {
+			try {
+				client.destroy();
+			} catch (IOException e) {
+				log.warn("Error closing Twilio HTTP client for account " + accountSid + ": " + e.getMessage());
+			}
+		});
+		clients.clear();
+	}
+
+}
@@ -0,0 +1,198 @@
+package org.octri.messaging.sms;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+import org.octri.messaging.exception.InvalidPhoneNumberException;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * SMS delivery strategy that limits the rate of messages sent from each sender number before passing them to another
+ * strategy. Each sender number has its own {@link TokenBucket}, so a busy number does not slow down the others.
+ *
+ * Twilio queues messages sent faster than a number's throughput limit and eventually rejects them, so sending at or
+ * below the limit keeps delivery latency predictable.
+ *
+ * Messages without a sender number are sent through a Twilio Messaging Service, which chooses the sender and queues
+ * messages on Twilio's side, so they are passed to the delegate without a limit.
+ *
+ * Asynchronous sends never block a thread: when the behavior is {@link Behavior#WAIT}, the delegate's delivery is
+ * started once the reserved send time arrives.
+ */
+public class RateLimitedSmsDeliveryStrategy implements AsyncSmsDeliveryStrategy {
+
+	private static final Logger log = LoggerFactory.getLogger(RateLimitedSmsDeliveryStrategy.class);
+
+	/**
+	 * What to do with a message when its sender has reached its rate limit.
+	 */
+	public enum Behavior {
+		/**
+		 * Block the caller until the message can be sent, up to the maximum wait.
+		 */
+		WAIT,
+
+		/**
+		 * Fail immediately with a {@link RateLimitExceededException}.
+		 */
+		FAIL_FAST,
+
+		/**
+		 * Fail immediately with a deferred {@link RateLimitExceededException}. Queued delivery, such as the outbox,
+		 * keeps the message and sends it later without counting a failed attempt.
+		 */
+		DEFER
+	}
+
+	private final SmsDeliveryStrategy delegate;
+	private final double defaultMessagesPerSecond;
+	private final int burst;
+	private final Map<String, Double> senderMessagesPerSecond;
+	private final Behavior behavior;
+	private final long maxWaitNanos;
+	private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            strategy that delivers the messages
+	 * @param defaultMessagesPerSecond
+	 *            rate limit for sender numbers without a specific limit
+	 * @param burst
+	 *            number of messages a sender may send at once after being idle
+	 * @param senderMessagesPerSecond
+	 *            rate limits for specific sender numbers
+	 * @param behavior
+	 *            what to do with messages sent over the limit
+	 * @param maxWait
+	 *            longest time to block the caller when the behavior is {@link Behavior#WAIT}
+	 */
+	public RateLimitedSmsDeliveryStrategy(SmsDeliveryStrategy delegate, double defaultMessagesPerSecond, int burst,
+			Map<String, Double> senderMessagesPerSecond, Behavior behavior, Duration maxWait) {
+		Assert.notNull(delegate, "A delegate SMS delivery strategy is required.");
+		Assert.isTrue(defaultMessagesPerSecond > 0, "The default rate limit must be greater than zero.");
+		Assert.isTrue(burst > 0, "The burst size must be greater than zero.");
+		Assert.notNull(behavior, "A rate limit behavior is required.");
+		this.delegate = delegate;
+		this.defaultMessagesPerSecond = defaultMessagesPerSecond;
+		this.burst = burst;
+		this.senderMessagesPerSecond = new ConcurrentHashMap<>();
+		senderMessagesPerSecond.forEach((number, rate) -> this.senderMessagesPerSecond.put(senderKey(number), rate));
+		this.behavior = behavior;
+		this.maxWaitNanos = maxWait.toNanos();
+	}
+
+	@Override
+	public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+		if (StringUtils.isBlank(fromNumber)) {
+			return delegate.sendSms(fromNumber, toNumber, messageText);
+		}
+
+		var bucket = bucketFor(fromNumber);
+
+		if (behavior == Behavior.WAIT) {
+			var wait = bucket.reserve(maxWaitNanos);
+			if (wait < 0) {
+				throw rateLimitExceeded(fromNumber, bucket, false);
+			}
+			pause(wait);
+		} else if (!bucket.tryAcquire()) {
+			throw rateLimitExceeded(fromNumber, bucket, behavior == Behavior.DEFER);
+		}
+
+		return delegate.sendSms(fromNumber, toNumber, messageText);
+	}
+
+	/**
+	 * Reserves the sender's rate limit without blocking the caller. When the behavior is {@link Behavior#WAIT}, the
+	 * delegate's delivery is started on the executor after the reserved wait; otherwise, and when the wait would exceed
+	 * the maximum, the returned future fails immediately if the sender is over its limit.
+	 */
+	@Override
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText,
+			Executor executor) {
+		if (StringUtils.isBlank(fromNumber)) {
+			return AsyncSmsDeliveryStrategy.sendSmsAsync(delegate, fromNumber, toNumber, messageText, executor);
+		}
+
+		var bucket = bucketFor(fromNumber);
+
+		var wait = 0L;
+		if (behavior == Behavior.WAIT) {
+			wait = bucket.reserve(maxWaitNanos);
+			if (wait < 0) {
+				return CompletableFuture.failedFuture(rateLimitExceeded(fromNumber, bucket, false));
+			}
+		} else if (!bucket.tryAcquire()) {
+			return CompletableFuture.failedFuture(rateLimitExceeded(fromNumber, bucket, behavior == Behavior.DEFER));
+		}
+
+		if (wait == 0) {
+			return AsyncSmsDeliveryStrategy.sendSmsAsync(delegate, fromNumber, toNumber, messageText, executor);
+		}
+		var delayed = CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor);
+		return CompletableFuture.supplyAsync(() -> AsyncSmsDeliveryStrategy.sendSmsAsync(delegate, fromNumber, toNumber,
+				messageText, executor), delayed).thenCompose(Function.identity());
+	}
+
+	/**
+	 * Gets the rate limiter for a sender number.
+	 *
+	 * @param fromNumber
+	 *            the sender number
+	 * @return the sender's token bucket
+	 */
+	public TokenBucket bucketFor(String fromNumber) {
+		return buckets.computeIfAbsent(senderKey(fromNumber), key -> new TokenBucket(
+				senderMessagesPerSecond.getOrDefault(key, defaultMessagesPerSecond), burst));
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[behavior=" + behavior + ", delegate=" + delegate + "]";
+	}
+
+	private RateLimitExceededException rateLimitExceeded(String fromNumber, TokenBucket bucket, boolean deferred) {
+		var retryAfter = Duration.ofNanos(bucket.nanosUntilAvailable());
+		log.debug("Rate limit reached for sender " + fromNumber + "; retry after " + retryAfter.toMillis() + " ms");
+		return new RateLimitExceededException("Rate limit reached for sender " + fromNumber + ".", retryAfter,
+				deferred);
+	}
+
+	private static void pause(long nanos) {
+		if (nanos == 0) {
+			return;
+		}
+		try {
+			TimeUnit.NANOSECONDS.sleep(nanos);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new UnsuccessfulDeliveryException("Interrupted while waiting for the sender rate limit.", ie);
+		}
+	}
+
+	private static String senderKey(String fromNumber) {
+		// Numbers in different formats share one limit; invalid numbers are left for the delegate to reject
+		if (fromNumber == null) {
+			return "";
+		}
+		try {
+			return SmsUtils.toE164PhoneNumber(fromNumber);
+		} catch (InvalidPhoneNumberException ipne) {
+			return fromNumber;
+		}
+	}
+
+}
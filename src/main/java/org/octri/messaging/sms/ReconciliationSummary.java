@@ -0,0 +1,14 @@
+package org.octri.messaging.sms;
+
+/**
+ * Counts from a run of {@link TwilioHelper#reconcileMessages}.
+ *
+ * @param pagesRead
+ *            number of pages fetched from the Twilio API
+ * @param messagesRead
+ *            number of messages listed by the Twilio API
+ * @param messagesReconciled
+ *            number of messages passed to the page handler
+ */
+public record ReconciliationSummary(int pagesRead, long messagesRead, long messagesReconciled) {
+}
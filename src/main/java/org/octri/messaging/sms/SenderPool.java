@@ -0,0 +1,177 @@
+package org.octri.messaging.sms;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.octri.messaging.exception.InvalidPhoneNumberException;
+import org.springframework.util.Assert;
+
+/**
+ * Chooses a sender number for each SMS message from a pool of numbers. Each message is assigned to the sender that
+ * could send it soonest, given the messages already assigned to each sender and its capacity (messages per second
+ * multiplied by weight). Under load, messages are spread in proportion to capacity so that every sender works through
+ * its backlog at about the same time. When several senders are idle, the one idle longest is chosen.
+ *
+ * Once a recipient has been assigned a sender, later messages to the same recipient use the same sender so the
+ * conversation stays on one number. Assignments are kept for the most recently used recipients only.
+ */
+public class SenderPool {
+
+	/**
+	 * A sender number in the pool.
+	 *
+	 * @param number
+	 *            the sender phone number
+	 * @param weight
+	 *            relative share of messages, multiplied by the rate
+	 * @param messagesPerSecond
+	 *            throughput limit of the number
+	 */
+	public record Sender(String number, double weight, double messagesPerSecond) {
+
+		/**
+		 * Validates the sender.
+		 *
+		 * @param number
+		 *            the sender phone number
+		 * @param weight
+		 *            relative share of messages, multiplied by the rate
+		 * @param messagesPerSecond
+		 *            throughput limit of the number
+		 */
+		public Sender {
+			Assert.hasText(number, "A sender number is required.");
+			Assert.isTrue(weight > 0, "Sender weight must be greater than zero.");
+			Assert.isTrue(messagesPerSecond > 0, "Sender messages per second must be greater than zero.");
+		}
+
+	}
+
+	/**
+	 * Tracks when a sender will have worked through the messages assigned to it.
+	 */
+	private static final class Slot {
+
+		private final Sender sender;
+		private final long intervalNanos;
+		private final AtomicLong busyUntilNanos;
+
+		private Slot(Sender sender, long nowNanos) {
+			this.sender = sender;
+			this.intervalNanos = Math.max(1,
+					Math.round(TimeUnit.SECONDS.toNanos(1) / (sender.messagesPerSecond() * sender.weight())));
+			this.busyUntilNanos = new AtomicLong(nowNanos);
+		}
+
+		private long availableAt(long nowNanos) {
+			return Math.max(busyUntilNanos.get(), nowNanos);
+		}
+
+		private void assign(long nowNanos) {
+			busyUntilNanos.accumulateAndGet(nowNanos, (busyUntil, now) -> Math.max(busyUntil, now) + intervalNanos);
+		}
+
+	}
+
+	private final List<Slot> slots;
+	private final Map<String, Slot> recipientSenders;
+	private final LongSupplier nanoClock;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param senders
+	 *            sender numbers in the pool
+	 * @param stickyCacheSize
+	 *            number of recipients whose assigned sender is remembered
+	 */
+	public SenderPool(List<Sender> senders, int stickyCacheSize) {
+		this(senders, stickyCacheSize, System::nanoTime);
+	}
+
+	/**
+	 * Constructor with a custom clock for testing.
+	 *
+	 * @param senders
+	 *            sender numbers in the pool
+	 * @param stickyCacheSize
+	 *            number of recipients whose assigned sender is remembered
+	 * @param nanoClock
+	 *            monotonic clock returning nanoseconds
+	 */
+	SenderPool(List<Sender> senders, int stickyCacheSize, LongSupplier nanoClock) {
+		Assert.notEmpty(senders, "At least one sender number is required.");
+		Assert.isTrue(stickyCacheSize > 0, "The sticky cache size must be greater than zero.");
+		this.nanoClock = nanoClock;
+		var now = nanoClock.getAsLong();
+		this.slots = senders.stream().map(sender -> new Slot(sender, now)).toList();
+		this.recipientSenders = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Slot> eldest) {
+				return size() > stickyCacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Chooses the sender number for a message to the given recipient.
+	 *
+	 * @param toNumber
+	 *            recipient phone number
+	 * @return the sender phone number
+	 */
+	public String select(String toNumber) {
+		var recipient = normalize(toNumber);
+		var now = nanoClock.getAsLong();
+
+		Slot slot;
+		synchronized (recipientSenders) {
+			slot = recipientSenders.get(recipient);
+			if (slot == null) {
+				slot = leastLoaded(now);
+				recipientSenders.put(recipient, slot);
+			}
+		}
+
+		slot.assign(now);
+		return slot.sender.number();
+	}
+
+	/**
+	 * Gets the senders in the pool.
+	 *
+	 * @return the senders
+	 */
+	public List<Sender> getSenders() {
+		return slots.stream().map(slot -> slot.sender).toList();
+	}
+
+	private Slot leastLoaded(long now) {
+		var best = slots.get(0);
+		var bestAvailableAt = best.availableAt(now);
+		for (int i = 1; i < slots.size(); i++) {
+			var candidate = slots.get(i);
+			var availableAt = candidate.availableAt(now);
+			// Among idle senders, prefer the one that has been idle longest
+			if (availableAt < bestAvailableAt || (availableAt == bestAvailableAt
+					&& candidate.busyUntilNanos.get() < best.busyUntilNanos.get())) {
+				best = candidate;
+				bestAvailableAt = availableAt;
+			}
+		}
+		return best;
+	}
+
+	private static String normalize(String phoneNumber) {
+		try {
+			return SmsUtils.toE164PhoneNumber(phoneNumber);
+		} catch (InvalidPhoneNumberException ipne) {
+			return phoneNumber;
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package org.octri.messaging.sms;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.twilio.rest.api.v2010.account.Message;
+
+/**
+ * The parts of a Twilio message API response needed to track a delivery. Unlike the full {@link Message}, a receipt
+ * does not include the message body, URIs, or subresources, so it is cheap to create and to serialize.
+ *
+ * @param sid
+ *            Twilio message SID
+ * @param accountSid
+ *            SID of the account that sent the message
+ * @param status
+ *            message status reported by Twilio, e.g. queued
+ * @param numSegments
+ *            number of segments the message was split into, or null if not yet known
+ * @param price
+ *            price charged for the message, or null if not yet known
+ * @param priceUnit
+ *            currency of the price, or null if not yet known
+ * @param dateCreated
+ *            when the message was created, or null
+ * @param dateSent
+ *            when the message was sent, or null if not yet sent
+ * @param errorCode
+ *            Twilio error code, or null if there was no error
+ * @param errorMessage
+ *            Twilio error description, or null if there was no error
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SmsDeliveryReceipt(String sid, String accountSid, String status, Integer numSegments, String price,
+		String priceUnit, Instant dateCreated, Instant dateSent, Integer errorCode, String errorMessage) {
+
+	private static final ObjectWriter writer = JsonMapper.builder()
+			.addModule(new JavaTimeModule())
+			.propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build()
+			.writerFor(SmsDeliveryReceipt.class);
+
+	/**
+	 * Creates a receipt from a Twilio message API response.
+	 *
+	 * @param message
+	 *            the Twilio message
+	 * @return the receipt
+	 */
+	public static SmsDeliveryReceipt of(Message message) {
+		return new SmsDeliveryReceipt(message.getSid(), message.getAccountSid(),
+				message.getStatus() != null ? message.getStatus().toString() : null,
+				parseInteger(message.getNumSegments()), message.getPrice(),
+				message.getPriceUnit() != null ? message.getPriceUnit().getCurrencyCode() : null,
+				toInstant(message.getDateCreated()), toInstant(message.getDateSent()), message.getErrorCode(),
+				message.getErrorMessage());
+	}
+
+	/**
+	 * Serializes the receipt to JSON. Property names use the same snake case as the Twilio API, and null properties are
+	 * omitted, e.g. <code>{"sid":"SM...","account_sid":"AC...","status":"queued","num_segments":1}</code>.
+	 *
+	 * @return JSON text
+	 */
+	public String toJson() {
+		try {
+			return writer.writeValueAsString(this);
+		} catch (JsonProcessingException jpe) {
+			return toString();
+		}
+	}
+
+	private static Integer parseInteger(String value) {
+		try {
+			return value != null ? Integer.valueOf(value) : null;
+		} catch (NumberFormatException nfe) {
+			return null;
+		}
+	}
+
+	private static Instant toInstant(ZonedDateTime dateTime) {
+		return dateTime != null ? dateTime.toInstant() : null;
+	}
+
+}
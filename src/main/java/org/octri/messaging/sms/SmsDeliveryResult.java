@@ -0,0 +1,56 @@
+package org.octri.messaging.sms;
+
+import java.util.Optional;
+
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+
+/**
+ * The outcome of delivering one message in a batch. Successful results carry the optional delivery details returned by
+ * the delivery strategy; failed results carry the exception describing the failure.
+ *
+ * @param message
+ *            the message that was delivered
+ * @param deliveryDetails
+ *            optional string representation of delivery details, e.g. Twilio API response. Empty for failed results.
+ * @param error
+ *            delivery failure details, or null if delivery was successful
+ */
+public record SmsDeliveryResult(SmsMessage message, Optional<String> deliveryDetails,
+		UnsuccessfulDeliveryException error) {
+
+	/**
+	 * Creates a successful result.
+	 *
+	 * @param message
+	 *            the message that was delivered
+	 * @param deliveryDetails
+	 *            optional string representation of delivery details
+	 * @return the result
+	 */
+	public static SmsDeliveryResult success(SmsMessage message, Optional<String> deliveryDetails) {
+		return new SmsDeliveryResult(message, deliveryDetails, null);
+	}
+
+	/**
+	 * Creates a failed result.
+	 *
+	 * @param message
+	 *            the message that could not be delivered
+	 * @param error
+	 *            delivery failure details
+	 * @return the result
+	 */
+	public static SmsDeliveryResult failure(SmsMessage message, UnsuccessfulDeliveryException error) {
+		return new SmsDeliveryResult(message, Optional.empty(), error);
+	}
+
+	/**
+	 * Whether the message was delivered successfully.
+	 *
+	 * @return true if delivery succeeded, false otherwise
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+}
@@ -0,0 +1,14 @@
+package org.octri.messaging.sms;
+
+/**
+ * An SMS message to deliver.
+ *
+ * @param fromNumber
+ *            SMS sender phone number
+ * @param toNumber
+ *            SMS recipient phone number
+ * @param messageText
+ *            body text of the message
+ */
+public record SmsMessage(String fromNumber, String toNumber, String messageText) {
+}
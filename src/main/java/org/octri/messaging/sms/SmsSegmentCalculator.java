@@ -0,0 +1,187 @@
+package org.octri.messaging.sms;
+
+/**
+ * Calculates how an SMS message will be encoded and how many segments it will be sent as. Carriers and Twilio charge
+ * and throttle by segment, so the segment count is the real cost of a message.
+ *
+ * Messages made only of characters from the GSM 03.38 alphabet are sent as GSM-7, with 160 septets in a single segment
+ * or 153 septets per segment when the message is split. Characters from the extension table, such as <code>{</code>
+ * and <code>€</code>, take two septets and are never split across segments. Any other character causes the whole
+ * message to be sent as UCS-2, with 70 UTF-16 code units in a single segment or 67 per segment when split. Surrogate
+ * pairs are never split across segments.
+ *
+ * @see <a href="https://www.twilio.com/docs/glossary/what-sms-character-limit">What the heck is a segment?</a>
+ */
+public class SmsSegmentCalculator {
+
+	/**
+	 * Character encodings used to send SMS messages.
+	 */
+	public enum Encoding {
+		/**
+		 * The GSM 03.38 7-bit default alphabet and its extension table.
+		 */
+		GSM_7,
+
+		/**
+		 * UCS-2, which can represent any character.
+		 */
+		UCS_2
+	}
+
+	private static final int GSM_7_SINGLE_SEGMENT = 160;
+	private static final int GSM_7_MULTIPART_SEGMENT = 153;
+	private static final int UCS_2_SINGLE_SEGMENT = 70;
+	private static final int UCS_2_MULTIPART_SEGMENT = 67;
+
+	private static final String GSM_7_BASIC = "@£$¥èéùìòÇ\nØø\rÅåΔ_ΦΓΛΩΠΨΣΘΞÆæßÉ !\"#¤%&'()*+,-./0123456789:;<=>?"
+			+ "¡ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÑÜ§¿abcdefghijklmnopqrstuvwxyzäöñüà";
+	private static final String GSM_7_EXTENSION = "\f^{}\\[]~|€";
+
+	// Septets used by each character, indexed by character. Zero for characters that are not in the GSM-7 alphabet.
+	private static final byte[] gsm7Septets = new byte['€' + 1];
+
+	static {
+		for (int i = 0; i < GSM_7_BASIC.length(); i++) {
+			gsm7Septets[GSM_7_BASIC.charAt(i)] = 1;
+		}
+		for (int i = 0; i < GSM_7_EXTENSION.length(); i++) {
+			gsm7Septets[GSM_7_EXTENSION.charAt(i)] = 2;
+		}
+	}
+
+	/**
+	 * Calculates the encoding and segment count of a message in a single pass over its characters.
+	 *
+	 * @param messageText
+	 *            body text of the message
+	 * @return the encoding and segment count
+	 */
+	public static SmsSegments calculate(CharSequence messageText) {
+		var length = messageText.length();
+		var gsm7 = true;
+		var septets = 0;
+		var extensionCharacters = 0;
+		var gsm7Segments = 1;
+		var gsm7SegmentFill = 0;
+		var codeUnits = 0;
+		var ucs2Segments = 1;
+		var ucs2SegmentFill = 0;
+
+		// Segments are counted for both encodings as if the message were split, since whether it must be split is only
+		// known at the end
+		for (int i = 0; i < length; i++) {
+			var c = messageText.charAt(i);
+
+			if (gsm7) {
+				var cost = septets(c);
+				if (cost == 0) {
+					gsm7 = false;
+				} else {
+					if (cost == 2) {
+						extensionCharacters++;
+					}
+					if (gsm7SegmentFill + cost > GSM_7_MULTIPART_SEGMENT) {
+						gsm7Segments++;
+						gsm7SegmentFill = 0;
+					}
+					gsm7SegmentFill += cost;
+					septets += cost;
+				}
+			}
+
+			var units = Character.isHighSurrogate(c) && i + 1 < length
+					&& Character.isLowSurrogate(messageText.charAt(i + 1)) ? 2 : 1;
+			if (ucs2SegmentFill + units > UCS_2_MULTIPART_SEGMENT) {
+				ucs2Segments++;
+				ucs2SegmentFill = 0;
+			}
+			ucs2SegmentFill += units;
+			codeUnits += units;
+			i += units - 1;
+		}
+
+		if (length == 0) {
+			return new SmsSegments(Encoding.GSM_7, 0, 0, 0);
+		}
+		if (gsm7) {
+			return new SmsSegments(Encoding.GSM_7, septets, extensionCharacters,
+					septets <= GSM_7_SINGLE_SEGMENT ? 1 : gsm7Segments);
+		}
+		return new SmsSegments(Encoding.UCS_2, codeUnits, 0, codeUnits <= UCS_2_SINGLE_SEGMENT ? 1 : ucs2Segments);
+	}
+
+	/**
+	 * Reports whether every character of a message is in the GSM-7 alphabet or its extension table.
+	 *
+	 * @param messageText
+	 *            body text of the message
+	 * @return true if the message can be sent as GSM-7
+	 */
+	public static boolean isGsm7(CharSequence messageText) {
+		for (int i = 0; i < messageText.length(); i++) {
+			if (septets(messageText.charAt(i)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces typographic characters that are not in the GSM-7 alphabet, such as smart quotes, dashes, ellipses, and
+	 * non-breaking spaces, with plain equivalents that are. If the message would still need UCS-2 after replacement, it
+	 * is returned unchanged, since replacing characters would alter the text without reducing the segment count.
+	 *
+	 * @param messageText
+	 *            body text of the message
+	 * @return the message with replacements made, or the original message if it is already GSM-7 or cannot be made
+	 *         GSM-7
+	 */
+	public static String transliterate(CharSequence messageText) {
+		StringBuilder builder = null;
+		var length = messageText.length();
+		for (int i = 0; i < length; i++) {
+			var c = messageText.charAt(i);
+			if (septets(c) > 0) {
+				if (builder != null) {
+					builder.append(c);
+				}
+				continue;
+			}
+
+			var replacement = replacement(c);
+			if (replacement == null) {
+				return messageText.toString();
+			}
+			if (builder == null) {
+				builder = new StringBuilder(length + 2);
+				builder.append(messageText, 0, i);
+			}
+			builder.append(replacement);
+		}
+		return builder != null ? builder.toString() : messageText.toString();
+	}
+
+	private static int septets(char c) {
+		return c < gsm7Septets.length ? gsm7Septets[c] : 0;
+	}
+
+	/**
+	 * The GSM-7 replacement for a character, or null if there is none.
+	 */
+	private static String replacement(char c) {
+		return switch (c) {
+			case '‘', '’', '‚', '‛', '′', '´', '`', '‹', '›' -> "'";
+			case '“', '”', '„', '‟', '″', '«', '»' -> "\"";
+			case '‐', '‑', '‒', '–', '—', '―', '−', '•' -> "-";
+			case '…' -> "...";
+			// Non-breaking, fixed-width, and ideographic spaces
+			case '\u00A0', '\u2002', '\u2003', '\u2004', '\u2005', '\u2006', '\u2007', '\u2008', '\u2009', '\u200A',
+					'\u202F', '\u205F', '\u3000', '\t' -> " ";
+			// Zero-width spaces and joiners, and byte order marks
+			case '\u200B', '\u200C', '\u200D', '\u2060', '\uFEFF' -> "";
+			default -> null;
+		};
+	}
+
+}
@@ -0,0 +1,20 @@
+package org.octri.messaging.sms;
+
+import org.octri.messaging.sms.SmsSegmentCalculator.Encoding;
+
+/**
+ * The encoding of an SMS message and the number of segments it is sent as, computed by {@link SmsSegmentCalculator}.
+ *
+ * @param encoding
+ *            the encoding used to send the message
+ * @param length
+ *            the length of the message in the units of its encoding: septets for GSM-7, where each extension
+ *            character counts twice, or UTF-16 code units for UCS-2
+ * @param extensionCharacters
+ *            number of characters from the GSM-7 extension table, each of which takes two septets. Always zero for
+ *            UCS-2.
+ * @param segments
+ *            number of segments the message is split into. Zero for an empty message.
+ */
+public record SmsSegments(Encoding encoding, int length, int extensionCharacters, int segments) {
+}
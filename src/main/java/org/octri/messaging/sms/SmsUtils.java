@@ -1,36 +1,74 @@
 package org.octri.messaging.sms;
 
-import java.util.function.Predicate;
-import java.util.regex.Pattern;
-
 import org.octri.messaging.exception.InvalidPhoneNumberException;
 
 /**
  * Utilities for working with SMS messages.
+ *
+ * Phone numbers are validated and normalized by scanning the characters once, without regular expressions or
+ * intermediate strings, because these checks run several times for every message sent. Only the ASCII digits 0-9 are
+ * treated as digits. The methods accept any {@link CharSequence}, so numbers held in buffers can be checked without
+ * first copying them to a string. Each method also keeps its original <code>String</code> overload, so code compiled
+ * against earlier versions still links.
  */
 public class SmsUtils {
 
-	// Matches phone numbers in E.164 format expected by Twilio
+	// E.164 numbers are a plus sign followed by at most 15 digits, the first of which is not zero
 	// see: https://en.wikipedia.org/wiki/E.164
 	// see: https://stackoverflow.com/a/23299989
-	private static final Predicate<String> e164Predicate = Pattern.compile("^\\+[1-9]\\d{1,14}$").asMatchPredicate();
+	private static final int E164_MAX_DIGITS = 15;
 
-	// Matches normalized North American Numbering Plan (NANP) phone numbers
+	// North American Numbering Plan (NANP) numbers are ten digits, and neither the area code nor the central office
+	// code may start with 0 or 1
 	// see: https://en.wikipedia.org/wiki/North_American_Numbering_Plan
 	// see:
 	// https://en.wikipedia.org/wiki/List_of_North_American_Numbering_Plan_area_codes
-	private static final Predicate<String> nanpPhonePredicate = Pattern.compile("^[2-9]\\d{2}[2-9]\\d{6}$")
-			.asMatchPredicate();
+	private static final int NANP_DIGITS = 10;
+	private static final int NANP_CENTRAL_OFFICE_CODE_INDEX = 3;
 
 	/**
-	 * Reports whether the given string is a valid phone number in E.164 format.
+	 * Reports whether the given string is a valid phone number in E.164 format. Same as
+	 * {@link #isE164PhoneNumber(CharSequence)}.
 	 *
 	 * @param phoneNumber
 	 *            a phone number string
 	 * @return true if the string is a valid E.164 phone number, false otherwise
 	 */
 	public static boolean isE164PhoneNumber(String phoneNumber) {
-		return e164Predicate.test(phoneNumber);
+		return isE164PhoneNumber((CharSequence) phoneNumber);
+	}
+
+	/**
+	 * Reports whether the given string is a valid phone number in E.164 format.
+	 *
+	 * @param phoneNumber
+	 *            a phone number string
+	 * @return true if the string is a valid E.164 phone number, false otherwise
+	 */
+	public static boolean isE164PhoneNumber(CharSequence phoneNumber) {
+		var length = phoneNumber.length();
+		if (length < 3 || length > E164_MAX_DIGITS + 1 || phoneNumber.charAt(0) != '+'
+				|| phoneNumber.charAt(1) == '0') {
+			return false;
+		}
+		for (int i = 1; i < length; i++) {
+			if (!isDigit(phoneNumber.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reports whether the given string is a valid phone number in North American Numbering Plan format. Same as
+	 * {@link #isNorthAmericanPhoneNumber(CharSequence)}.
+	 *
+	 * @param phoneNumber
+	 *            a phone number string
+	 * @return true if the normalized string is a valid NANP phone number, false otherwise
+	 */
+	public static boolean isNorthAmericanPhoneNumber(String phoneNumber) {
+		return isNorthAmericanPhoneNumber((CharSequence) phoneNumber);
 	}
 
 	/**
@@ -42,8 +80,30 @@ public class SmsUtils {
 	 * @return true if the normalized string is a valid NANP phone number, false
 	 *         otherwise
 	 */
-	public static boolean isNorthAmericanPhoneNumber(String phoneNumber) {
-		return isNormalizedNorthAmericanPhoneNumber(normalizePhoneNumber(phoneNumber));
+	public static boolean isNorthAmericanPhoneNumber(CharSequence phoneNumber) {
+		var digits = 0;
+		for (int i = 0; i < phoneNumber.length(); i++) {
+			var c = phoneNumber.charAt(i);
+			if (isDigit(c)) {
+				if (!isValidNanpDigit(digits, c)) {
+					return false;
+				}
+				digits++;
+			}
+		}
+		return digits == NANP_DIGITS;
+	}
+
+	/**
+	 * Reports whether the given string is a valid, normalized phone number in North American Numbering Plan format.
+	 * Same as {@link #isNormalizedNorthAmericanPhoneNumber(CharSequence)}.
+	 *
+	 * @param phoneNumber
+	 *            a phone number string
+	 * @return true if the string is a valid NANP phone number, false otherwise
+	 */
+	public static boolean isNormalizedNorthAmericanPhoneNumber(String phoneNumber) {
+		return isNormalizedNorthAmericanPhoneNumber((CharSequence) phoneNumber);
 	}
 
 	/**
@@ -54,19 +114,63 @@ public class SmsUtils {
 	 *            a phone number string
 	 * @return true if the string is a valid NANP phone number, false otherwise
 	 */
-	public static boolean isNormalizedNorthAmericanPhoneNumber(String phoneNumber) {
-		return nanpPhonePredicate.test(phoneNumber);
+	public static boolean isNormalizedNorthAmericanPhoneNumber(CharSequence phoneNumber) {
+		if (phoneNumber.length() != NANP_DIGITS) {
+			return false;
+		}
+		for (int i = 0; i < NANP_DIGITS; i++) {
+			var c = phoneNumber.charAt(i);
+			if (!isDigit(c) || !isValidNanpDigit(i, c)) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
-	 * Normalizes a phone number by stripping non-digit characters.
+	 * Normalizes a phone number by stripping non-digit characters. Same as {@link #normalizePhoneNumber(CharSequence)}.
 	 *
 	 * @param phoneNumber
 	 *            a phone number string
 	 * @return the phone number with all non-digit characters removed
 	 */
 	public static String normalizePhoneNumber(String phoneNumber) {
-		return phoneNumber.replaceAll("[^\\d]", "");
+		return normalizePhoneNumber((CharSequence) phoneNumber);
+	}
+
+	/**
+	 * Normalizes a phone number by stripping non-digit characters.
+	 *
+	 * @param phoneNumber
+	 *            a phone number string
+	 * @return the phone number with all non-digit characters removed
+	 */
+	public static String normalizePhoneNumber(CharSequence phoneNumber) {
+		var length = phoneNumber.length();
+		var digits = new char[length];
+		var count = 0;
+		for (int i = 0; i < length; i++) {
+			var c = phoneNumber.charAt(i);
+			if (isDigit(c)) {
+				digits[count++] = c;
+			}
+		}
+		if (count == length) {
+			return phoneNumber.toString();
+		}
+		return new String(digits, 0, count);
+	}
+
+	/**
+	 * Converts phone numbers in various formats to the E.164 format expected by the Twilio API. Same as
+	 * {@link #toE164PhoneNumber(CharSequence)}.
+	 *
+	 * @param phoneNumber
+	 *            a phone number string
+	 * @return the number in E.164 format
+	 */
+	public static String toE164PhoneNumber(String phoneNumber) {
+		return toE164PhoneNumber((CharSequence) phoneNumber);
 	}
 
 	/**
@@ -78,18 +182,49 @@ public class SmsUtils {
 	 * @return the number in E.164 format
 	 * @see <a href="https://en.wikipedia.org/wiki/E.164">https://en.wikipedia.org/wiki/E.164</a>
 	 */
-	public static String toE164PhoneNumber(String phoneNumber) {
+	public static String toE164PhoneNumber(CharSequence phoneNumber) {
 		if (isE164PhoneNumber(phoneNumber)) {
-			return phoneNumber;
+			return phoneNumber.toString();
+		}
+
+		// Copy the digits after the +1 country code, stopping as soon as the number cannot be valid
+		var e164 = new char[NANP_DIGITS + 2];
+		e164[0] = '+';
+		e164[1] = '1';
+		var digits = 0;
+		for (int i = 0; i < phoneNumber.length(); i++) {
+			var c = phoneNumber.charAt(i);
+			if (isDigit(c)) {
+				if (!isValidNanpDigit(digits, c)) {
+					throw invalidNorthAmericanPhoneNumber(phoneNumber);
+				}
+				e164[2 + digits++] = c;
+			}
 		}
+		if (digits != NANP_DIGITS) {
+			throw invalidNorthAmericanPhoneNumber(phoneNumber);
+		}
+
+		return new String(e164);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
 
-		var digitsOnly = normalizePhoneNumber(phoneNumber);
-		if (!isNormalizedNorthAmericanPhoneNumber(digitsOnly)) {
-			throw new InvalidPhoneNumberException(
-					String.format("%s (%s) is not a valid North American phone number.", phoneNumber, digitsOnly));
+	/**
+	 * Whether a digit may appear at the given position of a NANP number. Returns false for positions past the end.
+	 */
+	private static boolean isValidNanpDigit(int position, char digit) {
+		if (position >= NANP_DIGITS) {
+			return false;
 		}
+		return (position != 0 && position != NANP_CENTRAL_OFFICE_CODE_INDEX) || digit >= '2';
+	}
 
-		return "+1" + digitsOnly;
+	private static InvalidPhoneNumberException invalidNorthAmericanPhoneNumber(CharSequence phoneNumber) {
+		return new InvalidPhoneNumberException(String.format("%s (%s) is not a valid North American phone number.",
+				phoneNumber, normalizePhoneNumber(phoneNumber)));
 	}
 
 }
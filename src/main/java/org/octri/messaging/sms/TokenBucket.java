@@ -0,0 +1,104 @@
+package org.octri.messaging.sms;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Lock-free token bucket that limits an operation to a steady rate while allowing short bursts. The bucket is
+ * implemented with the generic cell rate algorithm: its whole state is the time at which the next token is due, which
+ * is updated with a compare-and-set, so callers never block one another.
+ */
+public class TokenBucket {
+
+	private final long intervalNanos;
+	private final long burstToleranceNanos;
+	private final LongSupplier nanoClock;
+	private final AtomicLong nextTokenNanos;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param permitsPerSecond
+	 *            steady-state rate at which tokens are added
+	 * @param burst
+	 *            maximum number of tokens that may be taken at once after the bucket has been idle
+	 */
+	public TokenBucket(double permitsPerSecond, int burst) {
+		this(permitsPerSecond, burst, System::nanoTime);
+	}
+
+	/**
+	 * Constructor with a custom clock for testing.
+	 *
+	 * @param permitsPerSecond
+	 *            steady-state rate at which tokens are added
+	 * @param burst
+	 *            maximum number of tokens that may be taken at once after the bucket has been idle
+	 * @param nanoClock
+	 *            monotonic clock returning nanoseconds
+	 */
+	TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+		Assert.isTrue(permitsPerSecond > 0, "The rate must be greater than zero.");
+		Assert.isTrue(burst > 0, "The burst size must be greater than zero.");
+		this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.burstToleranceNanos = intervalNanos * (burst - 1);
+		this.nanoClock = nanoClock;
+		this.nextTokenNanos = new AtomicLong(nanoClock.getAsLong());
+	}
+
+	/**
+	 * Takes a token if one is available now.
+	 *
+	 * @return true if a token was taken
+	 */
+	public boolean tryAcquire() {
+		return reserve(0) == 0;
+	}
+
+	/**
+	 * Reserves a token that will be available within the given time. The caller must wait for the returned time before
+	 * performing the operation.
+	 *
+	 * @param maxWaitNanos
+	 *            longest acceptable wait, in nanoseconds
+	 * @return how long to wait, in nanoseconds, or -1 if no token is available within the maximum wait. Nothing is
+	 *         reserved when -1 is returned.
+	 */
+	public long reserve(long maxWaitNanos) {
+		while (true) {
+			var now = nanoClock.getAsLong();
+			var next = nextTokenNanos.get();
+			var due = Math.max(next, now);
+			var wait = Math.max(0, due - burstToleranceNanos - now);
+			if (wait > maxWaitNanos) {
+				return -1;
+			}
+			if (nextTokenNanos.compareAndSet(next, due + intervalNanos)) {
+				return wait;
+			}
+		}
+	}
+
+	/**
+	 * Gets how long until a token will be available, without reserving it.
+	 *
+	 * @return wait time in nanoseconds, or 0 if a token is available now
+	 */
+	public long nanosUntilAvailable() {
+		var now = nanoClock.getAsLong();
+		return Math.max(0, Math.max(nextTokenNanos.get(), now) - burstToleranceNanos - now);
+	}
+
+	/**
+	 * Gets the steady-state rate of this bucket.
+	 *
+	 * @return tokens per second
+	 */
+	public double getPermitsPerSecond() {
+		return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.octri.messaging.sms;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.util.Assert;
+
+/**
+ * SMS delivery strategy that replaces typographic characters such as smart quotes with GSM-7 equivalents before
+ * passing messages to another strategy. A message that would otherwise be sent as UCS-2 because of a single curly
+ * apostrophe is sent as GSM-7 instead, which roughly halves its segment count. Messages that need UCS-2 for other
+ * characters are passed on unchanged.
+ *
+ * @see SmsSegmentCalculator#transliterate(CharSequence)
+ */
+public class TransliteratingSmsDeliveryStrategy implements AsyncSmsDeliveryStrategy {
+
+	private final SmsDeliveryStrategy delegate;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param delegate
+	 *            strategy that delivers the messages
+	 */
+	public TransliteratingSmsDeliveryStrategy(SmsDeliveryStrategy delegate) {
+		Assert.notNull(delegate, "A delegate SMS delivery strategy is required.");
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+		return delegate.sendSms(fromNumber, toNumber, SmsSegmentCalculator.transliterate(messageText));
+	}
+
+	@Override
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText,
+			Executor executor) {
+		return AsyncSmsDeliveryStrategy.sendSmsAsync(delegate, fromNumber, toNumber,
+				SmsSegmentCalculator.transliterate(messageText), executor);
+	}
+
+	/**
+	 * Gets the strategy that delivers the messages.
+	 *
+	 * @return the delegate strategy
+	 */
+	public SmsDeliveryStrategy getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[delegate=" + delegate + "]";
+	}
+
+}
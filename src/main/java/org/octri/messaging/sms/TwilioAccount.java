@@ -0,0 +1,42 @@
+package org.octri.messaging.sms;
+
+import java.util.List;
+
+/**
+ * A Twilio account, such as a subaccount dedicated to one study, that messages can be sent from in addition to the
+ * default account. Messages sent from one of the account's numbers are sent through the account.
+ *
+ * @param key
+ *            name used to route messages to the account, e.g. a tenant ID
+ * @param accountSid
+ *            Twilio account SID
+ * @param authToken
+ *            Twilio auth token of the account
+ * @param numbers
+ *            sender numbers owned by the account
+ */
+public record TwilioAccount(String key, String accountSid, String authToken, List<String> numbers) {
+
+	/**
+	 * Constructor.
+	 *
+	 * @param key
+	 *            name used to route messages to the account, e.g. a tenant ID
+	 * @param accountSid
+	 *            Twilio account SID
+	 * @param authToken
+	 *            Twilio auth token of the account
+	 * @param numbers
+	 *            sender numbers owned by the account
+	 */
+	public TwilioAccount {
+		numbers = numbers == null ? List.of() : List.copyOf(numbers);
+	}
+
+	@Override
+	public String toString() {
+		// Keep the auth token out of logs
+		return "TwilioAccount[key=" + key + ", accountSid=" + accountSid + ", numbers=" + numbers + "]";
+	}
+
+}
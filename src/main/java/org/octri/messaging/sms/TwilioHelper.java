@@ -1,9 +1,21 @@
 package org.octri.messaging.sms;
 
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.StringUtils;
 import org.octri.messaging.exception.InvalidPhoneNumberException;
+import org.octri.messaging.metrics.MessagingObservations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
@@ -12,22 +24,37 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.twilio.Twilio;
+import com.twilio.http.HttpClient;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.rest.api.v2010.account.MessageCreator;
 import com.twilio.type.PhoneNumber;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 /**
  * Helper methods for working with the Twilio SMS API.
  */
 public class TwilioHelper {
 
+	/**
+	 * Number of messages requested per page when reconciling. This is the largest page size the Twilio API allows.
+	 */
+	public static final int RECONCILIATION_PAGE_SIZE = 1000;
+
 	private static final Logger log = LoggerFactory.getLogger(TwilioHelper.class);
 
 	private final Set<Message.Status> failedStatuses = Set.of(Message.Status.FAILED, Message.Status.UNDELIVERED);
+	private final Set<Message.Status> finalSuccessStatuses = Set.of(Message.Status.DELIVERED, Message.Status.READ,
+			Message.Status.RECEIVED, Message.Status.CANCELED);
 	private final ObjectMapper objectMapper;
-	private final String accountSid;
-	private final String authToken;
 	private final String callbackUrl;
+	private String messagingServiceSid;
+	private ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+	private final TwilioRestClient client;
+	private final Map<String, TwilioRestClient> accountClients;
+	private final Map<String, String> senderAccounts;
 
 	/**
 	 * Constructor.
@@ -41,11 +68,91 @@ public class TwilioHelper {
 	 *            provided to Twilio for status updates.
 	 */
 	public TwilioHelper(String accountSid, String authToken, String callbackUrl) {
+		this(accountSid, authToken, callbackUrl, List.of());
+	}
+
+	/**
+	 * Constructor for sending from several Twilio accounts.
+	 *
+	 * @param accountSid
+	 *            default Twilio account ID. Required.
+	 * @param authToken
+	 *            default Twilio account auth token. Required.
+	 * @param callbackUrl
+	 *            SMS message status callback URL. If provided, this will be provided to Twilio for status updates.
+	 * @param accounts
+	 *            additional accounts. Messages sent from an account's numbers are sent through that account.
+	 */
+	public TwilioHelper(String accountSid, String authToken, String callbackUrl, List<TwilioAccount> accounts) {
+		this(accountSid, authToken, callbackUrl, accounts,
+				(sid, token) -> new TwilioRestClient.Builder(sid, token).build());
+	}
+
+	/**
+	 * Constructor for sending from several Twilio accounts over a shared HTTP client.
+	 *
+	 * @param accountSid
+	 *            default Twilio account ID. Required.
+	 * @param authToken
+	 *            default Twilio account auth token. Required.
+	 * @param callbackUrl
+	 *            SMS message status callback URL. If provided, this will be provided to Twilio for status updates.
+	 * @param accounts
+	 *            additional accounts. Messages sent from an account's numbers are sent through that account.
+	 * @param httpClient
+	 *            HTTP client used by the REST clients of all accounts, such as a {@link PooledTwilioHttpClient}
+	 */
+	public TwilioHelper(String accountSid, String authToken, String callbackUrl, List<TwilioAccount> accounts,
+			HttpClient httpClient) {
+		this(accountSid, authToken, callbackUrl, accounts, clientFactory(httpClient));
+	}
+
+	/**
+	 * Constructor for sending to a stand-in for the Twilio API, such as a local stub server used for load testing.
+	 *
+	 * @param accountSid
+	 *            default Twilio account ID. Required.
+	 * @param authToken
+	 *            default Twilio account auth token. Required.
+	 * @param callbackUrl
+	 *            SMS message status callback URL. If provided, this will be provided to Twilio for status updates.
+	 * @param accounts
+	 *            additional accounts. Messages sent from an account's numbers are sent through that account.
+	 * @param httpClient
+	 *            HTTP client used by the REST clients of all accounts, such as a {@link PooledTwilioHttpClient}
+	 * @param apiBaseUrl
+	 *            base URL that API requests are sent to instead of the Twilio API hosts, e.g.
+	 *            <code>http://localhost:8089</code>, or blank to call Twilio
+	 * @see BaseUrlTwilioHttpClient
+	 */
+	public TwilioHelper(String accountSid, String authToken, String callbackUrl, List<TwilioAccount> accounts,
+			HttpClient httpClient, String apiBaseUrl) {
+		this(accountSid, authToken, callbackUrl, accounts, StringUtils.isBlank(apiBaseUrl) ? httpClient
+				: new BaseUrlTwilioHttpClient(httpClient, apiBaseUrl));
+	}
+
+	/**
+	 * Constructor for sending from several Twilio accounts with custom REST clients.
+	 *
+	 * @param accountSid
+	 *            default Twilio account ID. Required.
+	 * @param authToken
+	 *            default Twilio account auth token. Required.
+	 * @param callbackUrl
+	 *            SMS message status callback URL. If provided, this will be provided to Twilio for status updates.
+	 * @param accounts
+	 *            additional accounts. Messages sent from an account's numbers are sent through that account.
+	 * @param clientFactory
+	 *            creates the REST client for an account, given its SID and auth token. Each account gets its own client
+	 *            and so its own HTTP connection pool.
+	 */
+	public TwilioHelper(String accountSid, String authToken, String callbackUrl, List<TwilioAccount> accounts,
+			BiFunction<String, String, TwilioRestClient> clientFactory) {
 		Assert.hasLength(accountSid, "Twilio account SID is required.");
 		Assert.hasLength(authToken, "Twilio auth token is required.");
+		Assert.notNull(accounts, "Twilio accounts are required.");
+		Assert.notNull(clientFactory, "A Twilio client factory is required.");
 
-		this.accountSid = accountSid;
-		this.authToken = authToken;
 		this.callbackUrl = callbackUrl;
 
 		this.objectMapper = new ObjectMapper();
@@ -55,7 +162,112 @@ public class TwilioHelper {
 		customModule.addDeserializer(PhoneNumber.class, new TwilioPhoneNumberDeserializer());
 		this.objectMapper.registerModule(customModule);
 
-		Twilio.init(this.accountSid, this.authToken);
+		// Each account has its own client rather than using the global client set by Twilio.init
+		this.client = clientFactory.apply(accountSid, authToken);
+		var clients = new LinkedHashMap<String, TwilioRestClient>();
+		var senders = new HashMap<String, String>();
+		for (var account : accounts) {
+			Assert.hasLength(account.key(), "Twilio account key is required.");
+			Assert.hasLength(account.accountSid(), "Twilio account SID is required for account " + account.key());
+			Assert.hasLength(account.authToken(), "Twilio auth token is required for account " + account.key());
+			Assert.isNull(clients.put(account.key(), clientFactory.apply(account.accountSid(), account.authToken())),
+					"Duplicate Twilio account key " + account.key());
+			for (var number : account.numbers()) {
+				var previous = senders.put(SmsUtils.toE164PhoneNumber(number), account.key());
+				Assert.isNull(previous, "Number " + number + " belongs to more than one Twilio account.");
+			}
+		}
+		this.accountClients = Collections.unmodifiableMap(clients);
+		this.senderAccounts = Map.copyOf(senders);
+	}
+
+	/**
+	 * Gets the Twilio Messaging Service used to send messages that have no sender number.
+	 *
+	 * @return the Messaging Service SID, or null if none is set
+	 */
+	public String getMessagingServiceSid() {
+		return messagingServiceSid;
+	}
+
+	/**
+	 * Sets the Twilio Messaging Service used to send messages that have no sender number. The Messaging Service
+	 * chooses a number from its sender pool and queues messages on Twilio's side. It must belong to the default
+	 * account.
+	 *
+	 * @param messagingServiceSid
+	 *            the Messaging Service SID, or null to require a sender number
+	 */
+	public void setMessagingServiceSid(String messagingServiceSid) {
+		this.messagingServiceSid = StringUtils.isNotBlank(messagingServiceSid) ? messagingServiceSid : null;
+	}
+
+	/**
+	 * Gets the registry used to observe Twilio API requests.
+	 *
+	 * @return the observation registry
+	 */
+	public ObservationRegistry getObservationRegistry() {
+		return observationRegistry;
+	}
+
+	/**
+	 * Sets the registry used to observe Twilio API requests. Each request that creates a message is recorded as a
+	 * {@link MessagingObservations#TWILIO_REQUEST} observation. No observations are recorded by default.
+	 *
+	 * @param observationRegistry
+	 *            the observation registry
+	 */
+	public void setObservationRegistry(ObservationRegistry observationRegistry) {
+		Assert.notNull(observationRegistry, "An observation registry is required.");
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Gets the REST client of the default account.
+	 *
+	 * @return the default client
+	 */
+	public TwilioRestClient getClient() {
+		return client;
+	}
+
+	/**
+	 * Gets the REST client of an account.
+	 *
+	 * @param accountKey
+	 *            key of the account, or null for the default account
+	 * @return the account's client
+	 * @throws IllegalArgumentException
+	 *             if there is no account with the given key
+	 */
+	public TwilioRestClient getClient(String accountKey) {
+		if (accountKey == null) {
+			return client;
+		}
+		var accountClient = accountClients.get(accountKey);
+		Assert.notNull(accountClient, "Unknown Twilio account " + accountKey);
+		return accountClient;
+	}
+
+	/**
+	 * Gets the keys of the accounts other than the default account.
+	 *
+	 * @return account keys, in the order the accounts were given
+	 */
+	public Set<String> getAccountKeys() {
+		return accountClients.keySet();
+	}
+
+	/**
+	 * Gets the key of the account that owns a sender number.
+	 *
+	 * @param fromNumber
+	 *            sender number in E.164 format, or null for messages sent through the Messaging Service
+	 * @return the account key, or null if the number belongs to the default account
+	 */
+	public String getAccountKey(PhoneNumber fromNumber) {
+		return fromNumber != null ? senderAccounts.get(fromNumber.getEndpoint()) : null;
 	}
 
 	/**
@@ -82,11 +294,26 @@ public class TwilioHelper {
 		return objectMapper.writeValueAsString(message);
 	}
 
+	/**
+	 * Sends an SMS message through the Messaging Service via the Twilio API. Twilio chooses the sender number.
+	 *
+	 * @param toNumber
+	 *            recipient phone number
+	 * @param messageText
+	 *            message body text
+	 * @return the Twilio message API response
+	 * @throws IllegalStateException
+	 *             if no Messaging Service is set
+	 */
+	public Message sendMessage(PhoneNumber toNumber, String messageText) {
+		return sendMessage(null, null, toNumber, messageText);
+	}
+
 	/**
 	 * Sends an SMS message via the Twilio API.
 	 *
 	 * @param fromNumber
-	 *            sender phone number
+	 *            sender phone number, or null to send through the Messaging Service
 	 * @param toNumber
 	 *            recipient phone number
 	 * @param messageText
@@ -94,13 +321,83 @@ public class TwilioHelper {
 	 * @return the Twilio message API response
 	 */
 	public Message sendMessage(PhoneNumber fromNumber, PhoneNumber toNumber, String messageText) {
-		var creator = Message.creator(toNumber, fromNumber, messageText);
+		return sendMessage(getAccountKey(fromNumber), fromNumber, toNumber, messageText);
+	}
 
-		if (StringUtils.isNotEmpty(callbackUrl)) {
-			creator.setStatusCallback(callbackUrl);
-		}
+	/**
+	 * Sends an SMS message through the given account via the Twilio API.
+	 *
+	 * @param accountKey
+	 *            key of the account to send through, or null for the default account
+	 * @param fromNumber
+	 *            sender phone number, which must belong to the account, or null to send through the Messaging Service
+	 * @param toNumber
+	 *            recipient phone number
+	 * @param messageText
+	 *            message body text
+	 * @return the Twilio message API response
+	 */
+	public Message sendMessage(String accountKey, PhoneNumber fromNumber, PhoneNumber toNumber, String messageText) {
+		var creator = messageCreator(fromNumber, toNumber, messageText);
+		var client = getClient(accountKey);
+		return requestObservation(accountKey, fromNumber).observe(() -> creator.create(client));
+	}
 
-		return creator.create();
+	/**
+	 * Sends an SMS message via the Twilio API without blocking the caller, using the SDK's
+	 * {@link com.twilio.base.Creator#createAsync(TwilioRestClient)}. The request runs on the Twilio SDK's shared thread
+	 * pool.
+	 *
+	 * @param fromNumber
+	 *            sender phone number, or null to send through the Messaging Service
+	 * @param toNumber
+	 *            recipient phone number
+	 * @param messageText
+	 *            message body text
+	 * @return future that completes with the Twilio message API response
+	 */
+	public CompletableFuture<Message> sendMessageAsync(PhoneNumber fromNumber, PhoneNumber toNumber,
+			String messageText) {
+		var accountKey = getAccountKey(fromNumber);
+		var creator = messageCreator(fromNumber, toNumber, messageText);
+		// The SDK's thread pool does not carry the caller's context, so the observation is started here
+		var observation = requestObservation(accountKey, fromNumber).start();
+		return creator.createAsync(getClient(accountKey)).whenComplete((message, failure) -> {
+			if (failure != null) {
+				observation.error(failure);
+			}
+			observation.stop();
+		});
+	}
+
+	/**
+	 * Sends an SMS message via the Twilio API without blocking the caller. The request runs on the given executor,
+	 * such as a virtual thread executor, instead of the Twilio SDK's shared thread pool.
+	 *
+	 * @param fromNumber
+	 *            sender phone number, or null to send through the Messaging Service
+	 * @param toNumber
+	 *            recipient phone number
+	 * @param messageText
+	 *            message body text
+	 * @param executor
+	 *            executor that makes the API request
+	 * @return future that completes with the Twilio message API response
+	 */
+	public CompletableFuture<Message> sendMessageAsync(PhoneNumber fromNumber, PhoneNumber toNumber,
+			String messageText, Executor executor) {
+		var accountKey = getAccountKey(fromNumber);
+		var creator = messageCreator(fromNumber, toNumber, messageText);
+		var client = getClient(accountKey);
+		// The request runs on another thread, so the caller's observation is passed as the parent
+		var parent = observationRegistry.getCurrentObservation();
+		return CompletableFuture.supplyAsync(() -> {
+			var observation = requestObservation(accountKey, fromNumber);
+			if (parent != null) {
+				observation.parentObservation(parent);
+			}
+			return observation.observe(() -> creator.create(client));
+		}, executor);
 	}
 
 	/**
@@ -108,7 +405,7 @@ public class TwilioHelper {
 	 * expected by Twilio. An {@link InvalidPhoneNumberException} is thrown if a phone number cannot be converted.
 	 *
 	 * @param fromNumber
-	 *            sender phone number
+	 *            sender phone number, or blank to send through the Messaging Service if one is set
 	 * @param toNumber
 	 *            recipient phone number
 	 * @param messageText
@@ -116,9 +413,10 @@ public class TwilioHelper {
 	 * @return the Twilio message API response
 	 */
 	public Message sendMessage(String fromNumber, String toNumber, String messageText) {
-		var fromNumberE164 = SmsUtils.toE164PhoneNumber(fromNumber);
+		var from = StringUtils.isBlank(fromNumber) && messagingServiceSid != null ? null
+				: new PhoneNumber(SmsUtils.toE164PhoneNumber(fromNumber));
 		var toNumberE164 = SmsUtils.toE164PhoneNumber(toNumber);
-		return sendMessage(new PhoneNumber(fromNumberE164), new PhoneNumber(toNumberE164), messageText);
+		return sendMessage(from, new PhoneNumber(toNumberE164), messageText);
 	}
 
 	/**
@@ -129,7 +427,108 @@ public class TwilioHelper {
 	 * @return the Twilio message API response
 	 */
 	public Message fetchMessage(String messageSid) {
-		return Message.fetcher(messageSid).fetch();
+		return fetchMessage(null, messageSid);
+	}
+
+	/**
+	 * Gets the current status of an SMS message sent through the given account via the Twilio API.
+	 *
+	 * @param accountKey
+	 *            key of the account the message was sent through, or null for the default account
+	 * @param messageSid
+	 *            message ID string
+	 * @return the Twilio message API response
+	 */
+	public Message fetchMessage(String accountKey, String messageSid) {
+		return Message.fetcher(messageSid).fetch(getClient(accountKey));
+	}
+
+	/**
+	 * Lists the messages sent in a time window and passes those whose outcome is known to a handler, one page at a
+	 * time. This replaces calling {@link #fetchMessage(String)} for each outstanding message: each API call returns up
+	 * to {@value #RECONCILIATION_PAGE_SIZE} messages, and only one page is held in memory at a time.
+	 *
+	 * Messages are skipped if they are still in progress on Twilio (e.g. queued or sent), since there is nothing new to
+	 * record, or if the caller no longer considers them pending. Pages with no messages left are not passed to the
+	 * handler.
+	 *
+	 * @param sentAfter
+	 *            start of the window. Messages sent at or after this time are listed.
+	 * @param sentBefore
+	 *            end of the window. Messages sent before this time are listed.
+	 * @param isPending
+	 *            given a message SID, whether the caller still considers the message pending. Use
+	 *            <code>sid -&gt; true</code> to receive every message with a final status.
+	 * @param pageHandler
+	 *            receives each page of messages with a final status
+	 * @return counts of pages and messages read and reconciled
+	 */
+	public ReconciliationSummary reconcileMessages(ZonedDateTime sentAfter, ZonedDateTime sentBefore,
+			Predicate<String> isPending, Consumer<List<Message>> pageHandler) {
+		return reconcileMessages(null, sentAfter, sentBefore, isPending, pageHandler);
+	}
+
+	/**
+	 * Lists the messages sent through the given account in a time window and passes those whose outcome is known to a
+	 * handler, one page at a time.
+	 *
+	 * @param accountKey
+	 *            key of the account, or null for the default account
+	 * @param sentAfter
+	 *            start of the window. Messages sent at or after this time are listed.
+	 * @param sentBefore
+	 *            end of the window. Messages sent before this time are listed.
+	 * @param isPending
+	 *            given a message SID, whether the caller still considers the message pending
+	 * @param pageHandler
+	 *            receives each page of messages with a final status
+	 * @return counts of pages and messages read and reconciled
+	 * @see #reconcileMessages(ZonedDateTime, ZonedDateTime, Predicate, Consumer)
+	 */
+	public ReconciliationSummary reconcileMessages(String accountKey, ZonedDateTime sentAfter,
+			ZonedDateTime sentBefore, Predicate<String> isPending, Consumer<List<Message>> pageHandler) {
+		var accountClient = getClient(accountKey);
+		Assert.notNull(sentAfter, "The start of the window is required.");
+		Assert.notNull(sentBefore, "The end of the window is required.");
+		Assert.isTrue(sentAfter.isBefore(sentBefore), "The start of the window must be before the end.");
+
+		var reader = Message.reader().setDateSentAfter(sentAfter).setDateSentBefore(sentBefore)
+				.setPageSize((long) RECONCILIATION_PAGE_SIZE);
+		int pagesRead = 0;
+		long messagesRead = 0;
+		long messagesReconciled = 0;
+
+		var page = reader.firstPage(accountClient);
+		while (page != null) {
+			pagesRead++;
+			var records = page.getRecords();
+			messagesRead += records.size();
+
+			var reconciled = records.stream().filter(message -> isFinal(message) && isPending.test(message.getSid()))
+					.toList();
+			if (!reconciled.isEmpty()) {
+				pageHandler.accept(reconciled);
+				messagesReconciled += reconciled.size();
+			}
+
+			page = page.hasNextPage() ? reader.nextPage(page, accountClient) : null;
+		}
+
+		log.debug("Reconciled " + messagesReconciled + " of " + messagesRead + " messages from " + pagesRead
+				+ " pages");
+		return new ReconciliationSummary(pagesRead, messagesRead, messagesReconciled);
+	}
+
+	/**
+	 * Reports whether the given Twilio {@link Message} has a final status that will not change: delivered, read,
+	 * received, or canceled, or one of the failure states (failed or undelivered).
+	 *
+	 * @param message
+	 *            a Twilio message
+	 * @return true if the message's status is final
+	 */
+	public boolean isFinal(Message message) {
+		return failedStatuses.contains(message.getStatus()) || finalSuccessStatuses.contains(message.getStatus());
 	}
 
 	/**
@@ -149,4 +548,32 @@ public class TwilioHelper {
 		return true;
 	}
 
+	private MessageCreator messageCreator(PhoneNumber fromNumber, PhoneNumber toNumber, String messageText) {
+		MessageCreator creator;
+		if (fromNumber != null) {
+			creator = Message.creator(toNumber, fromNumber, messageText);
+		} else {
+			Assert.state(messagingServiceSid != null, "A sender number is required when no Messaging Service is set.");
+			creator = Message.creator(toNumber, messagingServiceSid, messageText);
+		}
+
+		if (StringUtils.isNotEmpty(callbackUrl)) {
+			creator.setStatusCallback(callbackUrl);
+		}
+
+		return creator;
+	}
+
+	private Observation requestObservation(String accountKey, PhoneNumber fromNumber) {
+		return Observation.createNotStarted(MessagingObservations.TWILIO_REQUEST, observationRegistry)
+				.contextualName("twilio create message")
+				.lowCardinalityKeyValue("twilio.account", accountKey != null ? accountKey : "default")
+				.lowCardinalityKeyValue("sender", fromNumber != null ? "number" : "messaging_service");
+	}
+
+	private static BiFunction<String, String, TwilioRestClient> clientFactory(HttpClient httpClient) {
+		Assert.notNull(httpClient, "A Twilio HTTP client is required.");
+		return (sid, token) -> new TwilioRestClient.Builder(sid, token).httpClient(httpClient).build();
+	}
+
 }
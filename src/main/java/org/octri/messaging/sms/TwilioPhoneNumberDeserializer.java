@@ -4,15 +4,13 @@ import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.util.Assert;
 
 import com.fasterxml.jackson.core.JacksonException;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.node.ValueNode;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 
@@ -39,6 +37,9 @@ public class TwilioPhoneNumberDeserializer extends StdDeserializer<PhoneNumber>
 	 * string value containing a phone number in E.164 format (e.g <code>"+15035551234"</code>). All other JSON will be
 	 * deserialized to null.
 	 *
+	 * The value is read directly from the parser's tokens, without building a tree, because this runs for the to and
+	 * from fields of every message that is deserialized.
+	 *
 	 * @param p
 	 *            JSON parser
 	 * @param ctxt
@@ -50,12 +51,21 @@ public class TwilioPhoneNumberDeserializer extends StdDeserializer<PhoneNumber>
 	 */
 	@Override
 	public PhoneNumber deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JacksonException {
-		var node = p.getCodec().readTree(p);
-		log.debug("Field name: {}", p.currentName());
-		log.debug("JSON node: {}", node);
+		var token = p.currentToken();
+		if (token == null) {
+			token = p.nextToken();
+		}
 
-		var phoneNumber = findTextValue(node);
-		log.debug("Extracted phone number value: {}", phoneNumber);
+		var phoneNumber = switch (token) {
+			case VALUE_STRING -> p.getText();
+			case START_OBJECT -> readEndpoint(p);
+			case VALUE_NULL -> null;
+			default -> {
+				log.error("Unexpected phone number value in JSON: {}", p.getText());
+				p.skipChildren();
+				yield null;
+			}
+		};
 
 		if (phoneNumber != null && SmsUtils.isE164PhoneNumber(phoneNumber)) {
 			return new PhoneNumber(phoneNumber);
@@ -64,28 +74,31 @@ public class TwilioPhoneNumberDeserializer extends StdDeserializer<PhoneNumber>
 		return null;
 	}
 
-	private String findTextValue(TreeNode node) {
-		Assert.notNull(node, "JSON node should not be null");
-		ValueNode valueNode = null;
+	/**
+	 * Reads the endpoint field of an object, leaving the parser at the end of the object.
+	 */
+	private String readEndpoint(JsonParser p) throws IOException {
+		String endpoint = null;
+		var found = false;
 
-		if (node.isObject()) {
-			var endpointFieldNode = node.get("endpoint");
-			if (endpointFieldNode != null && endpointFieldNode.isValueNode()) {
-				valueNode = (ValueNode) endpointFieldNode;
+		for (var token = p.nextToken(); token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+			var isEndpoint = "endpoint".equals(p.currentName());
+			var valueToken = p.nextToken();
+			if (isEndpoint) {
+				found = true;
+				if (valueToken == JsonToken.VALUE_STRING) {
+					endpoint = p.getText();
+				} else if (valueToken != JsonToken.VALUE_NULL) {
+					log.error("Unexpected phone number endpoint value in JSON: {}", valueToken);
+				}
 			}
-		} else {
-			valueNode = (ValueNode) node;
+			p.skipChildren();
 		}
 
-		if (valueNode == null) {
-			log.error("Could not extract phone number value from JSON node: {}", node);
-		} else if (!valueNode.isTextual()) {
-			log.error("Unexpected phone number value in JSON node: {}", node);
-		} else {
-			return valueNode.asText();
+		if (!found) {
+			log.error("Could not find phone number endpoint field in JSON object");
 		}
-
-		return null;
+		return endpoint;
 	}
 
 }
@@ -1,72 +1,236 @@
 package org.octri.messaging.sms;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import org.octri.messaging.exception.InvalidPhoneNumberException;
 import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.metrics.MessagingObservations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.twilio.exception.ApiException;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.type.PhoneNumber;
 
+import io.micrometer.observation.Observation;
+
 /**
  * SMS delivery strategy that uses the Twilio API to send messages.
+ *
+ * By default, the delivery details returned for each message are a compact {@link SmsDeliveryReceipt} serialized to
+ * JSON. The full Twilio API response, including the message body and resource URIs, can be returned instead, at the
+ * cost of serializing the whole {@link Message} for every message sent.
+ *
+ * If the {@link TwilioHelper} has a Messaging Service, messages sent without a sender number are sent through it, and
+ * Twilio chooses the sender number from the Messaging Service's pool.
+ *
+ * Phone number normalization and response conversion are observed with the {@link TwilioHelper}'s observation
+ * registry, alongside the Twilio API request itself.
  */
-public class TwilioSmsDeliveryStrategy implements SmsDeliveryStrategy {
+public class TwilioSmsDeliveryStrategy implements AsyncSmsDeliveryStrategy {
 
 	private static final Logger log = LoggerFactory.getLogger(TwilioSmsDeliveryStrategy.class);
 
 	private final TwilioHelper twilioHelper;
+	private final boolean fullResponseJson;
+	private final PhoneNumberCache phoneNumberCache;
 
 	/**
-	 * Constructor.
+	 * Constructor. Delivery details are returned as receipt JSON.
 	 * 
 	 * @param twilioHelper
 	 *            Twilio API helper
 	 */
 	public TwilioSmsDeliveryStrategy(TwilioHelper twilioHelper) {
+		this(twilioHelper, false);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param twilioHelper
+	 *            Twilio API helper
+	 * @param fullResponseJson
+	 *            whether to return the full Twilio API response as JSON instead of receipt JSON
+	 */
+	public TwilioSmsDeliveryStrategy(TwilioHelper twilioHelper, boolean fullResponseJson) {
+		this(twilioHelper, fullResponseJson, null);
+	}
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param twilioHelper
+	 *            Twilio API helper
+	 * @param fullResponseJson
+	 *            whether to return the full Twilio API response as JSON instead of receipt JSON
+	 * @param phoneNumberCache
+	 *            optional cache used to convert phone numbers to E.164 format. May be null.
+	 */
+	public TwilioSmsDeliveryStrategy(TwilioHelper twilioHelper, boolean fullResponseJson,
+			PhoneNumberCache phoneNumberCache) {
 		Assert.notNull(twilioHelper, "Twilio helper is required for Twilio SMS delivery strategy.");
 		this.twilioHelper = twilioHelper;
+		this.fullResponseJson = fullResponseJson;
+		this.phoneNumberCache = phoneNumberCache;
 	}
 
 	@Override
 	public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+		var message = deliver(fromNumber, toNumber, messageText);
+		return Optional.of(toJson(message));
+	}
+
+	/**
+	 * Starts sending an SMS message through
+	 * {@link TwilioHelper#sendMessageAsync(PhoneNumber, PhoneNumber, String, Executor)} and maps the Twilio response to
+	 * delivery details when it arrives. Invalid phone numbers fail the returned future without submitting any work to
+	 * the executor.
+	 */
+	@Override
+	public CompletableFuture<Optional<String>> sendSmsAsync(String fromNumber, String toNumber, String messageText,
+			Executor executor) {
+		CompletableFuture<Message> response;
+		try {
+			var numbers = normalize(fromNumber, toNumber);
+			response = twilioHelper.sendMessageAsync(numbers.from(), numbers.to(), messageText, executor);
+		} catch (Exception e) {
+			return CompletableFuture.failedFuture(toDeliveryException(e));
+		}
+		return response.handle((message, failure) -> {
+			if (failure != null) {
+				throw toDeliveryException(
+						failure instanceof CompletionException && failure.getCause() != null ? failure.getCause()
+								: failure);
+			}
+			return Optional.of(toJson(checkDelivered(message)));
+		});
+	}
+
+	/**
+	 * Sends an SMS message and returns a typed receipt instead of JSON. No JSON is produced unless delivery fails.
+	 *
+	 * @param fromNumber
+	 *            sender phone number
+	 * @param toNumber
+	 *            recipient phone number
+	 * @param messageText
+	 *            message body text
+	 * @return the delivery receipt
+	 * @throws UnsuccessfulDeliveryException
+	 *             if the message could not be delivered
+	 */
+	public SmsDeliveryReceipt sendSmsForReceipt(String fromNumber, String toNumber, String messageText) {
+		return SmsDeliveryReceipt.of(deliver(fromNumber, toNumber, messageText));
+	}
+
+	/**
+	 * Whether the full Twilio API response is returned as JSON instead of receipt JSON.
+	 *
+	 * @return true if the full response is returned
+	 */
+	public boolean isFullResponseJson() {
+		return fullResponseJson;
+	}
+
+	/**
+	 * Gets the cache used to convert phone numbers to E.164 format.
+	 *
+	 * @return the phone number cache, or null if phone numbers are not cached
+	 */
+	public PhoneNumberCache getPhoneNumberCache() {
+		return phoneNumberCache;
+	}
+
+	private Message deliver(String fromNumber, String toNumber, String messageText) {
 		try {
-			var fromNumberE164 = SmsUtils.toE164PhoneNumber(fromNumber);
-			var toNumberE164 = SmsUtils.toE164PhoneNumber(toNumber);
-			var message = twilioHelper.sendMessage(new PhoneNumber(fromNumberE164), new PhoneNumber(toNumberE164),
-					messageText);
-			return convertApiResponse(message);
-		} catch (UnsuccessfulDeliveryException ude) {
-			throw ude;
-		} catch (InvalidPhoneNumberException ipne) {
-			throw new UnsuccessfulDeliveryException("Failed to convert phone number to E.164 format.", ipne);
+			var numbers = normalize(fromNumber, toNumber);
+			return checkDelivered(twilioHelper.sendMessage(numbers.from(), numbers.to(), messageText));
 		} catch (Exception e) {
-			var errorMsg = "Unexpected exception delivering SMS: " + e.getClass().getCanonicalName();
-			log.error(errorMsg, e);
-			throw new UnsuccessfulDeliveryException(errorMsg, e);
+			throw toDeliveryException(e);
 		}
 	}
 
-	private Optional<String> convertApiResponse(Message message) {
-		var deliverySuccessful = twilioHelper.isSuccessResponse(message);
-		var apiJson = "";
+	private Message checkDelivered(Message message) {
+		if (!twilioHelper.isSuccessResponse(message)) {
+			throw new UnsuccessfulDeliveryException("Twilio delivery failed.", null, toJson(message),
+					message.getErrorCode() != null ? message.getErrorCode().toString() : null);
+		}
+		return message;
+	}
+
+	private UnsuccessfulDeliveryException toDeliveryException(Throwable e) {
+		if (e instanceof UnsuccessfulDeliveryException ude) {
+			return ude;
+		}
+		if (e instanceof InvalidPhoneNumberException ipne) {
+			return new UnsuccessfulDeliveryException("Failed to convert phone number to E.164 format.", ipne);
+		}
+		var errorMsg = "Unexpected exception delivering SMS: " + e.getClass().getCanonicalName();
+		log.error(errorMsg, e);
+		if (e instanceof ApiException apiException && apiException.getCode() != null) {
+			return new UnsuccessfulDeliveryException(errorMsg, e, null, apiException.getCode().toString());
+		}
+		return new UnsuccessfulDeliveryException(errorMsg, e);
+	}
+
+	private PhoneNumbers normalize(String fromNumber, String toNumber) {
+		return Observation
+				.createNotStarted(MessagingObservations.PHONE_NUMBER_NORMALIZATION,
+						twilioHelper.getObservationRegistry())
+				.contextualName("normalize phone numbers")
+				.lowCardinalityKeyValue("cached", phoneNumberCache != null ? "true" : "false")
+				.observe(() -> new PhoneNumbers(toSenderNumber(fromNumber), toPhoneNumber(toNumber)));
+	}
+
+	/**
+	 * Converts the sender number, or returns null so that the message is sent through the Messaging Service.
+	 */
+	private PhoneNumber toSenderNumber(String fromNumber) {
+		if ((fromNumber == null || fromNumber.isBlank()) && twilioHelper.getMessagingServiceSid() != null) {
+			return null;
+		}
+		return toPhoneNumber(fromNumber);
+	}
+
+	private PhoneNumber toPhoneNumber(String phoneNumber) {
+		if (phoneNumberCache != null) {
+			return phoneNumberCache.toPhoneNumber(phoneNumber);
+		}
+		return new PhoneNumber(SmsUtils.toE164PhoneNumber(phoneNumber));
+	}
+
+	private String toJson(Message message) {
+		return Observation
+				.createNotStarted(MessagingObservations.TWILIO_RESPONSE_CONVERSION,
+						twilioHelper.getObservationRegistry())
+				.contextualName("convert twilio response")
+				.lowCardinalityKeyValue("format", fullResponseJson ? "full" : "receipt")
+				.observe(() -> convertResponse(message));
+	}
+
+	private String convertResponse(Message message) {
+		if (!fullResponseJson) {
+			return SmsDeliveryReceipt.of(message).toJson();
+		}
 
 		try {
-			apiJson = twilioHelper.serializeMessageToJson(message);
+			return twilioHelper.serializeMessageToJson(message);
 		} catch (JsonProcessingException jpe) {
 			log.error("Could not convert Twilio response to JSON. Using toString instead.");
-			apiJson = message.toString();
-		}
-
-		if (!deliverySuccessful) {
-			throw new UnsuccessfulDeliveryException("Twilio delivery failed.", null, apiJson);
+			return message.toString();
 		}
+	}
 
-		return Optional.of(apiJson);
+	/**
+	 * Sender and recipient numbers in E.164 format. The sender is null when sending through the Messaging Service.
+	 */
+	private record PhoneNumbers(PhoneNumber from, PhoneNumber to) {
 	}
 
 }
@@ -0,0 +1,73 @@
+package org.octri.messaging.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodes an <code>application/x-www-form-urlencoded</code> request body in a single pass over its bytes. Keys and
+ * values are decoded into a shared buffer and converted to strings once, without intermediate copies of the body.
+ */
+final class FormUrlDecoder {
+
+	private FormUrlDecoder() {
+	}
+
+	/**
+	 * Decodes a form body. When a key is repeated, the first value is kept.
+	 *
+	 * @param body
+	 *            the UTF-8 form body
+	 * @return the decoded parameters
+	 * @throws IllegalArgumentException
+	 *             if a percent-encoded sequence is malformed
+	 */
+	static Map<String, String> decode(byte[] body) {
+		var parameters = new HashMap<String, String>(32);
+		var buffer = new byte[body.length];
+		String key = null;
+		int length = 0;
+
+		for (int i = 0; i <= body.length; i++) {
+			var b = i < body.length ? body[i] : (byte) '&';
+			switch (b) {
+				case '&' -> {
+					if (key != null) {
+						parameters.putIfAbsent(key, new String(buffer, 0, length, StandardCharsets.UTF_8));
+					} else if (length > 0) {
+						parameters.putIfAbsent(new String(buffer, 0, length, StandardCharsets.UTF_8), "");
+					}
+					key = null;
+					length = 0;
+				}
+				case '=' -> {
+					if (key == null) {
+						key = new String(buffer, 0, length, StandardCharsets.UTF_8);
+						length = 0;
+					} else {
+						buffer[length++] = b;
+					}
+				}
+				case '+' -> buffer[length++] = ' ';
+				case '%' -> {
+					if (i + 2 >= body.length) {
+						throw new IllegalArgumentException("Incomplete percent-encoding at offset " + i);
+					}
+					buffer[length++] = (byte) ((hexValue(body[i + 1]) << 4) | hexValue(body[i + 2]));
+					i += 2;
+				}
+				default -> buffer[length++] = b;
+			}
+		}
+		return parameters;
+	}
+
+	private static int hexValue(byte b) {
+		var value = Character.digit(b, 16);
+		if (value < 0) {
+			throw new IllegalArgumentException("Invalid percent-encoding character '" + (char) b + "'");
+		}
+		return value;
+	}
+
+}
@@ -0,0 +1,157 @@
+package org.octri.messaging.webhook;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import com.twilio.security.RequestValidator;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Receives Twilio message status callbacks and passes each status update to the {@link TwilioStatusListener} beans.
+ *
+ * The form-encoded callback body is decoded in a single pass into a {@link TwilioStatusEvent} that keeps only the
+ * fields needed to track delivery. The request signature is checked against the Twilio auth token before listeners are
+ * called. Responds with 204 on success, 400 for a malformed callback, and 403 for an invalid signature.
+ */
+@Controller
+public class TwilioStatusCallbackController {
+
+	/**
+	 * Header carrying the Twilio request signature.
+	 */
+	public static final String SIGNATURE_HEADER = "X-Twilio-Signature";
+
+	private static final Logger log = LoggerFactory.getLogger(TwilioStatusCallbackController.class);
+
+	private final RequestValidator requestValidator;
+	private final Map<String, RequestValidator> accountRequestValidators;
+	private final String callbackUrl;
+	private final List<TwilioStatusListener> listeners;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param authToken
+	 *            Twilio auth token used to check request signatures, or null to skip signature validation
+	 * @param callbackUrl
+	 *            URL Twilio was given for status callbacks, used to check signatures. If null, the URL of the request is
+	 *            used, which only matches if the application sees the same URL as Twilio.
+	 * @param listeners
+	 *            listeners that receive status updates
+	 */
+	public TwilioStatusCallbackController(String authToken, String callbackUrl, List<TwilioStatusListener> listeners) {
+		this(authToken, Map.of(), callbackUrl, listeners);
+	}
+
+	/**
+	 * Constructor for callbacks from several Twilio accounts. Each callback's signature is checked against the auth
+	 * token of the account named by its AccountSid parameter, or the default auth token for other accounts.
+	 *
+	 * @param authToken
+	 *            default Twilio auth token used to check request signatures, or null to skip signature validation
+	 * @param accountAuthTokens
+	 *            auth tokens of other accounts, keyed by account SID
+	 * @param callbackUrl
+	 *            URL Twilio was given for status callbacks, used to check signatures. If null, the URL of the request is
+	 *            used, which only matches if the application sees the same URL as Twilio.
+	 * @param listeners
+	 *            listeners that receive status updates
+	 */
+	public TwilioStatusCallbackController(String authToken, Map<String, String> accountAuthTokens, String callbackUrl,
+			List<TwilioStatusListener> listeners) {
+		Assert.notNull(accountAuthTokens, "Account auth tokens are required.");
+		Assert.notNull(listeners, "Status listeners are required.");
+		this.requestValidator = authToken == null ? null : new RequestValidator(authToken);
+		this.accountRequestValidators = new HashMap<>();
+		accountAuthTokens.forEach((sid, token) -> accountRequestValidators.put(sid, new RequestValidator(token)));
+		this.callbackUrl = callbackUrl;
+		this.listeners = List.copyOf(listeners);
+	}
+
+	/**
+	 * Handles a status callback.
+	 *
+	 * @param request
+	 *            the callback request
+	 * @return empty response whose status tells Twilio whether the callback was accepted
+	 * @throws IOException
+	 *             if the request body cannot be read
+	 */
+	@PostMapping(path = "${octri.messaging.twilio.webhook.path:/twilio/status}",
+			consumes = MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+	public ResponseEntity<Void> statusCallback(HttpServletRequest request) throws IOException {
+		Map<String, String> parameters;
+		try {
+			parameters = readParameters(request);
+		} catch (IllegalArgumentException iae) {
+			log.warn("Could not decode Twilio status callback: " + iae.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+
+		if (requestValidator != null && !validatorFor(parameters).validate(signedUrl(request), parameters,
+				StringUtils.defaultString(request.getHeader(SIGNATURE_HEADER)))) {
+			log.warn("Rejected Twilio status callback with an invalid signature");
+			return ResponseEntity.status(403).build();
+		}
+
+		TwilioStatusEvent event;
+		try {
+			event = TwilioStatusEvent.of(parameters);
+		} catch (IllegalArgumentException iae) {
+			log.warn("Invalid Twilio status callback: " + iae.getMessage());
+			return ResponseEntity.badRequest().build();
+		}
+
+		log.debug("Message " + event.messageSid() + " status " + event.messageStatus());
+		for (var listener : listeners) {
+			listener.onStatus(event);
+		}
+		return ResponseEntity.noContent().build();
+	}
+
+	private static Map<String, String> readParameters(HttpServletRequest request) throws IOException {
+		var body = request.getInputStream().readAllBytes();
+		if (body.length > 0) {
+			return FormUrlDecoder.decode(body);
+		}
+
+		// A filter that read a request parameter has already consumed the body
+		var parameters = new HashMap<String, String>(32);
+		request.getParameterMap().forEach((name, values) -> {
+			if (values.length > 0) {
+				parameters.put(name, values[0]);
+			}
+		});
+		return parameters;
+	}
+
+	private RequestValidator validatorFor(Map<String, String> parameters) {
+		var accountSid = parameters.get("AccountSid");
+		return accountSid == null ? requestValidator
+				: accountRequestValidators.getOrDefault(accountSid, requestValidator);
+	}
+
+	private String signedUrl(HttpServletRequest request) {
+		if (StringUtils.isNotBlank(callbackUrl)) {
+			return callbackUrl;
+		}
+		var url = request.getRequestURL();
+		if (request.getQueryString() != null) {
+			url.append('?').append(request.getQueryString());
+		}
+		return url.toString();
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.octri.messaging.webhook;
+
+import java.util.Map;
+
+import com.twilio.rest.api.v2010.account.Message;
+
+/**
+ * A message status update received from a Twilio status callback. Only the fields needed to track delivery are kept.
+ *
+ * @param messageSid
+ *            Twilio message SID
+ * @param accountSid
+ *            Twilio account SID
+ * @param messagingServiceSid
+ *            messaging service SID, or null if the message was not sent through a messaging service
+ * @param fromNumber
+ *            sender phone number
+ * @param toNumber
+ *            recipient phone number
+ * @param messageStatus
+ *            status reported by Twilio, e.g. <code>delivered</code>
+ * @param errorCode
+ *            Twilio error code for failed and undelivered messages, or null
+ */
+public record TwilioStatusEvent(String messageSid, String accountSid, String messagingServiceSid, String fromNumber,
+		String toNumber, String messageStatus, Integer errorCode) {
+
+	/**
+	 * Creates an event from the parameters of a status callback.
+	 *
+	 * @param parameters
+	 *            decoded callback parameters
+	 * @return the event
+	 * @throws IllegalArgumentException
+	 *             if the message SID or status is missing, or the error code is not a number
+	 */
+	public static TwilioStatusEvent of(Map<String, String> parameters) {
+		var messageSid = parameters.get("MessageSid");
+		var messageStatus = parameters.get("MessageStatus");
+		if (messageSid == null || messageStatus == null) {
+			throw new IllegalArgumentException("Status callback is missing MessageSid or MessageStatus.");
+		}
+		var errorCode = parameters.get("ErrorCode");
+		return new TwilioStatusEvent(messageSid, parameters.get("AccountSid"), parameters.get("MessagingServiceSid"),
+				parameters.get("From"), parameters.get("To"), messageStatus,
+				errorCode == null || errorCode.isEmpty() ? null : Integer.valueOf(errorCode));
+	}
+
+	/**
+	 * Gets the status as a Twilio message status.
+	 *
+	 * @return the status, or null if the status is not one known to the Twilio SDK
+	 */
+	public Message.Status status() {
+		return Message.Status.forValue(messageStatus);
+	}
+
+	/**
+	 * Whether this is a final status that will not change, such as delivered or failed.
+	 *
+	 * @return true if the status is final
+	 */
+	public boolean isFinal() {
+		var status = status();
+		return status == Message.Status.DELIVERED || status == Message.Status.UNDELIVERED
+				|| status == Message.Status.FAILED || status == Message.Status.READ
+				|| status == Message.Status.CANCELED;
+	}
+
+}
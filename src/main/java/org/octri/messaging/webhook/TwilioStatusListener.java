@@ -0,0 +1,19 @@
+package org.octri.messaging.webhook;
+
+/**
+ * Receives message status updates from Twilio status callbacks. Define a bean implementing this interface to be
+ * notified when the status of a sent message changes. Listeners are called on the request thread, so long-running work
+ * should be handed off.
+ */
+@FunctionalInterface
+public interface TwilioStatusListener {
+
+	/**
+	 * Called when a status update is received.
+	 *
+	 * @param event
+	 *            the status update
+	 */
+	public void onStatus(TwilioStatusEvent event);
+
+}
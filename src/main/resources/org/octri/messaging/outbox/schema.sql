@@ -0,0 +1,19 @@
+-- Outbox table used by JdbcOutboxStore. Adjust column types for your database if needed.
+create table messaging_outbox (
+	id varchar(36) not null primary key,
+	channel varchar(8) not null,
+	from_address varchar(320),
+	to_address varchar(320) not null,
+	subject varchar(1000),
+	message_text text not null,
+	status varchar(16) not null,
+	attempts integer not null,
+	last_error varchar(1000),
+	created_at timestamp not null,
+	updated_at timestamp,
+	claimed_by varchar(36),
+	claimed_until timestamp,
+	next_attempt_at timestamp
+);
+
+create index messaging_outbox_pending_idx on messaging_outbox (status, created_at);
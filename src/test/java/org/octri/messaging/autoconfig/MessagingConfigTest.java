@@ -1,17 +1,66 @@
 package org.octri.messaging.autoconfig;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Path;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.email.MeteredEmailDeliveryStrategy;
+import org.octri.messaging.email.PooledJavaMailSender;
+import org.octri.messaging.metrics.MessagingMetrics;
+import org.octri.messaging.outbox.FileOutboxStore;
+import org.octri.messaging.outbox.OutboxDispatcher;
+import org.octri.messaging.outbox.OutboxMessageDeliveryService;
+import org.octri.messaging.outbox.OutboxStore;
+import org.octri.messaging.resilience.CircuitBreaker;
+import org.octri.messaging.resilience.CircuitBreakerHealthIndicator;
+import org.octri.messaging.resilience.RetryExecutor;
+import org.octri.messaging.service.ConcurrencyLimitedExecutor;
+import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.messaging.sms.CircuitBreakerSmsDeliveryStrategy;
+import org.octri.messaging.sms.MeteredSmsDeliveryStrategy;
+import org.octri.messaging.sms.PhoneNumberCache;
+import org.octri.messaging.sms.RateLimitedSmsDeliveryStrategy;
+import org.octri.messaging.sms.SenderPool;
+import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.PooledTwilioHttpClients;
+import org.octri.messaging.sms.TransliteratingSmsDeliveryStrategy;
+import org.octri.messaging.sms.TwilioHelper;
+import org.octri.messaging.sms.TwilioSmsDeliveryStrategy;
+import org.octri.messaging.webhook.TwilioStatusCallbackController;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.mail.MailSenderAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 import org.springframework.boot.test.system.CapturedOutput;
 import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(OutputCaptureExtension.class)
 public class MessagingConfigTest {
 
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(MessagingConfig.class, MailSenderAutoConfiguration.class,
+					TaskExecutionAutoConfiguration.class));
+
 	@Test
 	public void testValidatePropertiesDoesNotWarnWhenDefaultSenderAddressSet(CapturedOutput output) {
 		MessagingProperties properties = new MessagingProperties();
@@ -39,4 +88,337 @@ public class MessagingConfigTest {
 		}, "validateProperties should not throw an exception when email config is not explicitly set");
 	}
 
+	@Test
+	public void testProvidesDeliveryExecutorWithoutReplacingApplicationExecutor() {
+		contextRunner.withPropertyValues("octri.messaging.async.pool-size=3").run(context -> {
+			assertThat(context).hasSingleBean(MessageDeliveryService.class);
+			assertThat(context).hasBean(MessagingConfig.MESSAGING_EXECUTOR_BEAN_NAME);
+			assertThat(context).hasBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME);
+			var executor = context.getBean(MessagingConfig.MESSAGING_EXECUTOR_BEAN_NAME, ThreadPoolTaskExecutor.class);
+			assertThat(executor.getCorePoolSize()).isEqualTo(3);
+		});
+	}
+
+	@Test
+	@EnabledForJreRange(min = JRE.JAVA_21)
+	public void testProvidesVirtualThreadExecutor() {
+		contextRunner.withPropertyValues("octri.messaging.executor=virtual", "octri.messaging.async.max-concurrency=5")
+				.run(context -> {
+					var executor = context.getBean(MessagingConfig.MESSAGING_EXECUTOR_BEAN_NAME,
+							ConcurrencyLimitedExecutor.class);
+					assertThat(executor.getMaxConcurrency()).isEqualTo(5);
+				});
+	}
+
+	@Test
+	@EnabledForJreRange(max = JRE.JAVA_20)
+	public void testVirtualThreadExecutorRequiresJava21() {
+		contextRunner.withPropertyValues("octri.messaging.executor=virtual").run(context -> {
+			assertThat(context).hasFailed();
+			assertThat(context.getStartupFailure()).rootCause().hasMessageContaining("requires Java 21");
+		});
+	}
+
+	@Test
+	public void testProvidesPooledMailSenderWithoutReplacingApplicationMailSender() {
+		contextRunner
+				.withPropertyValues("spring.mail.host=smtp.example.com", "octri.messaging.email-delivery-method=SMTP",
+						"octri.messaging.email.pool.enabled=true", "octri.messaging.email.pool.max-size=2")
+				.withBean(MailSenderConsumer.class).run(context -> {
+					assertThat(context.getBean(MailSenderConsumer.class).mailSender())
+							.isNotInstanceOf(PooledJavaMailSender.class);
+					var pooledSender = context.getBean(MessagingConfig.POOLED_MAIL_SENDER_BEAN_NAME,
+							PooledJavaMailSender.class);
+					assertThat(pooledSender.getHost()).isEqualTo("smtp.example.com");
+					assertThat(context).hasSingleBean(MessageDeliveryService.class);
+				});
+	}
+
+	@Test
+	public void testDoesNotProvidePooledMailSenderByDefault() {
+		contextRunner.withPropertyValues("spring.mail.host=smtp.example.com",
+				"octri.messaging.email-delivery-method=SMTP").run(context -> {
+					assertThat(context).doesNotHaveBean(MessagingConfig.POOLED_MAIL_SENDER_BEAN_NAME);
+					assertThat(context).hasSingleBean(MessageDeliveryService.class);
+				});
+	}
+
+	@Test
+	public void testProvidesOutboxDeliveryServiceWhenOutboxEnabled(@TempDir Path tempDir) {
+		contextRunner.withPropertyValues("octri.messaging.outbox.enabled=true",
+				"octri.messaging.outbox.journal-path=" + tempDir.resolve("outbox.journal")).run(context -> {
+					assertThat(context).hasSingleBean(FileOutboxStore.class);
+					assertThat(context).hasSingleBean(OutboxDispatcher.class);
+					assertThat(context.getBean(MessageDeliveryService.class))
+							.isInstanceOf(OutboxMessageDeliveryService.class);
+					assertTrue(context.getBean(OutboxDispatcher.class).isRunning(), "The dispatcher should be started");
+				});
+	}
+
+	@Test
+	public void testOutboxDisabledByDefault() {
+		contextRunner.run(context -> {
+			assertThat(context).doesNotHaveBean(OutboxStore.class);
+			assertThat(context).doesNotHaveBean(OutboxDispatcher.class);
+			assertThat(context.getBean(MessageDeliveryService.class))
+					.isNotInstanceOf(OutboxMessageDeliveryService.class);
+		});
+	}
+
+	@Test
+	public void testWrapsTwilioStrategyWhenRateLimitEnabled() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.rate-limit.enabled=true",
+				"octri.messaging.twilio.rate-limit.behavior=FAIL_FAST",
+				"octri.messaging.twilio.rate-limit.senders[+18005551234]=25").run(context -> {
+					var strategy = context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy).isInstanceOf(RateLimitedSmsDeliveryStrategy.class);
+					assertThat(((RateLimitedSmsDeliveryStrategy) strategy).bucketFor("+18005551234")
+							.getPermitsPerSecond()).isCloseTo(25.0, within(0.01));
+				});
+	}
+
+	@Test
+	public void testReturnsFullTwilioResponseWhenConfigured() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.full-response-json=true")
+				.run(context -> {
+					var strategy = context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy).isInstanceOf(TwilioSmsDeliveryStrategy.class);
+					assertThat(((TwilioSmsDeliveryStrategy) strategy).isFullResponseJson()).isTrue();
+				});
+	}
+
+	@Test
+	public void testWrapsTwilioStrategyWhenTransliterationEnabled() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.transliterate=true")
+				.run(context -> {
+					var strategy = context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy).isInstanceOf(TransliteratingSmsDeliveryStrategy.class);
+					assertThat(((TransliteratingSmsDeliveryStrategy) strategy).getDelegate())
+							.isInstanceOf(TwilioSmsDeliveryStrategy.class);
+				});
+	}
+
+	@Test
+	public void testProvidesPhoneNumberCacheWhenEnabled() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.phone-number-cache.enabled=true")
+				.run(context -> {
+					var strategy = (TwilioSmsDeliveryStrategy) context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy.getPhoneNumberCache()).isSameAs(context.getBean(PhoneNumberCache.class));
+				});
+		contextRunner.run(context -> {
+			assertThat(context).doesNotHaveBean(PhoneNumberCache.class);
+		});
+	}
+
+	@Test
+	public void testMetersPhoneNumberCacheWhenMeterRegistryPresent() {
+		var properties = new String[] { "octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.phone-number-cache.enabled=true" };
+		contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new).withPropertyValues(properties)
+				.run(context -> {
+					context.getBean(PhoneNumberCache.class).toPhoneNumber("503-555-1234");
+					var gets = context.getBean(MeterRegistry.class).find("cache.gets")
+							.tags("cache", PhoneNumberCache.METRICS_CACHE_NAME, "result", "miss").functionCounter();
+					assertThat(gets).as("The cache's hit and miss counts should be registered").isNotNull();
+					assertThat(gets.count()).isEqualTo(1.0);
+				});
+		contextRunner.withClassLoader(new FilteredClassLoader("io.micrometer")).withPropertyValues(properties)
+				.run(context -> {
+					assertThat(context).hasNotFailed();
+					assertThat(context).hasSingleBean(PhoneNumberCache.class);
+				});
+	}
+
+	@Test
+	public void testCreatesClientForEachTwilioAccount() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.rate-limit.enabled=true",
+				"octri.messaging.twilio.accounts.study.account-sid=ACYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY",
+				"octri.messaging.twilio.accounts.study.auth-token=studyToken",
+				"octri.messaging.twilio.accounts.study.numbers[0]=503-555-0001",
+				"octri.messaging.twilio.accounts.study.messages-per-second=10",
+				"octri.messaging.twilio.http-client.max-connections=80").run(context -> {
+					var twilioHelper = context.getBean(TwilioHelper.class);
+					var httpClients = context.getBean(PooledTwilioHttpClients.class).getClients();
+					assertThat(httpClients).as("Each account should have its own connection pool")
+							.containsOnlyKeys("ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+									"ACYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY");
+					assertThat(httpClients.values()).allSatisfy(
+							httpClient -> assertThat(httpClient.getConnectionManager().getMaxTotal()).isEqualTo(80));
+					assertThat(twilioHelper.getClient().getHttpClient())
+							.isSameAs(httpClients.get("ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX"));
+					assertThat(twilioHelper.getClient("study").getHttpClient())
+							.isSameAs(httpClients.get("ACYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY"));
+					assertThat(twilioHelper.getAccountKeys()).containsExactly("study");
+					assertThat(twilioHelper.getClient("study").getAccountSid())
+							.isEqualTo("ACYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY");
+					assertThat(twilioHelper.getClient("study")).isNotSameAs(twilioHelper.getClient());
+
+					var strategy = (RateLimitedSmsDeliveryStrategy) context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy.bucketFor("+15035550001").getPermitsPerSecond()).isCloseTo(10.0,
+							within(0.01));
+				});
+	}
+
+	@Test
+	public void testPoolSendersKeepAccountRateLimit() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.rate-limit.enabled=true",
+				"octri.messaging.twilio.accounts.study.account-sid=ACYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY",
+				"octri.messaging.twilio.accounts.study.auth-token=studyToken",
+				"octri.messaging.twilio.accounts.study.numbers[0]=503-555-0001",
+				"octri.messaging.twilio.accounts.study.numbers[1]=503-555-0002",
+				"octri.messaging.twilio.accounts.study.messages-per-second=10",
+				"octri.messaging.twilio.senders[0].number=503-555-0001",
+				"octri.messaging.twilio.senders[1].number=503-555-0002",
+				"octri.messaging.twilio.senders[1].messages-per-second=3").run(context -> {
+					var strategy = (RateLimitedSmsDeliveryStrategy) context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy.bucketFor("+15035550001").getPermitsPerSecond())
+							.as("A pool sender without its own rate should keep the account's rate")
+							.isCloseTo(10.0, within(0.01));
+					assertThat(strategy.bucketFor("+15035550002").getPermitsPerSecond())
+							.as("A rate set for a pool sender should take precedence over the account's rate")
+							.isCloseTo(3.0, within(0.01));
+					assertThat(context.getBean(SenderPool.class).getSenders())
+							.extracting(SenderPool.Sender::messagesPerSecond)
+							.as("The pool should expect the same rates as the rate limiter").containsExactly(10.0, 3.0);
+				});
+	}
+
+	@Test
+	public void testSendsThroughMessagingServiceWhenConfigured() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token",
+				"octri.messaging.twilio.messaging-service-sid=MGXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX").run(context -> {
+					assertThat(context.getBean(TwilioHelper.class).getMessagingServiceSid())
+							.isEqualTo("MGXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX");
+					assertThat(context.getBean(MessageDeliveryService.class).isProviderSelectsSender()).isTrue();
+				});
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token").run(context -> {
+					assertThat(context.getBean(TwilioHelper.class).getMessagingServiceSid()).isNull();
+					assertThat(context.getBean(MessageDeliveryService.class).isProviderSelectsSender()).isFalse();
+				});
+	}
+
+	@Test
+	public void testProvidesSenderPoolWhenSendersConfigured() {
+		contextRunner.withPropertyValues("octri.messaging.twilio.senders[0].number=503-555-0001",
+				"octri.messaging.twilio.senders[1].number=+18005550002",
+				"octri.messaging.twilio.senders[1].messages-per-second=3").run(context -> {
+					var senderPool = context.getBean(SenderPool.class);
+					assertThat(senderPool.getSenders()).extracting(SenderPool.Sender::number)
+							.containsExactly("+15035550001", "+18005550002");
+					assertThat(context.getBean(MessageDeliveryService.class).getSenderPool()).isSameAs(senderPool);
+				});
+	}
+
+	@Test
+	public void testProvidesRetryExecutorWhenRetryEnabled() {
+		contextRunner.withPropertyValues("octri.messaging.retry.enabled=true", "octri.messaging.retry.max-attempts=4")
+				.run(context -> {
+					var retryExecutor = context.getBean(RetryExecutor.class);
+					assertThat(retryExecutor.getPolicy().getMaxAttempts()).isEqualTo(4);
+					assertThat(context.getBean(MessageDeliveryService.class).getRetryExecutor())
+							.isSameAs(retryExecutor);
+				});
+		contextRunner.run(context -> {
+			assertThat(context).doesNotHaveBean(RetryExecutor.class);
+		});
+	}
+
+	@Test
+	public void testPropagatesContextToDeliveryThreads() {
+		contextRunner.withPropertyValues("octri.messaging.retry.enabled=true").run(context -> {
+			assertThat(context.getBean(RetryExecutor.class).getTaskDecorator())
+					.isInstanceOf(ContextPropagatingTaskDecorator.class);
+		});
+		TaskDecorator applicationDecorator = task -> task;
+		contextRunner.withBean(TaskDecorator.class, () -> applicationDecorator)
+				.withPropertyValues("octri.messaging.retry.enabled=true").run(context -> {
+					assertThat(context.getBean(RetryExecutor.class).getTaskDecorator()).isSameAs(applicationDecorator);
+				});
+	}
+
+	@Test
+	public void testWrapsTwilioStrategyWhenCircuitBreakerEnabled() {
+		contextRunner.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+				"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+				"octri.messaging.twilio.auth-token=token", "octri.messaging.circuit-breaker.enabled=true")
+				.run(context -> {
+					var strategy = context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy).isInstanceOf(CircuitBreakerSmsDeliveryStrategy.class);
+					assertThat(context).doesNotHaveBean(MessagingConfig.EMAIL_CIRCUIT_BREAKER_BEAN_NAME);
+
+					var circuitBreaker = context.getBean(MessagingConfig.SMS_CIRCUIT_BREAKER_BEAN_NAME,
+							CircuitBreaker.class);
+					assertThat(((CircuitBreakerSmsDeliveryStrategy) strategy).getCircuitBreaker())
+							.isSameAs(circuitBreaker);
+
+					var health = context.getBean(CircuitBreakerHealthIndicator.class).health();
+					assertThat(health.getStatus()).isEqualTo(Status.UP);
+					assertThat(health.getDetails()).containsKey("twilio");
+				});
+	}
+
+	@Test
+	public void testMetersDeliveryStrategiesWhenMeterRegistryPresent() {
+		contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+				.withPropertyValues("octri.messaging.sms-delivery-method=TWILIO",
+						"octri.messaging.twilio.account-sid=ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX",
+						"octri.messaging.twilio.auth-token=token", "octri.messaging.twilio.transliterate=true")
+				.run(context -> {
+					assertThat(context).hasSingleBean(MessagingMetrics.class);
+					var strategy = (TransliteratingSmsDeliveryStrategy) context.getBean(SmsDeliveryStrategy.class);
+					assertThat(strategy.getDelegate()).isInstanceOf(MeteredSmsDeliveryStrategy.class);
+					assertThat(((MeteredSmsDeliveryStrategy) strategy.getDelegate()).getDelegate())
+							.isInstanceOf(TwilioSmsDeliveryStrategy.class);
+					assertThat(context.getBean(EmailDeliveryStrategy.class))
+							.isInstanceOf(MeteredEmailDeliveryStrategy.class);
+					assertThat(context.getBean(MeterRegistry.class).find("octri.messaging.delivery")
+							.tags("channel", "sms", "strategy", "twilio").timers()).hasSize(2);
+				});
+		contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+				.withPropertyValues("octri.messaging.metrics.enabled=false").run(context -> {
+					assertThat(context).doesNotHaveBean(MessagingMetrics.class);
+				});
+		contextRunner.withClassLoader(new FilteredClassLoader("io.micrometer")).run(context -> {
+			assertThat(context).hasNotFailed();
+			assertThat(context).doesNotHaveBean(MessagingMetrics.class);
+		});
+	}
+
+	@Test
+	public void testRegistersStatusCallbackEndpointInWebApplication() {
+		new WebApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(MessagingConfig.class, TaskExecutionAutoConfiguration.class))
+				.withPropertyValues("octri.messaging.twilio.auth-token=token",
+						"octri.messaging.twilio.webhook.enabled=true")
+				.run(context -> {
+					assertThat(context).hasSingleBean(TwilioStatusCallbackController.class);
+				});
+		contextRunner.withPropertyValues("octri.messaging.twilio.webhook.enabled=true").run(context -> {
+			assertThat(context).doesNotHaveBean(TwilioStatusCallbackController.class);
+		});
+	}
+
+	/**
+	 * Application bean that injects the mail sender by type.
+	 */
+	record MailSenderConsumer(JavaMailSender mailSender) {
+	}
+
 }
@@ -0,0 +1,66 @@
+package org.octri.messaging.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.resilience.CircuitBreaker;
+
+@ExtendWith(MockitoExtension.class)
+public class CircuitBreakerEmailDeliveryStrategyTest {
+
+	@Mock
+	EmailDeliveryStrategy mockDelegate;
+
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker("smtp", 4, 2, 50, Duration.ofSeconds(10), 100,
+			Duration.ofMinutes(1), 1, failure -> true);
+
+	@Test
+	public void testFailsFastOnceCircuitOpens() {
+		var failure = new UnsuccessfulDeliveryException("SMTP delivery failed");
+		when(mockDelegate.sendEmail(any(), any(), any(), any())).thenThrow(failure);
+		var strategy = new CircuitBreakerEmailDeliveryStrategy(mockDelegate, circuitBreaker);
+
+		for (int i = 0; i < 2; i++) {
+			assertThrows(UnsuccessfulDeliveryException.class,
+					() -> strategy.sendEmail("from@example.com", "to@example.com", "Subject", "Body"));
+		}
+		assertThrows(CircuitOpenException.class,
+				() -> strategy.sendEmail("from@example.com", "to@example.com", "Subject", "Body"),
+				"Calls should fail fast once the circuit is open");
+	}
+
+	@Test
+	public void testRecordsEachBatchResult() {
+		var messages = List.of(new EmailMessage("from@example.com", "a@example.com", "Subject", "Body"),
+				new EmailMessage("from@example.com", "b@example.com", "Subject", "Body"));
+		var failure = new UnsuccessfulDeliveryException("Connection refused");
+		when(mockDelegate.sendEmail(messages)).thenReturn(
+				messages.stream().map(message -> EmailDeliveryResult.failure(message, failure)).toList());
+		var strategy = new CircuitBreakerEmailDeliveryStrategy(mockDelegate, circuitBreaker);
+
+		strategy.sendEmail(messages);
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState(),
+				"Each failed message in the batch should be recorded");
+
+		var results = strategy.sendEmail(messages);
+		assertEquals(2, results.size(), "Every message should have a result");
+		results.forEach(result -> assertInstanceOf(CircuitOpenException.class, result.error(),
+				"Messages should fail fast while the circuit is open"));
+		verify(mockDelegate, times(1)).sendEmail(messages);
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.octri.messaging.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+
+public class PooledJavaMailSenderTest {
+
+	private List<Transport> opened;
+	private PooledJavaMailSender sender;
+
+	@BeforeEach
+	public void setUp() {
+		opened = new ArrayList<>();
+		var pool = new SmtpConnectionPool(this::openTransport, 2, Duration.ofMinutes(1), Duration.ofMinutes(1), 100,
+				Duration.ofSeconds(1));
+		sender = new PooledJavaMailSender(pool);
+	}
+
+	@Test
+	public void testReusesConnectionAcrossSends() throws MessagingException {
+		sender.send(createMessage("a@example.com"));
+		sender.send(createMessage("b@example.com"));
+
+		assertEquals(1, opened.size(), "Both messages should be sent over one connection");
+		verify(opened.get(0), times(2)).sendMessage(any(Message.class), any(Address[].class));
+		verify(opened.get(0), times(0).description("The connection should stay open")).close();
+	}
+
+	@Test
+	public void testReconnectsWhenConnectionDropped() throws MessagingException {
+		sender.send(createMessage("a@example.com"));
+		var stale = opened.get(0);
+		doThrow(new MessagingException("Connection reset")).when(stale).sendMessage(any(Message.class),
+				any(Address[].class));
+		when(stale.isConnected()).thenReturn(false);
+
+		sender.send(createMessage("b@example.com"));
+
+		assertEquals(2, opened.size(), "A new connection should be opened");
+		verify(stale).close();
+		verify(opened.get(1)).sendMessage(any(Message.class), any(Address[].class));
+	}
+
+	@Test
+	public void testReportsRejectedMessages() throws MessagingException {
+		sender.send(createMessage("a@example.com"));
+		var transport = opened.get(0);
+		doThrow(new SendFailedException("550 No such user")).when(transport).sendMessage(any(Message.class),
+				any(Address[].class));
+		when(transport.isConnected()).thenReturn(true);
+		var rejected = createMessage("nobody@example.com");
+
+		var thrown = assertThrows(MailSendException.class, () -> sender.send(rejected));
+
+		assertTrue(thrown.getFailedMessages().containsKey(rejected), "The rejected message should be reported");
+		assertEquals(1, opened.size(), "A rejected recipient should not discard the connection");
+	}
+
+	@Test
+	public void testDestroyClosesPool() throws MessagingException {
+		sender.send(createMessage("a@example.com"));
+
+		sender.destroy();
+
+		verify(opened.get(0)).close();
+	}
+
+	private SimpleMailMessage createMessage(String toEmail) {
+		var message = new SimpleMailMessage();
+		message.setFrom("sender@example.com");
+		message.setTo(toEmail);
+		message.setSubject("Subject");
+		message.setText("Body");
+		return message;
+	}
+
+	private Transport openTransport() {
+		var transport = mock(Transport.class);
+		opened.add(transport);
+		return transport;
+	}
+
+}
@@ -0,0 +1,139 @@
+package org.octri.messaging.email;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+public class SmtpConnectionPoolTest {
+
+	private List<Transport> opened;
+
+	@BeforeEach
+	public void setUp() {
+		opened = new ArrayList<>();
+	}
+
+	@Test
+	public void testReusesReleasedConnection() throws MessagingException {
+		var pool = createPool(2, Duration.ofMinutes(1), Duration.ofMinutes(1), 10);
+
+		var first = pool.borrow();
+		pool.release(first, false);
+		var second = pool.borrow();
+
+		assertSame(first, second, "A released connection should be reused");
+		assertEquals(1, opened.size(), "Only one connection should be opened");
+		verify(first.getTransport(), never().description("Recently used connections should not be validated"))
+				.isConnected();
+	}
+
+	@Test
+	public void testValidatesIdleConnectionBeforeReuse() throws MessagingException {
+		var pool = createPool(2, Duration.ofMinutes(1), Duration.ZERO, 10);
+
+		var first = pool.borrow();
+		when(first.getTransport().isConnected()).thenReturn(false);
+		pool.release(first, false);
+		var second = pool.borrow();
+
+		assertNotSame(first, second, "A connection that fails validation should be replaced");
+		verify(first.getTransport()).close();
+	}
+
+	@Test
+	public void testClosesConnectionsAfterIdleTimeout() throws MessagingException {
+		var pool = createPool(2, Duration.ZERO, Duration.ZERO, 10);
+
+		var first = pool.borrow();
+		pool.release(first, false);
+		var second = pool.borrow();
+
+		assertNotSame(first, second, "Expired connections should not be reused");
+		verify(first.getTransport()).close();
+	}
+
+	@Test
+	public void testRecyclesConnectionAfterMaxMessages() throws MessagingException {
+		var pool = createPool(2, Duration.ofMinutes(1), Duration.ofMinutes(1), 2);
+
+		var first = pool.borrow();
+		first.recordMessageSent();
+		first.recordMessageSent();
+		pool.release(first, false);
+
+		verify(first.getTransport()).close();
+		assertEquals(0, pool.getIdleCount(), "Connections at the message limit should not be pooled");
+	}
+
+	@Test
+	public void testClosesBrokenConnections() throws MessagingException {
+		var pool = createPool(2, Duration.ofMinutes(1), Duration.ofMinutes(1), 10);
+
+		var first = pool.borrow();
+		pool.release(first, true);
+
+		verify(first.getTransport()).close();
+		assertEquals(0, pool.getIdleCount(), "Broken connections should not be pooled");
+		assertEquals(0, pool.getActiveCount(), "The permit should be released");
+	}
+
+	@Test
+	public void testBorrowTimesOutWhenPoolExhausted() throws MessagingException {
+		var pool = new SmtpConnectionPool(this::openTransport, 1, Duration.ofMinutes(1), Duration.ofMinutes(1), 10,
+				Duration.ofMillis(10));
+
+		pool.borrow();
+
+		assertThrows(MessagingException.class, pool::borrow, "Borrowing from an exhausted pool should time out");
+	}
+
+	@Test
+	public void testReleasesPermitWhenConnectFails() {
+		var pool = new SmtpConnectionPool(() -> {
+			throw new MessagingException("Connection refused");
+		}, 1, Duration.ofMinutes(1), Duration.ofMinutes(1), 10, Duration.ofMillis(10));
+
+		assertThrows(MessagingException.class, pool::borrow);
+		assertEquals(0, pool.getActiveCount(), "A failed connection attempt should not leak a permit");
+	}
+
+	@Test
+	public void testCloseClosesIdleConnections() throws MessagingException {
+		var pool = createPool(2, Duration.ofMinutes(1), Duration.ofMinutes(1), 10);
+		var first = pool.borrow();
+		pool.release(first, false);
+
+		pool.close();
+
+		verify(first.getTransport()).close();
+		assertThrows(IllegalStateException.class, pool::borrow, "A closed pool should not lend connections");
+	}
+
+	private SmtpConnectionPool createPool(int maxSize, Duration idleTimeout, Duration validationInterval,
+			int maxMessages) {
+		return new SmtpConnectionPool(this::openTransport, maxSize, idleTimeout, validationInterval, maxMessages,
+				Duration.ofSeconds(1));
+	}
+
+	private Transport openTransport() {
+		var transport = mock(Transport.class);
+		opened.add(transport);
+		return transport;
+	}
+
+}
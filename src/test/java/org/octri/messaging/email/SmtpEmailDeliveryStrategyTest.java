@@ -5,9 +5,15 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.octri.messaging.autoconfig.EmailProperties;
 import org.octri.messaging.exception.UnsuccessfulDeliveryException;
 import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
@@ -127,4 +134,72 @@ public class SmtpEmailDeliveryStrategyTest {
 		assertEquals(cause.getMessage(), expectedMessage);
 	}
 
+	@Test
+	public void testBatchSendsChunksOverOneConnection() {
+		emailProperties.setBatchSize(2);
+		var strategy = new SmtpEmailDeliveryStrategy(mockMailSender, emailProperties);
+		var chunks = new ArrayList<SimpleMailMessage[]>();
+		doAnswer(invocation -> {
+			var arguments = invocation.getArguments();
+			chunks.add(Arrays.copyOf(arguments, arguments.length, SimpleMailMessage[].class));
+			return null;
+		}).when(mockMailSender).send(any(SimpleMailMessage[].class));
+
+		var results = strategy.sendEmail(List.of(new EmailMessage(EXPECTED_SENDER, "a@example.com", "A", "A"),
+				new EmailMessage("b@example.com", "B", "B"), new EmailMessage(EXPECTED_SENDER, "c@example.com", "C", "C")));
+
+		assertEquals(2, chunks.size(), "Messages should be sent in chunks of the configured batch size");
+		assertEquals(2, chunks.get(0).length, "The first chunk should be full");
+		assertEquals(1, chunks.get(1).length, "The remaining message should be sent in a final chunk");
+		assertEquals(DEFAULT_SENDER, chunks.get(0)[1].getFrom(), "Messages without a sender use the default");
+		assertEquals(3, results.size(), "There should be a result for each message");
+		assertTrue(results.stream().allMatch(EmailDeliveryResult::isSuccessful), "All messages should be delivered");
+	}
+
+	@Test
+	public void testBatchReportsFailedRecipients() {
+		var strategy = new SmtpEmailDeliveryStrategy(mockMailSender, emailProperties);
+		doAnswer(invocation -> {
+			SimpleMailMessage rejected = invocation.getArgument(1);
+			throw new MailSendException(Map.of(rejected, new IllegalStateException("550 No such user")));
+		}).when(mockMailSender).send(any(SimpleMailMessage[].class));
+
+		var results = strategy.sendEmail(List.of(new EmailMessage(EXPECTED_SENDER, "a@example.com", "A", "A"),
+				new EmailMessage(EXPECTED_SENDER, "nobody@example.com", "B", "B"),
+				new EmailMessage(EXPECTED_SENDER, "c@example.com", "C", "C")));
+
+		assertTrue(results.get(0).isSuccessful(), "Accepted messages should be successful");
+		assertFalse(results.get(1).isSuccessful(), "Rejected messages should fail");
+		assertEquals("550 No such user", results.get(1).error().getCause().getMessage(),
+				"The failure should include the SMTP error");
+		assertTrue(results.get(2).isSuccessful(), "A rejected message should not affect the rest of the batch");
+	}
+
+	@Test
+	public void testBatchFailsChunkOnConnectionError() {
+		var strategy = new SmtpEmailDeliveryStrategy(mockMailSender, emailProperties);
+		doThrow(new MailAuthenticationException("Fake auth exception")).when(mockMailSender)
+				.send(any(SimpleMailMessage[].class));
+
+		var results = strategy.sendEmail(List.of(new EmailMessage(EXPECTED_SENDER, "a@example.com", "A", "A"),
+				new EmailMessage(EXPECTED_SENDER, "b@example.com", "B", "B")));
+
+		assertTrue(results.stream().noneMatch(EmailDeliveryResult::isSuccessful),
+				"All messages in the chunk should fail");
+	}
+
+	@Test
+	public void testBatchFailsMessagesWithoutSender() {
+		emailProperties.setDefaultSenderAddress(null);
+		var strategy = new SmtpEmailDeliveryStrategy(mockMailSender, emailProperties);
+
+		var results = strategy.sendEmail(List.of(new EmailMessage("a@example.com", "A", "A"),
+				new EmailMessage(EXPECTED_SENDER, "b@example.com", "B", "B")));
+
+		assertFalse(results.get(0).isSuccessful(), "Messages without a sender should fail");
+		assertTrue(results.get(0).error().getMessage().contains("default sender address is required"),
+				"The error should explain why delivery failed.");
+		assertTrue(results.get(1).isSuccessful(), "Messages with a sender should still be delivered");
+	}
+
 }
@@ -0,0 +1,81 @@
+package org.octri.messaging.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DeliveryMetricsTest {
+
+	private final MockClock clock = new MockClock();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock);
+
+	@Test
+	public void testRecordsDeliveryTimeByOutcome() {
+		var metrics = new DeliveryMetrics(registry, "sms", "twilio", List.of(0.5, 0.99));
+
+		var start = metrics.start();
+		assertEquals(1, registry.get(DeliveryMetrics.IN_FLIGHT_GAUGE).tag("strategy", "twilio").gauge().value(),
+				"The started delivery should be in flight");
+		clock.add(250, TimeUnit.MILLISECONDS);
+		metrics.success(start);
+
+		var timer = registry.get(DeliveryMetrics.DELIVERY_TIMER).tags("channel", "sms", "outcome", "success").timer();
+		assertEquals(1, timer.count(), "One successful delivery should be timed");
+		assertEquals(250, timer.totalTime(TimeUnit.MILLISECONDS), "The delivery time should use the registry clock");
+		assertEquals(0, registry.get(DeliveryMetrics.IN_FLIGHT_GAUGE).gauge().value(),
+				"No delivery should be in flight after it completes");
+		assertEquals(0, registry.get(DeliveryMetrics.DELIVERY_TIMER).tag("outcome", "failure").timer().count(),
+				"The failure timer should be registered up front");
+	}
+
+	@Test
+	public void testCountsFailuresByErrorCode() {
+		var metrics = new DeliveryMetrics(registry, "sms", "twilio", List.of());
+
+		metrics.failure(metrics.start(), new UnsuccessfulDeliveryException("Invalid number", null, null, "21211"));
+		metrics.failure(metrics.start(), new CompletionException(
+				new UnsuccessfulDeliveryException("Invalid number", null, null, "21211")));
+		metrics.failure(metrics.start(), new CircuitOpenException("Open", "twilio", Duration.ofSeconds(30)));
+		metrics.record(0, new IllegalStateException("Unexpected"));
+
+		assertEquals(2, registry.get(DeliveryMetrics.ERROR_COUNTER).tag("error.code", "21211").counter().count(),
+				"Failures should be counted by the Twilio error code, including asynchronous failures");
+		assertEquals(1, registry.get(DeliveryMetrics.ERROR_COUNTER).tag("error.code", "circuit_open").counter().count(),
+				"Calls rejected by the circuit breaker should have their own error code");
+		assertEquals(1,
+				registry.get(DeliveryMetrics.ERROR_COUNTER).tag("error.code", DeliveryMetrics.UNKNOWN_ERROR_CODE)
+						.counter().count(),
+				"Failures without a code should be counted as unknown");
+		assertEquals(4, registry.get(DeliveryMetrics.DELIVERY_TIMER).tag("outcome", "failure").timer().count(),
+				"Every failure should be timed");
+	}
+
+	@Test
+	public void testReusesMeters() {
+		var metrics = new DeliveryMetrics(registry, "email", "smtp", List.of());
+
+		metrics.failure(metrics.start(), new UnsuccessfulDeliveryException("Rejected", null, null, "550"));
+		var counter = registry.get(DeliveryMetrics.ERROR_COUNTER).tag("error.code", "550").counter();
+		metrics.failure(metrics.start(), new UnsuccessfulDeliveryException("Rejected", null, null, "550"));
+
+		assertNotNull(counter, "The error counter should be registered");
+		assertSame(counter, registry.get(DeliveryMetrics.ERROR_COUNTER).tag("error.code", "550").counter(),
+				"The error counter should be reused");
+		assertEquals(2, counter.count(), "Both failures should be counted");
+		assertEquals(4, registry.getMeters().size(), "Only the timers, gauge, and one error counter should exist");
+	}
+
+}
@@ -0,0 +1,131 @@
+package org.octri.messaging.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.octri.messaging.email.EmailMessage;
+import org.octri.messaging.outbox.OutboxMessage.Channel;
+import org.octri.messaging.sms.SmsMessage;
+
+public class FileOutboxStoreTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testRecoversPendingMessagesAfterRestart() {
+		var journal = tempDir.resolve("outbox.journal");
+		var email = OutboxMessage.of(new EmailMessage("sender@example.com", "recipient@example.com", "Subject", "Body"));
+		var delivered = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Delivered"));
+		var retried = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Retried"));
+
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			store.add(email);
+			store.add(delivered);
+			store.add(retried);
+			store.markDelivered(delivered.id());
+			store.markRetry(retried.id(), "BORK", Instant.now());
+		}
+
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			var pending = store.fetchPending(10);
+			assertEquals(2, pending.size(), "Undelivered messages should be recovered");
+			assertEquals(email, pending.get(0), "Recovered messages should match the stored messages");
+			assertEquals(Channel.SMS, pending.get(1).channel(), "Messages should be recovered in order");
+			assertEquals(1, pending.get(1).attempts(), "Failed attempts should be recovered");
+		}
+	}
+
+	@Test
+	public void testSkipsMessagesThatAreNotDue() {
+		var journal = tempDir.resolve("outbox.journal");
+		var retried = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Retried"));
+		var deferred = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Deferred"));
+		var fresh = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Fresh"));
+		var later = Instant.now().plusSeconds(60);
+
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			store.add(retried);
+			store.add(deferred);
+			store.add(fresh);
+			store.markRetry(retried.id(), "BORK", later);
+			store.release(deferred.id(), later);
+
+			var fetched = store.fetchPending(1);
+			assertEquals(fresh.id(), fetched.get(0).id(), "Messages that are not due should not block newer messages");
+			assertEquals(3, store.countPending(), "Messages that are not due should still be pending");
+			store.markDelivered(fresh.id());
+		}
+
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			var fetched = store.fetchPending(10);
+			assertEquals(1, fetched.size(), "The retry time should be recovered, but not the release time");
+			assertEquals(deferred.id(), fetched.get(0).id(), "Released messages should be due after a restart");
+		}
+
+		// Opening the store compacts the journal, which must keep the retry time
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			assertEquals(1, store.fetchPending(10).size(), "The retry time should survive compaction");
+		}
+	}
+
+	@Test
+	public void testFailedMessagesAreNoLongerPending() {
+		try (var store = new FileOutboxStore(tempDir.resolve("outbox.journal"), 1000)) {
+			var message = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text"));
+			store.add(message);
+			store.markFailed(message.id(), "BORK");
+
+			assertEquals(0, store.countPending(), "Failed messages should not be pending");
+			assertTrue(store.fetchPending(10).isEmpty(), "Failed messages should not be fetched");
+		}
+	}
+
+	@Test
+	public void testCompactsJournal() throws IOException {
+		var journal = tempDir.resolve("outbox.journal");
+		try (var store = new FileOutboxStore(journal, 3)) {
+			for (int i = 0; i < 3; i++) {
+				var message = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text " + i));
+				store.add(message);
+				store.markDelivered(message.id());
+			}
+			var pending = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Pending"));
+			store.add(pending);
+
+			var lines = Files.readAllLines(journal);
+			assertEquals(1, lines.size(), "Compaction should leave only the pending message in the journal");
+			assertTrue(lines.get(0).contains(pending.id()), "The pending message should be kept");
+		}
+	}
+
+	@Test
+	public void testIgnoresPartiallyWrittenEntry() throws IOException {
+		var journal = tempDir.resolve("outbox.journal");
+		var message = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text"));
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			store.add(message);
+		}
+		Files.writeString(journal, "{\"op\":\"ADD\",\"id\":\"trunc", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			assertEquals(1, store.countPending(), "The complete entry should be recovered");
+			var next = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Next"));
+			store.add(next);
+		}
+
+		try (var store = new FileOutboxStore(journal, 1000)) {
+			assertEquals(2, store.countPending(), "Entries written after recovery should be readable");
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+package org.octri.messaging.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.email.EmailMessage;
+import org.octri.messaging.sms.SmsMessage;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class JdbcOutboxStoreTest {
+
+	private EmbeddedDatabase database;
+	private JdbcOutboxStore store;
+
+	@BeforeEach
+	public void setUp() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("org/octri/messaging/outbox/schema.sql").build();
+		store = new JdbcOutboxStore(database, JdbcOutboxStore.DEFAULT_TABLE_NAME);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	public void testStoresAndUpdatesMessages() {
+		var email = OutboxMessage.of(new EmailMessage("recipient@example.com", "Subject", "Body"));
+		var delivered = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Delivered"));
+		var failed = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Failed"));
+		store.add(email);
+		store.add(delivered);
+		store.add(failed);
+
+		store.markDelivered(delivered.id());
+		store.markFailed(failed.id(), "BORK");
+		store.markRetry(email.id(), "Try again", Instant.now());
+
+		var pending = store.fetchPending(10);
+		assertEquals(1, store.countPending(), "Only the retried message should be pending");
+		assertEquals(email.id(), pending.get(0).id(), "The retried message should be fetched");
+		assertEquals("Subject", pending.get(0).subject(), "Message fields should be stored");
+		assertEquals(1, pending.get(0).attempts(), "The failed attempt should be counted");
+	}
+
+	@Test
+	public void testFetchPendingRespectsLimit() {
+		for (int i = 0; i < 5; i++) {
+			store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text " + i)));
+		}
+
+		assertEquals(3, store.fetchPending(3).size(), "No more than the limit should be fetched");
+	}
+
+	@Test
+	public void testFetchedMessagesAreClaimed() {
+		var otherInstance = new JdbcOutboxStore(database, JdbcOutboxStore.DEFAULT_TABLE_NAME);
+		var retried = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Retried"));
+		var deferred = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Deferred"));
+		store.add(retried);
+		store.add(deferred);
+
+		assertEquals(2, store.fetchPending(10).size(), "Unclaimed messages should be fetched");
+		assertTrue(otherInstance.fetchPending(10).isEmpty(), "Messages claimed by one store should be skipped");
+		assertTrue(store.fetchPending(10).isEmpty(), "Claimed messages should not be fetched twice");
+		assertEquals(2, store.countPending(), "Claimed messages should still be pending");
+
+		otherInstance.release(deferred.id(), Instant.now());
+		assertTrue(otherInstance.fetchPending(10).isEmpty(), "Only the claiming store should release a message");
+
+		store.markRetry(retried.id(), "Try again", Instant.now());
+		store.release(deferred.id(), Instant.now());
+		var fetched = otherInstance.fetchPending(10);
+		assertEquals(2, fetched.size(), "Retried and released messages should be available to any store");
+	}
+
+	@Test
+	public void testSkipsMessagesThatAreNotDue() {
+		var retried = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Retried"));
+		var deferred = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Deferred"));
+		var fresh = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Fresh"));
+		store.add(retried);
+		store.add(deferred);
+		store.add(fresh);
+		assertEquals(3, store.fetchPending(10).size(), "All messages should be fetched");
+
+		var later = Instant.now().plusSeconds(60);
+		store.markRetry(retried.id(), "Try again", later);
+		store.release(deferred.id(), later);
+		store.release(fresh.id(), Instant.now());
+
+		var fetched = store.fetchPending(2);
+		assertEquals(1, fetched.size(), "Messages that are not due should be skipped");
+		assertEquals(fresh.id(), fetched.get(0).id(), "Messages that are not due should not block newer messages");
+		assertEquals(3, store.countPending(), "Messages that are not due should still be pending");
+	}
+
+	@Test
+	public void testExpiredClaimsCanBeTaken() throws InterruptedException {
+		var shortLease = new JdbcOutboxStore(database, JdbcOutboxStore.DEFAULT_TABLE_NAME, Duration.ofMillis(50));
+		store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Abandoned")));
+
+		assertEquals(1, shortLease.fetchPending(10).size(), "The message should be claimed");
+		Thread.sleep(100);
+		assertEquals(1, store.fetchPending(10).size(),
+				"A message whose lease has expired should be claimed by another store");
+	}
+
+	@Test
+	public void testAddJoinsTransaction() {
+		var transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Rolled back")));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(0, store.countPending(), "Messages added in a rolled back transaction should be discarded");
+	}
+
+	@Test
+	public void testRejectsInvalidTableName() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new JdbcOutboxStore(database, "outbox; drop table users");
+		}, "Table names that are not identifiers should be rejected");
+	}
+
+}
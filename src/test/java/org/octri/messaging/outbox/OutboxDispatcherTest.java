@@ -0,0 +1,171 @@
+package org.octri.messaging.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.messaging.email.EmailDeliveryResult;
+import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.email.EmailMessage;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.service.MessageDeliveryService;
+import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsMessage;
+import org.springframework.core.task.SyncTaskExecutor;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxDispatcherTest {
+
+	@Mock
+	EmailDeliveryStrategy mockEmailStrategy;
+
+	@Mock
+	SmsDeliveryStrategy mockSmsStrategy;
+
+	@TempDir
+	Path tempDir;
+
+	private FileOutboxStore store;
+	private MessageDeliveryService deliveryService;
+
+	@BeforeEach
+	public void setUp() {
+		store = new FileOutboxStore(tempDir.resolve("outbox.journal"), 1000);
+		deliveryService = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		store.close();
+	}
+
+	@Test
+	public void testDeliversPendingMessages() {
+		var emails = List.of(new EmailMessage("recipient@example.com", "Subject", "Body"));
+		when(mockEmailStrategy.sendEmail(emails))
+				.thenReturn(List.of(EmailDeliveryResult.success(emails.get(0), Optional.empty())));
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text")).thenReturn(Optional.of("SM123"));
+
+		store.add(OutboxMessage.of(emails.get(0)));
+		store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text")));
+
+		var dispatcher = new OutboxDispatcher(store, deliveryService, 10, Duration.ofSeconds(1), 3);
+		assertEquals(2, dispatcher.dispatch(), "Both messages should be attempted");
+		assertEquals(0, store.countPending(), "Delivered messages should no longer be pending");
+	}
+
+	@Test
+	public void testRetriesThenFailsUndeliverableMessage() {
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text"))
+				.thenThrow(new UnsuccessfulDeliveryException("BORK"));
+		store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text")));
+
+		var dispatcher = new OutboxDispatcher(store, deliveryService, 10, Duration.ofSeconds(1), 2, Duration.ZERO,
+				Duration.ZERO);
+		dispatcher.dispatch();
+		assertEquals(1, store.countPending(), "The message should remain pending after the first failure");
+		assertEquals(1, store.fetchPending(1).get(0).attempts(), "The failed attempt should be recorded");
+
+		dispatcher.dispatch();
+		assertEquals(0, store.countPending(), "The message should be failed after the maximum attempts");
+	}
+
+	@Test
+	public void testLeavesDeferredMessagesPendingWithoutCountingAttempt() {
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text"))
+				.thenThrow(new RateLimitExceededException("Slow down", Duration.ofSeconds(1), true));
+		var message = OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text"));
+		store.add(message);
+		var spyStore = spy(store);
+
+		var dispatcher = new OutboxDispatcher(spyStore, deliveryService, 10, Duration.ofSeconds(1), 1);
+		assertEquals(0, dispatcher.dispatch(), "Deferred messages should not count as attempted");
+		verify(spyStore).release(eq(message.id()), any(Instant.class));
+		assertEquals(1, store.countPending(), "Deferred messages should remain pending");
+		assertTrue(store.fetchPending(1).isEmpty(), "Deferred messages should be pushed back until the retry time");
+		assertEquals(0, dispatcher.dispatch(), "Deferred messages should not be attempted before the retry time");
+	}
+
+	@Test
+	public void testBacksOffBeforeRetrying() {
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text"))
+				.thenThrow(new UnsuccessfulDeliveryException("BORK"));
+		store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text")));
+
+		var dispatcher = new OutboxDispatcher(store, deliveryService, 10, Duration.ofSeconds(1), 3);
+		assertEquals(1, dispatcher.dispatch(), "The message should be attempted");
+		assertEquals(0, dispatcher.dispatch(), "The message should not be retried before the backoff has passed");
+		assertEquals(1, store.countPending(), "The message should remain pending during the backoff");
+	}
+
+	@Test
+	public void testStopsDrainingWhenNothingIsDelivered() throws InterruptedException {
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text"))
+				.thenThrow(new UnsuccessfulDeliveryException("BORK"));
+		store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text")));
+		var spyStore = spy(store);
+
+		// Without a backoff the message is always due, so only the drain condition stops the loop
+		var dispatcher = new OutboxDispatcher(spyStore, deliveryService, 1, Duration.ofSeconds(10), 1000,
+				Duration.ZERO, Duration.ZERO);
+		dispatcher.start();
+		try {
+			Thread.sleep(200);
+		} finally {
+			dispatcher.stop();
+		}
+		verify(spyStore, times(1)).fetchPending(1);
+	}
+
+	@Test
+	public void testDrainsOutboxInBackground() throws InterruptedException {
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text")).thenReturn(Optional.empty());
+		for (int i = 0; i < 5; i++) {
+			store.add(OutboxMessage.of(new SmsMessage("+15551234567", "+15554567890", "Text")));
+		}
+
+		var dispatcher = new OutboxDispatcher(store, deliveryService, 2, Duration.ofMillis(10), 3);
+		dispatcher.start();
+		try {
+			var deadline = System.currentTimeMillis() + 5000;
+			while (store.countPending() > 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertEquals(0, store.countPending(), "The dispatcher should drain the outbox");
+			assertTrue(dispatcher.isRunning(), "The dispatcher should be running");
+		} finally {
+			dispatcher.stop();
+		}
+	}
+
+	@Test
+	public void testRejectsOutboxDeliveryService() {
+		var outboxService = new OutboxMessageDeliveryService(mockEmailStrategy, mockSmsStrategy,
+				new SyncTaskExecutor(), store);
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new OutboxDispatcher(store, outboxService, 10, Duration.ofSeconds(1), 3);
+		}, "Dispatching with a service that writes to the outbox would loop forever");
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.octri.messaging.outbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.outbox.OutboxMessage.Channel;
+import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsMessage;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxMessageDeliveryServiceTest {
+
+	@Mock
+	EmailDeliveryStrategy mockEmailStrategy;
+
+	@Mock
+	SmsDeliveryStrategy mockSmsStrategy;
+
+	@Mock
+	OutboxStore mockStore;
+
+	@Test
+	public void testAddsMessagesToOutboxInsteadOfDelivering() {
+		var service = new OutboxMessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor(),
+				mockStore);
+
+		var id = service.sendSms("+15551234567", "+15554567890", "Text");
+		service.sendEmail("sender@example.com", "recipient@example.com", "Subject", "Body");
+
+		var captor = ArgumentCaptor.forClass(OutboxMessage.class);
+		verify(mockStore, times(2)).add(captor.capture());
+		assertEquals(id.get(), captor.getAllValues().get(0).id(), "The outbox ID should be returned");
+		assertEquals(Channel.SMS, captor.getAllValues().get(0).channel(), "The SMS should be stored");
+		assertEquals(Channel.EMAIL, captor.getAllValues().get(1).channel(), "The email should be stored");
+		verifyNoInteractions(mockEmailStrategy, mockSmsStrategy);
+	}
+
+	@Test
+	public void testReportsStoreFailure() {
+		doThrow(new IllegalStateException("Disk full")).when(mockStore).add(any());
+		var service = new OutboxMessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor(),
+				mockStore);
+
+		assertThrows(UnsuccessfulDeliveryException.class, () -> {
+			service.sendSms("+15551234567", "+15554567890", "Text");
+		}, "A message that cannot be stored should fail");
+
+		var results = service.sendSms(List.of(new SmsMessage("+15551234567", "+15554567890", "Text")));
+		assertFalse(results.get(0).isSuccessful(), "Batch results should report the store failure");
+	}
+
+	@Test
+	public void testDefersNonTransactionalStoreUntilCommit() {
+		var service = new OutboxMessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor(),
+				mockStore);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.sendSms("+15551234567", "+15554567890", "Text");
+			verify(mockStore, never()).add(any());
+
+			TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+			verify(mockStore).add(any());
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void testWritesTransactionalStoreImmediately() {
+		when(mockStore.isTransactional()).thenReturn(true);
+		var service = new OutboxMessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor(),
+				mockStore);
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			service.sendSms("+15551234567", "+15554567890", "Text");
+			verify(mockStore).add(any());
+			assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty(),
+					"No synchronization should be registered for a transactional store");
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+}
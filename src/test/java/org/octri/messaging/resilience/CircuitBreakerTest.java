@@ -0,0 +1,125 @@
+package org.octri.messaging.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.exception.CircuitOpenException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.resilience.CircuitBreaker.State;
+
+public class CircuitBreakerTest {
+
+	private static final UnsuccessfulDeliveryException PROVIDER_FAILURE = new UnsuccessfulDeliveryException(
+			"Service unavailable");
+	private static final UnsuccessfulDeliveryException INVALID_RECIPIENT = new UnsuccessfulDeliveryException(
+			"Invalid recipient");
+
+	private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker("twilio", 10, 4, 50, Duration.ofSeconds(2), 100,
+			Duration.ofSeconds(30), 2, failure -> failure == PROVIDER_FAILURE, clock::get);
+
+	@Test
+	public void testOpensWhenFailureRateReachesThreshold() {
+		succeed();
+		fail(PROVIDER_FAILURE);
+		succeed();
+		assertEquals(State.CLOSED, circuitBreaker.getState(), "The circuit should stay closed below the minimum calls");
+
+		fail(PROVIDER_FAILURE);
+		assertEquals(State.OPEN, circuitBreaker.getState(), "The circuit should open at a 50% failure rate");
+
+		var ex = assertThrows(CircuitOpenException.class, this::succeed, "Calls should fail fast while open");
+		assertEquals(Duration.ofSeconds(30), ex.getRetryAfter(), "The exception should say when to retry");
+	}
+
+	@Test
+	public void testIgnoresFailuresNotCausedByProvider() {
+		for (int i = 0; i < 10; i++) {
+			fail(INVALID_RECIPIENT);
+		}
+		assertEquals(State.CLOSED, circuitBreaker.getState(), "Rejected messages should not open the circuit");
+		assertEquals(0.0, circuitBreaker.getFailureRate(), "Rejected messages should count as successful calls");
+	}
+
+	@Test
+	public void testOpensWhenCallsAreSlow() {
+		for (int i = 0; i < 4; i++) {
+			circuitBreaker.execute(() -> clock.addAndGet(TimeUnit.SECONDS.toNanos(3)));
+		}
+		assertEquals(State.OPEN, circuitBreaker.getState(), "The circuit should open when every call is slow");
+	}
+
+	@Test
+	public void testRecordsOutcomeOfAsynchronousCalls() {
+		var pending = new ArrayList<CompletableFuture<String>>();
+		for (int i = 0; i < 4; i++) {
+			var future = new CompletableFuture<String>();
+			pending.add(future);
+			circuitBreaker.executeAsync(() -> future);
+		}
+		assertEquals(State.CLOSED, circuitBreaker.getState(), "Calls in progress should not be recorded");
+
+		pending.forEach(future -> future.completeExceptionally(PROVIDER_FAILURE));
+		assertEquals(State.OPEN, circuitBreaker.getState(), "Failed calls should be recorded when they complete");
+
+		var result = circuitBreaker.executeAsync(() -> CompletableFuture.completedFuture("SM123"));
+		var ex = assertThrows(ExecutionException.class, result::get, "Calls should fail fast while open");
+		assertInstanceOf(CircuitOpenException.class, ex.getCause(), "The call should be rejected by the open circuit");
+	}
+
+	@Test
+	public void testClosesAfterSuccessfulProbes() {
+		open();
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+		assertEquals(State.HALF_OPEN, circuitBreaker.getState(), "The circuit should be half open after waiting");
+
+		circuitBreaker.acquirePermission();
+		circuitBreaker.acquirePermission();
+		assertThrows(CircuitOpenException.class, circuitBreaker::acquirePermission,
+				"Only the configured number of probe calls should be let through");
+
+		circuitBreaker.onSuccess(0);
+		circuitBreaker.onSuccess(0);
+		assertEquals(State.CLOSED, circuitBreaker.getState(), "Successful probes should close the circuit");
+		assertEquals(-1.0, circuitBreaker.getFailureRate(), "Closing the circuit should reset the window");
+	}
+
+	@Test
+	public void testReopensAfterFailedProbe() {
+		open();
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+		fail(PROVIDER_FAILURE);
+		assertEquals(State.OPEN, circuitBreaker.getState(), "A failed probe should reopen the circuit");
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(29));
+		assertEquals(State.OPEN, circuitBreaker.getState(), "The open duration should restart after a failed probe");
+	}
+
+	private void open() {
+		for (int i = 0; i < 4; i++) {
+			fail(PROVIDER_FAILURE);
+		}
+		assertEquals(State.OPEN, circuitBreaker.getState());
+	}
+
+	private void succeed() {
+		circuitBreaker.execute(() -> "sent");
+	}
+
+	private void fail(UnsuccessfulDeliveryException failure) {
+		assertThrows(UnsuccessfulDeliveryException.class, () -> circuitBreaker.execute(() -> {
+			throw failure;
+		}));
+	}
+
+}
@@ -0,0 +1,135 @@
+package org.octri.messaging.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.springframework.core.task.SyncTaskExecutor;
+
+public class RetryExecutorTest {
+
+	private static final UnsuccessfulDeliveryException TRANSIENT = new UnsuccessfulDeliveryException("transient");
+	private static final UnsuccessfulDeliveryException PERMANENT = new UnsuccessfulDeliveryException("permanent");
+
+	private final RetryExecutor retryExecutor = new RetryExecutor(
+			new RetryPolicy(3, Duration.ofMillis(5), 2, Duration.ofMillis(20), Duration.ofSeconds(5),
+					failure -> failure == TRANSIENT));
+
+	@AfterEach
+	public void closeExecutor() {
+		retryExecutor.close();
+	}
+
+	@Test
+	public void testRetriesTransientFailureUntilSuccess() {
+		var attempts = new AtomicInteger();
+		var result = retryExecutor.supplyAsync(() -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw TRANSIENT;
+			}
+			return "sent";
+		}, new SyncTaskExecutor()).join();
+
+		assertEquals("sent", result, "The successful attempt should complete the future");
+		assertEquals(3, attempts.get(), "The delivery should be attempted until it succeeds");
+	}
+
+	@Test
+	public void testRetriesRunWithCallersContext() {
+		var context = new ThreadLocal<String>();
+		var seenContexts = new CopyOnWriteArrayList<String>();
+		// Captures the caller's value when the task is decorated and restores it when the task runs
+		retryExecutor.setTaskDecorator(task -> {
+			var captured = context.get();
+			return () -> {
+				context.set(captured);
+				try {
+					task.run();
+				} finally {
+					context.remove();
+				}
+			};
+		});
+
+		context.set("request-1");
+		try {
+			retryExecutor.supplyAsync(() -> {
+				seenContexts.add(String.valueOf(context.get()));
+				if (seenContexts.size() < 3) {
+					throw TRANSIENT;
+				}
+				return "sent";
+			}, new SyncTaskExecutor()).join();
+		} finally {
+			context.remove();
+		}
+
+		assertEquals(List.of("request-1", "request-1", "request-1"), seenContexts,
+				"Retries handed over from the scheduler thread should run with the caller's context");
+	}
+
+	@Test
+	public void testStopsAfterMaxAttempts() {
+		var attempts = new AtomicInteger();
+		var ex = assertThrows(UnsuccessfulDeliveryException.class, () -> retryExecutor.call(() -> {
+			attempts.incrementAndGet();
+			throw TRANSIENT;
+		}));
+
+		assertSame(TRANSIENT, ex, "The last failure should be rethrown");
+		assertEquals(3, attempts.get(), "The delivery should not be attempted more than the maximum");
+	}
+
+	@Test
+	public void testDoesNotRetryPermanentFailure() {
+		var attempts = new AtomicInteger();
+		var future = retryExecutor.supplyAsync(() -> {
+			attempts.incrementAndGet();
+			throw PERMANENT;
+		}, new SyncTaskExecutor());
+
+		var ex = assertThrows(CompletionException.class, future::join);
+		assertSame(PERMANENT, ex.getCause(), "The permanent failure should complete the future");
+		assertEquals(1, attempts.get(), "A permanent failure should not be retried");
+	}
+
+	@Test
+	public void testDoesNotRetryPastDeadline() {
+		var shortDeadline = new RetryExecutor(new RetryPolicy(5, Duration.ofSeconds(1), 1, Duration.ofSeconds(1),
+				Duration.ofMillis(100), failure -> true));
+		var attempts = new AtomicInteger();
+		try {
+			assertThrows(UnsuccessfulDeliveryException.class, () -> shortDeadline.call(() -> {
+				attempts.incrementAndGet();
+				throw new RateLimitExceededException("Limited", Duration.ofSeconds(1), false);
+			}));
+			assertEquals(1, attempts.get(), "A retry that would start after the deadline should not be attempted");
+		} finally {
+			shortDeadline.close();
+		}
+	}
+
+	@Test
+	public void testDelayIsJitteredWithinBound() {
+		var policy = new RetryPolicy(10, Duration.ofMillis(100), 2, Duration.ofMillis(1000), Duration.ofMinutes(1),
+				failure -> true);
+		for (int i = 0; i < 100; i++) {
+			var delay = policy.delayAfter(3, TRANSIENT).toMillis();
+			assertTrue(delay >= 0 && delay <= 400, "The third delay should be at most 400 ms: " + delay);
+			var capped = policy.delayAfter(8, TRANSIENT).toMillis();
+			assertTrue(capped <= 1000, "Delays should not exceed the maximum delay: " + capped);
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package org.octri.messaging.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+
+public class TransientFailureClassifierTest {
+
+	private final TransientFailureClassifier classifier = new TransientFailureClassifier();
+
+	@Test
+	public void testClassifiesTwilioFailuresByStatus() {
+		assertTrue(classifier.test(wrap(new ApiException("Too many requests", 20429, null, 429, 429, null, null, null))),
+				"Twilio 429 responses should be retried");
+		assertTrue(classifier.test(wrap(new ApiException("Unavailable", null, null, 503, 503, null, null, null))),
+				"Twilio 5xx responses should be retried");
+		assertTrue(classifier.test(wrap(new ApiConnectionException("Connection reset"))),
+				"Twilio connection failures should be retried");
+		assertFalse(classifier.test(wrap(new ApiException("Invalid 'To' number", 21211, null, 400, 400, null, null, null))),
+				"Twilio 4xx responses other than 429 should not be retried");
+	}
+
+	@Test
+	public void testClassifiesSmtpFailuresByReplyCode() {
+		var temporary = new SMTPSendFailedException("DATA", 451, "451 Try again later", null, null, null, null);
+		var permanent = new SMTPSendFailedException("RCPT", 550, "550 No such user", null, null, null, null);
+
+		assertTrue(classifier.test(wrap(new MailSendException("Failed", temporary))),
+				"SMTP 4xx replies should be retried");
+		assertFalse(classifier.test(wrap(new MailSendException("Failed", permanent))),
+				"SMTP 5xx replies should not be retried");
+		assertFalse(classifier.test(wrap(new MailAuthenticationException(new SocketTimeoutException()))),
+				"Authentication failures should not be retried");
+	}
+
+	@Test
+	public void testClassifiesNetworkAndRateLimitFailures() {
+		assertTrue(classifier.test(wrap(new SocketTimeoutException("Read timed out"))),
+				"Network timeouts should be retried");
+		assertTrue(classifier.test(new RateLimitExceededException("Limited", Duration.ofSeconds(1), false)),
+				"Rate limit rejections should be retried");
+		assertFalse(classifier.test(new RateLimitExceededException("Limited", Duration.ofSeconds(1), true)),
+				"Deferred rate limit rejections should be left to the outbox");
+		assertFalse(classifier.test(new UnsuccessfulDeliveryException("Unknown")),
+				"Failures without a transient cause should not be retried");
+	}
+
+	private static UnsuccessfulDeliveryException wrap(Throwable cause) {
+		return new UnsuccessfulDeliveryException("Delivery failed", cause);
+	}
+
+}
@@ -0,0 +1,71 @@
+package org.octri.messaging.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimitedExecutorTest {
+
+	@Test
+	public void testRequiresPositiveLimit() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ConcurrencyLimitedExecutor(Runnable::run, 0);
+		}, "A concurrency limit of zero should be rejected");
+	}
+
+	@Test
+	public void testLimitsConcurrentTasks() throws InterruptedException {
+		var limit = 3;
+		var taskCount = 20;
+		var delegate = Executors.newFixedThreadPool(taskCount);
+		var executor = new ConcurrencyLimitedExecutor(delegate, limit);
+		var running = new AtomicInteger();
+		var maxRunning = new AtomicInteger();
+		var finished = new CountDownLatch(taskCount);
+
+		try {
+			for (int i = 0; i < taskCount; i++) {
+				executor.execute(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(10);
+					} catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+					}
+					running.decrementAndGet();
+					finished.countDown();
+				});
+			}
+
+			assertTrue(finished.await(5, TimeUnit.SECONDS), "All tasks should run");
+			assertTrue(maxRunning.get() <= limit, "No more than " + limit + " tasks should run at once");
+			// Tasks count down before their permit is released, so wait for the delegate's threads to finish
+			delegate.shutdown();
+			assertTrue(delegate.awaitTermination(5, TimeUnit.SECONDS), "The delegate should finish all tasks");
+			assertEquals(0, executor.getActiveCount(), "Permits should be released when tasks finish");
+		} finally {
+			delegate.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testReleasesPermitWhenTaskFails() {
+		var executor = new ConcurrencyLimitedExecutor(Runnable::run, 1);
+
+		assertThrows(IllegalStateException.class, () -> {
+			executor.execute(() -> {
+				throw new IllegalStateException("BORK");
+			});
+		});
+
+		assertEquals(0, executor.getActiveCount(), "The permit should be released after a failure");
+	}
+
+}
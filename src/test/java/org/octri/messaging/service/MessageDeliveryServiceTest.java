@@ -1,13 +1,38 @@
 package org.octri.messaging.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.octri.messaging.email.EmailDeliveryStrategy;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.resilience.RetryExecutor;
+import org.octri.messaging.resilience.RetryPolicy;
+import org.octri.messaging.sms.AsyncSmsDeliveryStrategy;
+import org.octri.messaging.sms.SenderPool;
+import org.octri.messaging.sms.SmsDeliveryResult;
 import org.octri.messaging.sms.SmsDeliveryStrategy;
+import org.octri.messaging.sms.SmsMessage;
+import org.springframework.core.task.SyncTaskExecutor;
 
 @ExtendWith(MockitoExtension.class)
 public class MessageDeliveryServiceTest {
@@ -40,4 +65,203 @@ public class MessageDeliveryServiceTest {
 		service.sendSms(senderNumber, recipientNumber, messageText);
 		verify(mockSmsStrategy).sendSms(senderNumber, recipientNumber, messageText);
 	}
+
+	@Test
+	public void testDelegatesAsyncEmailDeliveryToStrategy() {
+		var senderAddress = "sender@example.com";
+		var recipientAddress = "recipient@example.com";
+		var messageSubject = "Subject";
+		var messageBody = "Body";
+		when(mockEmailStrategy.sendEmail(senderAddress, recipientAddress, messageSubject, messageBody))
+				.thenReturn(Optional.of("details"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+		var result = service.sendEmailAsync(senderAddress, recipientAddress, messageSubject, messageBody).join();
+
+		verify(mockEmailStrategy).sendEmail(senderAddress, recipientAddress, messageSubject, messageBody);
+		assertEquals(Optional.of("details"), result, "The strategy result should complete the future");
+	}
+
+	@Test
+	public void testDelegatesAsyncSmsDeliveryToStrategy() {
+		var senderNumber = "+15551234567";
+		var recipientNumber = "+15554567890";
+		var messageText = "Text";
+		when(mockSmsStrategy.sendSms(senderNumber, recipientNumber, messageText)).thenReturn(Optional.of("details"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy);
+		var result = service.sendSmsAsync(senderNumber, recipientNumber, messageText).join();
+
+		verify(mockSmsStrategy).sendSms(senderNumber, recipientNumber, messageText);
+		assertEquals(Optional.of("details"), result, "The strategy result should complete the future");
+	}
+
+	@Test
+	public void testStartsAsyncSmsDeliveryThroughAsyncStrategy() {
+		var asyncStrategy = Mockito.mock(AsyncSmsDeliveryStrategy.class);
+		var executor = new SyncTaskExecutor();
+		var pending = new CompletableFuture<Optional<String>>();
+		when(asyncStrategy.sendSmsAsync("+15551234567", "+15554567890", "Text", executor)).thenReturn(pending);
+
+		var service = new MessageDeliveryService(mockEmailStrategy, asyncStrategy, executor);
+		var future = service.sendSmsAsync("+15551234567", "+15554567890", "Text");
+
+		assertFalse(future.isDone(), "The future should complete when the strategy's delivery does");
+		pending.complete(Optional.of("details"));
+		assertEquals(Optional.of("details"), future.join(), "The strategy result should complete the future");
+		verify(asyncStrategy, never()).sendSms("+15551234567", "+15554567890", "Text");
+	}
+
+	@Test
+	public void testAsyncDeliveryFailureCompletesExceptionally() {
+		var senderNumber = "+15551234567";
+		var recipientNumber = "+15554567890";
+		var messageText = "Text";
+		when(mockSmsStrategy.sendSms(senderNumber, recipientNumber, messageText))
+				.thenThrow(new UnsuccessfulDeliveryException("BORK"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+		var future = service.sendSmsAsync(senderNumber, recipientNumber, messageText);
+
+		var thrown = assertThrows(CompletionException.class, future::join);
+		assertInstanceOf(UnsuccessfulDeliveryException.class, thrown.getCause(),
+				"The delivery exception should be the cause of the failure");
+	}
+
+	@Test
+	public void testRejectedAsyncDeliveryCompletesExceptionally() {
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, task -> {
+			throw new RejectedExecutionException("Queue full");
+		});
+		var future = service.sendSmsAsync("+15551234567", "+15554567890", "Text");
+
+		assertTrue(future.isCompletedExceptionally(), "A rejected delivery should fail immediately");
+		var thrown = assertThrows(CompletionException.class, future::join);
+		assertInstanceOf(UnsuccessfulDeliveryException.class, thrown.getCause(),
+				"Rejection should be reported as a delivery failure");
+	}
+
+	@Test
+	public void testBatchSmsDeliveryReportsEachResult() {
+		var good = new SmsMessage("+15551234567", "+15554567890", "Text");
+		var bad = new SmsMessage("+15551234567", "not a number", "Text");
+		var alsoGood = new SmsMessage("+15551234567", "+15557654321", "Text");
+		when(mockSmsStrategy.sendSms(good.fromNumber(), good.toNumber(), good.messageText()))
+				.thenReturn(Optional.of("first"));
+		when(mockSmsStrategy.sendSms(bad.fromNumber(), bad.toNumber(), bad.messageText()))
+				.thenThrow(new UnsuccessfulDeliveryException("Invalid number"));
+		when(mockSmsStrategy.sendSms(alsoGood.fromNumber(), alsoGood.toNumber(), alsoGood.messageText()))
+				.thenReturn(Optional.of("third"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+		var results = service.sendSms(List.of(good, bad, alsoGood));
+
+		assertEquals(3, results.size(), "There should be a result for each message");
+		assertTrue(results.get(0).isSuccessful(), "The first message should succeed");
+		assertEquals(Optional.of("first"), results.get(0).deliveryDetails(), "Delivery details should be returned");
+		assertFalse(results.get(1).isSuccessful(), "The invalid message should fail");
+		assertEquals("Invalid number", results.get(1).error().getMessage(), "The failure should be reported");
+		assertTrue(results.get(2).isSuccessful(), "A failure should not abort the rest of the batch");
+		assertEquals(alsoGood, results.get(2).message(), "Results should be in the order given");
+	}
+
+	@Test
+	public void testBatchSmsDeliveryRunsInParallel() {
+		var messageCount = 8;
+		var delayMillis = 200L;
+		var strategy = new SmsDeliveryStrategy() {
+			@Override
+			public Optional<String> sendSms(String fromNumber, String toNumber, String messageText) {
+				try {
+					Thread.sleep(delayMillis);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+				}
+				return Optional.empty();
+			}
+		};
+		var messages = new ArrayList<SmsMessage>();
+		for (int i = 0; i < messageCount; i++) {
+			messages.add(new SmsMessage("+15551234567", "+1555456789" + i, "Text"));
+		}
+
+		var executor = Executors.newFixedThreadPool(messageCount);
+		try {
+			var service = new MessageDeliveryService(mockEmailStrategy, strategy, executor);
+			service.setBatchParallelism(messageCount);
+
+			var start = System.nanoTime();
+			var results = service.sendSms(messages);
+			var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+			assertTrue(results.stream().allMatch(SmsDeliveryResult::isSuccessful), "All messages should be delivered");
+			assertTrue(elapsedMillis < delayMillis * messageCount / 2,
+					"Batch time should be closer to the slowest send than the sum of all sends: " + elapsedMillis);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testBatchParallelismMustBePositive() {
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy);
+		assertThrows(IllegalArgumentException.class, () -> service.setBatchParallelism(0));
+	}
+
+	@Test
+	public void testLetsProviderSelectSenderWithoutSenderPool() {
+		var recipientNumber = "+15554567890";
+		when(mockSmsStrategy.sendSms(null, recipientNumber, "Text")).thenReturn(Optional.of("sent"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+		assertThrows(IllegalStateException.class, () -> service.sendSms(recipientNumber, "Text"),
+				"A sender should be required when the provider does not choose one");
+
+		service.setProviderSelectsSender(true);
+		assertEquals(Optional.of("sent"), service.sendSms(recipientNumber, "Text"),
+				"The message should be passed to the strategy without a sender number");
+	}
+
+	@Test
+	public void testSendsSmsFromSenderPool() {
+		var senderNumber = "+15551234567";
+		var recipientNumber = "+15554567890";
+		when(mockSmsStrategy.sendSms(senderNumber, recipientNumber, "Text")).thenReturn(Optional.of("sent"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+		service.setSenderPool(new SenderPool(List.of(new SenderPool.Sender(senderNumber, 1, 1)), 10));
+
+		assertEquals(Optional.of("sent"), service.sendSms(recipientNumber, "Text"),
+				"The message should be sent from the pool's sender");
+		assertEquals(Optional.of("sent"), service.sendSmsAsync(recipientNumber, "Text").join(),
+				"The asynchronous message should be sent from the pool's sender");
+	}
+
+	@Test
+	public void testSendingWithoutSenderRequiresPool() {
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+
+		assertThrows(IllegalStateException.class, () -> {
+			service.sendSms("+15554567890", "Text");
+		}, "Sending without a sender number should fail when no pool is configured");
+	}
+
+	@Test
+	public void testRetriesTransientFailures() {
+		var transientFailure = new UnsuccessfulDeliveryException("Service unavailable");
+		when(mockSmsStrategy.sendSms("+15551234567", "+15554567890", "Text")).thenThrow(transientFailure)
+				.thenReturn(Optional.of("sent"));
+
+		var service = new MessageDeliveryService(mockEmailStrategy, mockSmsStrategy, new SyncTaskExecutor());
+		try (var retryExecutor = new RetryExecutor(new RetryPolicy(3, Duration.ofMillis(1), 2, Duration.ofMillis(5),
+				Duration.ofSeconds(5), failure -> failure == transientFailure))) {
+			service.setRetryExecutor(retryExecutor);
+
+			assertEquals(Optional.of("sent"), service.sendSms("+15551234567", "+15554567890", "Text"),
+					"A transient failure should be retried");
+			assertEquals(Optional.of("sent"), service.sendSmsAsync("+15551234567", "+15554567890", "Text").join(),
+					"The asynchronous delivery should use the same retry policy");
+		}
+	}
+
 }
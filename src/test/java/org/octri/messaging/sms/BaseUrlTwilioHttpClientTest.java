@@ -0,0 +1,54 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.twilio.http.HttpClient;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+import com.twilio.http.Response;
+
+public class BaseUrlTwilioHttpClientTest {
+
+	private static final String MESSAGES_PATH = "/2010-04-01/Accounts/ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX/Messages.json";
+
+	private Request sent;
+
+	private final HttpClient delegate = new HttpClient() {
+
+		@Override
+		public Response makeRequest(Request request) {
+			sent = request;
+			return new Response("{}", 200);
+		}
+
+	};
+
+	@Test
+	public void testReplacesHostAndKeepsPath() {
+		var httpClient = new BaseUrlTwilioHttpClient(delegate, "http://localhost:8089/");
+		var request = new Request(HttpMethod.POST, "https://api.twilio.com" + MESSAGES_PATH);
+		request.setAuth("ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX", "token");
+		request.addPostParam("Body", "Hello");
+
+		httpClient.makeRequest(request);
+		assertEquals("http://localhost:8089" + MESSAGES_PATH, sent.getUrl(), "Only the host should be replaced");
+		assertEquals(List.of("Hello"), sent.getPostParams().get("Body"), "Parameters should be kept");
+		assertEquals("ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX", sent.getUsername(), "Credentials should be kept");
+	}
+
+	@Test
+	public void testKeepsNextPageQuery() {
+		var httpClient = new BaseUrlTwilioHttpClient(delegate, "http://localhost:8089");
+		var query = "?PageSize=1000&Page=1&PageToken=PASMXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX";
+		var request = new Request(HttpMethod.GET, "https://api.twilio.com" + MESSAGES_PATH + query);
+
+		httpClient.makeRequest(request);
+		assertEquals("http://localhost:8089" + MESSAGES_PATH + query, sent.getUrl(),
+				"The paging parameters of a next page URL should be kept");
+	}
+
+}
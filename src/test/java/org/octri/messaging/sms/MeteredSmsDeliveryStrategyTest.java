@@ -0,0 +1,71 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.exception.UnsuccessfulDeliveryException;
+import org.octri.messaging.metrics.DeliveryMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MeteredSmsDeliveryStrategyTest {
+
+	private static final String FROM_NUMBER = "+15035551234";
+	private static final String TO_NUMBER = "+15035556789";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	public void testMetersDeliveriesAndCountsSegments() {
+		var delegate = mock(SmsDeliveryStrategy.class);
+		when(delegate.sendSms(FROM_NUMBER, TO_NUMBER, "Hello")).thenReturn(Optional.of("SM123"));
+		when(delegate.sendSms(FROM_NUMBER, TO_NUMBER, "Hello 👋")).thenReturn(Optional.of("SM456"));
+		when(delegate.sendSms(FROM_NUMBER, TO_NUMBER, "Bad"))
+				.thenThrow(new UnsuccessfulDeliveryException("Unreachable", null, null, "30003"));
+		var strategy = new MeteredSmsDeliveryStrategy(delegate,
+				new DeliveryMetrics(registry, "sms", "twilio", List.of()), registry);
+
+		assertEquals(Optional.of("SM123"), strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Hello"),
+				"The delegate's result should be returned");
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Hello 👋");
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "a".repeat(161));
+		assertThrows(UnsuccessfulDeliveryException.class, () -> strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Bad"),
+				"The delegate's failure should be thrown");
+
+		assertEquals(3, registry.get(DeliveryMetrics.DELIVERY_TIMER).tag("outcome", "success").timer().count(),
+				"Successful deliveries should be timed");
+		assertEquals(1, registry.get(DeliveryMetrics.ERROR_COUNTER).tag("error.code", "30003").counter().count(),
+				"The failure should be counted by error code");
+		assertEquals(3,
+				registry.get(MeteredSmsDeliveryStrategy.SEGMENT_COUNTER).tag("encoding", "gsm-7").counter().count(),
+				"Segments of GSM-7 messages delivered should be counted");
+		assertEquals(1,
+				registry.get(MeteredSmsDeliveryStrategy.SEGMENT_COUNTER).tag("encoding", "ucs-2").counter().count(),
+				"Segments of UCS-2 messages delivered should be counted");
+	}
+
+	@Test
+	public void testMetersAsynchronousDeliveries() {
+		Executor executor = Runnable::run;
+		var delegate = mock(AsyncSmsDeliveryStrategy.class);
+		when(delegate.sendSmsAsync(FROM_NUMBER, TO_NUMBER, "Hello", executor))
+				.thenReturn(CompletableFuture.completedFuture(Optional.of("SM123")));
+		var metrics = new DeliveryMetrics(registry, "sms", "twilio", List.of());
+		var strategy = new MeteredSmsDeliveryStrategy(delegate, metrics, registry);
+
+		strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, "Hello", executor).join();
+
+		assertEquals(1, registry.get(DeliveryMetrics.DELIVERY_TIMER).tag("outcome", "success").timer().count(),
+				"The asynchronous delivery should be timed when it completes");
+		assertEquals(0, metrics.getInFlight(), "No delivery should be in flight after it completes");
+	}
+
+}
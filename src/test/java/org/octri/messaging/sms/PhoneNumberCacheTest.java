@@ -0,0 +1,47 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.exception.InvalidPhoneNumberException;
+
+public class PhoneNumberCacheTest {
+
+	@Test
+	public void testRequiresPositiveSize() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new PhoneNumberCache(0);
+		}, "A cache without room for any numbers should be rejected");
+	}
+
+	@Test
+	public void testReusesConvertedPhoneNumbers() {
+		var cache = new PhoneNumberCache(100);
+
+		var first = cache.toPhoneNumber("(503) 555-1234");
+		var second = cache.toPhoneNumber("(503) 555-1234");
+
+		assertEquals("+15035551234", first.getEndpoint(), "The number should be converted to E.164 format");
+		assertSame(first, second, "The cached phone number should be reused");
+		assertEquals(1, cache.getStats().hitCount(), "The second lookup should be a cache hit");
+		assertEquals(1, cache.getStats().missCount(), "The first lookup should be a cache miss");
+		assertEquals(0.5, cache.getStats().hitRate(), 0.001, "The hit rate should be reported");
+	}
+
+	@Test
+	public void testCachesInvalidPhoneNumbers() {
+		var cache = new PhoneNumberCache(100);
+
+		var first = assertThrows(InvalidPhoneNumberException.class, () -> cache.toPhoneNumber("555-1234"),
+				"An invalid number should be rejected");
+		var second = assertThrows(InvalidPhoneNumberException.class, () -> cache.toPhoneNumber("555-1234"),
+				"A cached invalid number should be rejected");
+
+		assertEquals(first.getMessage(), second.getMessage(), "The cached error should describe the number");
+		assertEquals(0, second.getStackTrace().length, "A cached invalid number should not fill in a stack trace");
+		assertEquals(1, cache.getStats().hitCount(), "The invalid number should be cached");
+	}
+
+}
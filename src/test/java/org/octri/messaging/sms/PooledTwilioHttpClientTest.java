@@ -0,0 +1,74 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.autoconfig.TwilioHttpClientProperties;
+
+import com.sun.net.httpserver.HttpServer;
+import com.twilio.http.HttpMethod;
+import com.twilio.http.Request;
+
+public class PooledTwilioHttpClientTest {
+
+	@Test
+	public void testRequiresPositivePoolSize() {
+		var properties = new TwilioHttpClientProperties();
+		properties.setMaxConnections(0);
+
+		assertThrows(IllegalArgumentException.class, () -> {
+			new PooledTwilioHttpClient(properties);
+		}, "A pool without room for any connections should be rejected");
+	}
+
+	@Test
+	public void testSizesConnectionPool() throws Exception {
+		var properties = new TwilioHttpClientProperties();
+		properties.setMaxConnections(75);
+		var httpClient = new PooledTwilioHttpClient(properties);
+
+		try {
+			assertEquals(75, httpClient.getConnectionManager().getMaxTotal(), "The pool size should be configured");
+			assertEquals(75, httpClient.getConnectionManager().getDefaultMaxPerRoute(),
+					"All connections should be available to the Twilio API host");
+		} finally {
+			httpClient.destroy();
+		}
+	}
+
+	@Test
+	public void testReusesConnectionsAcrossRequests() throws Exception {
+		var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", exchange -> {
+			var body = "{}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			exchange.getResponseBody().write(body);
+			exchange.close();
+		});
+		server.start();
+		var properties = new TwilioHttpClientProperties();
+		properties.setReadTimeout(Duration.ofSeconds(2));
+		var httpClient = new PooledTwilioHttpClient(properties);
+
+		try {
+			var url = "http://localhost:" + server.getAddress().getPort() + "/Messages.json";
+			for (int i = 0; i < 3; i++) {
+				var response = httpClient.makeRequest(new Request(HttpMethod.GET, url));
+				assertEquals(200, response.getStatusCode(), "The request should succeed");
+				assertEquals("{}", response.getContent(), "The response body should be read");
+			}
+			var stats = httpClient.getConnectionManager().getTotalStats();
+			assertEquals(0, stats.getLeased(), "Connections should be returned to the pool");
+			assertEquals(1, stats.getAvailable(), "Sequential requests should share one kept-alive connection");
+		} finally {
+			httpClient.destroy();
+			server.stop(0);
+		}
+	}
+
+}
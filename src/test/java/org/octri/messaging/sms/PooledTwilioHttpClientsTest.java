@@ -0,0 +1,47 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.autoconfig.TwilioHttpClientProperties;
+
+public class PooledTwilioHttpClientsTest {
+
+	private static final String FIRST_SID = "ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX";
+	private static final String SECOND_SID = "ACYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYYY";
+
+	@Test
+	public void testCreatesPoolPerAccount() {
+		var properties = new TwilioHttpClientProperties();
+		properties.setMaxConnections(30);
+		var httpClients = new PooledTwilioHttpClients(properties);
+
+		try {
+			var first = httpClients.forAccount(FIRST_SID);
+			var second = httpClients.forAccount(SECOND_SID);
+			assertSame(first, httpClients.forAccount(FIRST_SID), "An account should reuse its client");
+			assertNotSame(first, second, "Each account should have its own client");
+			assertNotSame(first.getConnectionManager(), second.getConnectionManager(),
+					"Each account should have its own connection pool");
+			assertEquals(30, second.getConnectionManager().getMaxTotal(), "Every pool should use the properties");
+		} finally {
+			httpClients.destroy();
+		}
+	}
+
+	@Test
+	public void testClosesEveryPool() {
+		var httpClients = new PooledTwilioHttpClients(new TwilioHttpClientProperties());
+		var first = httpClients.forAccount(FIRST_SID);
+		var second = httpClients.forAccount(SECOND_SID);
+
+		httpClients.destroy();
+		assertTrue(first.getConnectionManager().isClosed(), "The first account's pool should be closed");
+		assertTrue(second.getConnectionManager().isClosed(), "The second account's pool should be closed");
+		assertTrue(httpClients.getClients().isEmpty(), "Closed clients should be forgotten");
+	}
+
+}
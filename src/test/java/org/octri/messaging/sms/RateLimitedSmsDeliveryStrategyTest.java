@@ -0,0 +1,171 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.octri.messaging.exception.RateLimitExceededException;
+import org.octri.messaging.sms.RateLimitedSmsDeliveryStrategy.Behavior;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitedSmsDeliveryStrategyTest {
+
+	private static final String FROM_NUMBER = "+15035551234";
+	private static final String TO_NUMBER = "+15035556789";
+
+	@Mock
+	SmsDeliveryStrategy mockDelegate;
+
+	@Test
+	public void testFailFastRejectsMessagesOverLimit() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.of("sent"));
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of(), Behavior.FAIL_FAST,
+				Duration.ZERO);
+
+		assertEquals(Optional.of("sent"), strategy.sendSms(FROM_NUMBER, TO_NUMBER, "First"));
+		var exception = assertThrows(RateLimitExceededException.class, () -> {
+			strategy.sendSms("503-555-1234", TO_NUMBER, "Second");
+		}, "A second message from the same number should exceed the limit");
+		assertFalse(exception.isDeferred(), "Fail-fast rejections should not be deferred");
+		assertTrue(exception.getRetryAfter().toMillis() > 0, "The retry delay should be reported");
+		verify(mockDelegate, times(1)).sendSms(anyString(), anyString(), anyString());
+	}
+
+	@Test
+	public void testDeferMarksExceptionDeferred() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of(), Behavior.DEFER,
+				Duration.ZERO);
+
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "First");
+		var exception = assertThrows(RateLimitExceededException.class, () -> {
+			strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Second");
+		});
+		assertTrue(exception.isDeferred(), "Deferred rejections should be marked deferred");
+	}
+
+	@Test
+	public void testSendersHaveIndependentLimits() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+		var tollFree = "+18005551234";
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of("(800) 555-1234", 25.0),
+				Behavior.FAIL_FAST, Duration.ZERO);
+
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Long code");
+		strategy.sendSms(tollFree, TO_NUMBER, "Toll free");
+
+		assertEquals(25.0, strategy.bucketFor(tollFree).getPermitsPerSecond(), 0.01,
+				"Configured numbers should use their own rate regardless of format");
+		assertEquals(1.0, strategy.bucketFor(FROM_NUMBER).getPermitsPerSecond(), 0.01,
+				"Other numbers should use the default rate");
+	}
+
+	@Test
+	public void testWaitBlocksUntilTokenAvailable() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 20, 1, Map.of(), Behavior.WAIT,
+				Duration.ofSeconds(5));
+
+		var start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Message " + i);
+		}
+		var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		assertTrue(elapsed.toMillis() >= 190, "Five messages at 20 per second should take at least 200 ms");
+		verify(mockDelegate, times(5)).sendSms(anyString(), anyString(), anyString());
+	}
+
+	@Test
+	public void testWaitFailsWhenWaitExceedsMaximum() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of(), Behavior.WAIT,
+				Duration.ofMillis(10));
+
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "First");
+		assertThrows(RateLimitExceededException.class, () -> {
+			strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Second");
+		}, "Messages that would wait longer than the maximum should fail");
+	}
+
+	@Test
+	public void testAsyncWaitDelaysDeliveryWithoutBlocking() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.of("sent"));
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 10, 1, Map.of(), Behavior.WAIT,
+				Duration.ofSeconds(5));
+		Executor executor = Runnable::run;
+
+		var start = System.nanoTime();
+		var first = strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, "First", executor);
+		var second = strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, "Second", executor);
+		var returned = Duration.ofNanos(System.nanoTime() - start);
+
+		assertTrue(first.isDone(), "A message within the limit should be sent at once");
+		assertTrue(returned.toMillis() < 50, "Waiting for the limit should not block the caller");
+		assertEquals(Optional.of("sent"), second.join(), "The delayed message should be sent");
+		var elapsed = Duration.ofNanos(System.nanoTime() - start);
+		assertTrue(elapsed.toMillis() >= 90, "Two messages at 10 per second should take at least 100 ms");
+		verify(mockDelegate, times(2)).sendSms(anyString(), anyString(), anyString());
+	}
+
+	@Test
+	public void testAsyncDeferFailsFutureImmediately() {
+		when(mockDelegate.sendSms(anyString(), anyString(), anyString())).thenReturn(Optional.empty());
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of(), Behavior.DEFER,
+				Duration.ZERO);
+		Executor executor = Runnable::run;
+
+		strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, "First", executor).join();
+		var second = strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, "Second", executor);
+		assertTrue(second.isCompletedExceptionally(), "A message over the limit should fail immediately");
+		var exception = assertThrows(CompletionException.class, second::join);
+		assertTrue(exception.getCause() instanceof RateLimitExceededException rle && rle.isDeferred(),
+				"The failure should be a deferred rate limit exception");
+		verify(mockDelegate, times(1)).sendSms(anyString(), anyString(), anyString());
+
+		strategy.sendSmsAsync(null, TO_NUMBER, "Messaging service", executor).join();
+		strategy.sendSmsAsync(" ", TO_NUMBER, "Messaging service", executor).join();
+		verify(mockDelegate, times(1)).sendSms(isNull(), anyString(), anyString());
+		verify(mockDelegate, times(1)).sendSms(" ", TO_NUMBER, "Messaging service");
+	}
+
+	@Test
+	public void testMessagingServiceSendsAreNotLimited() {
+		when(mockDelegate.sendSms(isNull(), anyString(), anyString())).thenReturn(Optional.empty());
+		var strategy = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of(), Behavior.WAIT,
+				Duration.ofSeconds(5));
+
+		var start = System.nanoTime();
+		for (int i = 0; i < 5; i++) {
+			strategy.sendSms(null, TO_NUMBER, "Message " + i);
+		}
+		var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+		assertTrue(elapsed.toMillis() < 500, "Messages without a sender should not wait for a per-sender limit");
+		verify(mockDelegate, times(5)).sendSms(isNull(), anyString(), anyString());
+
+		var failFast = new RateLimitedSmsDeliveryStrategy(mockDelegate, 1, 1, Map.of(), Behavior.FAIL_FAST,
+				Duration.ZERO);
+		for (int i = 0; i < 5; i++) {
+			failFast.sendSms(null, TO_NUMBER, "Message " + i);
+		}
+		verify(mockDelegate, times(10)).sendSms(isNull(), anyString(), anyString());
+	}
+
+}
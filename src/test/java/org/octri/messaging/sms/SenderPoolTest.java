@@ -0,0 +1,82 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.sms.SenderPool.Sender;
+
+public class SenderPoolTest {
+
+	private static final String LONG_CODE_1 = "+15035550001";
+	private static final String LONG_CODE_2 = "+15035550002";
+	private static final String TOLL_FREE = "+18005550003";
+
+	private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+	@Test
+	public void testRequiresSenders() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new SenderPool(List.of(), 10);
+		}, "An empty pool should be rejected");
+	}
+
+	@Test
+	public void testSpreadsBacklogInProportionToCapacity() {
+		var pool = new SenderPool(List.of(new Sender(LONG_CODE_1, 1, 1), new Sender(LONG_CODE_2, 1, 1),
+				new Sender(TOLL_FREE, 1, 3)), 10_000, clock::get);
+
+		var counts = new HashMap<String, Integer>();
+		for (int i = 0; i < 500; i++) {
+			counts.merge(pool.select(String.format("+1503555%04d", i)), 1, Integer::sum);
+		}
+
+		assertEquals(100, counts.get(LONG_CODE_1), 1, "Each long code should get a fifth of the messages");
+		assertEquals(100, counts.get(LONG_CODE_2), 1, "Each long code should get a fifth of the messages");
+		assertEquals(300, counts.get(TOLL_FREE), 1, "The toll-free number should get three fifths of the messages");
+	}
+
+	@Test
+	public void testWeightScalesShare() {
+		var pool = new SenderPool(List.of(new Sender(LONG_CODE_1, 3, 1), new Sender(LONG_CODE_2, 1, 1)), 10_000,
+				clock::get);
+
+		var counts = new HashMap<String, Integer>();
+		for (int i = 0; i < 400; i++) {
+			counts.merge(pool.select(String.format("+1503555%04d", i)), 1, Integer::sum);
+		}
+
+		assertEquals(300, counts.get(LONG_CODE_1), 1, "The weighted sender should get three quarters of the messages");
+	}
+
+	@Test
+	public void testKeepsRecipientOnSameSender() {
+		var pool = new SenderPool(List.of(new Sender(LONG_CODE_1, 1, 1), new Sender(LONG_CODE_2, 1, 1)), 10,
+				clock::get);
+
+		var first = pool.select("503-555-1234");
+		for (int i = 0; i < 5; i++) {
+			assertEquals(first, pool.select("+15035551234"), "Messages to one recipient should use one sender");
+		}
+		assertNotEquals(first, pool.select("+15035559999"), "A new recipient should go to the less loaded sender");
+	}
+
+	@Test
+	public void testForgetsLeastRecentlyUsedRecipients() {
+		var pool = new SenderPool(List.of(new Sender(LONG_CODE_1, 1, 1), new Sender(LONG_CODE_2, 1, 1)), 1,
+				clock::get);
+
+		assertEquals(LONG_CODE_1, pool.select("+15035551234"));
+		clock.addAndGet(1_000_000L);
+		assertEquals(LONG_CODE_2, pool.select("+15035559999"));
+		clock.addAndGet(60_000_000_000L);
+		assertEquals(LONG_CODE_1, pool.select("+15035551234"),
+				"An evicted recipient should be reassigned to the sender idle longest");
+	}
+
+}
@@ -0,0 +1,84 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.sms.SmsSegmentCalculator.Encoding;
+import org.octri.test.messaging.TwilioTestUtils;
+
+public class SmsSegmentCalculatorTest {
+
+	@Test
+	public void testCountsGsm7Segments() {
+		assertEquals(new SmsSegments(Encoding.GSM_7, 0, 0, 0), SmsSegmentCalculator.calculate(""),
+				"An empty message has no segments");
+		assertEquals(new SmsSegments(Encoding.GSM_7, 160, 0, 1), SmsSegmentCalculator.calculate("a".repeat(160)),
+				"160 characters fit in one segment");
+		assertEquals(2, SmsSegmentCalculator.calculate("a".repeat(161)).segments(),
+				"161 characters are split into two segments");
+		assertEquals(2, SmsSegmentCalculator.calculate("a".repeat(306)).segments(),
+				"Split segments hold 153 characters");
+		assertEquals(3, SmsSegmentCalculator.calculate("a".repeat(307)).segments(),
+				"Split segments hold 153 characters");
+	}
+
+	@Test
+	public void testCountsExtensionCharactersTwice() {
+		var segments = SmsSegmentCalculator.calculate("a".repeat(159) + "€");
+		assertEquals(Encoding.GSM_7, segments.encoding(), "The euro sign is in the GSM-7 extension table");
+		assertEquals(161, segments.length(), "Extension characters take two septets");
+		assertEquals(1, segments.extensionCharacters(), "The extension character should be counted");
+		assertEquals(2, segments.segments(), "161 septets are split into two segments");
+
+		segments = SmsSegmentCalculator.calculate("a".repeat(152) + "{" + "a".repeat(152));
+		assertEquals(306, segments.length(), "Extension characters take two septets");
+		assertEquals(3, segments.segments(), "An extension character should not be split across segments");
+	}
+
+	@Test
+	public void testCountsUcs2Segments() {
+		assertEquals(new SmsSegments(Encoding.UCS_2, 70, 0, 1), SmsSegmentCalculator.calculate("ж".repeat(70)),
+				"70 UCS-2 characters fit in one segment");
+		assertEquals(2, SmsSegmentCalculator.calculate("ж".repeat(71)).segments(),
+				"71 UCS-2 characters are split into two segments");
+
+		var segments = SmsSegmentCalculator.calculate("a".repeat(100) + "ó");
+		assertEquals(Encoding.UCS_2, segments.encoding(), "One character outside GSM-7 makes the message UCS-2");
+		assertEquals(2, segments.segments(), "101 UCS-2 characters are split into two segments");
+
+		segments = SmsSegmentCalculator.calculate("ж".repeat(66) + "😀" + "ж".repeat(66));
+		assertEquals(134, segments.length(), "An emoji takes two UTF-16 code units");
+		assertEquals(3, segments.segments(), "A surrogate pair should not be split across segments");
+	}
+
+	@Test
+	public void testMatchesTwilioSegmentCount() throws IOException {
+		var message = TwilioTestUtils.getDeliveredMessage();
+		var segments = SmsSegmentCalculator.calculate(message.getBody());
+		assertEquals(Encoding.GSM_7, segments.encoding(), "The example message should be GSM-7");
+		assertEquals(Integer.parseInt(message.getNumSegments()), segments.segments(),
+				"The segment count should match the count reported by Twilio");
+	}
+
+	@Test
+	public void testTransliteratesTypography() {
+		var text = "It’s “fine” — really…";
+		assertFalse(SmsSegmentCalculator.isGsm7(text), "Smart quotes are not in the GSM-7 alphabet");
+
+		var transliterated = SmsSegmentCalculator.transliterate(text);
+		assertEquals("It's \"fine\" - really...", transliterated, "Typographic characters should be replaced");
+		assertTrue(SmsSegmentCalculator.isGsm7(transliterated), "The replaced message should be GSM-7");
+
+		var gsm7 = "Plain text {with} €";
+		assertSame(gsm7, SmsSegmentCalculator.transliterate(gsm7), "GSM-7 messages should be returned unchanged");
+		var emoji = "It’s done 😀";
+		assertSame(emoji, SmsSegmentCalculator.transliterate(emoji),
+				"Messages that still need UCS-2 should be returned unchanged");
+	}
+
+}
@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
 import org.octri.messaging.exception.InvalidPhoneNumberException;
@@ -17,6 +19,9 @@ public class SmsUtilsTest {
 	private static final String MEXICO_E164_NUMBER = "+525035551234";
 	private static final List<String> exampleFormats = Arrays.asList("5035551234", "503-555-1234", "(503) 555-1234",
 			"503 555 1234", "503.555.1234");
+	private static final Pattern E164_REGEX = Pattern.compile("^\\+[1-9]\\d{1,14}$");
+	private static final Pattern NANP_REGEX = Pattern.compile("^[2-9]\\d{2}[2-9]\\d{6}$");
+	private static final String INVALID = "invalid";
 
 	@Test
 	public void testIsE164PhoneNumber() {
@@ -98,4 +103,98 @@ public class SmsUtilsTest {
 			SmsUtils.toE164PhoneNumber("1035551234");
 		}, "Should throw an exception for phone numbers with invalid NANP area codes.");
 	}
+
+	@Test
+	public void testAcceptsCharSequences() {
+		var buffer = new StringBuilder("(503) 555-1234");
+		assertTrue(SmsUtils.isNorthAmericanPhoneNumber(buffer), "should check numbers held in buffers");
+		assertEquals(E164_NUMBER, SmsUtils.toE164PhoneNumber(buffer), "should convert numbers held in buffers");
+		assertEquals(E164_NUMBER, SmsUtils.toE164PhoneNumber(new StringBuilder(E164_NUMBER)),
+				"should copy E.164 numbers held in buffers");
+	}
+
+	@Test
+	public void testKeepsStringSignatures() throws NoSuchMethodException {
+		// Code compiled against earlier versions links to the String signatures
+		for (var name : List.of("isE164PhoneNumber", "isNorthAmericanPhoneNumber",
+				"isNormalizedNorthAmericanPhoneNumber", "normalizePhoneNumber", "toE164PhoneNumber")) {
+			assertEquals(SmsUtils.class, SmsUtils.class.getMethod(name, String.class).getDeclaringClass(),
+					name + " should keep its String signature");
+		}
+	}
+
+	@Test
+	public void testMatchesRegularExpressionImplementation() {
+		var random = new Random(20261017L);
+		for (int i = 0; i < 20_000; i++) {
+			var input = i % 2 == 0 ? randomText(random) : randomPhoneNumber(random);
+
+			assertEquals(E164_REGEX.matcher(input).matches(), SmsUtils.isE164PhoneNumber(input),
+					"E.164 check should match the regular expression for: " + input);
+			assertEquals(input.replaceAll("[^\\d]", ""), SmsUtils.normalizePhoneNumber(input),
+					"normalization should match the regular expression for: " + input);
+			assertEquals(NANP_REGEX.matcher(input).matches(), SmsUtils.isNormalizedNorthAmericanPhoneNumber(input),
+					"normalized NANP check should match the regular expression for: " + input);
+			assertEquals(NANP_REGEX.matcher(input.replaceAll("[^\\d]", "")).matches(),
+					SmsUtils.isNorthAmericanPhoneNumber(input),
+					"NANP check should match the regular expression for: " + input);
+			assertEquals(regexToE164(input), toE164OrInvalid(new StringBuilder(input)),
+					"E.164 conversion should match the regular expression implementation for: " + input);
+		}
+	}
+
+	/**
+	 * The regular expression implementation of {@link SmsUtils#toE164PhoneNumber} used before it was replaced by a
+	 * single scan of the input.
+	 */
+	private static String regexToE164(String phoneNumber) {
+		if (E164_REGEX.matcher(phoneNumber).matches()) {
+			return phoneNumber;
+		}
+		var digitsOnly = phoneNumber.replaceAll("[^\\d]", "");
+		return NANP_REGEX.matcher(digitsOnly).matches() ? "+1" + digitsOnly : INVALID;
+	}
+
+	private static String toE164OrInvalid(CharSequence phoneNumber) {
+		try {
+			return SmsUtils.toE164PhoneNumber(phoneNumber);
+		} catch (InvalidPhoneNumberException e) {
+			return INVALID;
+		}
+	}
+
+	/**
+	 * Random text drawn mostly from characters found in phone numbers, including non-ASCII digits, which are not
+	 * treated as digits.
+	 */
+	private static String randomText(Random random) {
+		var alphabet = "0123456789012345678901234567890123456789+-.() \tx#٣５a";
+		var builder = new StringBuilder();
+		var length = random.nextInt(20);
+		for (int i = 0; i < length; i++) {
+			builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * A random number of 9 to 16 digits, sometimes with a leading plus sign and sometimes with separators, so that
+	 * valid and nearly valid numbers are common.
+	 */
+	private static String randomPhoneNumber(Random random) {
+		var builder = new StringBuilder();
+		if (random.nextInt(3) == 0) {
+			builder.append('+');
+		}
+		var separators = random.nextBoolean();
+		var digits = 9 + random.nextInt(8);
+		for (int i = 0; i < digits; i++) {
+			if (separators && i > 0 && random.nextInt(4) == 0) {
+				builder.append(" -.()".charAt(random.nextInt(5)));
+			}
+			builder.append((char) ('0' + random.nextInt(10)));
+		}
+		return builder.toString();
+	}
+
 }
@@ -0,0 +1,98 @@
+package org.octri.messaging.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+	@Test
+	public void testRequiresPositiveRate() {
+		assertThrows(IllegalArgumentException.class, () -> {
+			new TokenBucket(0, 1);
+		}, "A rate of zero should be rejected");
+	}
+
+	@Test
+	public void testAllowsBurstThenSteadyRate() {
+		var bucket = new TokenBucket(2, 3, clock::get);
+
+		assertTrue(bucket.tryAcquire(), "The first token of the burst should be available");
+		assertTrue(bucket.tryAcquire(), "The second token of the burst should be available");
+		assertTrue(bucket.tryAcquire(), "The third token of the burst should be available");
+		assertFalse(bucket.tryAcquire(), "The bucket should be empty after the burst");
+		assertEquals(SECOND / 2, bucket.nanosUntilAvailable(), "The next token should be due after one interval");
+
+		clock.addAndGet(SECOND / 2);
+		assertTrue(bucket.tryAcquire(), "A token should be added after one interval");
+		assertFalse(bucket.tryAcquire(), "Only one token should be added per interval");
+	}
+
+	@Test
+	public void testReserveReturnsWaitTime() {
+		var bucket = new TokenBucket(1, 1, clock::get);
+
+		assertEquals(0, bucket.reserve(SECOND), "The first token should be available immediately");
+		assertEquals(SECOND, bucket.reserve(SECOND), "The second token should be reserved one second ahead");
+		assertEquals(-1, bucket.reserve(SECOND), "Tokens beyond the maximum wait should not be reserved");
+		assertEquals(2 * SECOND, bucket.nanosUntilAvailable(), "A rejected reservation should not take a token");
+	}
+
+	@Test
+	public void testIdleBucketDoesNotAccumulateBeyondBurst() {
+		var bucket = new TokenBucket(10, 2, clock::get);
+		clock.addAndGet(60 * SECOND);
+
+		assertTrue(bucket.tryAcquire(), "The first burst token should be available");
+		assertTrue(bucket.tryAcquire(), "The second burst token should be available");
+		assertFalse(bucket.tryAcquire(), "An idle bucket should hold no more than the burst size");
+	}
+
+	@Test
+	public void testConcurrentCallersNeverExceedBurst() throws InterruptedException {
+		var burst = 50;
+		var threads = 8;
+		var bucket = new TokenBucket(1, burst, clock::get);
+		var acquired = new AtomicInteger();
+		var start = new CountDownLatch(1);
+		var executor = Executors.newFixedThreadPool(threads);
+
+		try {
+			for (int t = 0; t < threads; t++) {
+				executor.execute(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+					}
+					for (int i = 0; i < 1000; i++) {
+						if (bucket.tryAcquire()) {
+							acquired.incrementAndGet();
+						}
+					}
+				});
+			}
+			start.countDown();
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "All callers should finish");
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(burst, acquired.get(), "Exactly the burst size should be granted while the clock is stopped");
+	}
+
+}
@@ -0,0 +1,25 @@
+package org.octri.messaging.sms;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+
+public class TransliteratingSmsDeliveryStrategyTest {
+
+	private static final String FROM_NUMBER = "+15035551234";
+	private static final String TO_NUMBER = "+15035556789";
+
+	@Test
+	public void testTransliteratesMessages() {
+		var delegate = mock(SmsDeliveryStrategy.class);
+		var strategy = new TransliteratingSmsDeliveryStrategy(delegate);
+
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "Don’t forget your visit");
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, "“Thanks”");
+
+		verify(delegate).sendSms(FROM_NUMBER, TO_NUMBER, "Don't forget your visit");
+		verify(delegate).sendSms(FROM_NUMBER, TO_NUMBER, "\"Thanks\"");
+	}
+
+}
@@ -9,10 +9,17 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.description;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -21,17 +28,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.octri.messaging.metrics.MessagingObservations;
 import org.octri.test.messaging.TwilioTestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.twilio.Twilio;
+import com.twilio.http.TwilioRestClient;
 import com.twilio.rest.api.v2010.account.Message;
 import com.twilio.rest.api.v2010.account.MessageCreator;
+import com.twilio.base.Page;
 import com.twilio.rest.api.v2010.account.MessageFetcher;
+import com.twilio.rest.api.v2010.account.MessageReader;
 import com.twilio.type.PhoneNumber;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+
 public class TwilioHelperTest {
 
 	public static final Logger log = LoggerFactory.getLogger(TwilioHelperTest.class);
@@ -45,6 +60,7 @@ public class TwilioHelperTest {
 	private static final String MESSAGE_SID = "SM46b08410f6fdd3e292cac5b5d87121d7";
 
 	private static Message queuedMessage;
+	private static Message canceledMessage;
 	private static Message failedMessage;
 	private static Message undeliveredMessage;
 	private static Message deliveredMessage;
@@ -57,6 +73,7 @@ public class TwilioHelperTest {
 	@BeforeAll
 	public static void init() throws IOException {
 		queuedMessage = TwilioTestUtils.getQueuedMessage();
+		canceledMessage = TwilioTestUtils.getCanceledMessage();
 		failedMessage = TwilioTestUtils.getFailedMessage();
 		undeliveredMessage = TwilioTestUtils.getUndeliveredMessage();
 		deliveredMessage = TwilioTestUtils.getDeliveredMessage();
@@ -77,9 +94,11 @@ public class TwilioHelperTest {
 	}
 
 	@Test
-	public void testConstructorInitializesTwilioApi() {
+	public void testConstructorCreatesClientWithoutGlobalTwilioApi() {
 		// See https://stackoverflow.com/a/62860455
-		mockTwilio.verify(() -> Twilio.init(eq(MOCK_SID), eq(MOCK_TOKEN)));
+		mockTwilio.verify(() -> Twilio.init(anyString(), anyString()), never());
+		assertEquals(MOCK_SID, twilioHelper.getClient().getAccountSid(),
+				"The helper should have its own client for the account");
 	}
 
 	@Test
@@ -125,7 +144,7 @@ public class TwilioHelperTest {
 
 		mockMessage.when(() -> Message.creator(toNumberCaptor.capture(), fromNumberCaptor.capture(), anyString()))
 				.thenReturn(mockMessageCreator);
-		doReturn(queuedMessage).when(mockMessageCreator).create();
+		doReturn(queuedMessage).when(mockMessageCreator).create(any(TwilioRestClient.class));
 
 		twilioHelper.sendMessage(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
 
@@ -139,7 +158,7 @@ public class TwilioHelperTest {
 
 		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(mockMessageCreator);
-		doReturn(queuedMessage).when(mockMessageCreator).create();
+		doReturn(queuedMessage).when(mockMessageCreator).create(any(TwilioRestClient.class));
 
 		twilioHelper.sendMessage(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
 
@@ -148,13 +167,98 @@ public class TwilioHelperTest {
 				.setStatusCallback(MOCK_CALLBACK_URL);
 	}
 
+	@Test
+	public void testSendsMessageAsynchronously() throws Exception {
+		var mockMessageCreator = Mockito.mock(MessageCreator.class);
+		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
+				.thenReturn(mockMessageCreator);
+		doReturn(queuedMessage).when(mockMessageCreator).create(twilioHelper.getClient());
+		doReturn(CompletableFuture.completedFuture(deliveredMessage)).when(mockMessageCreator)
+				.createAsync(twilioHelper.getClient());
+		var from = new PhoneNumber("+15035551234");
+		var to = new PhoneNumber("+15035556789");
+		var executed = new ArrayList<Runnable>();
+
+		var onExecutor = twilioHelper.sendMessageAsync(from, to, MESSAGE_TEXT, executed::add);
+		assertFalse(onExecutor.isDone(), "The message should be sent on the executor, not the caller's thread");
+		executed.forEach(Runnable::run);
+		assertEquals(queuedMessage, onExecutor.get(), "The future should complete with the Twilio response");
+
+		assertEquals(deliveredMessage, twilioHelper.sendMessageAsync(from, to, MESSAGE_TEXT).get(),
+				"The SDK's asynchronous create should be used without an executor");
+		verify(mockMessageCreator, times(2)).setStatusCallback(MOCK_CALLBACK_URL);
+	}
+
+	@Test
+	public void testObservesTwilioRequests() {
+		var mockMessageCreator = Mockito.mock(MessageCreator.class);
+		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
+				.thenReturn(mockMessageCreator);
+		doReturn(queuedMessage).when(mockMessageCreator).create(twilioHelper.getClient());
+		var stopped = new CopyOnWriteArrayList<Observation.Context>();
+		var observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+			@Override
+			public void onStop(Observation.Context context) {
+				stopped.add(context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return true;
+			}
+
+		});
+		twilioHelper.setObservationRegistry(observationRegistry);
+		var from = new PhoneNumber("+15035551234");
+		var to = new PhoneNumber("+15035556789");
+		var executed = new ArrayList<Runnable>();
+
+		Observation.createNotStarted("reminder", observationRegistry).observe(() -> {
+			twilioHelper.sendMessage(from, to, MESSAGE_TEXT);
+			twilioHelper.sendMessageAsync(from, to, MESSAGE_TEXT, executed::add);
+		});
+		executed.forEach(Runnable::run);
+
+		assertEquals(3, stopped.size(), "Both requests and the enclosing observation should be recorded");
+		for (var request : List.of(stopped.get(0), stopped.get(2))) {
+			assertEquals(MessagingObservations.TWILIO_REQUEST, request.getName(), "The request should be observed");
+			assertEquals("number", request.getLowCardinalityKeyValue("sender").getValue(),
+					"The sender type should be tagged");
+			assertEquals("default", request.getLowCardinalityKeyValue("twilio.account").getValue(),
+					"The account should be tagged");
+			assertEquals("reminder", request.getParentObservation().getContextView().getName(),
+					"The request should be a child of the caller's observation, even on another thread");
+		}
+	}
+
+	@Test
+	public void testSendsThroughMessagingServiceWithoutSender() {
+		var mockMessageCreator = Mockito.mock(MessageCreator.class);
+		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), eq("MG123"), anyString()))
+				.thenReturn(mockMessageCreator);
+		doReturn(queuedMessage).when(mockMessageCreator).create(twilioHelper.getClient());
+
+		assertThrows(IllegalStateException.class,
+				() -> twilioHelper.sendMessage(new PhoneNumber("+15035556789"), MESSAGE_TEXT),
+				"A sender number should be required without a Messaging Service");
+
+		twilioHelper.setMessagingServiceSid("MG123");
+		assertEquals(queuedMessage, twilioHelper.sendMessage(new PhoneNumber("+15035556789"), MESSAGE_TEXT),
+				"The message should be sent through the Messaging Service");
+		assertEquals(queuedMessage, twilioHelper.sendMessage("", TO_NUMBER, MESSAGE_TEXT),
+				"A blank sender number should send through the Messaging Service");
+		mockMessage.verify(() -> Message.creator(new PhoneNumber("+15035556789"), "MG123", MESSAGE_TEXT), times(2));
+	}
+
 	@Test
 	public void testSendMessageDoesNotSetCallbackUrlIfUnavailable() {
 		var noCallbackHelper = new TwilioHelper(MOCK_SID, MOCK_TOKEN, null);
 		var mockMessageCreator = Mockito.mock(MessageCreator.class);
 		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(mockMessageCreator);
-		doReturn(queuedMessage).when(mockMessageCreator).create();
+		doReturn(queuedMessage).when(mockMessageCreator).create(any(TwilioRestClient.class));
 
 		noCallbackHelper.sendMessage(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
 
@@ -169,7 +273,7 @@ public class TwilioHelperTest {
 		var mockMessageCreator = Mockito.mock(MessageCreator.class);
 		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(mockMessageCreator);
-		doReturn(queuedMessage).when(mockMessageCreator).create();
+		doReturn(queuedMessage).when(mockMessageCreator).create(any(TwilioRestClient.class));
 
 		noCallbackHelper.sendMessage(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
 
@@ -178,17 +282,51 @@ public class TwilioHelperTest {
 				.setStatusCallback(anyString());
 	}
 
+	@Test
+	public void testSendsThroughAccountThatOwnsSenderNumber() {
+		var clients = new HashMap<String, TwilioRestClient>();
+		var helper = new TwilioHelper(MOCK_SID, MOCK_TOKEN, null,
+				List.of(new TwilioAccount("study", "ACstudy", "studyToken", List.of("503-555-0001"))),
+				(sid, token) -> clients.computeIfAbsent(sid, key -> Mockito.mock(TwilioRestClient.class)));
+		var mockMessageCreator = Mockito.mock(MessageCreator.class);
+		mockMessage.when(() -> Message.creator(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
+				.thenReturn(mockMessageCreator);
+		doReturn(queuedMessage).when(mockMessageCreator).create(any(TwilioRestClient.class));
+
+		helper.sendMessage("+15035550001", TO_NUMBER, MESSAGE_TEXT);
+		helper.sendMessage(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+		helper.sendMessage("study", new PhoneNumber("+15035550002"), new PhoneNumber("+15035556789"), MESSAGE_TEXT);
+
+		verify(mockMessageCreator, times(2).description("Messages from the account's numbers or for its key should use"
+				+ " the account's client")).create(clients.get("ACstudy"));
+		verify(mockMessageCreator, description("Other messages should use the default account's client"))
+				.create(clients.get(MOCK_SID));
+		assertEquals("study", helper.getAccountKey(new PhoneNumber("+15035550001")),
+				"The account should own its number");
+		assertThrows(IllegalArgumentException.class, () -> helper.getClient("unknown"),
+				"Unknown account keys should be rejected");
+	}
+
+	@Test
+	public void testRejectsNumberInMoreThanOneAccount() {
+		var accounts = List.of(new TwilioAccount("a", "ACa", "tokenA", List.of("503-555-0001")),
+				new TwilioAccount("b", "ACb", "tokenB", List.of("+15035550001")));
+		assertThrows(IllegalArgumentException.class, () -> {
+			new TwilioHelper(MOCK_SID, MOCK_TOKEN, null, accounts);
+		}, "A sender number should belong to one account");
+	}
+
 	@Test
 	public void testFetchMessage() {
 		var messageSidCaptor = ArgumentCaptor.forClass(String.class);
 		var mockMessageFetcher = Mockito.mock(MessageFetcher.class);
 		mockMessage.when(() -> Message.fetcher(messageSidCaptor.capture())).thenReturn(mockMessageFetcher);
-		doReturn(deliveredMessage).when(mockMessageFetcher).fetch();
+		doReturn(deliveredMessage).when(mockMessageFetcher).fetch(twilioHelper.getClient());
 
 		var messageStatus = twilioHelper.fetchMessage(MESSAGE_SID);
 
 		assertEquals(MESSAGE_SID, messageSidCaptor.getValue(), "It should create a fetcher for the expected SID");
-		verify(mockMessageFetcher, description("The message status should be fetched")).fetch();
+		verify(mockMessageFetcher, description("The message status should be fetched")).fetch(twilioHelper.getClient());
 		assertEquals(deliveredMessage, messageStatus, "The Twilio API response should be returned");
 	}
 
@@ -202,4 +340,59 @@ public class TwilioHelperTest {
 				"Undelivered status should not be considered successful");
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testReconcileMessagesStreamsFinalMessagesByPage() {
+		var mockReader = Mockito.mock(MessageReader.class, Mockito.RETURNS_SELF);
+		Page<Message> firstPage = Mockito.mock(Page.class);
+		Page<Message> lastPage = Mockito.mock(Page.class);
+		mockMessage.when(Message::reader).thenReturn(mockReader);
+		doReturn(firstPage).when(mockReader).firstPage(twilioHelper.getClient());
+		doReturn(lastPage).when(mockReader).nextPage(firstPage, twilioHelper.getClient());
+		doReturn(List.of(queuedMessage, failedMessage)).when(firstPage).getRecords();
+		doReturn(true).when(firstPage).hasNextPage();
+		doReturn(List.of(deliveredMessage, undeliveredMessage, canceledMessage)).when(lastPage).getRecords();
+
+		var sentBefore = ZonedDateTime.now();
+		var sentAfter = sentBefore.minusDays(1);
+		var pages = new ArrayList<List<Message>>();
+		var summary = twilioHelper.reconcileMessages(sentAfter, sentBefore, sid -> true, pages::add);
+
+		verify(mockReader).setDateSentAfter(sentAfter);
+		verify(mockReader).setDateSentBefore(sentBefore);
+		verify(mockReader).setPageSize((long) TwilioHelper.RECONCILIATION_PAGE_SIZE);
+		verify(mockReader, never()).nextPage(eq(lastPage), any(TwilioRestClient.class));
+		assertEquals(List.of(List.of(failedMessage), List.of(deliveredMessage, undeliveredMessage, canceledMessage)),
+				pages, "Each page should be handled separately, without messages that are still in progress");
+		assertEquals(2, summary.pagesRead());
+		assertEquals(5, summary.messagesRead());
+		assertEquals(4, summary.messagesReconciled());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testReconcileMessagesSkipsMessagesNoLongerPending() {
+		var mockReader = Mockito.mock(MessageReader.class, Mockito.RETURNS_SELF);
+		Page<Message> page = Mockito.mock(Page.class);
+		mockMessage.when(Message::reader).thenReturn(mockReader);
+		doReturn(page).when(mockReader).firstPage(twilioHelper.getClient());
+		doReturn(List.of(deliveredMessage, failedMessage)).when(page).getRecords();
+
+		var pages = new ArrayList<List<Message>>();
+		var summary = twilioHelper.reconcileMessages(ZonedDateTime.now().minusHours(1), ZonedDateTime.now(),
+				sid -> sid.equals(deliveredMessage.getSid()), pages::add);
+
+		assertEquals(List.of(List.of(deliveredMessage)), pages,
+				"Messages the caller has already settled should be skipped");
+		assertEquals(1, summary.messagesReconciled());
+	}
+
+	@Test
+	public void testIsFinal() {
+		assertTrue(twilioHelper.isFinal(deliveredMessage), "Delivered status should be final");
+		assertTrue(twilioHelper.isFinal(failedMessage), "Failed status should be final");
+		assertFalse(twilioHelper.isFinal(queuedMessage), "Queued status should not be final");
+		assertTrue(twilioHelper.isFinal(canceledMessage), "Canceled status should be final");
+	}
+
 }
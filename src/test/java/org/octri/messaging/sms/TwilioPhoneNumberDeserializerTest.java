@@ -11,9 +11,11 @@ import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.twilio.type.PhoneNumber;
 
 /**
@@ -123,6 +125,38 @@ public class TwilioPhoneNumberDeserializerTest {
 		assertNull(output, "Phone number should be null if node is a non-textual value");
 	}
 
+	@Test
+	public void testDeserializeEndpointObjectWithOtherFields() throws JsonParseException, IOException {
+		var json = """
+				{"region": {"country": "US", "codes": [503, 971]}, "endpoint": "+15035551234", "extra": [{}]}
+				""";
+		var parser = getParser(json);
+		var output = deserializer.deserialize(parser, getContext());
+
+		assertEquals(EXPECTED_NUMBER, output.getEndpoint(), "Nested values in other fields should be skipped");
+		assertEquals(JsonToken.END_OBJECT, parser.currentToken(), "The whole endpoint object should be consumed");
+		assertNull(parser.nextToken(), "No input should remain after the endpoint object");
+	}
+
+	@Test
+	public void testLeavesParserPositionedForFollowingFields() throws IOException {
+		var module = new SimpleModule();
+		module.addDeserializer(PhoneNumber.class, deserializer);
+		var mapper = new ObjectMapper().registerModule(module);
+		var json = """
+				{"to": {"endpoint": "+15035551234", "other": {"x": 1}}, "from": [1, 2], "body": "Hello"}
+				""";
+
+		var output = mapper.readValue(json, TestMessage.class);
+
+		assertEquals(EXPECTED_NUMBER, output.to().getEndpoint(), "Should read the phone number object");
+		assertNull(output.from(), "Should skip a value that is not a phone number");
+		assertEquals("Hello", output.body(), "Fields after phone numbers should still be read");
+	}
+
+	private record TestMessage(PhoneNumber to, PhoneNumber from, String body) {
+	}
+
 	private JsonParser getParser(String json) throws JsonParseException, IOException {
 		return objectMapper.getFactory().createParser(json);
 	}
@@ -1,15 +1,21 @@
 package org.octri.messaging.sms;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,7 +42,6 @@ public class TwilioSmsDeliveryStrategyTest {
 	private static Message queuedMessage;
 	private static String queuedMessageJson;
 	private static Message failedMessage;
-	private static String failedMessageJson;
 	private static Message undeliveredMessage;
 
 	@Mock
@@ -49,7 +54,6 @@ public class TwilioSmsDeliveryStrategyTest {
 		queuedMessage = TwilioTestUtils.getQueuedMessage();
 		queuedMessageJson = TwilioTestUtils.getJsonText("queued.json");
 		failedMessage = TwilioTestUtils.getFailedMessage();
-		failedMessageJson = TwilioTestUtils.getJsonText("failed.json");
 		undeliveredMessage = TwilioTestUtils.getUndeliveredMessage();
 	}
 
@@ -78,7 +82,6 @@ public class TwilioSmsDeliveryStrategyTest {
 		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(queuedMessage);
 		when(mockTwilioHelper.isSuccessResponse(any(Message.class))).thenReturn(true);
-		when(mockTwilioHelper.serializeMessageToJson(any(Message.class))).thenReturn(queuedMessageJson);
 
 		strategy.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
 
@@ -87,6 +90,34 @@ public class TwilioSmsDeliveryStrategyTest {
 		assertEquals(expectedToNumber, toNumberCaptor.getValue(), "To number is converted to E.164 format");
 	}
 
+	@Test
+	public void testConvertsPhoneNumbersThroughCache() {
+		var cache = new PhoneNumberCache(100);
+		strategy = new TwilioSmsDeliveryStrategy(mockTwilioHelper, false, cache);
+		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
+				.thenReturn(queuedMessage);
+		when(mockTwilioHelper.isSuccessResponse(queuedMessage)).thenReturn(true);
+
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+		strategy.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+
+		verify(mockTwilioHelper, times(2)).sendMessage(new PhoneNumber("+15035551234"),
+				new PhoneNumber("+15035556789"), MESSAGE_TEXT);
+		assertEquals(2, cache.getStats().hitCount(), "The second message should use the cached phone numbers");
+	}
+
+	@Test
+	public void testSendsWithoutSenderThroughMessagingService() {
+		when(mockTwilioHelper.getMessagingServiceSid()).thenReturn("MG123");
+		when(mockTwilioHelper.sendMessage(null, new PhoneNumber("+15035556789"), MESSAGE_TEXT))
+				.thenReturn(queuedMessage);
+		when(mockTwilioHelper.isSuccessResponse(queuedMessage)).thenReturn(true);
+
+		var result = strategy.sendSms(null, TO_NUMBER, MESSAGE_TEXT);
+
+		assertTrue(result.isPresent(), "The message should be sent through the Messaging Service");
+	}
+
 	@Test
 	public void testThrowsUnsuccessfulDeliveryOnInvalidPhoneNumber() {
 		var tooManyDigits = "1-800-555-1234";
@@ -104,7 +135,52 @@ public class TwilioSmsDeliveryStrategyTest {
 	}
 
 	@Test
-	public void testReturnsStringifiedApiResponse() throws JsonProcessingException {
+	public void testSendsAsynchronouslyThroughHelper() throws Exception {
+		Executor executor = Runnable::run;
+		when(mockTwilioHelper.sendMessageAsync(any(PhoneNumber.class), any(PhoneNumber.class), anyString(),
+				any(Executor.class))).thenReturn(CompletableFuture.completedFuture(queuedMessage),
+						CompletableFuture.completedFuture(undeliveredMessage));
+		when(mockTwilioHelper.isSuccessResponse(queuedMessage)).thenReturn(true);
+		when(mockTwilioHelper.isSuccessResponse(undeliveredMessage)).thenReturn(false);
+
+		var result = strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT, executor).get();
+		assertTrue(result.get().contains("\"sid\":\"" + queuedMessage.getSid() + "\""),
+				"The receipt should be returned when the message is accepted");
+		verify(mockTwilioHelper).sendMessageAsync(new PhoneNumber("+15035551234"), new PhoneNumber("+15035556789"),
+				MESSAGE_TEXT, executor);
+
+		var undelivered = strategy.sendSmsAsync(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT, executor);
+		var ex = assertThrows(ExecutionException.class, undelivered::get, "An undelivered message should fail");
+		assertInstanceOf(UnsuccessfulDeliveryException.class, ex.getCause(),
+				"The failure should be an unsuccessful delivery");
+
+		var invalid = strategy.sendSmsAsync("1-800-555-1234", TO_NUMBER, MESSAGE_TEXT, executor);
+		ex = assertThrows(ExecutionException.class, invalid::get, "An invalid number should fail");
+		assertInstanceOf(InvalidPhoneNumberException.class, ex.getCause().getCause(),
+				"The delivery exception should be caused by an invalid phone number");
+		verify(mockTwilioHelper, never()).sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString());
+	}
+
+	@Test
+	public void testReturnsReceiptJson() throws JsonProcessingException {
+		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
+				.thenReturn(queuedMessage);
+		when(mockTwilioHelper.isSuccessResponse(queuedMessage)).thenReturn(true);
+
+		var result = strategy.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+
+		assertTrue(result.isPresent(), "The optional string value should be present");
+		var resultJson = result.get();
+		assertTrue(resultJson.contains("\"sid\":\"" + queuedMessage.getSid() + "\""),
+				"The message SID should be present");
+		assertTrue(resultJson.contains("\"status\":\"queued\""), "The message status should be present");
+		assertFalse(resultJson.contains(MESSAGE_TEXT), "The message body should not be included");
+		verify(mockTwilioHelper, never()).serializeMessageToJson(any(Message.class));
+	}
+
+	@Test
+	public void testReturnsStringifiedApiResponseWhenConfigured() throws JsonProcessingException {
+		strategy = new TwilioSmsDeliveryStrategy(mockTwilioHelper, true);
 		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(queuedMessage);
 		when(mockTwilioHelper.isSuccessResponse(queuedMessage)).thenReturn(true);
@@ -115,14 +191,29 @@ public class TwilioSmsDeliveryStrategyTest {
 		assertTrue(result.isPresent(), "The optional string value should be present");
 		var resultJson = result.get();
 		assertTrue(resultJson.contains(queuedMessage.getAccountSid()), "API response properties should be present");
+		assertTrue(resultJson.contains(queuedMessage.getUri()), "The full API response should be returned");
+	}
+
+	@Test
+	public void testReturnsTypedReceipt() {
+		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
+				.thenReturn(queuedMessage);
+		when(mockTwilioHelper.isSuccessResponse(queuedMessage)).thenReturn(true);
+
+		var receipt = strategy.sendSmsForReceipt(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
+
+		assertEquals(queuedMessage.getSid(), receipt.sid(), "The receipt should have the message SID");
+		assertEquals("queued", receipt.status(), "The receipt should have the message status");
+		assertEquals(1, receipt.numSegments(), "The receipt should have the number of segments");
+		assertEquals(queuedMessage.getDateCreated().toInstant(), receipt.dateCreated(),
+				"The receipt should have the creation time");
 	}
 
 	@Test
-	public void testThrowsExceptionOnUnsuccessfulDelivery() throws JsonProcessingException {
+	public void testThrowsExceptionOnUnsuccessfulDelivery() {
 		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(failedMessage);
 		when(mockTwilioHelper.isSuccessResponse(failedMessage)).thenReturn(false);
-		when(mockTwilioHelper.serializeMessageToJson(failedMessage)).thenReturn(failedMessageJson);
 
 		assertThrows(UnsuccessfulDeliveryException.class, () -> {
 			strategy.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
@@ -130,17 +221,18 @@ public class TwilioSmsDeliveryStrategyTest {
 	}
 
 	@Test
-	public void testExceptionIncludesErrorResponse() throws JsonProcessingException {
+	public void testExceptionIncludesErrorResponse() {
 		when(mockTwilioHelper.sendMessage(any(PhoneNumber.class), any(PhoneNumber.class), anyString()))
 				.thenReturn(failedMessage);
 		when(mockTwilioHelper.isSuccessResponse(failedMessage)).thenReturn(false);
-		when(mockTwilioHelper.serializeMessageToJson(failedMessage)).thenReturn(failedMessageJson);
 
 		var thrown = assertThrows(UnsuccessfulDeliveryException.class, () -> {
 			strategy.sendSms(FROM_NUMBER, TO_NUMBER, MESSAGE_TEXT);
 		}, "Delivery is unsuccessful");
 		assertTrue(thrown.getErrorResponse().contains(failedMessage.getAccountSid()),
 				"API response should be included in error");
+		assertTrue(thrown.getErrorResponse().contains("\"error_code\":" + failedMessage.getErrorCode()),
+				"The Twilio error code should be included in error");
 	}
 
 	@Test
@@ -0,0 +1,137 @@
+package org.octri.messaging.sms;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.octri.messaging.autoconfig.TwilioHttpClientProperties;
+import org.octri.test.messaging.TwilioStubServer;
+
+import com.sun.net.httpserver.HttpServer;
+import com.twilio.exception.ApiException;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.security.RequestValidator;
+import com.twilio.type.PhoneNumber;
+
+public class TwilioStubServerTest {
+
+	private static final String MOCK_SID = "ACXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXXX";
+	private static final String MOCK_TOKEN = "stub-auth-token";
+	private static final PhoneNumber FROM = new PhoneNumber("+15035550100");
+	private static final PhoneNumber TO = new PhoneNumber("+15035550199");
+
+	private TwilioStubServer stub;
+	private PooledTwilioHttpClient httpClient;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		stub = new TwilioStubServer(MOCK_TOKEN);
+		httpClient = new PooledTwilioHttpClient(new TwilioHttpClientProperties());
+	}
+
+	@AfterEach
+	public void teardown() throws Exception {
+		httpClient.destroy();
+		stub.close();
+	}
+
+	@Test
+	public void testSendsAndFetchesThroughStub() {
+		var twilioHelper = new TwilioHelper(MOCK_SID, MOCK_TOKEN, null, List.of(), httpClient,
+				stub.getBaseUrl() + "/");
+
+		var sent = twilioHelper.sendMessage(FROM, TO, "Hello");
+		assertThat(sent.getStatus()).as("The stub should queue new messages").isEqualTo(Message.Status.QUEUED);
+		assertThat(sent.getSid()).as("The stub should assign a message SID").startsWith("SM").hasSize(34);
+		assertThat(sent.getAccountSid()).as("The message should belong to the sending account").isEqualTo(MOCK_SID);
+		assertThat(sent.getTo()).as("The recipient should be echoed").isEqualTo(TO.toString());
+		assertThat(sent.getBody()).as("The body should be echoed").isEqualTo("Hello");
+		assertThat(sent.getDateCreated()).as("The creation date should be parsed").isNotNull();
+
+		var fetched = twilioHelper.fetchMessage(sent.getSid());
+		assertThat(fetched.getSid()).as("The created message should be fetched").isEqualTo(sent.getSid());
+		assertThat(stub.getCreatedCount()).as("One message should be created").isEqualTo(1);
+		assertThat(stub.getRequestCount()).as("The stub should see the create and fetch requests").isEqualTo(2);
+	}
+
+	@Test
+	public void testThrottlesAndFails() {
+		var twilioHelper = new TwilioHelper(MOCK_SID, MOCK_TOKEN, null, List.of(), httpClient, stub.getBaseUrl());
+
+		assertThatThrownBy(() -> twilioHelper.fetchMessage("SMunknown"))
+				.as("Fetching an unknown message should fail")
+				.isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatusCode()).isEqualTo(404));
+
+		// The pooled client waits and retries a throttled request once, so a short burst still succeeds
+		stub.setMaxRequestsPerSecond(1);
+		for (int i = 0; i < 3; i++) {
+			twilioHelper.sendMessage(FROM, TO, "Hello");
+		}
+		assertThat(stub.getThrottledCount()).as("Requests over the limit should be throttled").isPositive();
+		assertThat(stub.getCreatedCount()).as("Throttled requests should succeed when retried").isEqualTo(3);
+
+		stub.setMaxRequestsPerSecond(0);
+		stub.setErrorRate(1.0);
+		assertThatThrownBy(() -> twilioHelper.sendMessage(FROM, TO, "Hello"))
+				.as("Server errors should surface once the SDK stops retrying")
+				.isInstanceOfSatisfying(ApiException.class, e -> assertThat(e.getStatusCode()).isEqualTo(500));
+		assertThat(stub.getErrorCount()).as("The SDK should retry server errors").isGreaterThan(1);
+	}
+
+	@Test
+	public void testPostsSignedStatusCallbacks() throws Exception {
+		var callback = new CompletableFuture<Map<String, String>>();
+		var signature = new CompletableFuture<String>();
+		var receiver = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		receiver.createContext("/status", exchange -> {
+			signature.complete(exchange.getRequestHeaders().getFirst("X-Twilio-Signature"));
+			callback.complete(parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+		});
+		receiver.start();
+
+		try {
+			var callbackUrl = "http://127.0.0.1:" + receiver.getAddress().getPort() + "/status";
+			var twilioHelper = new TwilioHelper(MOCK_SID, MOCK_TOKEN, callbackUrl, List.of(), httpClient,
+					stub.getBaseUrl());
+			stub.setCallbackStatus("undelivered");
+
+			var sent = twilioHelper.sendMessage(FROM, TO, "Hello");
+			var parameters = callback.get(5, TimeUnit.SECONDS);
+
+			assertThat(parameters).as("The callback should report the new status of the message")
+					.containsEntry("MessageSid", sent.getSid())
+					.containsEntry("MessageStatus", "undelivered")
+					.containsEntry("AccountSid", MOCK_SID);
+			assertThat(new RequestValidator(MOCK_TOKEN).validate(callbackUrl, parameters, signature.get()))
+					.as("The callback should be signed with the auth token").isTrue();
+			assertThat(twilioHelper.fetchMessage(sent.getSid()).getStatus())
+					.as("Fetching the message should return the new status").isEqualTo(Message.Status.UNDELIVERED);
+		} finally {
+			receiver.stop(0);
+		}
+	}
+
+	private static Map<String, String> parseForm(String form) {
+		Map<String, String> parameters = new HashMap<>();
+		for (var pair : form.split("&")) {
+			var separator = pair.indexOf('=');
+			parameters.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+					URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+		}
+		return parameters;
+	}
+
+}
@@ -0,0 +1,37 @@
+package org.octri.messaging.webhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class FormUrlDecoderTest {
+
+	@Test
+	public void testDecodesPercentEncodingAndPlus() {
+		var parameters = decode("To=%2B15035551234&Body=Hello+there%21&Emoji=%F0%9F%98%80&Empty=&Flag");
+
+		assertEquals(Map.of("To", "+15035551234", "Body", "Hello there!", "Emoji", "😀", "Empty", "",
+				"Flag", ""), parameters);
+	}
+
+	@Test
+	public void testKeepsFirstValueOfRepeatedKey() {
+		assertEquals("first", decode("Key=first&Key=second").get("Key"), "The first value should be kept");
+		assertEquals("a=b", decode("Key=a=b").get("Key"), "An equals sign in a value should be kept");
+	}
+
+	@Test
+	public void testRejectsMalformedPercentEncoding() {
+		assertThrows(IllegalArgumentException.class, () -> decode("Key=%2"));
+		assertThrows(IllegalArgumentException.class, () -> decode("Key=%ZZ"));
+	}
+
+	private static Map<String, String> decode(String body) {
+		return FormUrlDecoder.decode(body.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
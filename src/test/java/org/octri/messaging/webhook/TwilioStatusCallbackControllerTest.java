@@ -0,0 +1,111 @@
+package org.octri.messaging.webhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.twilio.rest.api.v2010.account.Message;
+
+public class TwilioStatusCallbackControllerTest {
+
+	private static final String AUTH_TOKEN = "12345";
+	private static final String CALLBACK_URL = "https://example.com/twilio/status";
+
+	private final List<TwilioStatusEvent> events = new ArrayList<>();
+
+	private final MockMvc mockMvc = MockMvcBuilders
+			.standaloneSetup(new TwilioStatusCallbackController(AUTH_TOKEN, CALLBACK_URL, List.of(events::add)))
+			.build();
+
+	@Test
+	public void testPublishesStatusEvent() throws Exception {
+		var parameters = Map.of("MessageSid", "SM123", "AccountSid", "AC456", "MessageStatus", "undelivered",
+				"ErrorCode", "30003", "From", "+15035550001", "To", "+15035551234");
+
+		mockMvc.perform(callback(parameters).header(TwilioStatusCallbackController.SIGNATURE_HEADER,
+				sign(CALLBACK_URL, parameters))).andExpect(status().isNoContent());
+
+		assertEquals(1, events.size(), "The listener should receive the status update");
+		var event = events.get(0);
+		assertEquals("SM123", event.messageSid());
+		assertEquals("+15035551234", event.toNumber());
+		assertEquals(Message.Status.UNDELIVERED, event.status());
+		assertEquals(30003, event.errorCode());
+		assertTrue(event.isFinal(), "Undelivered is a final status");
+	}
+
+	@Test
+	public void testRejectsInvalidSignature() throws Exception {
+		var parameters = Map.of("MessageSid", "SM123", "MessageStatus", "delivered");
+
+		mockMvc.perform(callback(parameters).header(TwilioStatusCallbackController.SIGNATURE_HEADER,
+				sign("https://attacker.example.com/", parameters))).andExpect(status().isForbidden());
+		mockMvc.perform(callback(parameters)).andExpect(status().isForbidden());
+
+		assertTrue(events.isEmpty(), "Listeners should not be called for unsigned callbacks");
+	}
+
+	@Test
+	public void testRejectsIncompleteCallback() throws Exception {
+		var parameters = Map.of("MessageSid", "SM123");
+
+		mockMvc.perform(callback(parameters).header(TwilioStatusCallbackController.SIGNATURE_HEADER,
+				sign(CALLBACK_URL, parameters))).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void testChecksSignatureWithAccountAuthToken() throws Exception {
+		var accountMockMvc = MockMvcBuilders.standaloneSetup(new TwilioStatusCallbackController(AUTH_TOKEN,
+				Map.of("ACstudy", "studyToken"), CALLBACK_URL, List.of(events::add))).build();
+		var parameters = Map.of("MessageSid", "SM123", "AccountSid", "ACstudy", "MessageStatus", "delivered");
+
+		accountMockMvc.perform(callback(parameters).header(TwilioStatusCallbackController.SIGNATURE_HEADER,
+				sign(CALLBACK_URL, parameters, "studyToken"))).andExpect(status().isNoContent());
+		accountMockMvc.perform(callback(parameters).header(TwilioStatusCallbackController.SIGNATURE_HEADER,
+				sign(CALLBACK_URL, parameters))).andExpect(status().isForbidden());
+
+		assertEquals(1, events.size(), "Only the callback signed with the account's auth token should be accepted");
+	}
+
+	private static MockHttpServletRequestBuilder callback(Map<String, String> parameters) {
+		var body = new StringBuilder();
+		parameters.forEach((key, value) -> body.append(body.isEmpty() ? "" : "&").append(key).append('=')
+				.append(URLEncoder.encode(value, StandardCharsets.UTF_8)));
+		return post("/twilio/status").contentType(MediaType.APPLICATION_FORM_URLENCODED).content(body.toString());
+	}
+
+	/**
+	 * Signs a callback the way Twilio does: HMAC-SHA1 of the URL followed by each parameter name and value in name
+	 * order, keyed with the auth token.
+	 */
+	private static String sign(String url, Map<String, String> parameters) throws Exception {
+		return sign(url, parameters, AUTH_TOKEN);
+	}
+
+	private static String sign(String url, Map<String, String> parameters, String authToken) throws Exception {
+		var data = new StringBuilder(url);
+		new TreeMap<>(parameters).forEach((key, value) -> data.append(key).append(value));
+		var mac = Mac.getInstance("HmacSHA1");
+		mac.init(new SecretKeySpec(authToken.getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+		return Base64.getEncoder().encodeToString(mac.doFinal(data.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
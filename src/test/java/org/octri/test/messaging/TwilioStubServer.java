@@ -0,0 +1,412 @@
+package org.octri.test.messaging;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local stand-in for the Twilio Messages API, for load testing applications without sending real messages. The server
+ * implements the create and fetch message endpoints and answers with the JSON shape of
+ * <code>twilio-examples/queued.json</code>. Point a {@link org.octri.messaging.sms.TwilioHelper} at
+ * {@link #getBaseUrl()} with the <code>apiBaseUrl</code> constructor argument, or the
+ * <code>octri.messaging.twilio.api-base-url</code> property.
+ *
+ * The server can be made to behave like a busy provider:
+ * <ul>
+ * <li>{@link #setLatency(Duration)} delays every response</li>
+ * <li>{@link #setErrorRate(double)} answers a fraction of requests with a 500 error</li>
+ * <li>{@link #setMaxRequestsPerSecond(int)} answers requests over the limit with a 429 error</li>
+ * <li>Messages created with a status callback URL are moved to {@link #setCallbackStatus(String) the callback status}
+ * after {@link #setCallbackDelay(Duration) a delay}, and a signed status callback is posted to the URL</li>
+ * </ul>
+ */
+public class TwilioStubServer implements AutoCloseable {
+
+	private static final Pattern MESSAGES_PATH = Pattern
+			.compile("/2010-04-01/Accounts/(?<account>[^/]+)/Messages(?:/(?<sid>[^/]+))?\\.json");
+	private static final DateTimeFormatter RFC_2822 = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss Z",
+			Locale.US);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String authToken;
+	private final ObjectNode template;
+	private final HttpServer server;
+	private final ExecutorService requestExecutor;
+	private final ScheduledExecutorService callbackExecutor;
+	private final HttpClient callbackClient;
+	private final Map<String, ObjectNode> messages = new ConcurrentHashMap<>();
+
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private final AtomicInteger createdCount = new AtomicInteger();
+	private final AtomicInteger errorCount = new AtomicInteger();
+	private final AtomicInteger throttledCount = new AtomicInteger();
+	private final AtomicInteger callbackCount = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+	private volatile Duration latency = Duration.ZERO;
+	private volatile double errorRate;
+	private volatile int maxRequestsPerSecond;
+	private volatile Duration callbackDelay = Duration.ZERO;
+	private volatile String callbackStatus = "delivered";
+
+	private long throttleWindow;
+	private int throttleWindowCount;
+
+	/**
+	 * Starts a server on an ephemeral port of the loopback interface.
+	 *
+	 * @param authToken
+	 *            auth token used to sign status callbacks
+	 * @throws IOException
+	 *             if the server cannot be started
+	 */
+	public TwilioStubServer(String authToken) throws IOException {
+		this.authToken = authToken;
+		this.template = (ObjectNode) objectMapper.readTree(TwilioTestUtils.getJsonStream("queued.json"));
+		this.requestExecutor = Executors.newCachedThreadPool();
+		this.callbackExecutor = Executors.newSingleThreadScheduledExecutor();
+		this.callbackClient = HttpClient.newBuilder().executor(requestExecutor).build();
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.setExecutor(requestExecutor);
+		server.start();
+	}
+
+	/**
+	 * Gets the base URL of the server, e.g. <code>http://127.0.0.1:54321</code>.
+	 *
+	 * @return the base URL
+	 */
+	public String getBaseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Sets how long to wait before answering each request. Defaults to no delay.
+	 *
+	 * @param latency
+	 *            delay added to every response
+	 */
+	public void setLatency(Duration latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Sets the fraction of requests answered with a 500 error, between 0 and 1. Defaults to 0. Note that the Twilio SDK
+	 * retries 5xx responses, so a failed send may be seen as several requests.
+	 *
+	 * @param errorRate
+	 *            fraction of requests that fail
+	 */
+	public void setErrorRate(double errorRate) {
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * Sets the number of requests accepted in each second. Further requests in the same second are answered with a 429
+	 * error. Defaults to 0, which means no limit.
+	 *
+	 * @param maxRequestsPerSecond
+	 *            requests accepted per second, or 0 for no limit
+	 */
+	public void setMaxRequestsPerSecond(int maxRequestsPerSecond) {
+		this.maxRequestsPerSecond = maxRequestsPerSecond;
+	}
+
+	/**
+	 * Sets how long after a message is created its status changes and the status callback is posted. Defaults to no
+	 * delay.
+	 *
+	 * @param callbackDelay
+	 *            delay before the status callback
+	 */
+	public void setCallbackDelay(Duration callbackDelay) {
+		this.callbackDelay = callbackDelay;
+	}
+
+	/**
+	 * Sets the status that messages are moved to, and that is reported in status callbacks. Defaults to
+	 * <code>delivered</code>.
+	 *
+	 * @param callbackStatus
+	 *            Twilio message status, e.g. undelivered
+	 */
+	public void setCallbackStatus(String callbackStatus) {
+		this.callbackStatus = callbackStatus;
+	}
+
+	/**
+	 * Gets the number of requests received, including failed and throttled requests.
+	 *
+	 * @return the request count
+	 */
+	public int getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * Gets the number of messages created.
+	 *
+	 * @return the created message count
+	 */
+	public int getCreatedCount() {
+		return createdCount.get();
+	}
+
+	/**
+	 * Gets the number of requests answered with a 500 error.
+	 *
+	 * @return the error count
+	 */
+	public int getErrorCount() {
+		return errorCount.get();
+	}
+
+	/**
+	 * Gets the number of requests answered with a 429 error.
+	 *
+	 * @return the throttled request count
+	 */
+	public int getThrottledCount() {
+		return throttledCount.get();
+	}
+
+	/**
+	 * Gets the number of status callbacks posted successfully.
+	 *
+	 * @return the callback count
+	 */
+	public int getCallbackCount() {
+		return callbackCount.get();
+	}
+
+	/**
+	 * Gets the largest number of requests handled at the same time.
+	 *
+	 * @return the peak number of concurrent requests
+	 */
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests.get();
+	}
+
+	/**
+	 * Stops the server and cancels status callbacks that have not been posted.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		callbackExecutor.shutdownNow();
+		requestExecutor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requestCount.incrementAndGet();
+		maxConcurrentRequests.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try (exchange) {
+			if (!latency.isZero()) {
+				Thread.sleep(latency.toMillis());
+			}
+
+			var matcher = MESSAGES_PATH.matcher(exchange.getRequestURI().getRawPath());
+			if (!matcher.matches()) {
+				sendError(exchange, 404, 20404, "The requested resource was not found");
+			} else if (!acquire()) {
+				throttledCount.incrementAndGet();
+				sendError(exchange, 429, 20429, "Too Many Requests");
+			} else if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+				errorCount.incrementAndGet();
+				sendError(exchange, 500, 20500, "Internal Server Error");
+			} else if (matcher.group("sid") == null && "POST".equals(exchange.getRequestMethod())) {
+				create(exchange, matcher.group("account"));
+			} else if (matcher.group("sid") != null && "GET".equals(exchange.getRequestMethod())) {
+				fetch(exchange, matcher.group("sid"));
+			} else {
+				sendError(exchange, 405, 20004, "Method not allowed");
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+		}
+	}
+
+	private void create(HttpExchange exchange, String accountSid) throws IOException {
+		var parameters = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+		var sid = "SM" + randomHex();
+		var uri = "/2010-04-01/Accounts/" + accountSid + "/Messages/" + sid;
+		var now = RFC_2822.format(ZonedDateTime.now());
+
+		var message = template.deepCopy();
+		message.put("account_sid", accountSid);
+		message.put("sid", sid);
+		message.put("to", parameters.get("To"));
+		message.put("from", parameters.get("From"));
+		message.put("body", parameters.get("Body"));
+		message.put("messaging_service_sid", parameters.get("MessagingServiceSid"));
+		message.put("date_created", now);
+		message.put("date_sent", now);
+		message.put("date_updated", now);
+		message.put("uri", uri + ".json");
+		message.putObject("subresource_uris").put("media", uri + "/Media.json");
+		message.remove("tags");
+		messages.put(sid, message);
+		createdCount.incrementAndGet();
+
+		var statusCallback = parameters.get("StatusCallback");
+		if (statusCallback != null) {
+			callbackExecutor.schedule(() -> complete(message, statusCallback), callbackDelay.toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+		synchronized (message) {
+			send(exchange, 201, message);
+		}
+	}
+
+	private void fetch(HttpExchange exchange, String sid) throws IOException {
+		var message = messages.get(sid);
+		if (message == null) {
+			sendError(exchange, 404, 20404, "The requested resource " + exchange.getRequestURI().getPath()
+					+ " was not found");
+			return;
+		}
+		synchronized (message) {
+			send(exchange, 200, message);
+		}
+	}
+
+	/**
+	 * Moves a message to the callback status and posts the status callback.
+	 */
+	private void complete(ObjectNode message, String statusCallback) {
+		Map<String, String> parameters = new LinkedHashMap<>();
+		synchronized (message) {
+			message.put("status", callbackStatus);
+			message.put("date_updated", RFC_2822.format(ZonedDateTime.now()));
+			parameters.put("AccountSid", message.get("account_sid").asText());
+			parameters.put("MessageSid", message.get("sid").asText());
+			parameters.put("SmsSid", message.get("sid").asText());
+			parameters.put("MessageStatus", callbackStatus);
+			parameters.put("SmsStatus", callbackStatus);
+			parameters.put("To", message.path("to").asText());
+			parameters.put("From", message.path("from").asText());
+			parameters.put("ApiVersion", "2010-04-01");
+		}
+
+		var request = HttpRequest.newBuilder(URI.create(statusCallback))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.header("X-Twilio-Signature", sign(statusCallback, parameters))
+				.POST(HttpRequest.BodyPublishers.ofString(toForm(parameters)))
+				.build();
+		callbackClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenAccept(response -> {
+			if (response.statusCode() < 300) {
+				callbackCount.incrementAndGet();
+			}
+		});
+	}
+
+	private synchronized boolean acquire() {
+		var limit = maxRequestsPerSecond;
+		if (limit <= 0) {
+			return true;
+		}
+		var second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+		if (second != throttleWindow) {
+			throttleWindow = second;
+			throttleWindowCount = 0;
+		}
+		return ++throttleWindowCount <= limit;
+	}
+
+	private void sendError(HttpExchange exchange, int status, int code, String message) throws IOException {
+		var error = objectMapper.createObjectNode();
+		error.put("code", code);
+		error.put("message", message);
+		error.put("more_info", "https://www.twilio.com/docs/errors/" + code);
+		error.put("status", status);
+		send(exchange, status, error);
+	}
+
+	private void send(HttpExchange exchange, int status, ObjectNode body) throws IOException {
+		var bytes = objectMapper.writeValueAsBytes(body);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		exchange.getResponseBody().write(bytes);
+	}
+
+	/**
+	 * Computes the X-Twilio-Signature of a request: the Base64 HMAC-SHA1, keyed with the auth token, of the URL followed
+	 * by each parameter name and value in name order.
+	 */
+	private String sign(String url, Map<String, String> parameters) {
+		var data = new StringBuilder(url);
+		new TreeMap<>(parameters).forEach((key, value) -> data.append(key).append(value));
+		try {
+			var mac = Mac.getInstance("HmacSHA1");
+			mac.init(new SecretKeySpec(authToken.getBytes(StandardCharsets.UTF_8), "HmacSHA1"));
+			return Base64.getEncoder().encodeToString(mac.doFinal(data.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException gse) {
+			throw new IllegalStateException(gse);
+		}
+	}
+
+	private static Map<String, String> parseForm(String form) {
+		Map<String, String> parameters = new LinkedHashMap<>();
+		for (var pair : form.split("&")) {
+			if (pair.isEmpty()) {
+				continue;
+			}
+			var separator = pair.indexOf('=');
+			var name = separator < 0 ? pair : pair.substring(0, separator);
+			var value = separator < 0 ? "" : pair.substring(separator + 1);
+			parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+					URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return parameters;
+	}
+
+	private static String toForm(Map<String, String> parameters) {
+		return parameters.entrySet().stream()
+				.map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+						+ URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+				.collect(Collectors.joining("&"));
+	}
+
+	private static String randomHex() {
+		var random = ThreadLocalRandom.current();
+		return String.format("%016x%016x", random.nextLong(), random.nextLong());
+	}
+
+}
@@ -34,6 +34,10 @@ public class TwilioTestUtils {
 		return Message.fromJson(getJsonStream("undelivered.json"), objectMapper);
 	}
 
+	public static Message getCanceledMessage() throws IOException {
+		return Message.fromJson(getJsonStream("canceled.json"), objectMapper);
+	}
+
 	public static InputStream getJsonStream(String filename) throws IOException {
 		return new ClassPathResource("twilio-examples/" + filename).getInputStream();
 	}